@@ -4,10 +4,12 @@ import org.zenith.models.Category;
 import org.zenith.models.SubItem;
 import org.zenith.models.TodoItem;
 import org.zenith.model.interfaces.IModel;
+import org.zenith.util.EntityManager;
 import org.zenith.util.Logger;
 import org.zenith.util.SQLGenerator;
 import org.zenith.util.SQLiteDatabase;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -46,28 +48,18 @@ public class Main {
                 db.executeQueryWithoutResult(createTableQuery);
             }
 
-            Logger.info("=== Inserting todo items ===");
-            for (TodoItem todoItem : todoItems) {
-                List<String> queries = SQLGenerator.generateInsert(todoItem);
-                for (String query : queries) {
-                    db.executeQueryWithoutResult(query);
-                }
-            }
+            EntityManager entityManager = new EntityManager(db);
+            List<IModel> items = new ArrayList<>(todoItems);
+            items.addAll(subItems);
 
-            Logger.info("=== Inserting sub items ===");
-            for (SubItem subItem : subItems) {
-                List<String> queries = SQLGenerator.generateInsert(subItem);
-                for (String query : queries) {
-                    db.executeQueryWithoutResult(query);
-                }
+            Logger.info("=== Inserting todo items and sub items ===");
+            if (!entityManager.saveAll(items)) {
+                Logger.error("Could not insert the todo items and sub items");
             }
 
-            Logger.info("Inserting categories");
-            for (Category category : categories) {
-                List<String> queries = SQLGenerator.generateInsert(category);
-                for (String query : queries) {
-                    db.executeQueryWithoutResult(query);
-                }
+            Logger.info("=== Inserting categories ===");
+            if (!entityManager.saveAll(categories)) {
+                Logger.error("Could not insert the categories");
             }
 
             Logger.info("=== Finished setting up application ===");
@@ -96,6 +96,11 @@ public class DetailController extends BaseController {
                     todoItem.expiresAt = Date.from(expiresAtDatepicker.getValue().atStartOfDay(ZoneId.systemDefault()).toInstant());
                 }
 
+                if (!todoService.hasChanges(todoItem)) {
+                    super.showAlert(Alert.AlertType.INFORMATION, "Unchanged", "The todo has no changes to save");
+                    return;
+                }
+
                 // TODO: Add update subitems support
                 todoService.updateTodo(todoItem);
                 super.showAlert(Alert.AlertType.INFORMATION, "Updated", "Successfully updated the todo");
@@ -37,7 +37,7 @@ public class HomeController extends BaseController {
 
         remainingTasksLbl.textProperty().bind(
                 Bindings.format("Remaining Tasks: %d",
-                        TodoService.getInstance().todosSizeProperty())
+                        TodoService.getInstance().remainingTodosProperty())
         );
 
         todoListView.setItems(todoService.getTodos());
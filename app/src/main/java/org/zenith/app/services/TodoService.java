@@ -1,7 +1,9 @@
 package org.zenith.app.services;
 
 import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.LongProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
@@ -11,6 +13,7 @@ import org.zenith.util.EntityManager;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 
 public class TodoService {
     private static TodoService instance;
@@ -18,13 +21,18 @@ public class TodoService {
     private EntityManager entityManager;
 
     private IntegerProperty todosSizeProperty;
+    private LongProperty remainingTodosProperty;
 
     private TodoService() {
         this.entityManager = new EntityManager();
         this.todos = FXCollections.observableArrayList();
 
         this.todosSizeProperty = new SimpleIntegerProperty(todos.size());
-        this.todos.addListener((ListChangeListener<? super TodoItem>) observable -> todosSizeProperty.set(todos.size()));
+        this.remainingTodosProperty = new SimpleLongProperty();
+        this.todos.addListener((ListChangeListener<? super TodoItem>) observable -> {
+            todosSizeProperty.set(todos.size());
+            refreshRemainingTodos();
+        });
     }
 
     public static TodoService getInstance() {
@@ -52,12 +60,45 @@ public class TodoService {
         return todosSizeProperty;
     }
 
+    public LongProperty remainingTodosProperty() {
+        return remainingTodosProperty;
+    }
+
+    /**
+     * Counts the todos which are not completed yet in the database, without loading them
+     */
+    public void refreshRemainingTodos() {
+        remainingTodosProperty.set(entityManager.count(TodoItem.class, Map.of("isCompleted", false)));
+    }
+
     public void addTodo(TodoItem todoItem) throws SQLException, NoSuchFieldException, IllegalAccessException {
-        entityManager.save(todoItem);
-        loadTodos();
+        if (!entityManager.save(todoItem)) {
+            throw new SQLException("Could not save the todo item");
+        }
+
+        // The generated id has been written back, so the sub items can refer to the todo item without reloading it
+        if (todoItem.subItems != null && !todoItem.subItems.isEmpty()) {
+            for (SubItem subItem : todoItem.subItems) {
+                subItem.todoItem = todoItem;
+            }
+
+            // The sub items are saved in a transaction of their own, so the todo item is deleted again when it fails
+            if (!entityManager.saveAll(todoItem.subItems)) {
+                entityManager.delete(todoItem);
+                todoItem.id = 0;
+                throw new SQLException("Could not save the sub items of the todo item");
+            }
+        }
+
+        todos.add(todoItem);
     }
 
     public SubItem addSubItem(TodoItem todoItem, String title) {
+        // Loaded before the save, a lazy list loaded afterwards would already hold the new sub item
+        if (!entityManager.initialize(todoItem, "subItems")) {
+            return null;
+        }
+
         SubItem subItem = new SubItem();
         subItem.title = title;
         subItem.todoItem = todoItem;
@@ -83,7 +124,15 @@ public class TodoService {
         return isDeleted;
     }
 
+    public boolean hasChanges(TodoItem todoItem) {
+        return entityManager.isDirty(todoItem);
+    }
+
     public void updateTodo(TodoItem todoItem) throws SQLException, NoSuchFieldException, IllegalAccessException {
-         entityManager.update(todoItem);
+        if (!entityManager.update(todoItem)) {
+            throw new SQLException("Could not update the todo item");
+        }
+
+        refreshRemainingTodos();
     }
 }
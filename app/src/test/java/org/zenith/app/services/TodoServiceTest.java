@@ -0,0 +1,50 @@
+package org.zenith.app.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zenith.model.interfaces.IModel;
+import org.zenith.models.Category;
+import org.zenith.models.SubItem;
+import org.zenith.models.TodoItem;
+import org.zenith.util.EntityManager;
+import org.zenith.util.SQLGenerator;
+import org.zenith.util.SQLiteDatabase;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoServiceTest {
+    private SQLiteDatabase db;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        db = SQLiteDatabase.getInstance();
+        db.reinitializeConnection();
+
+        List<Class<? extends IModel>> models = List.of(TodoItem.class, SubItem.class, Category.class);
+
+        for (String query : SQLGenerator.generateCreateTable(models)) {
+            db.executeQueryWithoutResult(query);
+        }
+    }
+
+    @Test
+    void shouldAddASubItemToATodoWhoseSubItemsWereNotLoaded() {
+        EntityManager entityManager = new EntityManager(db);
+        TodoItem todoItem = new TodoItem(0, "Description", "Todo", false, new Date());
+        assertTrue(entityManager.save(todoItem));
+        assertTrue(entityManager.save(new SubItem(0, "Existing", todoItem)));
+
+        TodoService service = TodoService.getInstance();
+        service.loadTodos();
+        TodoItem loaded = service.getTodos().getFirst();
+
+        SubItem subItem = service.addSubItem(loaded, "Added");
+
+        assertNotNull(subItem);
+        assertEquals(List.of("Existing", "Added"), loaded.subItems.stream().map(item -> item.title).toList());
+    }
+}
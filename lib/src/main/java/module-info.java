@@ -2,8 +2,10 @@ module org.zenith.lib {
     requires org.xerial.sqlitejdbc;
 
     exports org.zenith.util;
+    exports org.zenith.util.mapper;
+    exports org.zenith.util.converter;
     exports org.zenith.annotation;
     exports org.zenith.model.interfaces;
     exports org.zenith.enumeration;
     exports org.zenith.annotation.relation;
-}
\ No newline at end of file
+}
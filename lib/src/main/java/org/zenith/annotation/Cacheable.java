@@ -0,0 +1,37 @@
+package org.zenith.annotation;
+
+import org.zenith.enumeration.EvictionPolicy;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation used to keep the rows of an entity in the second-level cache, which is shared by all entity managers.
+ * Meant for read-heavy reference tables, an entity loaded by id is then read from memory instead of the database.
+ * Saving, updating or deleting the entity through an entity manager removes its row from the cache.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cacheable {
+    /**
+     * The maximum number of cached rows
+     */
+    int maxEntries() default 10_000;
+
+    /**
+     * The maximum approximate size of the cached rows in bytes, or 0 for no limit
+     */
+    long maxBytes() default 0;
+
+    /**
+     * The number of seconds after which a cached row is read from the database again, or 0 to keep it until it is evicted
+     */
+    long expireAfterSeconds() default 0;
+
+    /**
+     * Which row is evicted when the cache is full
+     */
+    EvictionPolicy eviction() default EvictionPolicy.TINY_LFU;
+}
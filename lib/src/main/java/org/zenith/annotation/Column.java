@@ -1,6 +1,7 @@
 package org.zenith.annotation;
 
 import org.zenith.enumeration.ColumnType;
+import org.zenith.enumeration.EnumStorage;
 
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -15,4 +16,9 @@ import java.lang.annotation.Target;
 public @interface Column {
     ColumnType type() default ColumnType.VARCHAR;
     int size() default 64;
+
+    /**
+     * How the constants of an {@link ColumnType#ENUM} column are stored, ignored for other column types
+     */
+    EnumStorage enumStorage() default EnumStorage.ORDINAL;
 }
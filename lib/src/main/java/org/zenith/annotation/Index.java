@@ -0,0 +1,41 @@
+package org.zenith.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation used to create an index on the table of an entity.
+ * On a field the index covers the column of that field, on an entity class it covers the columns of {@link #fields()}
+ * in the given order. The columns of {@code @ManyToOne} and {@code @OneToOne} fields are indexed automatically.
+ */
+@Target({ ElementType.FIELD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(Index.List.class)
+public @interface Index {
+    /**
+     * The name of the index, by default the table name followed by the column names and {@code idx}
+     */
+    String name() default "";
+
+    /**
+     * The Java names of the indexed fields, only used on an entity class
+     */
+    String[] fields() default {};
+
+    /**
+     * The condition of a partial index, e.g. {@code isCompleted = 0}. Only the rows matching it are indexed
+     */
+    String where() default "";
+
+    /**
+     * Holds the repeated {@link Index} annotations of a field or an entity class
+     */
+    @Target({ ElementType.FIELD, ElementType.TYPE })
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface List {
+        Index[] value();
+    }
+}
@@ -0,0 +1,42 @@
+package org.zenith.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * An annotation used to create a unique index on the table of an entity, which also makes the columns usable as the
+ * conflict target of an upsert.
+ * On a field the index covers the column of that field, on an entity class it covers the columns of {@link #fields()}
+ * in the given order.
+ */
+@Target({ ElementType.FIELD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(Unique.List.class)
+public @interface Unique {
+    /**
+     * The name of the index, by default the table name followed by the column names and {@code key}
+     */
+    String name() default "";
+
+    /**
+     * The Java names of the fields which are unique together, only used on an entity class
+     */
+    String[] fields() default {};
+
+    /**
+     * The condition of a partial index, e.g. {@code isCompleted = 0}. Uniqueness is only enforced among the rows matching it
+     */
+    String where() default "";
+
+    /**
+     * Holds the repeated {@link Unique} annotations of a field or an entity class
+     */
+    @Target({ ElementType.FIELD, ElementType.TYPE })
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface List {
+        Unique[] value();
+    }
+}
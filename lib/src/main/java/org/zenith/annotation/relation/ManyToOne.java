@@ -1,5 +1,7 @@
 package org.zenith.annotation.relation;
 
+import org.zenith.enumeration.FetchType;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -9,4 +11,9 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 public @interface ManyToOne {
     String columnName() default "";
+
+    /**
+     * How the related entity is loaded, the related entity itself is loaded without its relations
+     */
+    FetchType fetch() default FetchType.JOIN;
 }
@@ -1,5 +1,7 @@
 package org.zenith.annotation.relation;
 
+import org.zenith.enumeration.FetchType;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -8,4 +10,9 @@ import java.lang.annotation.Target;
 @Target(ElementType.FIELD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface OneToMany {
+    /**
+     * How the children are loaded, either together with the parents ({@link FetchType#SELECT}) or on the first access
+     * of the list ({@link FetchType#LAZY}). The children are never joined, as that would repeat the parent for every child
+     */
+    FetchType fetch() default FetchType.SELECT;
 }
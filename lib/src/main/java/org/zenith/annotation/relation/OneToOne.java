@@ -1,5 +1,7 @@
 package org.zenith.annotation.relation;
 
+import org.zenith.enumeration.FetchType;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -7,4 +9,9 @@ import java.lang.annotation.Target;
 
 @Target(ElementType.FIELD)
 @Retention(RetentionPolicy.RUNTIME)
-public @interface OneToOne { }
+public @interface OneToOne {
+    /**
+     * How the related entity is loaded, the related entity itself is loaded without its relations
+     */
+    FetchType fetch() default FetchType.JOIN;
+}
@@ -5,5 +5,13 @@ public enum ColumnType {
     TEXT,
     BOOLEAN,
     INTEGER,
-    DATETIME;
+    DATETIME,
+    LONG,
+    DOUBLE,
+    REAL,
+    BLOB,
+    /**
+     * An enum constant, stored as its ordinal or its code depending on {@link org.zenith.annotation.Column#enumStorage()}
+     */
+    ENUM;
 }
@@ -0,0 +1,16 @@
+package org.zenith.enumeration;
+
+/**
+ * How the constants of an {@link ColumnType#ENUM} column are stored
+ */
+public enum EnumStorage {
+    /**
+     * The ordinal of the constant, stored as INTEGER
+     */
+    ORDINAL,
+    /**
+     * The code of the constant, stored as TEXT. The code is {@link org.zenith.model.interfaces.ICodedEnum#getCode()}
+     * when the enum implements it, otherwise the name of the constant
+     */
+    CODE;
+}
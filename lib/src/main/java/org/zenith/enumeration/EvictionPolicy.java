@@ -0,0 +1,16 @@
+package org.zenith.enumeration;
+
+/**
+ * Which entry a bounded cache removes when it is full
+ */
+public enum EvictionPolicy {
+    /**
+     * The least recently used entry is evicted to make room for every new entry
+     */
+    LRU,
+    /**
+     * A new entry only replaces the least recently used entry when it was requested more often, estimated with a
+     * frequency sketch, so a single pass over many rows does not flush the entries which are read over and over
+     */
+    TINY_LFU;
+}
@@ -0,0 +1,22 @@
+package org.zenith.enumeration;
+
+/**
+ * How the related entity of a {@code @ManyToOne} or {@code @OneToOne} field, or the children of a {@code @OneToMany}
+ * field, are loaded together with the entity
+ */
+public enum FetchType {
+    /**
+     * The related row is read in the same query through a {@code LEFT JOIN}
+     */
+    JOIN,
+    /**
+     * The related rows of all entities of a result set are read afterwards with a single {@code WHERE id IN (...)} query,
+     * or {@code WHERE <parent>_id IN (...)} for children
+     */
+    SELECT,
+    /**
+     * The related entity is not read, the field holds a reference with only its id set. The children are read on the
+     * first access of their list, together with the children of the other entities of the same result set
+     */
+    LAZY;
+}
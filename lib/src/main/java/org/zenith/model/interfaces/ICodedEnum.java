@@ -0,0 +1,12 @@
+package org.zenith.model.interfaces;
+
+/**
+ * Implemented by enums stored with {@link org.zenith.enumeration.EnumStorage#CODE}, to store a short code which stays
+ * stable when constants are renamed or reordered.
+ */
+public interface ICodedEnum {
+    /**
+     * @return The code stored in the database, unique within the enum
+     */
+    String getCode();
+}
@@ -0,0 +1,279 @@
+package org.zenith.util;
+
+import org.zenith.annotation.Cacheable;
+import org.zenith.enumeration.EvictionPolicy;
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.collection.FrequencySketch;
+import org.zenith.util.metadata.EntityMetadata;
+import org.zenith.util.metadata.FieldMetadata;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The second-level cache of a {@link Cacheable} entity, shared by all entity managers.
+ * <p>
+ * A row is cached as the column values of the entity, with the ids of its {@code @ManyToOne} and {@code @OneToOne}
+ * relations, and every read builds a new instance from them, so the sessions never share an instance. The relations of
+ * that instance hold references with only the id set, which the caller loads like the relations of a row read from the
+ * database. Dates and byte arrays are copied, other values are expected to be immutable.
+ * <p>
+ * The cache is bounded by its number of rows and optionally by their approximate size in bytes. When it is full the
+ * least recently used row is evicted, with {@link EvictionPolicy#TINY_LFU} only when the new row was requested more
+ * often than that row. Rows expire after the configured time, and are removed by the entity manager when it writes them.
+ * Rows written by other means, e.g. plain SQL, are not noticed.
+ */
+public final class EntityCache {
+    // Entities which are not cached map to an empty Optional, so the annotation is looked up once
+    private static final Map<Class<?>, Optional<EntityCache>> CACHES = new ConcurrentHashMap<>();
+    private static final long ENTRY_OVERHEAD = 96;
+
+    private final EntityMetadata<IModel> metadata;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long expireAfterNanos;
+    private final FrequencySketch sketch;
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long rejections;
+    private long expirations;
+
+    private record Entry(Object[] values, long bytes, long expiresAt) { }
+
+    /**
+     * The counters of a cache since it was created or cleared
+     *
+     * @param hits The number of reads which found a row
+     * @param misses The number of reads which did not find a row, including expired rows
+     * @param evictions The number of rows removed to stay within the bounds
+     * @param rejections The number of rows not admitted because they were requested less often than the row they would evict
+     * @param expirations The number of rows removed because they expired
+     * @param size The number of cached rows
+     * @param bytes The approximate size of the cached rows in bytes
+     */
+    public record Statistics(long hits, long misses, long evictions, long rejections, long expirations, int size, long bytes) {
+        /**
+         * @return The fraction of reads which found a row, or 0 if there were no reads
+         */
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private EntityCache(Class<? extends IModel> modelClass, Cacheable cacheable) {
+        if (cacheable.maxEntries() <= 0 || cacheable.maxBytes() < 0 || cacheable.expireAfterSeconds() < 0) {
+            throw new IllegalArgumentException(String.format("The @Cacheable bounds of %s must be positive", modelClass.getSimpleName()));
+        }
+
+        this.metadata = (EntityMetadata<IModel>) EntityMetadata.of(modelClass);
+        this.maxEntries = cacheable.maxEntries();
+        this.maxBytes = cacheable.maxBytes();
+        this.expireAfterNanos = TimeUnit.SECONDS.toNanos(cacheable.expireAfterSeconds());
+        this.sketch = cacheable.eviction() == EvictionPolicy.TINY_LFU ? new FrequencySketch(cacheable.maxEntries()) : null;
+    }
+
+    /**
+     * Returns the cache of the entity, created on its first use
+     *
+     * @param modelClass The class of the model
+     * @return The cache, or {@code null} if the entity is not {@link Cacheable} or has no {@code @Id} field
+     * @throws IllegalArgumentException If the bounds of the {@link Cacheable} annotation are invalid
+     */
+    public static EntityCache of(Class<? extends IModel> modelClass) {
+        return CACHES.computeIfAbsent(modelClass, ignored -> {
+            Cacheable cacheable = modelClass.getAnnotation(Cacheable.class);
+
+            if (cacheable == null || EntityMetadata.of(modelClass).getIdField() == null)
+                return Optional.empty();
+
+            return Optional.of(new EntityCache(modelClass, cacheable));
+        }).orElse(null);
+    }
+
+    /**
+     * Empties the caches of all entities
+     */
+    public static void clearAll() {
+        CACHES.values().forEach(cache -> cache.ifPresent(EntityCache::clear));
+    }
+
+    /**
+     * Builds a new instance of the entity from its cached row
+     *
+     * @param id The id of the entity
+     * @return The entity with its columns set and references as its relations, or {@code null} if the row is not cached
+     * @throws IllegalAccessException If a field of the model cannot be accessed
+     * @throws InstantiationException If the model class cannot be instantiated
+     * @throws NoSuchMethodException If the no-argument constructor of the model class is not found
+     * @throws InvocationTargetException If there is an exception thrown by the constructor
+     */
+    public IModel read(long id) throws IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException {
+        Object[] values = get(id);
+
+        if (values == null)
+            return null;
+
+        IModel model = metadata.newInstance();
+        List<FieldMetadata> columns = metadata.getColumns();
+
+        for (int i = 0; i < values.length; i++) {
+            FieldMetadata column = columns.get(i);
+
+            if (column.isForeignKey()) {
+                column.getAccessor().set(model, values[i] != null ? reference(column, ((Number) values[i]).longValue()) : null);
+            } else {
+                column.getAccessor().set(model, copy(values[i]));
+            }
+        }
+
+        return model;
+    }
+
+    /**
+     * Caches the current column values of the entity, e.g. after its row was read
+     *
+     * @param model The entity
+     */
+    public void write(IModel model) {
+        Object[] values = metadata.getColumnValues(model);
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = copy(values[i]);
+        }
+
+        put(metadata.getIdField().getAccessor().getAsLong(model), values);
+    }
+
+    /**
+     * Removes the row of the entity, e.g. because it was written
+     *
+     * @param id The id of the entity
+     */
+    public synchronized void invalidate(long id) {
+        Entry entry = entries.remove(id);
+
+        if (entry != null) {
+            bytes -= entry.bytes();
+        }
+    }
+
+    /**
+     * Removes every row and resets the statistics
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = hits = misses = evictions = rejections = expirations = 0;
+    }
+
+    public synchronized Statistics getStatistics() {
+        return new Statistics(hits, misses, evictions, rejections, expirations, entries.size(), bytes);
+    }
+
+    private synchronized Object[] get(long id) {
+        if (sketch != null) {
+            sketch.increment(id);
+        }
+
+        Entry entry = entries.get(id);
+
+        if (entry != null && entry.expiresAt() != 0 && System.nanoTime() - entry.expiresAt() > 0) {
+            invalidate(id);
+            expirations++;
+            entry = null;
+        }
+
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        return entry.values();
+    }
+
+    private synchronized void put(long id, Object[] values) {
+        long size = estimateSize(values);
+
+        if (maxBytes > 0 && size > maxBytes)
+            return;
+
+        Entry previous = entries.remove(id);
+
+        if (previous != null) {
+            bytes -= previous.bytes();
+        } else if (sketch != null && isFull(size) && !entries.isEmpty()) {
+            // TinyLFU admission, the row only replaces the least recently used row when it is requested more often
+            long victim = entries.keySet().iterator().next();
+
+            if (sketch.frequency(id) <= sketch.frequency(victim)) {
+                rejections++;
+                return;
+            }
+        }
+
+        entries.put(id, new Entry(values, size, expireAfterNanos > 0 ? System.nanoTime() + expireAfterNanos : 0));
+        bytes += size;
+
+        Iterator<Entry> eldest = entries.values().iterator();
+
+        while (entries.size() > maxEntries || (maxBytes > 0 && bytes > maxBytes)) {
+            bytes -= eldest.next().bytes();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private boolean isFull(long size) {
+        return entries.size() >= maxEntries || (maxBytes > 0 && bytes + size > maxBytes);
+    }
+
+    private static IModel reference(FieldMetadata column, long id)
+            throws IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException {
+
+        EntityMetadata<? extends IModel> related = EntityMetadata.of(column.getRelatedType().asSubclass(IModel.class));
+        IModel reference = related.newInstance();
+        related.getIdField().getAccessor().setAsLong(reference, id);
+
+        return reference;
+    }
+
+    private static Object copy(Object value) {
+        return switch (value) {
+            case Date date -> date.clone();
+            case byte[] array -> array.clone();
+            case null, default -> value;
+        };
+    }
+
+    /**
+     * Approximates the heap size of a cached row, i.e. the entry, the array and the values, assuming compressed references
+     */
+    private static long estimateSize(Object[] values) {
+        long size = ENTRY_OVERHEAD + 16 + 4L * values.length;
+
+        for (Object value : values) {
+            size += switch (value) {
+                case null -> 0;
+                case String string -> 40 + string.length();
+                case byte[] array -> 16 + array.length;
+                case Date ignored -> 24;
+                default -> 16;
+            };
+        }
+
+        return size;
+    }
+}
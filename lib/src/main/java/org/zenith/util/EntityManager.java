@@ -1,16 +1,39 @@
 package org.zenith.util;
 
+import org.zenith.enumeration.FetchType;
 import org.zenith.model.interfaces.IModel;
+import org.zenith.util.collection.LazyList;
+import org.zenith.util.mapper.RecordMapper;
+import org.zenith.util.mapper.RowMappingPlan;
+import org.zenith.util.metadata.EntityMetadata;
+import org.zenith.util.metadata.FieldMetadata;
+import org.zenith.util.strategies.reflection.BatchFieldMappingStrategy;
+import org.zenith.util.strategies.reflection.OneToManyFieldMappingStrategy;
 
 import java.lang.reflect.InvocationTargetException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Saves, loads and deletes entities through the {@link SQLiteDatabase}.
+ * <p>
+ * Every entity manager keeps an identity map of the entities it loaded or saved and the snapshots of their columns.
+ * Both hold the entities weakly, so a long-lived entity manager, e.g. one per application, only keeps the entities its
+ * callers still reference. {@link #clear()} detaches all of them at once, e.g. at the end of a unit of work.
+ * The entity manager is not thread-safe.
+ */
 public class EntityManager {
+    private static final int BATCH_SIZE = 1000;
+
     private final SQLiteDatabase db;
+    private final EntitySnapshots snapshots = new EntitySnapshots();
+    private final IdentityMap identities = new IdentityMap();
 
     public EntityManager() {
         this(SQLiteDatabase.getInstance());
@@ -20,9 +43,23 @@ public class EntityManager {
         this.db = db;
     }
 
+    /**
+     * Compiles the metadata and the CRUD statements of the given model classes up front,
+     * instead of on their first use
+     *
+     * @param modelClasses The model classes to register
+     */
+    @SafeVarargs
+    public final void register(Class<? extends IModel>... modelClasses) {
+        for (Class<? extends IModel> modelClass : modelClasses) {
+            EntityStatements.of(modelClass);
+        }
+    }
+
     /**
      * Saves a model object in the database
-     * This method generates an INSERT SQL query based on the provided model and executes is
+     * This method generates an INSERT SQL query based on the provided model and executes is.
+     * The row returned by the database, including the generated id and the column defaults, is written back to the model
      *
      * @param model The model object to be saved
      * @return true if the operation was successful, false otherwise
@@ -32,23 +69,333 @@ public class EntityManager {
      */
     public boolean save(IModel model) {
         try {
-            List<String> insertQueries = SQLGenerator.generateInsert(model);
-            for (String query : insertQueries) {
-                if (!db.executeQueryWithoutResult(query)) {
-                    return false;
-                }
+            if (!executeAndReadBack(EntityStatements.of(model).insert(model), model))
+                return false;
+
+            track(model);
+            identify(model);
+            invalidate(model);
+            return true;
+        } catch (SQLException | IllegalArgumentException | IllegalAccessException | NoSuchMethodException | InvocationTargetException | NoSuchFieldException ex) {
+            Logger.error(ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Saves a collection of model objects in the database in a single transaction.
+     * The models are grouped per entity, in the order in which the entities first appear, and every group is inserted
+     * through one prepared statement in JDBC batches. The ids generated by the database are written back to the models,
+     * so a group can refer to the models of an earlier group, e.g. sub items listed after their todo item.
+     * <p>
+     * Generated ids are derived from {@code last_insert_rowid()}, which is valid because the connection is exclusive and
+     * SQLite assigns the rowids of a batch consecutively.
+     * The saved models are not tracked for partial updates, which would keep a snapshot of every row of a bulk load.
+     *
+     * @param models The model objects to be saved
+     * @return true if every model was saved, false otherwise, in which case nothing is saved
+     */
+    public boolean saveAll(Collection<? extends IModel> models) {
+        boolean saved = writeInTransaction(models, (group, generatedIds) ->
+                insertBatches(EntityStatements.of(group.getFirst()), group, generatedIds));
+
+        if (saved) {
+            models.forEach(this::invalidate);
+        }
+
+        return saved;
+    }
+
+    /**
+     * Writes the models of a single entity within the transaction of {@link #writeInTransaction}
+     */
+    @FunctionalInterface
+    private interface GroupWriter {
+        void write(List<IModel> group, List<IModel> generatedIds) throws SQLException, NoSuchFieldException;
+    }
+
+    /**
+     * Writes a collection of models in a single transaction, grouped per entity in the order in which the entities
+     * first appear. Unless the transaction is committed, whatever the writer throws, it is rolled back and the ids
+     * generated for the models are reset, so the shared connection never stays in the transaction
+     *
+     * @param models The models to write
+     * @param writer The writer of every group, which adds the models it gave a generated id to the list it is passed
+     * @return true if the transaction was committed, false otherwise
+     */
+    private boolean writeInTransaction(Collection<? extends IModel> models, GroupWriter writer) {
+        Map<Class<?>, List<IModel>> modelsPerEntity = new LinkedHashMap<>();
+
+        for (IModel model : models) {
+            modelsPerEntity.computeIfAbsent(model.getClass(), ignored -> new ArrayList<>()).add(model);
+        }
+
+        try {
+            db.beginTransaction();
+        } catch (SQLException ex) {
+            Logger.error(ex.getMessage());
+            return false;
+        }
+
+        List<IModel> generatedIds = new ArrayList<>();
+        boolean committed = false;
+
+        try {
+            for (List<IModel> group : modelsPerEntity.values()) {
+                writer.write(group, generatedIds);
             }
 
+            db.commit();
+            committed = true;
             return true;
-        } catch (SQLException | NoSuchFieldException | IllegalAccessException ex) {
+        } catch (SQLException | NoSuchFieldException | IllegalArgumentException ex) {
             Logger.error(ex.getMessage());
             return false;
+        } finally {
+            if (!committed) {
+                rollback(generatedIds);
+            }
+        }
+    }
+
+    /**
+     * Rolls back the current transaction and resets the ids the database generated for the models within it
+     */
+    private void rollback(List<IModel> generatedIds) {
+        try {
+            db.rollback();
+        } catch (SQLException ex) {
+            Logger.error(ex.getMessage());
+        }
+
+        for (IModel model : generatedIds) {
+            EntityStatements.of(model).setId(model, 0);
+        }
+    }
+
+    /**
+     * Inserts the models of a single entity, split into the rows with an id and the rows for which the database generates one
+     */
+    private void insertBatches(EntityStatements<IModel> statements, List<IModel> models, List<IModel> generatedIds)
+            throws SQLException {
+
+        List<IModel> withoutId = new ArrayList<>();
+        String sql = null;
+        List<List<Object>> rows = new ArrayList<>();
+
+        for (IModel model : models) {
+            if (statements.hasGeneratedId(model)) {
+                withoutId.add(model);
+                continue;
+            }
+
+            SQLQuery query = statements.batchInsert(model);
+            sql = query.sql();
+            rows.add(query.parameters());
+
+            if (rows.size() == BATCH_SIZE) {
+                db.executeBatch(sql, rows);
+                rows.clear();
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            db.executeBatch(sql, rows);
         }
+
+        insertWithGeneratedIds(statements, withoutId, generatedIds);
+    }
+
+    /**
+     * Inserts models without an id in JDBC batches, writing the ids generated by the database back to them
+     */
+    private void insertWithGeneratedIds(EntityStatements<IModel> statements, List<IModel> withoutId, List<IModel> generatedIds)
+            throws SQLException {
+
+        String sql = null;
+        List<List<Object>> rows = new ArrayList<>();
+
+        for (int start = 0; start < withoutId.size(); start += BATCH_SIZE) {
+            List<IModel> batch = withoutId.subList(start, Math.min(start + BATCH_SIZE, withoutId.size()));
+
+            for (IModel model : batch) {
+                SQLQuery query = statements.batchInsert(model);
+                sql = query.sql();
+                rows.add(query.parameters());
+            }
+
+            db.executeBatch(sql, rows);
+            rows.clear();
+
+            long id = db.getLastInsertRowId() - batch.size();
+
+            for (IModel model : batch) {
+                statements.setId(model, ++id);
+                generatedIds.add(model);
+            }
+        }
+    }
+
+    /**
+     * Inserts a model object, or updates the stored row with the same id instead.
+     * This method generates an {@code INSERT ... ON CONFLICT(id) DO UPDATE} query, so it takes a single statement
+     * without checking whether the row exists first. The returned row, including a generated id, is written back to the model
+     *
+     * @param model The model object to be inserted or updated
+     * @return true if the operation was successful, false otherwise
+     */
+    public boolean upsert(IModel model) {
+        return upsert(model, null);
+    }
+
+    /**
+     * Inserts a model object, or updates the stored row with the same value of the conflict field instead.
+     * The conflict field must have a UNIQUE constraint, the id of an updated row is kept and written back to the model
+     *
+     * @param model The model object to be inserted or updated
+     * @param conflictField The name of the field identifying an existing row, or {@code null} for the id
+     * @return true if the operation was successful, false otherwise
+     */
+    public boolean upsert(IModel model, String conflictField) {
+        try {
+            EntityStatements<IModel> statements = EntityStatements.of(model);
+
+            if (!executeAndReadBack(statements.upsert(model, conflictTarget(model.getClass(), conflictField), true), model))
+                return false;
+
+            track(model);
+            identify(model);
+            invalidate(model);
+            return true;
+        } catch (SQLException | IllegalArgumentException | IllegalAccessException | NoSuchMethodException | InvocationTargetException | NoSuchFieldException ex) {
+            Logger.error(ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Inserts or updates a collection of model objects by their id in a single transaction, see {@link #upsertAll(Collection, String)}
+     *
+     * @param models The model objects to be inserted or updated
+     * @return true if every model was saved, false otherwise, in which case nothing is saved
+     */
+    public boolean upsertAll(Collection<? extends IModel> models) {
+        return upsertAll(models, null);
+    }
+
+    /**
+     * Inserts or updates a collection of model objects in a single transaction.
+     * With the id as conflict target the models with an id are upserted in JDBC batches and the models without one are
+     * inserted like {@link #saveAll(Collection)}. With a unique column as conflict target every model is upserted
+     * through the same prepared statement, reading back the id of the inserted or updated row.
+     * The models are not tracked for partial updates, and instances loaded before for their rows are detached, so the
+     * next load reads the written rows
+     *
+     * @param models The model objects to be inserted or updated
+     * @param conflictField The name of the field identifying an existing row, or {@code null} for the id
+     * @return true if every model was saved, false otherwise, in which case nothing is saved
+     */
+    public boolean upsertAll(Collection<? extends IModel> models, String conflictField) {
+        boolean saved = writeInTransaction(models, (group, generatedIds) -> {
+            EntityStatements<IModel> statements = EntityStatements.of(group.getFirst());
+            FieldMetadata target = conflictTarget(group.getFirst().getClass(), conflictField);
+
+            if (target.isId()) {
+                upsertBatches(statements, target, group, generatedIds);
+            } else {
+                upsertEach(statements, target, group, generatedIds);
+            }
+        });
+
+        if (saved) {
+            models.forEach(this::detach);
+            models.forEach(this::invalidate);
+        }
+
+        return saved;
+    }
+
+    /**
+     * Upserts the models with an id in JDBC batches and inserts the others with a generated id
+     */
+    private void upsertBatches(EntityStatements<IModel> statements, FieldMetadata target, List<IModel> models, List<IModel> generatedIds)
+            throws SQLException, NoSuchFieldException {
+
+        List<IModel> withoutId = new ArrayList<>();
+        String sql = null;
+        List<List<Object>> rows = new ArrayList<>();
+
+        for (IModel model : models) {
+            if (statements.hasGeneratedId(model)) {
+                withoutId.add(model);
+                continue;
+            }
+
+            SQLQuery query = statements.upsert(model, target, false);
+            sql = query.sql();
+            rows.add(query.parameters());
+
+            if (rows.size() == BATCH_SIZE) {
+                db.executeBatch(sql, rows);
+                rows.clear();
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            db.executeBatch(sql, rows);
+        }
+
+        insertWithGeneratedIds(statements, withoutId, generatedIds);
+    }
+
+    /**
+     * Upserts the models one by one on a unique column, the id of an inserted or updated row is only known from the returned row
+     */
+    private void upsertEach(EntityStatements<IModel> statements, FieldMetadata target, List<IModel> models, List<IModel> generatedIds)
+            throws SQLException, NoSuchFieldException {
+
+        for (IModel model : models) {
+            boolean hasGeneratedId = statements.hasGeneratedId(model);
+
+            try (ResultSet resultSet = db.executeQueryWithResult(statements.upsert(model, target, true))) {
+                if (!resultSet.next())
+                    throw new SQLException(String.format("The upsert of %s did not return a row", model.getClass().getSimpleName()));
+
+                statements.setId(model, statements.readId(resultSet));
+            }
+
+            if (hasGeneratedId) {
+                generatedIds.add(model);
+            }
+        }
+    }
+
+    /**
+     * Resolves the field identifying an existing row in an upsert
+     */
+    private static FieldMetadata conflictTarget(Class<? extends IModel> modelClass, String conflictField) throws NoSuchFieldException {
+        EntityMetadata<? extends IModel> metadata = EntityMetadata.of(modelClass);
+
+        if (metadata.getIdField() == null)
+            throw new NoSuchFieldException(String.format("%s does not have an @Id field", modelClass.getSimpleName()));
+
+        if (conflictField == null)
+            return metadata.getIdField();
+
+        FieldMetadata target = metadata.findField(conflictField);
+
+        if (target == null || !target.hasColumn())
+            throw new IllegalArgumentException(String.format("%s does not have a column for the field %s", modelClass.getSimpleName(), conflictField));
+
+        return target;
     }
 
     /**
      * Updates a model object in the database
-     * This method generates an UPDATE SQL query based on the provided model and executes it
+     * This method generates an UPDATE SQL query based on the provided model and executes it.
+     * The updated row returned by the database is written back to the model.
+     * When the model was loaded or saved by this entity manager only the columns that changed since are written,
+     * and no statement is executed at all when nothing changed
      *
      * @param model The model object to be updated
      * @return true if the operation was successful, false otherwise
@@ -58,14 +405,155 @@ public class EntityManager {
      */
     public boolean update(IModel model) {
         try {
-            String updateQuery = SQLGenerator.generateUpdate(model);
-            return db.executeQueryWithoutResult(updateQuery);
-        } catch (SQLException | NoSuchFieldException | IllegalAccessException ex) {
+            EntityStatements<IModel> statements = EntityStatements.of(model);
+            Object[] previous = snapshots.get(model);
+            SQLQuery query;
+
+            if (previous == null) {
+                query = statements.update(model);
+            } else {
+                query = statements.updateChanged(model, previous, statements.snapshot(model));
+
+                if (query == null)
+                    return true;
+            }
+
+            if (!executeAndReadBack(query, model))
+                return false;
+
+            track(model);
+            identify(model);
+            invalidate(model);
+            return true;
+        } catch (SQLException | NoSuchFieldException | IllegalAccessException | NoSuchMethodException | InvocationTargetException ex) {
             Logger.error(ex.getMessage());
             return false;
         }
     }
 
+    /**
+     * Checks whether the columns of the model differ from the values last read from or written to the database
+     *
+     * @param model The model to check
+     * @return true if a column changed or the model was not loaded or saved by this entity manager, false otherwise
+     */
+    public boolean isDirty(IModel model) {
+        Object[] previous = snapshots.get(model);
+        return previous == null || !Arrays.deepEquals(previous, EntityStatements.of(model).snapshot(model));
+    }
+
+    /**
+     * Stores the current column values of the model, against which a later update is compared
+     */
+    private void track(IModel model) {
+        snapshots.put(model, EntityStatements.of(model).snapshot(model));
+    }
+
+    /**
+     * Tracks a loaded model, unless it was taken from the identity map and is tracked already
+     */
+    private void trackLoaded(IModel model) {
+        if (snapshots.get(model) == null) {
+            track(model);
+        }
+    }
+
+    /**
+     * Adds a saved model to the identity map, replacing the instance loaded for its row. Unless the model was complete
+     * already it is added as a shallow entity, as its relations were not loaded, and the next load of its row completes it
+     * and overwrites its columns with those of the row
+     */
+    private void identify(IModel model) {
+        long id = EntityStatements.of(model).getId(model);
+
+        if (identities.getComplete(model.getClass(), id) == model)
+            return;
+
+        identities.remove(model.getClass(), id);
+        identities.putShallow(model, id);
+    }
+
+    /**
+     * Stops tracking a written model and removes the instance of its row from the identity map, so the row is read again
+     * by the next load, e.g. after a bulk write which does not track the models
+     */
+    private void detach(IModel model) {
+        snapshots.remove(model);
+        identities.remove(model.getClass(), EntityStatements.of(model).getId(model));
+    }
+
+    /**
+     * Removes the row of a written model from the second-level cache, when its entity is cached
+     */
+    private void invalidate(IModel model) {
+        EntityCache cache = EntityCache.of(model.getClass());
+
+        if (cache != null) {
+            cache.invalidate(EntityStatements.of(model).getId(model));
+        }
+    }
+
+    /**
+     * Loads the relations of models of the same class read from the second-level cache, like those of models read from
+     * the database
+     */
+    private void loadRelations(List<? extends IModel> models)
+            throws SQLException, IllegalAccessException, NoSuchMethodException, NoSuchFieldException, InvocationTargetException {
+
+        if (models.isEmpty())
+            return;
+
+        for (FieldMetadata field : EntityMetadata.of(models.getFirst().getClass()).getRelations()) {
+            boolean lazy = field.isForeignKey() && field.getFetchType() == FetchType.LAZY;
+
+            if (!lazy && field.getStrategy() instanceof BatchFieldMappingStrategy strategy) {
+                strategy.mapFields(models, field, identities);
+            }
+        }
+    }
+
+    /**
+     * Detaches every model from this entity manager, later loads read their rows again into new instances.
+     * The detached models are no longer tracked, so they are dirty and a later update writes all of their columns
+     */
+    public void clear() {
+        identities.clear();
+        snapshots.clear();
+    }
+
+    /**
+     * Maps the current row to a model, which is only tracked when every column was selected
+     */
+    private IModel mapAndTrack(ResultSet resultSet, Class<? extends IModel> modelClass, List<String> fieldsToReturn)
+            throws SQLException, IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException, NoSuchFieldException {
+
+        IModel model = RowMappingPlan.of(resultSet, modelClass, identities).map(resultSet);
+
+        if (fieldsToReturn == null || fieldsToReturn.isEmpty()) {
+            trackLoaded(model);
+        }
+
+        return model;
+    }
+
+    /**
+     * Executes an INSERT or UPDATE with a RETURNING clause and copies the columns of the returned row into the model
+     *
+     * @return true if the statement returned a row, false otherwise
+     */
+    @SuppressWarnings("unchecked")
+    private boolean executeAndReadBack(SQLQuery query, IModel model)
+            throws SQLException, IllegalAccessException, NoSuchMethodException, InvocationTargetException, NoSuchFieldException {
+
+        try (ResultSet resultSet = db.executeQueryWithResult(query)) {
+            if (!resultSet.next())
+                return false;
+
+            RowMappingPlan.of(resultSet, (Class<IModel>) model.getClass()).mapColumns(resultSet, model);
+            return true;
+        }
+    }
+
     /**
      * Deletes a model object from the database
      * This method generates a DELETE SQL query based on the provided model and executes it
@@ -78,18 +566,86 @@ public class EntityManager {
      */
     public boolean delete(IModel model) {
         try {
-            List<String> deleteQueries = SQLGenerator.generateDelete(model);
+            EntityStatements<IModel> statements = EntityStatements.of(model);
 
-            for (String query : deleteQueries) {
-                boolean deletedSuccessful = db.executeQueryWithoutResult(query);
+            if (!db.executeQueryWithoutResult(statements.deleteRow(model)))
+                return false;
 
-                if (!deletedSuccessful)
-                    return false;
+            for (EntityStatements.ChildDelete childDelete : statements.deleteChildren(model)) {
+                deleteChildren(childDelete);
             }
 
+            detach(model);
+            invalidate(model);
+
             return true;
 
-        } catch (SQLException | NoSuchFieldException | IllegalAccessException ex) {
+        } catch (SQLException | NoSuchFieldException | IllegalArgumentException ex) {
+            Logger.error(ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Deletes the children of a deleted model and detaches the instances of the deleted rows, read from the returned rows,
+     * which are also removed from the second-level cache when their entity is cached
+     */
+    private void deleteChildren(EntityStatements.ChildDelete childDelete) throws SQLException {
+        Class<? extends IModel> childClass = childDelete.childClass();
+        boolean identified = EntityMetadata.of(childClass).getIdField() != null;
+        EntityCache cache = identified ? EntityCache.of(childClass) : null;
+
+        try (ResultSet resultSet = db.executeQueryWithResult(childDelete.query())) {
+            while (resultSet.next()) {
+                if (!identified)
+                    continue;
+
+                long id = EntityStatements.of(childClass).readId(resultSet);
+                IModel child = identities.get(childClass, id);
+
+                if (child != null) {
+                    snapshots.remove(child);
+                }
+
+                identities.remove(childClass, id);
+
+                if (cache != null) {
+                    cache.invalidate(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads a relation which was not loaded together with the model, i.e. the children of a
+     * {@code @OneToMany(fetch = LAZY)} field or the related entity of a {@code @ManyToOne(fetch = LAZY)} field.
+     * Children which have been loaded already are kept
+     *
+     * @param model The model whose relation is loaded
+     * @param fieldName The name of the relation field
+     * @return true if the relation is loaded, false otherwise
+     */
+    public boolean initialize(IModel model, String fieldName) {
+        try {
+            FieldMetadata field = EntityMetadata.of(model.getClass()).getField(fieldName);
+            Object value = field.getAccessor().get(model);
+
+            if (value instanceof LazyList<?> children) {
+                children.initialize();
+            } else if (field.getStrategy() instanceof OneToManyFieldMappingStrategy strategy) {
+                if (value == null) {
+                    strategy.loadChildren(List.of(model), field, identities);
+                }
+            } else if (field.isForeignKey() && field.getStrategy() instanceof BatchFieldMappingStrategy strategy) {
+                if (value != null) {
+                    strategy.mapFields(List.of(model), field, identities);
+                }
+            } else {
+                throw new IllegalArgumentException(String.format("%s is not a relation of %s", fieldName, model.getClass().getSimpleName()));
+            }
+
+            return true;
+        } catch (SQLException | NoSuchFieldException | IllegalAccessException | InvocationTargetException | NoSuchMethodException | IllegalArgumentException | IllegalStateException ex) {
             Logger.error(ex.getMessage());
             return false;
         }
@@ -111,30 +667,283 @@ public class EntityManager {
      */
     public <T extends IModel> List<T> list(Class<T> modelClass) {
         try {
-            String selectQuery = SQLGenerator.generateSelect(modelClass, null, null);
-            ResultSet resultSet = db.executeQueryWithResult(selectQuery);
+            try (ResultSet resultSet = db.executeQueryWithResult(EntityStatements.of(modelClass).selectAll())) {
+                List<T> models = RowMappingPlan.of(resultSet, modelClass, identities).mapAll(resultSet);
 
-            List<T> result = new ArrayList<>();
+                for (T model : models) {
+                    trackLoaded(model);
+                }
 
-            while (resultSet.next()) {
-                result.add(ReflectionUtil.mapToModel(resultSet, modelClass));
+                return models;
             }
+        } catch (SQLException | NoSuchFieldException | IllegalAccessException | InvocationTargetException | InstantiationException | NoSuchMethodException ex) {
+            Logger.error(ex.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Starts a typed query on the table of the given model class
+     *
+     * @param modelClass The class type of the model
+     * @param <T> The type of the model that extends IModel
+     * @return The query, executed by {@link Query#list()} or {@link Query#first()}
+     * @throws IllegalArgumentException If the class is not an entity
+     */
+    public <T extends IModel> Query<T> from(Class<T> modelClass) {
+        return new Query<>(this, modelClass);
+    }
+
+    /**
+     * Executes a typed query, the returned models are tracked for partial updates unless the query is a projection
+     *
+     * @param query The query to execute
+     * @return The matching models, or an empty list if the query failed
+     */
+    <T extends IModel> List<T> list(Query<T> query) {
+        try {
+            EntityMetadata<T> metadata = EntityMetadata.of(query.getModelClass());
+
+            if (query.isCached() && query.selectsAllColumns() && metadata.getIdField() != null)
+                return listCached(query, metadata);
+
+            try (ResultSet resultSet = db.executeQueryWithResult(query.toSQLQuery())) {
+                List<T> models = RowMappingPlan.of(resultSet, query.getModelClass(), identities).mapAll(resultSet);
+
+                if (query.selectsAllColumns()) {
+                    for (T model : models) {
+                        trackLoaded(model);
+                    }
+                }
 
-            return result;
+                return models;
+            }
         } catch (SQLException | NoSuchFieldException | IllegalAccessException | InvocationTargetException | InstantiationException | NoSuchMethodException ex) {
             Logger.error(ex.getMessage());
             return new ArrayList<>();
         }
     }
 
+    /**
+     * Executes a typed query whose result is cached as the ids of its rows, which are looked up again by
+     * {@link #reconstitute(Class, long[])} while the table of the entity was not written
+     */
+    private <T extends IModel> List<T> listCached(Query<T> query, EntityMetadata<T> metadata)
+            throws SQLException, NoSuchFieldException, IllegalAccessException, InvocationTargetException, InstantiationException, NoSuchMethodException {
+
+        QueryResultCache results = QueryResultCache.getInstance();
+        SQLQuery sqlQuery = query.toSQLQuery();
+        String table = metadata.getTableName();
+        long[] ids = results.get(sqlQuery, table);
+
+        if (ids != null) {
+            List<T> models = reconstitute(metadata.getModelClass(), ids);
+
+            if (models != null)
+                return models;
+        }
+
+        // The version is read before the query runs, so a write in between leaves the result stale
+        long version = results.version(table);
+
+        try (ResultSet resultSet = db.executeQueryWithResult(sqlQuery)) {
+            List<T> models = RowMappingPlan.of(resultSet, metadata.getModelClass(), identities).mapAll(resultSet);
+            EntityStatements<T> statements = EntityStatements.of(metadata.getModelClass());
+            ids = new long[models.size()];
+
+            for (int i = 0; i < ids.length; i++) {
+                trackLoaded(models.get(i));
+                ids[i] = statements.getId(models.get(i));
+            }
+
+            results.put(sqlQuery, table, version, ids);
+            return models;
+        }
+    }
+
+    /**
+     * Looks up the models of a cached query result in the identity map, then in the second-level cache, and loads the
+     * remaining rows by id with a single query per chunk
+     *
+     * @return The models in the order of the ids, or {@code null} if a row no longer exists
+     */
+    private <T extends IModel> List<T> reconstitute(Class<T> modelClass, long[] ids)
+            throws SQLException, NoSuchFieldException, IllegalAccessException, InvocationTargetException, InstantiationException, NoSuchMethodException {
+
+        EntityCache cache = EntityCache.of(modelClass);
+        List<IModel> cached = new ArrayList<>();
+        long[] missing = new long[ids.length];
+        int missingCount = 0;
+
+        for (long id : ids) {
+            if (identities.getComplete(modelClass, id) != null)
+                continue;
+
+            IModel model = cache != null && identities.get(modelClass, id) == null ? cache.read(id) : null;
+
+            if (model != null) {
+                identities.put(model, id);
+                cached.add(model);
+            } else {
+                missing[missingCount++] = id;
+            }
+        }
+
+        loadRelations(cached);
+
+        for (SQLQuery selectQuery : EntityStatements.of(modelClass).selectByIds(missing, missingCount)) {
+            try (ResultSet resultSet = db.executeQueryWithResult(selectQuery)) {
+                RowMappingPlan.of(resultSet, modelClass, identities).mapAll(resultSet);
+            }
+        }
+
+        List<T> models = new ArrayList<>(ids.length);
+
+        for (long id : ids) {
+            T model = identities.getComplete(modelClass, id);
+
+            if (model == null)
+                return null;
+
+            trackLoaded(model);
+            models.add(model);
+        }
+
+        return models;
+    }
+
+    /**
+     * Executes a typed query as a projection into a record
+     *
+     * @param query The query to execute
+     * @param recordMapper The mapper of the record
+     * @return A record for every matching row, or an empty list if the query failed
+     */
+    <T extends IModel, R extends Record> List<R> list(Query<T> query, RecordMapper<R> recordMapper) {
+        try (ResultSet resultSet = db.executeQueryWithResult(query.toSQLQuery(recordMapper))) {
+            // The columns are selected in the order of the components
+            int[] columnIndexes = new int[recordMapper.getFieldNames().size()];
+
+            for (int i = 0; i < columnIndexes.length; i++) {
+                columnIndexes[i] = i + 1;
+            }
+
+            List<R> records = new ArrayList<>();
+
+            while (resultSet.next()) {
+                records.add(recordMapper.map(resultSet, columnIndexes));
+            }
+
+            return records;
+        } catch (SQLException ex) {
+            Logger.error(ex.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Reads the result of a query which does not return models, e.g. an aggregate
+     *
+     * @param <V> The type of the result
+     */
+    @FunctionalInterface
+    interface ResultReader<V> {
+        V read(ResultSet resultSet) throws SQLException;
+    }
+
+    /**
+     * Executes an aggregate of a typed query
+     *
+     * @param query The compiled aggregate query
+     * @param reader Reads the result from the result set
+     * @param fallback The result when the query fails
+     * @return The result
+     */
+    <V> V aggregate(SQLQuery query, ResultReader<V> reader, V fallback) {
+        try (ResultSet resultSet = db.executeQueryWithResult(query)) {
+            return reader.read(resultSet);
+        } catch (SQLException ex) {
+            Logger.error(ex.getMessage());
+            return fallback;
+        }
+    }
+
+    /**
+     * Counts the rows of the given model class in the database whose fields equal the given values
+     *
+     * @param modelClass The class type of the model
+     * @param criteria A map of field names and the values they must equal, {@code null} matching NULL, or {@code null} to count every row
+     * @return The number of matching rows, or 0 if the query failed
+     * @throws IllegalArgumentException If the entity has no column for one of the fields
+     */
+    public long count(Class<? extends IModel> modelClass, Map<String, Object> criteria) {
+        Query<? extends IModel> query = from(modelClass);
+
+        if (criteria != null) {
+            for (Map.Entry<String, Object> criterion : criteria.entrySet()) {
+                query.and(criterion.getKey()).eq(criterion.getValue());
+            }
+        }
+
+        return query.count();
+    }
+
+    /**
+     * Retrieves a page of models ordered on the given field and then on the id, using keyset pagination.
+     * Every page seeks past the key of the previous one, so a deep page costs the same as the first one when the table
+     * has an index on the sort field, unlike skipping the rows before it with {@code OFFSET}
+     *
+     * @param modelClass The class type of the model
+     * @param orderBy The name of the field to order on in ascending order, e.g. {@code "id"} or {@code "expiresAt"}
+     * @param afterKey The {@link Page#next()} key of the previous page, or {@code null} for the first page
+     * @param pageSize The maximum number of models on the page
+     * @param <T> The type of the model that extends IModel
+     * @return The page, or an empty page if the query failed
+     * @throws IllegalArgumentException If the field is not a column of the entity or the page size is not positive
+     */
+    public <T extends IModel> Page<T> page(Class<T> modelClass, String orderBy, Page.Key afterKey, int pageSize) {
+        if (pageSize <= 0)
+            throw new IllegalArgumentException("The page size must be positive");
+
+        FieldMetadata sortField = EntityMetadata.of(modelClass).findField(orderBy);
+
+        if (sortField == null || !(sortField.isId() || sortField.isColumn()))
+            throw new IllegalArgumentException(String.format("%s does not have a column for the field %s", modelClass.getSimpleName(), orderBy));
+
+        try {
+            EntityStatements<T> statements = EntityStatements.of(modelClass);
+
+            // One row more than the page is read to know whether there is a next page
+            try (ResultSet resultSet = db.executeQueryWithResult(statements.page(sortField, afterKey, pageSize + 1))) {
+                List<T> models = RowMappingPlan.of(resultSet, modelClass, identities).mapAll(resultSet);
+                boolean hasNext = models.size() > pageSize;
+
+                if (hasNext) {
+                    models.removeLast();
+                }
+
+                for (T model : models) {
+                    trackLoaded(model);
+                }
+
+                return new Page<>(models, hasNext ? statements.keyOf(models.getLast(), sortField) : null);
+            }
+        } catch (SQLException | NoSuchFieldException | IllegalAccessException | InvocationTargetException | InstantiationException | NoSuchMethodException ex) {
+            Logger.error(ex.getMessage());
+            return new Page<>(List.of(), null);
+        }
+    }
+
     /**
      * Retrieves a model object by its ID from the database
-     * This method generates a SELECT SQL query to retrieve a model object with the specified ID
+     * This method generates a SELECT SQL query to retrieve a model object with the specified ID, unless the model was
+     * loaded or saved by this entity manager before, in which case that instance is returned without a query.
+     * The row of a {@link org.zenith.annotation.Cacheable} entity is read from the second-level cache when it is there
      *
      * @param modelClass The class type of the model
-     * @param fieldsToReturn The list of fields to be returned (or null for all fields)
+     * @param fieldsToReturn The list of fields to be returned (or null for all fields), the other fields keep their default value
      * @param id The ID of the model object to be retrieved
-     * @return The model object corresponding to the specified ID
+     * @return The model object corresponding to the specified ID, or null if there is no such row
      * @throws SQLException If there is an error while executing the SQL query
      * @throws NoSuchFieldException If a field specified in the model is not found
      * @throws IllegalAccessException If there is an access issue with a field in the model
@@ -142,11 +951,43 @@ public class EntityManager {
      * @throws InstantiationException If there is an issue instantiating the model object
      * @throws NoSuchMethodException If there is an issue finding a method in the model class
      */
-    public IModel findById(Class<? extends IModel> modelClass, List<String> fieldsToReturn, int id) {
+    public IModel findById(Class<? extends IModel> modelClass, List<String> fieldsToReturn, long id) {
         try {
-            String selectQuery = SQLGenerator.generateSelect(modelClass, fieldsToReturn, Map.of("id", id));
-            ResultSet resultSet = db.executeQueryWithResult(selectQuery);
-            return ReflectionUtil.mapToModel(resultSet, modelClass);
+            SQLQuery selectQuery;
+
+            if (fieldsToReturn == null || fieldsToReturn.isEmpty()) {
+                IModel identified = identities.getComplete(modelClass, id);
+
+                if (identified != null)
+                    return identified;
+
+                // A shallow instance is completed in place by the query, the cache would build another one
+                EntityCache cache = identities.get(modelClass, id) == null ? EntityCache.of(modelClass) : null;
+                IModel cached = cache != null ? cache.read(id) : null;
+
+                if (cached != null) {
+                    identities.put(cached, id);
+                    loadRelations(List.of(cached));
+                    trackLoaded(cached);
+                    return cached;
+                }
+
+                selectQuery = EntityStatements.of(modelClass).selectById(id);
+            } else {
+                FieldMetadata idField = EntityMetadata.of(modelClass).getIdField();
+
+                if (idField == null)
+                    throw new NoSuchFieldException(String.format("%s does not have an @Id field", modelClass.getSimpleName()));
+
+                selectQuery = SQLGenerator.generateSelect(modelClass, fieldsToReturn, Map.of(idField.getName(), id));
+            }
+
+            try (ResultSet resultSet = db.executeQueryWithResult(selectQuery)) {
+                if (!resultSet.next())
+                    return null;
+
+                return mapAndTrack(resultSet, modelClass, fieldsToReturn);
+            }
         } catch (SQLException | NoSuchFieldException | IllegalAccessException | InvocationTargetException | InstantiationException | NoSuchMethodException ex) {
             Logger.error(ex.getMessage());
             return null;
@@ -170,9 +1011,14 @@ public class EntityManager {
      */
     public IModel findByField(Class<? extends IModel> modelClass, List<String> fieldsToReturn, Map<String, Object> fieldsToQuery) {
         try {
-            String selectQuery = SQLGenerator.generateSelect(modelClass, fieldsToReturn, fieldsToQuery);
-            ResultSet resultSet = db.executeQueryWithResult(selectQuery);
-            return ReflectionUtil.mapToModel(resultSet, modelClass);
+            SQLQuery selectQuery = SQLGenerator.generateSelect(modelClass, fieldsToReturn, fieldsToQuery);
+
+            try (ResultSet resultSet = db.executeQueryWithResult(selectQuery)) {
+                if (!resultSet.next())
+                    return null;
+
+                return mapAndTrack(resultSet, modelClass, fieldsToReturn);
+            }
         } catch (SQLException | NoSuchFieldException | IllegalAccessException | InvocationTargetException | InstantiationException | NoSuchMethodException ex) {
             Logger.error(ex.getMessage());
             return null;
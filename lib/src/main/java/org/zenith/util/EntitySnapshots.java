@@ -0,0 +1,92 @@
+package org.zenith.util;
+
+import org.zenith.model.interfaces.IModel;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The column values of the models as they were last read from or written to the database, used to find the columns
+ * that changed since. Models are compared by identity and held weakly, so a snapshot is dropped together with its model.
+ */
+final class EntitySnapshots {
+    private final Map<Key, Object[]> snapshots = new HashMap<>();
+    private final ReferenceQueue<IModel> queue = new ReferenceQueue<>();
+
+    /**
+     * A weak reference to a model with the identity semantics of {@link java.util.IdentityHashMap}
+     */
+    private static final class Key extends WeakReference<IModel> {
+        private final int hash;
+
+        private Key(IModel model, ReferenceQueue<IModel> queue) {
+            super(model, queue);
+            this.hash = System.identityHashCode(model);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other)
+                return true;
+
+            return other instanceof Key key && hash == key.hash && get() != null && get() == key.get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Stores the snapshot of a model, replacing an earlier one
+     *
+     * @param model The model
+     * @param values The column values of the model, as bound to a statement
+     */
+    synchronized void put(IModel model, Object[] values) {
+        expunge();
+        snapshots.put(new Key(model, queue), values);
+    }
+
+    /**
+     * @param model The model
+     * @return The snapshot of the model, or {@code null} if the model is not tracked
+     */
+    synchronized Object[] get(IModel model) {
+        return snapshots.get(new Key(model, null));
+    }
+
+    /**
+     * Stops tracking the model, e.g. because it was deleted
+     *
+     * @param model The model
+     */
+    synchronized void remove(IModel model) {
+        snapshots.remove(new Key(model, null));
+    }
+
+    /**
+     * Stops tracking every model
+     */
+    synchronized void clear() {
+        snapshots.clear();
+    }
+
+    /**
+     * @return The number of tracked models, including models which are no longer referenced but not yet expunged
+     */
+    synchronized int size() {
+        return snapshots.size();
+    }
+
+    private void expunge() {
+        Object reference;
+
+        while ((reference = queue.poll()) != null) {
+            snapshots.remove(reference);
+        }
+    }
+}
@@ -0,0 +1,690 @@
+package org.zenith.util;
+
+import org.zenith.enumeration.FetchType;
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.collection.LazyList;
+import org.zenith.util.mapper.EntityMapper;
+import org.zenith.util.metadata.EntityMetadata;
+import org.zenith.util.metadata.FieldMetadata;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The SQL of the CRUD statements of an entity, generated once per class and cached in a registry. The INSERT, UPDATE
+ * and DELETE statements are taken from the {@link EntityMapper} generated at compile time when it covers the same columns.
+ * Every call only binds the values of the model to the placeholders, so no SQL is built, formatted or logged on the
+ * hot path. The statements are logged once, when they are compiled.
+ *
+ * @param <T> The type of the model
+ */
+public final class EntityStatements<T extends IModel> {
+    private static final Map<Class<?>, EntityStatements<?>> REGISTRY = new ConcurrentHashMap<>();
+    // The largest number of values in the IN list of a single SELECT, well below the bound parameter limit of SQLite
+    private static final int MAX_IN_SIZE = 512;
+
+    private final EntityMetadata<T> metadata;
+    private final List<FieldMetadata> columns;
+    private final FieldMetadata idField;
+    private final int idPosition;
+
+    private final String insertSql;
+    private final String insertWithoutIdSql;
+    private final String batchInsertSql;
+    private final String batchInsertWithoutIdSql;
+    private final String updateSql;
+    private final Map<Long, String> partialUpdateSql = new ConcurrentHashMap<>();
+    private final Map<FieldMetadata, String[]> pageSql = new ConcurrentHashMap<>();
+    private final Map<FieldMetadata, String[]> upsertSql = new ConcurrentHashMap<>();
+    private final Map<FieldMetadata, String[]> selectInSql = new ConcurrentHashMap<>();
+    private final String[] selectByIdsSql = new String[Integer.numberOfTrailingZeros(MAX_IN_SIZE) + 1];
+    private final String deleteSql;
+    private final String selectByIdSql;
+    private final SQLQuery selectAll;
+    private final List<FieldMetadata> joins;
+    private final String selectFrom;
+
+    private final List<FieldMetadata> children;
+    private final String[] deleteChildrenSql;
+
+    private EntityStatements(EntityMetadata<T> metadata) {
+        this.metadata = metadata;
+        this.columns = metadata.getColumns();
+        this.idField = metadata.getIdField();
+        this.idPosition = columns.indexOf(idField);
+
+        String tableName = metadata.getTableName();
+        List<String> columnNames = new ArrayList<>();
+        List<String> columnNamesWithoutId = new ArrayList<>();
+        List<String> assignments = new ArrayList<>();
+
+        for (FieldMetadata column : columns) {
+            columnNames.add(column.getColumnName());
+
+            if (!column.isId()) {
+                columnNamesWithoutId.add(column.getColumnName());
+                assignments.add(column.getColumnName() + "=?");
+            }
+        }
+
+        EntityMapper<T> mapper = metadata.getMapper();
+        EntityMapper<T> generated = mapper != null && mapper.getTableName().equals(tableName) && mapper.getColumnNames().equals(columnNames)
+                ? mapper
+                : null;
+
+        this.batchInsertSql = generatedOr(generated, EntityMapper::getInsertSql, () -> insertSql(tableName, columnNames));
+        this.batchInsertWithoutIdSql = generatedOr(generated, EntityMapper::getInsertWithoutIdSql, () -> insertSql(tableName, columnNamesWithoutId));
+        this.insertSql = batchInsertSql.replace(";", " RETURNING *;");
+        this.insertWithoutIdSql = batchInsertWithoutIdSql.replace(";", " RETURNING *;");
+        this.joins = metadata.getRelations().stream().filter(EntityStatements::isJoined).toList();
+        this.selectFrom = compileSelectFrom(null);
+        this.selectAll = new SQLQuery(selectFrom + ";");
+
+        if (idField != null) {
+            String idColumn = idField.getColumnName();
+
+            this.updateSql = generatedOr(generated, EntityMapper::getUpdateSql,
+                    () -> String.format("UPDATE %s SET %s WHERE %s=? RETURNING *;", tableName, String.join(", ", assignments), idColumn));
+            this.deleteSql = generatedOr(generated, EntityMapper::getDeleteSql,
+                    () -> String.format("DELETE FROM %s WHERE %s=? RETURNING *;", tableName, idColumn));
+            this.selectByIdSql = String.format("%s WHERE %s=?;", selectFrom, columnReference(idField));
+        } else {
+            this.updateSql = null;
+            this.deleteSql = null;
+            this.selectByIdSql = null;
+        }
+
+        this.children = new ArrayList<>();
+        List<String> deleteChildrenSql = new ArrayList<>();
+
+        for (FieldMetadata field : metadata.getRelations()) {
+            if (!field.isOneToMany() || field.getRelatedType() == null)
+                continue;
+
+            String simpleName = field.getRelatedType().getSimpleName();
+            String subTableName = Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1);
+            String parentTableColumn = Character.toLowerCase(tableName.charAt(0)) + tableName.substring(1) + "_id";
+
+            children.add(field);
+            deleteChildrenSql.add(String.format("DELETE FROM %s WHERE %s=? RETURNING *;", subTableName, parentTableColumn));
+        }
+
+        this.deleteChildrenSql = deleteChildrenSql.toArray(String[]::new);
+
+        Logger.query(String.format("Compiled statements of %s: %s | %s | %s | %s | %s",
+                metadata.getModelClass().getSimpleName(), insertSql, updateSql, deleteSql, selectByIdSql, selectAll.sql()));
+    }
+
+    private static boolean isJoined(FieldMetadata field) {
+        return field.isForeignKey()
+                && field.getFetchType() == FetchType.JOIN
+                && EntityMetadata.of(field.getRelatedType().asSubclass(IModel.class)).getIdField() != null;
+    }
+
+    /**
+     * Compiles the start of the SELECT statements of full rows. Every relation fetched with a JOIN adds the columns of the
+     * related row, labelled with the name of the field as prefix, e.g. {@code j0.title AS "todoItem.title"}
+     *
+     * @param excluded A relation which is not joined, e.g. because it refers back to the parent the rows are loaded for
+     */
+    private String compileSelectFrom(FieldMetadata excluded) {
+        String tableName = metadata.getTableName();
+        StringBuilder columns = new StringBuilder(tableName).append(".*");
+        StringBuilder from = new StringBuilder(tableName);
+
+        for (int i = 0; i < joins.size(); i++) {
+            FieldMetadata join = joins.get(i);
+
+            if (join == excluded)
+                continue;
+
+            EntityMetadata<?> related = EntityMetadata.of(join.getRelatedType().asSubclass(IModel.class));
+            String alias = "j" + i;
+
+            for (FieldMetadata column : related.getColumns()) {
+                if (!column.isForeignKey()) {
+                    columns.append(String.format(", %s.%s AS \"%s%s\"", alias, column.getColumnName(), join.getJoinPrefix(), column.getColumnName()));
+                }
+            }
+
+            from.append(String.format(" LEFT JOIN %s AS %s ON %s.%s = %s.%s",
+                    related.getTableName(), alias, alias, related.getIdField().getColumnName(), tableName, join.getColumnName()));
+        }
+
+        return joins.isEmpty() || (joins.size() == 1 && joins.getFirst() == excluded)
+                ? String.format("SELECT * FROM %s", tableName)
+                : String.format("SELECT %s FROM %s", columns, from);
+    }
+
+    /**
+     * @param generated The generated mapper of the entity, or {@code null} if it does not cover the columns of the entity
+     * @return The statement precomputed by the mapper, or the compiled statement if the mapper does not provide it
+     */
+    private static <T extends IModel> String generatedOr(EntityMapper<T> generated, Function<EntityMapper<T>, String> statement, Supplier<String> compile) {
+        String sql = generated != null ? statement.apply(generated) : null;
+        return sql != null ? sql : compile.get();
+    }
+
+    private static String insertSql(String tableName, List<String> columnNames) {
+        return String.format("INSERT INTO %s (%s) VALUES (%s);",
+                tableName, String.join(", ", columnNames), String.join(", ", Collections.nCopies(columnNames.size(), "?")));
+    }
+
+    /**
+     * Retrieves the statements of the given model class, compiling them on first use
+     *
+     * @param modelClass The class of the model
+     * @return The cached statements of the class
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends IModel> EntityStatements<T> of(Class<T> modelClass) {
+        EntityStatements<?> statements = REGISTRY.get(modelClass);
+
+        if (statements == null) {
+            statements = REGISTRY.computeIfAbsent(modelClass, ignored -> new EntityStatements<>(EntityMetadata.of(modelClass)));
+        }
+
+        return (EntityStatements<T>) statements;
+    }
+
+    /**
+     * Retrieves the statements of the class of the given model instance
+     *
+     * @param model The model instance
+     * @return The cached statements of the class of the model
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends IModel> EntityStatements<T> of(T model) {
+        return of((Class<T>) model.getClass());
+    }
+
+    /**
+     * Binds the INSERT statement of the model. An unset id is left out so the database generates one
+     *
+     * @param model The model to insert
+     * @return The INSERT query
+     * @throws IllegalArgumentException If the model does not contain any annotated field
+     */
+    public SQLQuery insert(T model) {
+        return bindInsert(model, insertSql, insertWithoutIdSql);
+    }
+
+    /**
+     * Binds the INSERT statement of the model without a RETURNING clause, so it can be added to a JDBC batch.
+     * An unset id is left out so the database generates one
+     *
+     * @param model The model to insert
+     * @return The INSERT query
+     * @throws IllegalArgumentException If the model does not contain any annotated field
+     */
+    public SQLQuery batchInsert(T model) {
+        return bindInsert(model, batchInsertSql, batchInsertWithoutIdSql);
+    }
+
+    /**
+     * Checks whether the database generates the id of the model when it is inserted
+     *
+     * @param model The model to check
+     * @return {@code true} if the model has an {@code @Id} field which is not set
+     */
+    public boolean hasGeneratedId(T model) {
+        return idField != null && idField.getAccessor().getAsLong(model) == 0;
+    }
+
+    /**
+     * @param model The model to read from
+     * @return The id of the model, or 0 if the entity has no {@code @Id} field
+     */
+    public long getId(T model) {
+        return idField != null ? idField.getAccessor().getAsLong(model) : 0;
+    }
+
+    /**
+     * Writes an id, e.g. the one generated by the database, to the model
+     *
+     * @param model The model to write to
+     * @param id The id of the model
+     */
+    public void setId(T model, long id) {
+        if (idField != null) {
+            idField.getAccessor().setAsLong(model, id);
+        }
+    }
+
+    private SQLQuery bindInsert(T model, String sqlWithId, String sqlWithoutId) {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("The model must contain annotated fields");
+        }
+
+        Object[] values = metadata.getColumnValues(model);
+        boolean hasId = idPosition >= 0 && values[idPosition] != null && ((Number) values[idPosition]).longValue() != 0;
+        int count = 0;
+
+        // The parameters are written over the values, which are never read again after their position
+        for (int i = 0; i < values.length; i++) {
+            if (i == idPosition && !hasId)
+                continue;
+
+            values[count++] = SQLGenerator.toParameter(columns.get(i), values[i]);
+        }
+
+        List<Object> parameters = Arrays.asList(values);
+        return new SQLQuery(hasId ? sqlWithId : sqlWithoutId, count == values.length ? parameters : parameters.subList(0, count));
+    }
+
+    /**
+     * Binds an INSERT statement which updates the existing row instead when the value of the conflict target is already
+     * stored, i.e. {@code INSERT ... ON CONFLICT(target) DO UPDATE SET ... RETURNING *}. Every column except the id and
+     * the conflict target is overwritten. The SQL is compiled once per conflict target
+     *
+     * @param model The model to insert or update
+     * @param target The field whose value identifies an existing row, the id or a column with a UNIQUE constraint
+     * @param returning Whether the statement returns the row, which cannot be used in a JDBC batch
+     * @return The upsert query, a plain INSERT when the target is the id and the id is not set
+     * @throws NoSuchFieldException If the model does not have an {@code @Id} field
+     */
+    public SQLQuery upsert(T model, FieldMetadata target, boolean returning) throws NoSuchFieldException {
+        requireId();
+
+        String[] sql = upsertSql.computeIfAbsent(target, this::compileUpsert);
+        return returning
+                ? bindInsert(model, sql[0], target == idField ? insertWithoutIdSql : sql[1])
+                : bindInsert(model, sql[2], target == idField ? batchInsertWithoutIdSql : sql[3]);
+    }
+
+    /**
+     * Reads the id from the row returned by an INSERT or upsert
+     *
+     * @param resultSet The {@link ResultSet}, positioned on the returned row
+     * @return The id of the row
+     * @throws SQLException If the id cannot be read
+     */
+    public long readId(ResultSet resultSet) throws SQLException {
+        return resultSet.getLong(idField.getColumnName());
+    }
+
+    /**
+     * Compiles the upsert statements with and without the id column, with and without a RETURNING clause
+     */
+    private String[] compileUpsert(FieldMetadata target) {
+        String tableName = metadata.getTableName();
+        List<String> columnNames = new ArrayList<>();
+        List<String> columnNamesWithoutId = new ArrayList<>();
+        List<String> assignments = new ArrayList<>();
+
+        for (FieldMetadata column : columns) {
+            columnNames.add(column.getColumnName());
+
+            if (column.isId())
+                continue;
+
+            columnNamesWithoutId.add(column.getColumnName());
+
+            if (column != target) {
+                assignments.add(String.format("%1$s=excluded.%1$s", column.getColumnName()));
+            }
+        }
+
+        // A conflicting row must still be updated for RETURNING to report it, so a no-op assignment stands in for an empty SET
+        if (assignments.isEmpty()) {
+            assignments.add(String.format("%1$s=excluded.%1$s", target.getColumnName()));
+        }
+
+        String conflict = String.format(" ON CONFLICT(%s) DO UPDATE SET %s;", target.getColumnName(), String.join(", ", assignments));
+        String withId = insertSql(tableName, columnNames).replace(";", conflict);
+        String withoutId = insertSql(tableName, columnNamesWithoutId).replace(";", conflict);
+
+        return new String[] {
+                withId.replace(";", " RETURNING *;"),
+                withoutId.replace(";", " RETURNING *;"),
+                withId,
+                withoutId
+        };
+    }
+
+    /**
+     * Binds the UPDATE statement of the model, which writes every column except the id
+     *
+     * @param model The model to update
+     * @return The UPDATE query
+     * @throws NoSuchFieldException If the model does not have an {@code @Id} field
+     */
+    public SQLQuery update(T model) throws NoSuchFieldException {
+        requireId();
+
+        Object[] values = metadata.getColumnValues(model);
+        int count = 0;
+
+        for (int i = 0; i < values.length; i++) {
+            if (i == idPosition)
+                continue;
+
+            values[count++] = SQLGenerator.toParameter(columns.get(i), values[i]);
+        }
+
+        values[count] = idField.getAccessor().getAsLong(model);
+        return new SQLQuery(updateSql, Arrays.asList(values));
+    }
+
+    /**
+     * Reads the column values of the model as they are bound to a statement, e.g. a {@code DATETIME} as epoch milliseconds.
+     * Mutable values are copied, so the snapshot does not change together with the model
+     *
+     * @param model The model to read
+     * @return The values in the order of the columns of the entity
+     */
+    public Object[] snapshot(T model) {
+        Object[] values = metadata.getColumnValues(model);
+
+        for (int i = 0; i < values.length; i++) {
+            Object value = SQLGenerator.toParameter(columns.get(i), values[i]);
+            values[i] = value instanceof byte[] bytes ? bytes.clone() : value;
+        }
+
+        return values;
+    }
+
+    /**
+     * Binds an UPDATE statement which only writes the columns that differ between the two snapshots of the model.
+     * The SQL is compiled once for every combination of changed columns
+     *
+     * @param model The model to update
+     * @param previous The snapshot of the model as it is stored in the database
+     * @param current The snapshot of the model as it is now, see {@link #snapshot}
+     * @return The UPDATE query, or {@code null} if no column changed
+     * @throws NoSuchFieldException If the model does not have an {@code @Id} field
+     */
+    public SQLQuery updateChanged(T model, Object[] previous, Object[] current) throws NoSuchFieldException {
+        requireId();
+
+        if (columns.size() > Long.SIZE) {
+            return update(model);
+        }
+
+        long changed = 0;
+        int count = 0;
+
+        for (int i = 0; i < current.length; i++) {
+            if (i != idPosition && !Objects.deepEquals(previous[i], current[i])) {
+                changed |= 1L << i;
+                count++;
+            }
+        }
+
+        if (count == 0) {
+            return null;
+        }
+
+        Object[] values = new Object[count + 1];
+        int position = 0;
+
+        for (int i = 0; i < current.length; i++) {
+            if ((changed & 1L << i) != 0) {
+                values[position++] = current[i];
+            }
+        }
+
+        values[position] = idField.getAccessor().getAsLong(model);
+        String sql = count == columns.size() - (idPosition >= 0 ? 1 : 0)
+                ? updateSql
+                : partialUpdateSql.computeIfAbsent(changed, this::compileUpdate);
+
+        return new SQLQuery(sql, Arrays.asList(values));
+    }
+
+    private String compileUpdate(long changed) {
+        List<String> assignments = new ArrayList<>();
+
+        for (int i = 0; i < columns.size(); i++) {
+            if ((changed & 1L << i) != 0) {
+                assignments.add(columns.get(i).getColumnName() + "=?");
+            }
+        }
+
+        return String.format("UPDATE %s SET %s WHERE %s=? RETURNING *;",
+                metadata.getTableName(), String.join(", ", assignments), idField.getColumnName());
+    }
+
+    /**
+     * The DELETE statement of the children of a deleted model in a single one-to-many relation
+     *
+     * @param childClass The entity of the children
+     * @param query The DELETE query, which returns the deleted rows
+     */
+    public record ChildDelete(Class<? extends IModel> childClass, SQLQuery query) { }
+
+    /**
+     * Binds the DELETE statements of the model and of its loaded one-to-many children
+     *
+     * @param model The model to delete
+     * @return The DELETE queries, the model first
+     * @throws NoSuchFieldException If the model does not have an {@code @Id} field
+     * @throws IllegalArgumentException If the id is not an {@code int} or {@code long}
+     */
+    public List<SQLQuery> delete(T model) throws NoSuchFieldException {
+        List<SQLQuery> queries = new ArrayList<>(1 + children.size());
+        queries.add(deleteRow(model));
+
+        for (ChildDelete childDelete : deleteChildren(model)) {
+            queries.add(childDelete.query());
+        }
+
+        return queries;
+    }
+
+    /**
+     * Binds the DELETE statement of the row of the model, without its children
+     *
+     * @param model The model to delete
+     * @return The DELETE query, which returns the deleted row
+     * @throws NoSuchFieldException If the model does not have an {@code @Id} field
+     * @throws IllegalArgumentException If the id is not an {@code int} or {@code long}
+     */
+    public SQLQuery deleteRow(T model) throws NoSuchFieldException {
+        return new SQLQuery(deleteSql, List.of(deletedId(model)));
+    }
+
+    /**
+     * Binds the DELETE statements of the loaded one-to-many children of the model, which are deleted together with it.
+     * The children of a lazily fetched relation which was not accessed are deleted without loading them
+     *
+     * @param model The model to delete
+     * @return The DELETE statement of every relation with loaded children, in the order of the relations
+     * @throws NoSuchFieldException If the model does not have an {@code @Id} field
+     * @throws IllegalArgumentException If the id is not an {@code int} or {@code long}
+     */
+    public List<ChildDelete> deleteChildren(T model) throws NoSuchFieldException {
+        List<Object> id = List.of(deletedId(model));
+        List<ChildDelete> childDeletes = new ArrayList<>(children.size());
+
+        for (int i = 0; i < children.size(); i++) {
+            FieldMetadata field = children.get(i);
+            Object value = field.getAccessor().get(model);
+
+            // An unloaded lazy list is deleted as is, checking whether it is empty would load it
+            boolean unloaded = value instanceof LazyList<?> lazyList && !lazyList.isInitialized();
+
+            if (unloaded || value instanceof List<?> list && !list.isEmpty()) {
+                childDeletes.add(new ChildDelete(field.getRelatedType().asSubclass(IModel.class), new SQLQuery(deleteChildrenSql[i], id)));
+            }
+        }
+
+        return childDeletes;
+    }
+
+    private long deletedId(T model) throws NoSuchFieldException {
+        requireId();
+
+        if (idField.getType() != int.class && idField.getType() != long.class) {
+            throw new IllegalArgumentException("The model must have a valid integer ID");
+        }
+
+        return idField.getAccessor().getAsLong(model);
+    }
+
+    /**
+     * Binds the SELECT statement of the row with the given id
+     *
+     * @param id The id of the row
+     * @return The SELECT query
+     * @throws NoSuchFieldException If the model does not have an {@code @Id} field
+     */
+    public SQLQuery selectById(long id) throws NoSuchFieldException {
+        requireId();
+        return new SQLQuery(selectByIdSql, List.of(id));
+    }
+
+    /**
+     * @return The query selecting every row of the table
+     */
+    public SQLQuery selectAll() {
+        return selectAll;
+    }
+
+    /**
+     * Binds the SELECT statements of the rows whose field has one of the given values, e.g. the children of a set of
+     * parents, in chunks of at most 512 values. The IN list of every chunk is padded to a power of two by repeating its
+     * last value, so only a handful of distinct statements is compiled and cached per field. A relation used as the
+     * field is not joined, as its related rows are the ones the values were taken from
+     *
+     * @param field The field to filter on, a column, the id or a foreign key
+     * @param values The values to match, the first {@code count} elements are used
+     * @param count The number of values
+     * @return The SELECT queries, one per chunk
+     */
+    public List<SQLQuery> selectIn(FieldMetadata field, long[] values, int count) {
+        String[] sql = selectInSql.computeIfAbsent(field, ignored -> new String[selectByIdsSql.length]);
+        return selectIn(sql, () -> compileSelectFrom(field), columnReference(field), values, count);
+    }
+
+    /**
+     * Binds the SELECT statements of the rows with the given ids, in chunks like {@link #selectIn}. Only the columns of
+     * the table itself are selected, as used to load the related entities of a relation without their own relations
+     *
+     * @param ids The ids of the rows, the first {@code count} elements are used
+     * @param count The number of ids
+     * @return The SELECT queries, one per chunk
+     * @throws NoSuchFieldException If the model does not have an {@code @Id} field
+     */
+    public List<SQLQuery> selectByIds(long[] ids, int count) throws NoSuchFieldException {
+        requireId();
+        return selectIn(selectByIdsSql, () -> "SELECT * FROM " + metadata.getTableName(), idField.getColumnName(), ids, count);
+    }
+
+    private static List<SQLQuery> selectIn(String[] sql, Supplier<String> selectFrom, String column, long[] values, int count) {
+        List<SQLQuery> queries = new ArrayList<>((count + MAX_IN_SIZE - 1) / MAX_IN_SIZE);
+
+        for (int from = 0; from < count; from += MAX_IN_SIZE) {
+            int size = Math.min(count - from, MAX_IN_SIZE);
+            int paddedSize = Integer.highestOneBit(size) == size ? size : Integer.highestOneBit(size) << 1;
+            int shape = Integer.numberOfTrailingZeros(paddedSize);
+
+            if (sql[shape] == null) {
+                sql[shape] = String.format("%s WHERE %s IN (%s);",
+                        selectFrom.get(), column, String.join(", ", Collections.nCopies(paddedSize, "?")));
+            }
+
+            List<Object> parameters = new ArrayList<>(paddedSize);
+
+            for (int i = 0; i < paddedSize; i++) {
+                parameters.add(values[from + Math.min(i, size - 1)]);
+            }
+
+            queries.add(new SQLQuery(sql[shape], parameters));
+        }
+
+        return queries;
+    }
+
+    /**
+     * @return The start of the SELECT statements of full rows, i.e. the columns and the FROM clause including the
+     *          joins of the relations fetched with a JOIN, e.g. {@code SELECT * FROM todoitem}
+     */
+    public String selectFrom() {
+        return selectFrom;
+    }
+
+    /**
+     * @param field A field stored in the table
+     * @return The column of the field as referred to in the statements of full rows, qualified with the table name when
+     *          the statements join other tables
+     */
+    public String columnReference(FieldMetadata field) {
+        return joins.isEmpty() ? field.getColumnName() : metadata.getTableName() + "." + field.getColumnName();
+    }
+
+    /**
+     * Binds the SELECT statement of a page of rows ordered on the given field and then on the id, starting after the
+     * key of the last row of the previous page. The key is compared as a row value, so an index on the field and the id
+     * is used to seek to the start of the page instead of counting the rows before it. The SQL is compiled once per field
+     *
+     * @param sortField The field to order on, a column or the id
+     * @param after The key of the last row of the previous page, or {@code null} for the first page
+     * @param limit The maximum number of rows
+     * @return The SELECT query
+     * @throws NoSuchFieldException If the model does not have an {@code @Id} field
+     */
+    public SQLQuery page(FieldMetadata sortField, Page.Key after, int limit) throws NoSuchFieldException {
+        requireId();
+
+        String[] sql = pageSql.computeIfAbsent(sortField, this::compilePage);
+
+        if (after == null)
+            return new SQLQuery(sql[0], List.of(limit));
+
+        if (sortField == idField)
+            return new SQLQuery(sql[1], List.of(after.id(), limit));
+
+        // Rows without a value sort first, so after such a row the remaining rows without a value are followed by all others
+        return after.sortValue() == null
+                ? new SQLQuery(sql[2], List.of(after.id(), limit))
+                : new SQLQuery(sql[1], List.of(after.sortValue(), after.id(), limit));
+    }
+
+    /**
+     * Reads the key of a row of a page, i.e. the bound value of the sort field and the id
+     *
+     * @param model The model of the row
+     * @param sortField The field the page is ordered on
+     * @return The key of the model
+     */
+    public Page.Key keyOf(T model, FieldMetadata sortField) {
+        Object sortValue = sortField == idField ? null : SQLGenerator.toParameter(sortField, sortField.getAccessor().get(model));
+        return new Page.Key(sortValue, idField.getAccessor().getAsLong(model));
+    }
+
+    private String[] compilePage(FieldMetadata sortField) {
+        String id = columnReference(idField);
+
+        if (sortField == idField) {
+            return new String[] {
+                    String.format("%s ORDER BY %s LIMIT ?;", selectFrom, id),
+                    String.format("%s WHERE %s > ? ORDER BY %s LIMIT ?;", selectFrom, id, id)
+            };
+        }
+
+        String column = columnReference(sortField);
+        String order = String.format("ORDER BY %s, %s LIMIT ?;", column, id);
+
+        return new String[] {
+                String.format("%s %s", selectFrom, order),
+                String.format("%s WHERE (%s, %s) > (?, ?) %s", selectFrom, column, id, order),
+                String.format("%s WHERE (%s IS NULL AND %s > ?) OR %s IS NOT NULL %s", selectFrom, column, id, column, order)
+        };
+    }
+
+    private void requireId() throws NoSuchFieldException {
+        if (idField == null) {
+            throw new NoSuchFieldException(String.format("%s does not have an @Id field", metadata.getModelClass().getSimpleName()));
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.zenith.util;
+
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.collection.LongObjectMap;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The entities loaded or saved by one {@link EntityManager}, keyed by their class and id, so a row is represented by a
+ * single instance within the session. The ids of every class are kept in a {@link LongObjectMap}, so a lookup does not
+ * box the id.
+ * <p>
+ * An entity is either complete, i.e. loaded with its columns and relations, or shallow, i.e. loaded as the related entity
+ * of another entity with only its columns. A shallow entity is completed in place when its row is loaded later on,
+ * which also refreshes its columns with the values of the row.
+ * References holding only an id are never added.
+ * <p>
+ * Entities are held weakly, so the map of a long-lived entity manager does not keep every row it ever read reachable.
+ * An entity is removed once it is no longer referenced, after which its row is read again into a new instance. The map
+ * is not thread-safe.
+ */
+public final class IdentityMap {
+    private final Map<Class<?>, Entities> entitiesByClass = new HashMap<>();
+    private final ReferenceQueue<IModel> queue = new ReferenceQueue<>();
+
+    private static final class Entities {
+        private final LongObjectMap<Entry> complete = new LongObjectMap<>();
+        private final LongObjectMap<Entry> shallow = new LongObjectMap<>();
+    }
+
+    /**
+     * A weak reference to an entity, which knows where it is stored so it can be removed once the entity is collected
+     */
+    private static final class Entry extends WeakReference<IModel> {
+        private final LongObjectMap<Entry> map;
+        private final long id;
+
+        private Entry(IModel model, ReferenceQueue<IModel> queue, LongObjectMap<Entry> map, long id) {
+            super(model, queue);
+            this.map = map;
+            this.id = id;
+        }
+    }
+
+    /**
+     * Creates an empty map, which is owned by a single entity manager
+     */
+    public IdentityMap() { }
+
+    /**
+     * @param modelClass The class of the entity
+     * @param id The id of the entity
+     * @return The complete or shallow entity, or {@code null} if it is not in the map
+     */
+    public <T extends IModel> T get(Class<T> modelClass, long id) {
+        Entities entities = entitiesByClass.get(modelClass);
+
+        if (entities == null)
+            return null;
+
+        IModel model = value(entities.complete.get(id));
+        return modelClass.cast(model != null ? model : value(entities.shallow.get(id)));
+    }
+
+    /**
+     * @param modelClass The class of the entity
+     * @param id The id of the entity
+     * @return The complete entity, or {@code null} if it is not in the map or shallow
+     */
+    public <T extends IModel> T getComplete(Class<T> modelClass, long id) {
+        Entities entities = entitiesByClass.get(modelClass);
+        return entities != null ? modelClass.cast(value(entities.complete.get(id))) : null;
+    }
+
+    /**
+     * Adds a complete entity, replacing an entity with the same id
+     *
+     * @param model The entity
+     * @param id The id of the entity
+     */
+    public void put(IModel model, long id) {
+        expunge();
+        Entities entities = entitiesByClass.computeIfAbsent(model.getClass(), ignored -> new Entities());
+        entities.shallow.remove(id);
+        entities.complete.put(id, new Entry(model, queue, entities.complete, id));
+    }
+
+    /**
+     * Adds a shallow entity, unless an entity with the same id is in the map already
+     *
+     * @param model The entity
+     * @param id The id of the entity
+     */
+    public void putShallow(IModel model, long id) {
+        expunge();
+        Entities entities = entitiesByClass.computeIfAbsent(model.getClass(), ignored -> new Entities());
+
+        if (value(entities.complete.get(id)) == null && value(entities.shallow.get(id)) == null) {
+            entities.complete.remove(id);
+            entities.shallow.put(id, new Entry(model, queue, entities.shallow, id));
+        }
+    }
+
+    /**
+     * Removes the entity, e.g. because it was deleted
+     *
+     * @param modelClass The class of the entity
+     * @param id The id of the entity
+     */
+    public void remove(Class<? extends IModel> modelClass, long id) {
+        Entities entities = entitiesByClass.get(modelClass);
+
+        if (entities != null) {
+            entities.complete.remove(id);
+            entities.shallow.remove(id);
+        }
+    }
+
+    /**
+     * @return The number of complete and shallow entities which are still referenced
+     */
+    public int size() {
+        expunge();
+        int size = 0;
+
+        for (Entities entities : entitiesByClass.values()) {
+            size += entities.complete.size() + entities.shallow.size();
+        }
+
+        return size;
+    }
+
+    public void clear() {
+        entitiesByClass.clear();
+    }
+
+    private static IModel value(Entry entry) {
+        return entry != null ? entry.get() : null;
+    }
+
+    /**
+     * Removes the entries of the collected entities, unless their id was given to another entity since
+     */
+    private void expunge() {
+        Object reference;
+
+        while ((reference = queue.poll()) != null) {
+            Entry entry = (Entry) reference;
+
+            if (entry.map.get(entry.id) == entry) {
+                entry.map.remove(entry.id);
+            }
+        }
+    }
+}
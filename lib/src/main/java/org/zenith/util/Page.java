@@ -0,0 +1,34 @@
+package org.zenith.util;
+
+import org.zenith.model.interfaces.IModel;
+
+import java.util.List;
+
+/**
+ * A page of models retrieved by {@link EntityManager#page(Class, String, Key, int)}
+ *
+ * @param items The models of the page, in the order of the sort field and then the id
+ * @param next The continuation key to retrieve the next page with, or {@code null} if this is the last page
+ * @param <T> The type of the model
+ */
+public record Page<T extends IModel>(List<T> items, Key next) {
+    /**
+     * The position of a row in the sort order, i.e. the value of the sort field as it is bound to a statement and the id
+     * breaking ties between equal values
+     *
+     * @param sortValue The bound value of the sort field, {@code null} when ordering on the id itself
+     * @param id The id of the row
+     */
+    public record Key(Object sortValue, long id) { }
+
+    public Page {
+        items = List.copyOf(items);
+    }
+
+    /**
+     * @return {@code true} if there is a next page
+     */
+    public boolean hasNext() {
+        return next != null;
+    }
+}
@@ -0,0 +1,754 @@
+package org.zenith.util;
+
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.mapper.MapperSupport;
+import org.zenith.util.mapper.RecordMapper;
+import org.zenith.util.metadata.EntityMetadata;
+import org.zenith.util.metadata.FieldMetadata;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A typed query on the table of a single entity, built fluently and compiled to a parameterized SELECT, e.g.
+ * <pre>{@code
+ * entityManager.from(TodoItem.class)
+ *         .where("isCompleted").eq(false)
+ *         .and("expiresAt").lt(now)
+ *         .orderBy("expiresAt")
+ *         .limit(50)
+ *         .list();
+ * }</pre>
+ * Field names are validated against the metadata of the entity when they are added. Conditions are combined from left to
+ * right with the precedence of SQL, so {@code AND} binds stronger than {@code OR}. The SQL text is compiled once for
+ * every shape of query, i.e. the fields, operators and clauses used, and the values are bound to its placeholders.
+ * The compiled SQL of the most recently used shapes is kept, a shape which was evicted is compiled again.
+ *
+ * @param <T> The type of the model
+ */
+public final class Query<T extends IModel> {
+    private static final int MAX_COMPILED_QUERIES = 1024;
+    private static final Map<List<Object>, String> COMPILED = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, String> eldest) {
+            return size() > MAX_COMPILED_QUERIES;
+        }
+    });
+
+    private enum Operator {
+        EQ("%s=?"), NE("%s<>?"), LT("%s<?"), LE("%s<=?"), GT("%s>?"), GE("%s>=?"), LIKE("%s LIKE ?"),
+        BETWEEN("%s BETWEEN ? AND ?"), IS_NULL("%s IS NULL"), IS_NOT_NULL("%s IS NOT NULL"), IN("%s IN (%s)"), NOT_IN("%s NOT IN (%s)");
+
+        private final String format;
+
+        Operator(String format) {
+            this.format = format;
+        }
+    }
+
+    private enum Clause { SELECT, WHERE, AND, OR, ORDER_ASC, ORDER_DESC, LIMIT, OFFSET, GROUP_BY }
+
+    private enum Aggregate {
+        COUNT("COUNT(*)"), SUM("SUM(%s)"), MIN("MIN(%s)"), MAX("MAX(%s)"), AVG("AVG(%s)");
+
+        private final String format;
+
+        Aggregate(String format) {
+            this.format = format;
+        }
+    }
+
+    private final EntityManager entityManager;
+    private final EntityMetadata<T> metadata;
+    private final List<Object> shape = new ArrayList<>();
+    private final List<Object> parameters = new ArrayList<>();
+    private final List<String> projection = new ArrayList<>();
+    private boolean hasCondition;
+    private boolean hasOrder;
+    private boolean hasLimit;
+    private boolean cached;
+
+    Query(EntityManager entityManager, Class<T> modelClass) {
+        this.entityManager = entityManager;
+        this.metadata = EntityMetadata.of(modelClass);
+
+        if (!metadata.isEntity())
+            throw new IllegalArgumentException(String.format("%s does not have the @Entity annotation", modelClass.getSimpleName()));
+
+        shape.add(modelClass);
+    }
+
+    /**
+     * Copies the fields, conditions and clauses of a query, so the copy can be extended without changing the original
+     */
+    private Query(Query<T> query) {
+        this.entityManager = query.entityManager;
+        this.metadata = query.metadata;
+        this.shape.addAll(query.shape);
+        this.parameters.addAll(query.parameters);
+        this.projection.addAll(query.projection);
+        this.hasCondition = query.hasCondition;
+        this.hasOrder = query.hasOrder;
+        this.hasLimit = query.hasLimit;
+        this.cached = query.cached;
+    }
+
+    /**
+     * The condition on a single field, completed by one of its operators
+     */
+    public final class Condition {
+        private final Clause clause;
+        private final FieldMetadata field;
+
+        private Condition(Clause clause, FieldMetadata field) {
+            this.clause = clause;
+            this.field = field;
+        }
+
+        public Query<T> eq(Object value) {
+            return value == null ? isNull() : add(Operator.EQ, value);
+        }
+
+        public Query<T> ne(Object value) {
+            return value == null ? isNotNull() : add(Operator.NE, value);
+        }
+
+        public Query<T> lt(Object value) {
+            return add(Operator.LT, value);
+        }
+
+        public Query<T> le(Object value) {
+            return add(Operator.LE, value);
+        }
+
+        public Query<T> gt(Object value) {
+            return add(Operator.GT, value);
+        }
+
+        public Query<T> ge(Object value) {
+            return add(Operator.GE, value);
+        }
+
+        /**
+         * @param pattern The pattern of the SQL {@code LIKE} operator, e.g. {@code "%groceries%"}
+         */
+        public Query<T> like(String pattern) {
+            return add(Operator.LIKE, pattern);
+        }
+
+        /**
+         * Matches the values in the inclusive range between {@code from} and {@code to}
+         */
+        public Query<T> between(Object from, Object to) {
+            return add(Operator.BETWEEN, from, to);
+        }
+
+        public Query<T> isNull() {
+            return add(Operator.IS_NULL);
+        }
+
+        public Query<T> isNotNull() {
+            return add(Operator.IS_NOT_NULL);
+        }
+
+        public Query<T> in(Collection<?> values) {
+            return add(Operator.IN, values.toArray());
+        }
+
+        public Query<T> notIn(Collection<?> values) {
+            return add(Operator.NOT_IN, values.toArray());
+        }
+
+        private Query<T> add(Operator operator, Object... values) {
+            boolean isIn = operator == Operator.IN || operator == Operator.NOT_IN;
+
+            if (isIn && values.length == 0)
+                throw new IllegalArgumentException(String.format("%s %s requires at least one value", field, operator));
+
+            for (Object value : values) {
+                if (value == null)
+                    throw new IllegalArgumentException(String.format("%s %s does not accept null values", field, operator));
+            }
+
+            for (Object value : values) {
+                parameters.add(toParameter(field, value));
+            }
+
+            shape.add(clause);
+            shape.add(field);
+            shape.add(operator);
+
+            // The number of placeholders is part of the shape of an IN condition
+            if (isIn) {
+                shape.add(values.length);
+            }
+
+            return Query.this;
+        }
+    }
+
+    /**
+     * Starts the first condition of the query
+     *
+     * @param fieldName The name of the field to filter on
+     * @return The condition, completed by one of its operators
+     * @throws IllegalArgumentException If the entity has no column for the field, or the query already has a condition
+     */
+    public Condition where(String fieldName) {
+        if (hasCondition)
+            throw new IllegalArgumentException("The query already has a WHERE clause, use and(...) or or(...)");
+
+        hasCondition = true;
+        return condition(Clause.WHERE, fieldName);
+    }
+
+    /**
+     * Adds a condition which must hold as well
+     *
+     * @param fieldName The name of the field to filter on
+     * @return The condition, completed by one of its operators
+     */
+    public Condition and(String fieldName) {
+        return hasCondition ? condition(Clause.AND, fieldName) : where(fieldName);
+    }
+
+    /**
+     * Adds an alternative condition
+     *
+     * @param fieldName The name of the field to filter on
+     * @return The condition, completed by one of its operators
+     */
+    public Condition or(String fieldName) {
+        if (!hasCondition)
+            throw new IllegalArgumentException("or(...) must follow a condition");
+
+        return condition(Clause.OR, fieldName);
+    }
+
+    /**
+     * Only selects the given fields, the other fields of the returned models keep their default value.
+     * Projected models are not tracked for partial updates
+     *
+     * @param fieldNames The names of the fields to select
+     * @return This query
+     */
+    public Query<T> select(String... fieldNames) {
+        for (String fieldName : fieldNames) {
+            FieldMetadata field = column(fieldName);
+            projection.add(field.getColumnName());
+            shape.add(Clause.SELECT);
+            shape.add(field);
+        }
+
+        return this;
+    }
+
+    /**
+     * Sorts the results on the field in ascending order, after the fields already ordered on
+     */
+    public Query<T> orderBy(String fieldName) {
+        return order(Clause.ORDER_ASC, fieldName);
+    }
+
+    /**
+     * Sorts the results on the field in descending order, after the fields already ordered on
+     */
+    public Query<T> orderByDescending(String fieldName) {
+        return order(Clause.ORDER_DESC, fieldName);
+    }
+
+    /**
+     * Limits the number of returned rows
+     *
+     * @param limit The maximum number of rows
+     * @return This query
+     */
+    public Query<T> limit(int limit) {
+        if (limit < 0)
+            throw new IllegalArgumentException("The limit must not be negative");
+
+        if (hasLimit)
+            throw new IllegalArgumentException("The query already has a limit");
+
+        hasLimit = true;
+        shape.add(Clause.LIMIT);
+        parameters.add(limit);
+        return this;
+    }
+
+    /**
+     * Skips the first rows of the results, requires a {@link #limit(int)}
+     *
+     * @param offset The number of rows to skip
+     * @return This query
+     */
+    public Query<T> offset(int offset) {
+        if (offset < 0)
+            throw new IllegalArgumentException("The offset must not be negative");
+
+        if (!hasLimit || shape.contains(Clause.OFFSET))
+            throw new IllegalArgumentException("An offset requires a limit and can only be set once");
+
+        shape.add(Clause.OFFSET);
+        parameters.add(offset);
+        return this;
+    }
+
+    /**
+     * Caches the ids of the returned rows in the {@link QueryResultCache}, so the same query with the same values is
+     * answered from the identity map, the second-level cache or a lookup by id until its table is written.
+     * Projections are not cached
+     *
+     * @return This query
+     */
+    public Query<T> cached() {
+        cached = true;
+        return this;
+    }
+
+    /**
+     * Executes the query
+     *
+     * @return The matching models, or an empty list if the query failed
+     */
+    public List<T> list() {
+        return entityManager.list(this);
+    }
+
+    /**
+     * Executes the query with a limit of one row, the query itself is not changed
+     *
+     * @return The first matching model, or {@code null} if there is none
+     */
+    public T first() {
+        List<T> models = firstRow().list();
+        return models.isEmpty() ? null : models.getFirst();
+    }
+
+    /**
+     * Executes the query as a projection into a record, which only selects the columns of the components of the record.
+     * The components are matched by name to the fields of the entity and passed to the canonical constructor, e.g.
+     * {@code record TodoSummary(int id, String title, boolean isCompleted)}
+     *
+     * @param recordClass The class of the record
+     * @return A record for every matching row, or an empty list if the query failed
+     * @throws IllegalArgumentException If a component does not match a column of the entity
+     */
+    public <R extends Record> List<R> list(Class<R> recordClass) {
+        return entityManager.list(this, RecordMapper.of(metadata.getModelClass(), recordClass));
+    }
+
+    /**
+     * Executes the query as a projection into a record with a limit of one row
+     *
+     * @param recordClass The class of the record
+     * @return The record of the first matching row, or {@code null} if there is none
+     */
+    public <R extends Record> R first(Class<R> recordClass) {
+        List<R> records = firstRow().list(recordClass);
+        return records.isEmpty() ? null : records.getFirst();
+    }
+
+    /**
+     * @return A copy of this query with a limit of one row, or this query if it has a limit already
+     */
+    private Query<T> firstRow() {
+        return hasLimit ? this : new Query<>(this).limit(1);
+    }
+
+    /**
+     * Counts the matching rows in the database
+     *
+     * @return The number of matching rows, or {@code 0} if the query failed
+     */
+    public long count() {
+        return aggregate(Aggregate.COUNT, null, null, resultSet -> resultSet.next() ? resultSet.getLong(1) : 0L, 0L);
+    }
+
+    /**
+     * Sums a numeric field over the matching rows in the database
+     *
+     * @param fieldName The name of the field to sum
+     * @return The sum as a {@link Long} for an integral field and a {@link Double} otherwise, {@code 0} if no row matches
+     *          and {@code null} if the query failed
+     */
+    public Number sum(String fieldName) {
+        FieldMetadata field = numericColumn(fieldName);
+        return aggregate(Aggregate.SUM, field, null, resultSet -> readSum(resultSet.next() ? resultSet : null, 1, field), null);
+    }
+
+    /**
+     * Averages a numeric field over the matching rows in the database
+     *
+     * @param fieldName The name of the field to average
+     * @return The average, or {@code null} if no row matches or the query failed
+     */
+    public Double avg(String fieldName) {
+        FieldMetadata field = numericColumn(fieldName);
+        return aggregate(Aggregate.AVG, field, null, resultSet -> resultSet.next() ? readAverage(resultSet, 1) : null, null);
+    }
+
+    /**
+     * Finds the lowest value of a field over the matching rows in the database
+     *
+     * @param fieldName The name of the field
+     * @return The lowest value, read like the field itself, e.g. a {@link java.util.Date} for a {@code DATETIME} column.
+     *          {@code null} if no row matches or the query failed
+     */
+    public <V> V min(String fieldName) {
+        return extreme(Aggregate.MIN, fieldName);
+    }
+
+    /**
+     * Finds the highest value of a field over the matching rows in the database
+     *
+     * @param fieldName The name of the field
+     * @return The highest value, read like the field itself, e.g. a {@link java.util.Date} for a {@code DATETIME} column.
+     *          {@code null} if no row matches or the query failed
+     */
+    public <V> V max(String fieldName) {
+        return extreme(Aggregate.MAX, fieldName);
+    }
+
+    /**
+     * Groups the matching rows on the value of a field, to compute an aggregate per group
+     *
+     * @param fieldName The name of the field to group on
+     * @return The grouping, computed by one of its aggregates
+     */
+    public Grouping groupBy(String fieldName) {
+        return new Grouping(aggregateColumn(fieldName));
+    }
+
+    /**
+     * The matching rows grouped on the value of a field. Every aggregate returns a map from the value of the field,
+     * read like the field itself, to the aggregate of its group, ordered on the value of the field
+     */
+    public final class Grouping {
+        private final FieldMetadata groupField;
+
+        private Grouping(FieldMetadata groupField) {
+            this.groupField = groupField;
+        }
+
+        /**
+         * @return The number of rows per group, or an empty map if the query failed
+         */
+        public <K> Map<K, Long> count() {
+            return group(Aggregate.COUNT, null, (resultSet, index) -> resultSet.getLong(index));
+        }
+
+        /**
+         * @param fieldName The name of the numeric field to sum
+         * @return The sum per group, see {@link Query#sum(String)}
+         */
+        public <K> Map<K, Number> sum(String fieldName) {
+            FieldMetadata field = numericColumn(fieldName);
+            return group(Aggregate.SUM, field, (resultSet, index) -> readSum(resultSet, index, field));
+        }
+
+        /**
+         * @param fieldName The name of the numeric field to average
+         * @return The average per group
+         */
+        public <K> Map<K, Double> avg(String fieldName) {
+            return group(Aggregate.AVG, numericColumn(fieldName), Query::readAverage);
+        }
+
+        /**
+         * @param fieldName The name of the field
+         * @return The lowest value per group
+         */
+        @SuppressWarnings("unchecked")
+        public <K, V> Map<K, V> min(String fieldName) {
+            FieldMetadata field = aggregateColumn(fieldName);
+            return group(Aggregate.MIN, field, (resultSet, index) -> (V) readField(resultSet, index, field));
+        }
+
+        /**
+         * @param fieldName The name of the field
+         * @return The highest value per group
+         */
+        @SuppressWarnings("unchecked")
+        public <K, V> Map<K, V> max(String fieldName) {
+            FieldMetadata field = aggregateColumn(fieldName);
+            return group(Aggregate.MAX, field, (resultSet, index) -> (V) readField(resultSet, index, field));
+        }
+
+        @SuppressWarnings("unchecked")
+        private <K, V> Map<K, V> group(Aggregate aggregate, FieldMetadata field, ColumnReader<V> valueReader) {
+            return aggregate(aggregate, field, groupField, resultSet -> {
+                Map<K, V> groups = new LinkedHashMap<>();
+
+                while (resultSet.next()) {
+                    groups.put((K) readField(resultSet, 1, groupField), valueReader.read(resultSet, 2));
+                }
+
+                return groups;
+            }, new LinkedHashMap<>());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader<V> {
+        V read(ResultSet resultSet, int columnIndex) throws SQLException;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> V extreme(Aggregate aggregate, String fieldName) {
+        FieldMetadata field = aggregateColumn(fieldName);
+        return aggregate(aggregate, field, null, resultSet -> resultSet.next() ? (V) readField(resultSet, 1, field) : null, null);
+    }
+
+    /**
+     * Executes an aggregate over the conditions of this query, its order is ignored
+     */
+    private <V> V aggregate(Aggregate aggregate, FieldMetadata field, FieldMetadata groupField, EntityManager.ResultReader<V> reader, V fallback) {
+        if (hasLimit)
+            throw new IllegalArgumentException("Aggregates cannot be combined with limit(...) or offset(...)");
+
+        List<Object> aggregateShape = new ArrayList<>(shape.size() + 4);
+
+        for (int i = 0; i < shape.size(); i++) {
+            Object part = shape.get(i);
+
+            // Only the conditions are kept, projections and orders are skipped together with their field
+            if (part == Clause.SELECT || part == Clause.ORDER_ASC || part == Clause.ORDER_DESC) {
+                i++;
+                continue;
+            }
+
+            aggregateShape.add(part);
+        }
+
+        aggregateShape.add(aggregate);
+        String function = field == null ? aggregate.format : String.format(aggregate.format, field.getColumnName());
+
+        if (field != null) {
+            aggregateShape.add(field);
+        }
+
+        List<String> columns = new ArrayList<>(2);
+
+        if (groupField != null) {
+            aggregateShape.add(Clause.GROUP_BY);
+            aggregateShape.add(groupField);
+            columns.add(groupField.getColumnName());
+        }
+
+        columns.add(function);
+        return entityManager.aggregate(toSQLQuery(aggregateShape, columns), reader, fallback);
+    }
+
+    private FieldMetadata aggregateColumn(String fieldName) {
+        FieldMetadata field = column(fieldName);
+
+        if (field.isForeignKey())
+            throw new IllegalArgumentException(String.format("The relation %s cannot be aggregated", field));
+
+        return field;
+    }
+
+    private FieldMetadata numericColumn(String fieldName) {
+        FieldMetadata field = aggregateColumn(fieldName);
+        Class<?> type = MapperSupport.box(field.getType());
+
+        if (type.getSuperclass() != Number.class)
+            throw new IllegalArgumentException(String.format("%s is not numeric", field));
+
+        return field;
+    }
+
+    private static Object readField(ResultSet resultSet, int columnIndex, FieldMetadata field) throws SQLException {
+        return MapperSupport.readValue(resultSet, columnIndex, field, MapperSupport.box(field.getType()));
+    }
+
+    /**
+     * Reads a SUM, which is NULL when no row matches, as a {@link Long} for an integral field and a {@link Double} otherwise
+     */
+    private static Number readSum(ResultSet resultSet, int columnIndex, FieldMetadata field) throws SQLException {
+        Class<?> type = MapperSupport.box(field.getType());
+        boolean isIntegral = type == Integer.class || type == Long.class || type == Short.class || type == Byte.class;
+
+        // Separate returns, a conditional expression would promote the long to a double
+        if (isIntegral)
+            return resultSet != null ? resultSet.getLong(columnIndex) : 0L;
+
+        return resultSet != null ? resultSet.getDouble(columnIndex) : 0.0;
+    }
+
+    private static Double readAverage(ResultSet resultSet, int columnIndex) throws SQLException {
+        double average = resultSet.getDouble(columnIndex);
+        return resultSet.wasNull() ? null : average;
+    }
+
+    /**
+     * @return The class of the queried model
+     */
+    public Class<T> getModelClass() {
+        return metadata.getModelClass();
+    }
+
+    /**
+     * @return {@code true} if the result of the query is cached by {@link #cached()}
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    /**
+     * @return {@code true} if the query selects every column of the entity
+     */
+    public boolean selectsAllColumns() {
+        return projection.isEmpty();
+    }
+
+    /**
+     * Compiles the query, the SQL text is reused for every query of the same shape
+     *
+     * @return The SQL text with the bound values
+     */
+    public SQLQuery toSQLQuery() {
+        return toSQLQuery(shape, projection);
+    }
+
+    /**
+     * Compiles the query as a projection which only selects the columns of the components of the record
+     *
+     * @param recordMapper The mapper of the record
+     * @return The SQL text with the bound values
+     * @throws IllegalArgumentException If the query already selects a set of fields
+     */
+    SQLQuery toSQLQuery(RecordMapper<?> recordMapper) {
+        if (!projection.isEmpty())
+            throw new IllegalArgumentException("A record projection selects the columns of its components, remove select(...)");
+
+        List<Object> recordShape = new ArrayList<>(shape.size() + 1);
+        recordShape.addAll(shape);
+        recordShape.add(recordMapper.getRecordClass());
+
+        List<String> columns = new ArrayList<>();
+
+        for (String fieldName : recordMapper.getFieldNames()) {
+            columns.add(metadata.findField(fieldName).getColumnName());
+        }
+
+        return toSQLQuery(recordShape, columns);
+    }
+
+    private SQLQuery toSQLQuery(List<Object> shape, List<String> projection) {
+        String sql = COMPILED.get(shape);
+
+        if (sql == null) {
+            sql = compile(shape, projection);
+            COMPILED.putIfAbsent(List.copyOf(shape), sql);
+        }
+
+        return new SQLQuery(sql, new ArrayList<>(parameters));
+    }
+
+    @Override
+    public String toString() {
+        return toSQLQuery().sql();
+    }
+
+    private Condition condition(Clause clause, String fieldName) {
+        if (hasOrder || hasLimit)
+            throw new IllegalArgumentException("Conditions must be added before orderBy(...) and limit(...)");
+
+        return new Condition(clause, column(fieldName));
+    }
+
+    private Query<T> order(Clause clause, String fieldName) {
+        if (hasLimit)
+            throw new IllegalArgumentException("orderBy(...) must be added before limit(...)");
+
+        hasOrder = true;
+        shape.add(clause);
+        shape.add(column(fieldName));
+        return this;
+    }
+
+    private FieldMetadata column(String fieldName) {
+        FieldMetadata field = metadata.findField(fieldName);
+
+        if (field == null || !field.hasColumn())
+            throw new IllegalArgumentException(String.format("%s does not have a column for the field %s", metadata.getModelClass().getSimpleName(), fieldName));
+
+        return field;
+    }
+
+    /**
+     * Binds a value like the other statements do, a related model is bound as its id
+     */
+    private static Object toParameter(FieldMetadata field, Object value) {
+        if (field.isForeignKey() && value instanceof IModel related) {
+            FieldMetadata relatedId = EntityMetadata.of(related).getIdField();
+            return relatedId != null ? relatedId.getAccessor().get(related) : null;
+        }
+
+        return SQLGenerator.toParameter(field, value);
+    }
+
+    /**
+     * Builds the SQL text from the shape of the query
+     */
+    private String compile(List<Object> shape, List<String> projection) {
+        // Full rows are selected together with the relations fetched with a JOIN, so their columns are qualified
+        EntityStatements<T> statements = EntityStatements.of(metadata.getModelClass());
+        Function<FieldMetadata, String> columns = projection.isEmpty() ? statements::columnReference : FieldMetadata::getColumnName;
+
+        StringBuilder sql = new StringBuilder(projection.isEmpty()
+                ? statements.selectFrom()
+                : String.format("SELECT %s FROM %s", String.join(", ", projection), metadata.getTableName()));
+
+        boolean isFirstOrder = true;
+
+        for (int i = 1; i < shape.size(); i++) {
+            if (!(shape.get(i) instanceof Clause clause))
+                continue;
+
+            switch (clause) {
+                case WHERE, AND, OR -> {
+                    FieldMetadata field = (FieldMetadata) shape.get(i + 1);
+                    Operator operator = (Operator) shape.get(i + 2);
+                    String target = columns.apply(field);
+
+                    sql.append(clause == Clause.WHERE ? " WHERE " : " " + clause.name() + " ");
+
+                    if (operator == Operator.IN || operator == Operator.NOT_IN) {
+                        int count = (int) shape.get(i + 3);
+                        sql.append(String.format(operator.format, target, String.join(", ", Collections.nCopies(count, "?"))));
+                    } else {
+                        sql.append(String.format(operator.format, target));
+                    }
+                }
+                case ORDER_ASC, ORDER_DESC -> {
+                    sql.append(isFirstOrder ? " ORDER BY " : ", ");
+                    sql.append(columns.apply((FieldMetadata) shape.get(i + 1)));
+                    sql.append(clause == Clause.ORDER_ASC ? " ASC" : " DESC");
+                    isFirstOrder = false;
+                }
+                case GROUP_BY -> {
+                    String column = ((FieldMetadata) shape.get(i + 1)).getColumnName();
+                    sql.append(" GROUP BY ").append(column).append(" ORDER BY ").append(column);
+                }
+                case LIMIT -> sql.append(" LIMIT ?");
+                case OFFSET -> sql.append(" OFFSET ?");
+                case SELECT -> { }
+            }
+        }
+
+        String compiled = sql.append(";").toString();
+        Logger.query(compiled);
+
+        return compiled;
+    }
+}
@@ -0,0 +1,32 @@
+package org.zenith.util;
+
+import java.util.List;
+
+/**
+ * The plan SQLite chose for a statement, as reported by {@code EXPLAIN QUERY PLAN} when it was first executed
+ *
+ * @param sql The SQL text of the statement
+ * @param steps The detail of every step of the plan, e.g. {@code SEARCH subitem USING INDEX subitem_todoItem_id_idx (todoItem_id=?)}
+ * @param fullScans The tables the statement filters by reading every row, which held more rows than the threshold
+ */
+public record QueryPlan(String sql, List<String> steps, List<FullScan> fullScans) {
+    /**
+     * A table which is read row by row instead of through an index
+     *
+     * @param table The name of the table
+     * @param rowCount The number of rows of the table when the plan was reported
+     */
+    public record FullScan(String table, long rowCount) { }
+
+    public QueryPlan {
+        steps = List.copyOf(steps);
+        fullScans = List.copyOf(fullScans);
+    }
+
+    /**
+     * @return {@code true} if the statement scans a table which is larger than the threshold
+     */
+    public boolean hasFullScans() {
+        return !fullScans.isEmpty();
+    }
+}
@@ -0,0 +1,193 @@
+package org.zenith.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Captures the {@code EXPLAIN QUERY PLAN} of every distinct statement of a connection the first time it is executed.
+ * <p>
+ * A step {@code SCAN <table>} without {@code USING ... INDEX} reads the whole table. When the statement has a WHERE
+ * clause and the table holds more rows than the threshold it is reported as a full scan, which usually means an index
+ * on the filtered columns is missing. Statements without a WHERE clause read every row by design and are not reported.
+ * <p>
+ * Only the plan and the tables it scans are captured. The rows of the scanned tables are counted again whenever the
+ * plans are reported, so a statement first executed against a small table is reported once the table grew past the
+ * threshold.
+ */
+final class QueryPlanCache {
+    private static final int CAPACITY = 1024;
+    private static final Pattern WHERE = Pattern.compile("\\bWHERE\\b", Pattern.CASE_INSENSITIVE);
+
+    private final Connection connection;
+    private final long rowThreshold;
+    private final Map<String, CapturedPlan> plans;
+
+    /**
+     * The steps of the plan of a statement and the tables it filters by reading every row
+     */
+    private record CapturedPlan(List<String> steps, List<String> scannedTables) { }
+
+    QueryPlanCache(Connection connection, long rowThreshold) {
+        if (rowThreshold < 0) {
+            throw new IllegalArgumentException("The row threshold of the query plan capture cannot be negative");
+        }
+
+        this.connection = connection;
+        this.rowThreshold = rowThreshold;
+        this.plans = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CapturedPlan> eldest) {
+                return size() > CAPACITY;
+            }
+        };
+    }
+
+    /**
+     * Captures the plan of the statement if it has not been seen before and reports its full scans through the {@link Logger}.
+     * A statement SQLite cannot explain is logged and not captured, its execution reports the actual error
+     *
+     * @param sql The SQL text of the statement
+     */
+    void inspect(String sql) {
+        if (plans.containsKey(sql)) {
+            return;
+        }
+
+        try {
+            CapturedPlan captured = explain(sql);
+            plans.put(sql, captured);
+
+            for (QueryPlan.FullScan scan : report(sql, captured, new HashMap<>()).fullScans()) {
+                Logger.warn(String.format("Full scan of %s (%d rows): %s", scan.table(), scan.rowCount(), sql));
+            }
+        } catch (SQLException ex) {
+            Logger.error(String.format("Could not capture the query plan of %s: %s", sql, ex.getMessage()));
+        }
+    }
+
+    private CapturedPlan explain(String sql) throws SQLException {
+        List<String> steps = new ArrayList<>();
+        List<String> scannedTables = new ArrayList<>();
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN QUERY PLAN " + sql)) {
+
+            while (resultSet.next()) {
+                steps.add(resultSet.getString("detail"));
+            }
+        }
+
+        if (WHERE.matcher(sql).find()) {
+            for (String step : steps) {
+                String table = scannedTable(sql, step);
+
+                if (table != null) {
+                    scannedTables.add(table);
+                }
+            }
+        }
+
+        return new CapturedPlan(List.copyOf(steps), List.copyOf(scannedTables));
+    }
+
+    /**
+     * Builds the plan of a captured statement with the current number of rows of the tables it scans
+     *
+     * @param rowCounts The rows of the tables counted for the same report, so every table is counted once
+     */
+    private QueryPlan report(String sql, CapturedPlan captured, Map<String, Long> rowCounts) {
+        List<QueryPlan.FullScan> fullScans = new ArrayList<>();
+
+        for (String table : captured.scannedTables()) {
+            Long rowCount = rowCounts.get(table);
+
+            if (rowCount == null) {
+                rowCount = countRows(table);
+                rowCounts.put(table, rowCount);
+            }
+
+            if (rowCount > rowThreshold) {
+                fullScans.add(new QueryPlan.FullScan(table, rowCount));
+            }
+        }
+
+        return new QueryPlan(sql, captured.steps(), fullScans);
+    }
+
+    /**
+     * @return The table read in full by the step, or {@code null} if the step does not scan a table without an index
+     */
+    private String scannedTable(String sql, String step) throws SQLException {
+        if (!step.startsWith("SCAN ") || step.contains(" USING ")) {
+            return null;
+        }
+
+        String name = step.substring("SCAN ".length()).split(" ", 2)[0];
+
+        if (isTable(name)) {
+            return name;
+        }
+
+        // The plan names a table by its alias, e.g. "SCAN t" for "FROM todoitem t"
+        Matcher matcher = Pattern.compile("\\b(?:FROM|JOIN)\\s+(\\w+)\\s+(?:AS\\s+)?" + Pattern.quote(name) + "\\b",
+                Pattern.CASE_INSENSITIVE).matcher(sql);
+
+        return matcher.find() && isTable(matcher.group(1)) ? matcher.group(1) : null;
+    }
+
+    private boolean isTable(String name) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = ?;")) {
+            statement.setString(1, name);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+
+    /**
+     * @return The number of rows of the table, or 0 if it cannot be counted, e.g. because it was dropped since
+     */
+    private long countRows(String table) {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(String.format("SELECT COUNT(*) FROM \"%s\";", table))) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        } catch (SQLException ex) {
+            Logger.error(String.format("Could not count the rows of %s: %s", table, ex.getMessage()));
+            return 0;
+        }
+    }
+
+    /**
+     * @param sql The SQL text of the statement
+     * @return The captured plan of the statement, or {@code null} if it has not been executed since the capture started
+     */
+    QueryPlan get(String sql) {
+        CapturedPlan captured = plans.get(sql);
+        return captured != null ? report(sql, captured, new HashMap<>()) : null;
+    }
+
+    /**
+     * @return The captured plans, in the order the statements were first executed
+     */
+    List<QueryPlan> getPlans() {
+        Map<String, Long> rowCounts = new HashMap<>();
+        List<QueryPlan> reported = new ArrayList<>(plans.size());
+
+        for (Map.Entry<String, CapturedPlan> entry : plans.entrySet()) {
+            reported.add(report(entry.getKey(), entry.getValue(), rowCounts));
+        }
+
+        return reported;
+    }
+}
@@ -0,0 +1,167 @@
+package org.zenith.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Caches the ids of the rows returned by the typed queries marked with {@link Query#cached()}, keyed by their SQL text
+ * and bound values, so a repeated query is answered from the identity map, the entity cache or a lookup by id instead of
+ * running it again.
+ * <p>
+ * Every table has a version, which is incremented by every statement executed through the {@link SQLiteDatabase} that
+ * writes it. A cached result holds the version of its table when the query ran and is stale as soon as the table was
+ * written since, so a write never has to find the results it affects. Stale results are dropped when they are looked up
+ * or when they are the least recently used result of a full cache.
+ */
+public final class QueryResultCache {
+    private static final int CAPACITY = 1024;
+    private static final Pattern WRITE = Pattern.compile(
+            "^\\s*(?:INSERT(?:\\s+OR\\s+\\w+)?\\s+INTO|REPLACE\\s+INTO|UPDATE(?:\\s+OR\\s+\\w+)?|DELETE\\s+FROM|DROP\\s+TABLE(?:\\s+IF\\s+EXISTS)?)\\s+[\"`\\[]?(\\w+)",
+            Pattern.CASE_INSENSITIVE);
+    private static final QueryResultCache INSTANCE = new QueryResultCache();
+
+    private final Map<Key, Result> results = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Result> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+    private final Map<String, Long> tableVersions = new HashMap<>();
+
+    private long hits;
+    private long misses;
+    private long invalidations;
+
+    /**
+     * The SQL text and the bound values of a query, compared by value including the contents of arrays
+     */
+    private record Key(String sql, Object[] parameters) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && sql.equals(key.sql) && Arrays.deepEquals(parameters, key.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sql.hashCode() + Arrays.deepHashCode(parameters);
+        }
+    }
+
+    private record Result(String table, long version, long[] ids) { }
+
+    /**
+     * The counters of the cache since it was created or cleared
+     *
+     * @param hits The number of queries answered from the cache
+     * @param misses The number of queries which had to run, including those with a stale result
+     * @param invalidations The number of statements which wrote a table
+     * @param size The number of cached results, including stale ones
+     */
+    public record Statistics(long hits, long misses, long invalidations, int size) {
+        /**
+         * @return The fraction of queries answered from the cache, or 0 if there were no queries
+         */
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    private QueryResultCache() { }
+
+    public static QueryResultCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param query The SQL text and bound values of the query
+     * @param table The table the query reads
+     * @return The ids of the rows the query returned, in order, or {@code null} if there is no result or it is stale
+     */
+    synchronized long[] get(SQLQuery query, String table) {
+        Key key = new Key(query.sql(), query.parameters().toArray());
+        Result result = results.get(key);
+
+        if (result != null && result.version() != version(table)) {
+            results.remove(key);
+            result = null;
+        }
+
+        if (result == null) {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        return result.ids();
+    }
+
+    /**
+     * Caches the ids returned by a query
+     *
+     * @param query The SQL text and bound values of the query
+     * @param table The table the query reads
+     * @param version The {@link #version(String) version} of the table before the query ran
+     * @param ids The ids of the returned rows, in order
+     */
+    synchronized void put(SQLQuery query, String table, long version, long[] ids) {
+        if (version == version(table)) {
+            results.put(new Key(query.sql(), query.parameters().toArray()), new Result(table, version, ids));
+        }
+    }
+
+    /**
+     * @param table The name of the table
+     * @return The number of times the table was written
+     */
+    synchronized long version(String table) {
+        return tableVersions.getOrDefault(table.toLowerCase(Locale.ROOT), 0L);
+    }
+
+    /**
+     * Marks the cached results of the queries reading the table as stale
+     *
+     * @param table The name of the table
+     */
+    public synchronized void invalidate(String table) {
+        tableVersions.merge(table.toLowerCase(Locale.ROOT), 1L, Long::sum);
+        invalidations++;
+    }
+
+    /**
+     * Invalidates the table written by the statement, if it is an INSERT, UPDATE, DELETE or DROP TABLE
+     *
+     * @param sql The SQL text of the statement
+     */
+    void invalidateWrittenTable(String sql) {
+        // Most statements are selects, which are recognized without the pattern
+        char first = sql.isEmpty() ? ' ' : Character.toUpperCase(sql.charAt(0));
+
+        if (first == 'S' || first == 'C' || first == 'P')
+            return;
+
+        Matcher matcher = WRITE.matcher(sql);
+
+        if (matcher.find()) {
+            invalidate(matcher.group(1));
+        }
+    }
+
+    /**
+     * Removes every result and resets the statistics
+     */
+    public synchronized void clear() {
+        results.clear();
+        tableVersions.clear();
+        hits = misses = invalidations = 0;
+    }
+
+    public synchronized Statistics getStatistics() {
+        return new Statistics(hits, misses, invalidations, results.size());
+    }
+}
@@ -1,12 +1,11 @@
 package org.zenith.util;
 
-import org.zenith.annotation.Column;
-import org.zenith.annotation.Id;
 import org.zenith.annotation.relation.ManyToOne;
-import org.zenith.annotation.relation.OneToMany;
 import org.zenith.annotation.relation.OneToOne;
 import org.zenith.model.interfaces.IModel;
-import org.zenith.util.strategies.reflection.*;
+import org.zenith.util.mapper.RowMappingPlan;
+import org.zenith.util.metadata.EntityMetadata;
+import org.zenith.util.metadata.FieldMetadata;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
@@ -19,11 +18,6 @@ import java.util.*;
 
 public class ReflectionUtil {
     private static final Set<Class<? extends Annotation>> RELATION_ANNOTATIONS = Set.of(OneToOne.class, ManyToOne.class);
-    private static final Map<Class<? extends Annotation>, FieldMappingStrategy> MAPPING_STRATEGIES = Map.of(
-            Id.class, new IdFieldMappingStrategy(),
-            ManyToOne.class, new ManyToOneMappingStrategy(),
-            OneToMany.class, new OneToManyFieldMappingStrategy(),
-            Column.class, new ColumnFieldMappingStrategy());
 
     private ReflectionUtil() {
         throw new UnsupportedOperationException("This is an utility class and cannot be instantiated");
@@ -44,30 +38,26 @@ public class ReflectionUtil {
     public static <T extends IModel> T mapToModel(ResultSet resultSet, Class<T> modelClass)
             throws SQLException, IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException, NoSuchFieldException {
 
-        T model = modelClass.getDeclaredConstructor().newInstance();
-        Field[] fields = modelClass.getDeclaredFields();
-
-        for (Field field : fields) {
-            String fieldName = field.getName();
-
-            // If the field is the constructor we continue to the next in the loop
-            if (fieldName.equals("<init>")) {
-                continue;
-            }
-
-            field.setAccessible(true);
-            Annotation[] annotations = field.getDeclaredAnnotations();
-
-            for (Annotation annotation : annotations) {
-                FieldMappingStrategy strategy = MAPPING_STRATEGIES.get(annotation.annotationType());
+        return RowMappingPlan.of(resultSet, modelClass).map(resultSet);
+    }
 
-                if (strategy != null) {
-                    strategy.mapField(resultSet, model, field);
-                }
-            }
-        }
+    /**
+     * Maps every remaining row of a {@link ResultSet} to an instance of the specified model class.
+     * The columns of the result set are resolved once, after which every row is read by column index.
+     *
+     * @param resultSet The {@link ResultSet} containing the data to map, positioned before the first row to map
+     * @param modelClass The {@link Class} of the model to which the data should be mapped to
+     * @return The mapped models in the order of the rows
+     * @throws SQLException If there is an error accessing the {@link ResultSet}
+     * @throws IllegalAccessException If the field in the model class cannot be accessed
+     * @throws InstantiationException If the model class cannot be instantiated
+     * @throws NoSuchMethodException If the no-argument constructor of the model class is not found
+     * @throws InvocationTargetException If there is an exception thrown by the constructor
+     */
+    public static <T extends IModel> List<T> mapToModels(ResultSet resultSet, Class<T> modelClass)
+            throws SQLException, IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException, NoSuchFieldException {
 
-        return model;
+        return RowMappingPlan.of(resultSet, modelClass).mapAll(resultSet);
     }
 
     /**
@@ -120,9 +110,13 @@ public class ReflectionUtil {
     public static Object getValueOfField(IModel model, String fieldName)
             throws NoSuchFieldException, IllegalAccessException {
 
-        Field field = getFieldByName(model.getClass(), fieldName);
-        field.trySetAccessible();
-        return field.get(model);
+        FieldMetadata fieldMetadata = EntityMetadata.of(model).findField(fieldName);
+
+        if (fieldMetadata == null) {
+            return getFieldByName(model.getClass(), fieldName).get(model);
+        }
+
+        return fieldMetadata.getAccessor().get(model);
     }
 
     /**
@@ -148,6 +142,11 @@ public class ReflectionUtil {
      * @return The database column name as a {@link String}
      */
     public static String getFieldName(Field field) {
+        ManyToOne manyToOne = field.getAnnotation(ManyToOne.class);
+
+        if (manyToOne != null && !manyToOne.columnName().isEmpty())
+            return manyToOne.columnName();
+
         return RELATION_ANNOTATIONS
                 .stream()
                 .anyMatch(field::isAnnotationPresent)
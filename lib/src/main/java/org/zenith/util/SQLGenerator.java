@@ -3,15 +3,17 @@ package org.zenith.util;
 import org.zenith.annotation.Column;
 import org.zenith.annotation.Entity;
 import org.zenith.annotation.Id;
+import org.zenith.annotation.Index;
+import org.zenith.annotation.Unique;
 import org.zenith.annotation.relation.ManyToOne;
 import org.zenith.annotation.relation.OneToMany;
 import org.zenith.annotation.relation.OneToOne;
+import org.zenith.enumeration.ColumnType;
+import org.zenith.enumeration.EnumStorage;
 import org.zenith.model.interfaces.IModel;
+import org.zenith.util.metadata.EntityMetadata;
+import org.zenith.util.metadata.FieldMetadata;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.util.*;
 
 /**
@@ -24,62 +26,160 @@ public class SQLGenerator {
     }
 
     /**
-     * Generates an SQL query to create a table for a given model class
+     * Generates the SQL queries to create a table for a given model class, followed by the queries creating its indexes
      *
      * @param model The class representing the model for which the table is generated
-     * @return A string containing the SQL query to create the table
-     * @throws IllegalArgumentException If the model does not contain the annotated field
+     * @return The SQL query to create the table and the SQL queries to create its indexes
+     * @throws IllegalArgumentException If the model does not contain the annotated field or an index is invalid
      */
     private static List<String> generateCreateTable(Class<? extends IModel> model)
             throws IllegalArgumentException {
 
         StringBuilder queryBuilder = new StringBuilder();
-        List<Field> fields = ReflectionUtil.getFieldsOfModel(model);
+        EntityMetadata<?> metadata = EntityMetadata.of(model);
+        List<FieldMetadata> fields = metadata.getFields();
 
         if (fields.isEmpty()) {
             throw new IllegalArgumentException("The model must contain fields with annotations");
         }
 
-        queryBuilder.append(String.format("CREATE TABLE %s (", model.getSimpleName().toLowerCase()));
+        queryBuilder.append(String.format("CREATE TABLE %s (", metadata.getTableName()));
         List<String> conditions = new ArrayList<>();
+        List<String> foreignKeys = new ArrayList<>();
 
-        for (Field field : fields) {
-            String fieldName = field.getName();
-            String fieldTableName = field.getType().getSimpleName().toLowerCase();
+        for (FieldMetadata field : fields) {
+            String fieldName = field.getColumnName();
 
-            Annotation annotationOfField = field.getDeclaredAnnotations()[0];
-
-            switch (annotationOfField) {
+            switch (field.getAnnotation()) {
                 case Id ignored -> conditions.add(String.format("%s INTEGER PRIMARY KEY AUTOINCREMENT", fieldName));
-                case OneToOne ignored -> {
-                    conditions.add(String.format("%s INT", fieldName + "_id"));
-                    conditions.add(String.format("FOREIGN KEY (%s_id) REFERENCES %s(id)", fieldName, fieldTableName));
+                case OneToOne ignored -> { // Owning side
+                    conditions.add(String.format("%s INT", fieldName));
+                    foreignKeys.add(String.format("FOREIGN KEY (%s) REFERENCES %s(id)", fieldName, EntityMetadata.of(castToIModelClass(field.getType())).getTableName()));
                 }
                 case ManyToOne ignored -> { // Child
-                    conditions.add(String.format("%s INT", fieldName + "_id"));
-                    conditions.add(String.format("FOREIGN KEY (%s_id) REFERENCES %s(id)", fieldName, fieldTableName));
+                    conditions.add(String.format("%s INT", fieldName));
+                    foreignKeys.add(String.format("FOREIGN KEY (%s) REFERENCES %s(id)", fieldName, EntityMetadata.of(castToIModelClass(field.getType())).getTableName()));
                 }
                 case OneToMany ignored -> { } // Parent
                 case Column column -> {
                     switch (column.type()) {
-                        case BOOLEAN, INTEGER -> conditions.add(String.format("%s INTEGER", fieldName));
-                        case TEXT, DATETIME -> conditions.add(String.format("%s TEXT", fieldName));
+                        case BOOLEAN, INTEGER, LONG, DATETIME -> conditions.add(String.format("%s INTEGER", fieldName));
+                        case DOUBLE, REAL -> conditions.add(String.format("%s REAL", fieldName));
+                        case TEXT -> conditions.add(String.format("%s TEXT", fieldName));
+                        case BLOB -> conditions.add(String.format("%s BLOB", fieldName));
+                        case ENUM -> conditions.add(String.format("%s %s", fieldName, column.enumStorage() == EnumStorage.CODE ? "TEXT" : "INTEGER"));
                         case VARCHAR -> conditions.add(String.format("%s %s (%d)", fieldName, column.type(), column.size()));
                     }
                 }
-                default -> throw new IllegalStateException("Unexpected value: " + annotationOfField);
+                default -> throw new IllegalStateException("Unexpected value: " + field.getAnnotation());
             }
         }
 
+        // The table constraints have to follow all the column definitions
+        conditions.addAll(foreignKeys);
         queryBuilder.append(String.join(", ", conditions)).append(");");
 
         List<String> queries = new ArrayList<>();
         queries.add(queryBuilder.toString());
+        queries.addAll(generateCreateIndexes(metadata));
 
         queries.forEach(Logger::query);
         return queries;
     }
 
+    /**
+     * Generates the SQL queries to create the indexes declared with {@link Index} and {@link Unique} on the fields and
+     * the class of the model, and an index on every {@code @ManyToOne} and {@code @OneToOne} column which is not already
+     * the first column of such an index, as the related rows are looked up through it.
+     *
+     * @param metadata The metadata of the model
+     * @return The SQL queries to create the indexes
+     * @throws IllegalArgumentException If an index refers to a field without a column or two indexes have the same name
+     */
+    private static List<String> generateCreateIndexes(EntityMetadata<?> metadata)
+            throws IllegalArgumentException {
+
+        Map<String, String> indexes = new LinkedHashMap<>();
+        Set<String> leadingColumns = new HashSet<>();
+
+        for (FieldMetadata field : metadata.getFields()) {
+            for (Index index : field.getField().getAnnotationsByType(Index.class)) {
+                addIndex(metadata, indexes, leadingColumns, false, index.name(), fieldColumn(field, index.fields()), index.where());
+            }
+
+            for (Unique unique : field.getField().getAnnotationsByType(Unique.class)) {
+                addIndex(metadata, indexes, leadingColumns, true, unique.name(), fieldColumn(field, unique.fields()), unique.where());
+            }
+        }
+
+        Class<?> modelClass = metadata.getModelClass();
+
+        for (Index index : modelClass.getAnnotationsByType(Index.class)) {
+            addIndex(metadata, indexes, leadingColumns, false, index.name(), classColumns(metadata, index.fields()), index.where());
+        }
+
+        for (Unique unique : modelClass.getAnnotationsByType(Unique.class)) {
+            addIndex(metadata, indexes, leadingColumns, true, unique.name(), classColumns(metadata, unique.fields()), unique.where());
+        }
+
+        for (FieldMetadata field : metadata.getRelations()) {
+            if (field.isForeignKey() && !leadingColumns.contains(field.getColumnName())) {
+                addIndex(metadata, indexes, leadingColumns, false, "", List.of(field.getColumnName()), "");
+            }
+        }
+
+        return new ArrayList<>(indexes.values());
+    }
+
+    private static List<String> fieldColumn(FieldMetadata field, String[] fields) {
+        if (fields.length > 0)
+            throw new IllegalArgumentException(String.format("The index on %s cannot list fields, declare it on the class instead", field));
+
+        if (!field.hasColumn())
+            throw new IllegalArgumentException(String.format("%s does not have a column to index", field));
+
+        return List.of(field.getColumnName());
+    }
+
+    private static List<String> classColumns(EntityMetadata<?> metadata, String[] fields) {
+        if (fields.length == 0)
+            throw new IllegalArgumentException(String.format("The index on %s must list the fields it covers", metadata.getModelClass().getSimpleName()));
+
+        List<String> columns = new ArrayList<>(fields.length);
+
+        for (String fieldName : fields) {
+            FieldMetadata field = metadata.findField(fieldName);
+
+            if (field == null || !field.hasColumn())
+                throw new IllegalArgumentException(String.format("%s does not have a column for the field %s",
+                        metadata.getModelClass().getSimpleName(), fieldName));
+
+            columns.add(field.getColumnName());
+        }
+
+        return columns;
+    }
+
+    private static void addIndex(EntityMetadata<?> metadata, Map<String, String> indexes, Set<String> leadingColumns,
+                                 boolean isUnique, String name, List<String> columns, String where) {
+
+        String tableName = metadata.getTableName();
+        String indexName = name.isEmpty()
+                ? String.format("%s_%s_%s", tableName, String.join("_", columns), isUnique ? "key" : "idx")
+                : name;
+
+        if (indexes.containsKey(indexName))
+            throw new IllegalArgumentException(String.format("%s declares more than one index named %s", metadata.getModelClass().getSimpleName(), indexName));
+
+        indexes.put(indexName, String.format("CREATE %sINDEX %s ON %s (%s)%s;",
+                isUnique ? "UNIQUE " : "", indexName, tableName, String.join(", ", columns), where.isEmpty() ? "" : " WHERE " + where));
+
+        // A partial index does not contain every row, so it cannot serve the lookups of a relation
+        if (where.isEmpty()) {
+            leadingColumns.add(columns.getFirst());
+        }
+    }
+
     /**
      * Generates SQL queries to create tables for a list of model classes
      *
@@ -101,102 +201,52 @@ public class SQLGenerator {
     }
 
     /**
-     * Generates an SQL INSERT query for the given model instance
+     * Generates a parameterized SQL INSERT query for the given model instance
      *
      * @param model The instance of the model to be inserted into the database
-     * @return A string containing the SQL INSERT query
+     * @return The SQL INSERT query with the values of the columns as its parameters
      * @throws IllegalArgumentException If the model does not contain any annotated field
      * @throws NoSuchFieldException If a required field is not found
      * @throws IllegalAccessException If a field cannot be accessed
      */
-    public static List<String> generateInsert(IModel model)
+    public static List<SQLQuery> generateInsert(IModel model)
             throws IllegalArgumentException, NoSuchFieldException, IllegalAccessException {
 
-        StringBuilder queryBuilder = new StringBuilder();
-        List<Field> fields = ReflectionUtil.getFieldsOfModelWithoutTypes(model.getClass(), List.of(OneToMany.class));
-
-        if (fields == null || fields.isEmpty()) {
-            throw new IllegalArgumentException("The model must contain annotated fields");
-        }
-
-        String tableName = model.getClass().getSimpleName().toLowerCase();
-        String tableCols = String.join(", ", fields.stream()
-                .filter(field -> {
-                    try {
-                        Annotation annotation = field.getDeclaredAnnotations()[0];
-                        if (annotation instanceof Id) {
-                            Object idValue = ReflectionUtil.getValueOfField(model, field.getName());
-                            return idValue != null && !(idValue instanceof Integer && (int) idValue == 0);
-                        }
-                        return true;
-                    } catch (NoSuchFieldException | IllegalAccessException ex) {
-                        ex.printStackTrace();
-                        return true;
-                    }
-                })
-                .map(ReflectionUtil::getFieldName)
-                .toList());
-
-        queryBuilder.append(String.format("INSERT INTO %s (%s) VALUES (", tableName, tableCols));
-        List<String> fieldsToQueryString = new ArrayList<>();
+        SQLQuery query = EntityStatements.of(model).insert(model);
+        Logger.query(query.sql());
 
-        for (Field field : fields) {
-            String fieldName = field.getName();
-            Object fieldValue = ReflectionUtil.getValueOfField(model, fieldName);
-
-            if (fieldValue == null) {
-                fieldsToQueryString.add("NULL");
-                continue;
-            }
-
-            Annotation annotationOfField = field.getDeclaredAnnotations()[0];
-
-            if (annotationOfField instanceof Column column) {
-                switch (column.type()) {
-                    case VARCHAR, TEXT -> fieldsToQueryString.add(String.format("'%s'", fieldValue));
-                    case INTEGER -> fieldsToQueryString.add(String.format("%s", fieldValue));
-                    case BOOLEAN -> fieldsToQueryString.add(String.format("%d", !(fieldValue instanceof Boolean) ? 0 : ((boolean) fieldValue) ? 1 : 0));
-                    case DATETIME -> fieldsToQueryString.add(String.format("datetime(%d, 'unixepoch')", ((Date)fieldValue).getTime() / 1000));
-                }
-            } else if (annotationOfField instanceof Id) {
-                if ((int)fieldValue == 0)
-                    continue;
-
-                fieldsToQueryString.add(String.format("%d", (int)fieldValue));
-            } else if (annotationOfField instanceof OneToOne || annotationOfField instanceof ManyToOne) { // ManyToOne -> Child
-                Field relatedField = ReflectionUtil.getFieldByName((Class<? extends IModel>) field.getType(), "id");
-                Object relatedIdValue = relatedField.get(fieldValue);
-
-                fieldsToQueryString.add(String.format("%d", (int)relatedIdValue));
-            }
-        }
-
-        queryBuilder.append(String.join(", ", fieldsToQueryString));
-        queryBuilder.append(") RETURNING *;");
-
-        List<String> result = new ArrayList<>(List.of(queryBuilder.toString()));
-        result.forEach(Logger::query);
-
-        return result;
+        return new ArrayList<>(List.of(query));
     }
 
     /**
-     * Generates an SQL SELECT query for the given model instance with specified fields to return and query
+     * Generates a parameterized SQL SELECT query for the given model instance with specified fields to return and query
      *
      * @param modelClass The model instance for which the SELECT query is generated
      * @param fieldsToReturn The list of fields to include in the SELECT clause. If null or empty, all fields are included
      * @param fieldsToQuery The list of fields to include in the WHERE clause
-     * @return A string containing the SQL SELECT query
+     * @return The SQL SELECT query with the values of {@code fieldsToQuery} as its parameters
      * @throws NoSuchFieldException If a specified field is not found
      * @throws IllegalArgumentException If provided model does not have the {@link Entity} annotation
      */
-    public static String generateSelect(Class<? extends IModel> modelClass, List<String> fieldsToReturn, Map<String, Object> fieldsToQuery)
+    public static SQLQuery generateSelect(Class<? extends IModel> modelClass, List<String> fieldsToReturn, Map<String, Object> fieldsToQuery)
             throws NoSuchFieldException, IllegalArgumentException {
 
-        if (!modelClass.isAnnotationPresent(Entity.class))
+        EntityMetadata<?> metadata = EntityMetadata.of(modelClass);
+
+        if (!metadata.isEntity())
             throw new IllegalArgumentException(String.format("%s does not have the @Entity annotation", modelClass.getSimpleName()));
 
+        boolean selectsAll = (fieldsToReturn == null || fieldsToReturn.isEmpty()) && (fieldsToQuery == null || fieldsToQuery.isEmpty());
+
+        if (selectsAll) {
+            SQLQuery query = EntityStatements.of(modelClass).selectAll();
+            Logger.query(query.sql());
+
+            return query;
+        }
+
         StringBuilder queryBuilder = new StringBuilder();
+        List<Object> parameters = new ArrayList<>();
         queryBuilder.append("SELECT ");
 
         if (fieldsToReturn == null || fieldsToReturn.isEmpty()) {
@@ -206,35 +256,12 @@ public class SQLGenerator {
         }
 
         // FROM clause
-        queryBuilder.append(String.format(" FROM %s", modelClass.getSimpleName().toLowerCase()));
+        queryBuilder.append(String.format(" FROM %s", metadata.getTableName()));
 
         // Add WHERE clause
         if (fieldsToQuery != null && !fieldsToQuery.isEmpty()) {
             queryBuilder.append(" WHERE ");
-            List<String> conditions = new ArrayList<>();
-
-            for (Map.Entry<String, Object> entry : fieldsToQuery.entrySet()) {
-                String fieldName = entry.getKey();
-                Object fieldValue = entry.getValue();
-
-                Field field = modelClass.getDeclaredField(fieldName);
-
-                if (field.isAnnotationPresent(Column.class)) {
-                    Column column = field.getAnnotation(Column.class);
-
-                    switch (column.type()) {
-                        case VARCHAR, TEXT -> conditions.add(String.format("%s='%s'", fieldName, fieldValue));
-                        case INTEGER, BOOLEAN -> conditions.add(String.format("%s=%s", fieldName, fieldValue));
-                        case DATETIME -> conditions.add(String.format("%s=datetime('%s')", fieldName, ((Date)fieldValue).getTime()));
-                    }
-                } else if (field.isAnnotationPresent(Id.class)) {
-                    conditions.add(String.format("%s=%s", fieldName, (int) fieldValue));
-                } else if (field.isAnnotationPresent(OneToOne.class) || field.isAnnotationPresent(ManyToOne.class)) {
-                    conditions.add(String.format("%s=%d", fieldName + "_id", (int)fieldValue));
-                }
-            }
-
-            queryBuilder.append(String.join(" AND ", conditions));
+            queryBuilder.append(generateConditions(metadata, fieldsToQuery, parameters));
         }
 
         queryBuilder.append(";");
@@ -242,7 +269,7 @@ public class SQLGenerator {
         String query = queryBuilder.toString();
         Logger.query(query);
 
-        return query;
+        return new SQLQuery(query, parameters);
     }
 
     /**
@@ -251,42 +278,22 @@ public class SQLGenerator {
      *
      * @param modelClass The class of the model, which extends {@link IModel}. The table name is derived from the clas name
      * @param fieldsToQuery A map of field names and their corresponding values to be used as filtering conditions in the WHERE clause
-     * @return A valid SQL query string that counts the number of records based on the provided conditions
+     * @return A valid SQL query that counts the number of records based on the provided conditions, with their values as its parameters
      * @throws NoSuchFieldException If a field in {@code fieldsToQuery} does not exist in the model class
      */
-    public static String generateCountSelect(Class<? extends IModel> modelClass, Map<String, Object> fieldsToQuery)
+    public static SQLQuery generateCountSelect(Class<? extends IModel> modelClass, Map<String, Object> fieldsToQuery)
             throws NoSuchFieldException {
 
+        EntityMetadata<?> metadata = EntityMetadata.of(modelClass);
+
         StringBuilder queryBuilder = new StringBuilder();
-        queryBuilder.append(String.format("SELECT COUNT(*) FROM %s", modelClass.getSimpleName().toLowerCase()));
+        List<Object> parameters = new ArrayList<>();
+        queryBuilder.append(String.format("SELECT COUNT(*) FROM %s", metadata.getTableName()));
 
         // WHERE clause
         if (fieldsToQuery != null && !fieldsToQuery.isEmpty()) {
             queryBuilder.append(" WHERE ");
-            List<String> conditions = new ArrayList<>();
-
-            for (Map.Entry<String, Object> entry : fieldsToQuery.entrySet()) {
-                String fieldName = entry.getKey();
-                Object fieldValue = entry.getValue();
-
-                Field field = modelClass.getDeclaredField(fieldName);
-
-                if (field.isAnnotationPresent(Column.class)) {
-                    Column column = field.getAnnotation(Column.class);
-
-                    switch (column.type()) {
-                        case VARCHAR, TEXT -> conditions.add(String.format("%s='%s'", fieldName, fieldValue));
-                        case INTEGER, BOOLEAN -> conditions.add(String.format("%s=%s", fieldName, fieldValue));
-                        case DATETIME -> conditions.add(String.format("%s=datetime('%s')", fieldName, ((Date)fieldValue).getTime()));
-                    }
-                } else if (field.isAnnotationPresent(Id.class)) {
-                    conditions.add(String.format("%s=%s", fieldName, (int) fieldValue));
-                } else if (field.isAnnotationPresent(OneToOne.class) || field.isAnnotationPresent(ManyToOne.class)) {
-                    conditions.add(String.format("%s=%d", fieldName + "_id", (int)fieldValue));
-                }
-            }
-
-            queryBuilder.append(String.join(" AND ", conditions));
+            queryBuilder.append(generateConditions(metadata, fieldsToQuery, parameters));
         }
 
         queryBuilder.append(";");
@@ -294,108 +301,90 @@ public class SQLGenerator {
         String query = queryBuilder.toString();
         Logger.query(query);
 
-        return query;
+        return new SQLQuery(query, parameters);
     }
 
     /**
-     * Generates an SQL UPDATE query for the given model instance
+     * Generates a parameterized SQL UPDATE query for the given model instance, which writes every column except the id
      *
      * @param model The instance of the model to be updated
-     * @return A string containing the SQL UPDATE query
+     * @return The SQL UPDATE query with the values of the columns and the id as its parameters
      * @throws NoSuchFieldException If a required field is not found
      * @throws IllegalAccessException If a field cannot be accessed
      */
-    public static String generateUpdate(IModel model)
+    public static SQLQuery generateUpdate(IModel model)
             throws NoSuchFieldException, IllegalAccessException {
 
-        StringBuilder queryBuilder = new StringBuilder();
-        String tableName = model.getClass().getSimpleName().toLowerCase();
-
-        queryBuilder.append(String.format("UPDATE %s SET ", tableName));
-        List<Field> fields = ReflectionUtil.getFieldsOfModelWithoutTypes(model.getClass(), List.of(Id.class));
-        List<String> fieldsToUpdate = new ArrayList<>();
-
-        for (Field field : fields) {
-            Object fieldValue = ReflectionUtil.getValueOfField(model, field.getName());
-            Annotation annotationOfField = field.getDeclaredAnnotations()[0];
-
-            if (fieldValue == null)
-                continue;
-
-            if (annotationOfField instanceof Column column) {
-                switch (column.type()) {
-                    case VARCHAR, TEXT -> fieldsToUpdate.add(String.format("%s='%s'", field.getName(), fieldValue));
-                    case INTEGER -> fieldsToUpdate.add(String.format("%s=%s", field.getName(), fieldValue));
-                    case BOOLEAN -> fieldsToUpdate.add(String.format("%s=%d", field.getName(), !(fieldValue instanceof Boolean) ? 0 : ((boolean) fieldValue) ? 1 : 0));
-                    case DATETIME -> fieldsToUpdate.add(String.format("%s=datetime('%s')", field.getName(), ((Date)fieldValue).getTime()));
-                }
-            } else if (annotationOfField instanceof OneToOne || annotationOfField instanceof ManyToOne) {
-                Field relatedField = ReflectionUtil.getFieldByName((Class<? extends IModel>) field.getType(), "id");
-                Object relatedIdValue = relatedField.get(fieldValue);
-
-                fieldsToUpdate.add(String.format("%s=%s", field.getName() + "_id", relatedIdValue));
-            }
-        }
-
-        queryBuilder.append(String.join(", ", fieldsToUpdate));
-
-        Object idValue = ReflectionUtil.getValueOfField(model, "id");
-        queryBuilder.append(String.format(" WHERE id=%s RETURNING *;", idValue));
-
-        String query = queryBuilder.toString();
-        Logger.query(query);
+        SQLQuery query = EntityStatements.of(model).update(model);
+        Logger.query(query.sql());
 
         return query;
     }
 
     /**
-     * Generates an SQL DELETE query for the given model instance
+     * Generates parameterized SQL DELETE queries for the given model instance and its loaded one-to-many children
      *
      * @param model The instance of the model to be deleted
-     * @return A string containing the SQL DELETE query
+     * @return The SQL DELETE queries with the id of the model as their parameter
      * @throws NoSuchFieldException If the "id" field is not found
      * @throws IllegalAccessException If the "id" field cannot be accessed
      */
-    public static List<String> generateDelete(IModel model)
+    public static List<SQLQuery> generateDelete(IModel model)
             throws NoSuchFieldException, IllegalAccessException {
 
-        String deleteQueryTemplate = "DELETE FROM %s WHERE %s=%d RETURNING *;";
-        String tableName = model.getClass().getSimpleName().toLowerCase();
-        Object idValue = ReflectionUtil.getValueOfField(model, "id");
+        List<SQLQuery> queries = EntityStatements.of(model).delete(model);
+        queries.forEach(query -> Logger.query(query.sql()));
 
-        if ((!(idValue instanceof Integer id))) {
-            throw new IllegalArgumentException("The model must have a valid integer ID");
-        }
+        return queries;
+    }
 
-        List<Field> fields = ReflectionUtil.getFieldsOfModelWithTypes(model.getClass(), List.of(OneToMany.class));
-        List<String> queries = new ArrayList<>();
+    /**
+     * Generates the conditions of a WHERE clause, joined by AND, for the given field names and adds their values to the parameters.
+     * A {@code null} value is matched with IS NULL
+     */
+    private static String generateConditions(EntityMetadata<?> metadata, Map<String, Object> fieldsToQuery, List<Object> parameters)
+            throws NoSuchFieldException {
 
-        queries.add(String.format(deleteQueryTemplate, tableName, "id", id));
+        List<String> conditions = new ArrayList<>();
 
-        for (Field field : fields) {
-            if (!List.class.isAssignableFrom(field.getType()))
-                continue;
+        for (Map.Entry<String, Object> entry : fieldsToQuery.entrySet()) {
+            FieldMetadata field = metadata.getField(entry.getKey());
+            String columnName = field.getColumnName();
 
-            Object fieldValue = ReflectionUtil.getValueOfField(model, field.getName());
-            if (!(fieldValue instanceof List<?> list) || list.isEmpty())
+            if (entry.getValue() == null) {
+                conditions.add(String.format("%s IS NULL", columnName));
                 continue;
+            }
 
-            Type genericType = field.getGenericType();
-            if (!(genericType instanceof ParameterizedType parameterizedType))
-                continue;
+            conditions.add(String.format("%s=?", columnName));
+            parameters.add(toParameter(field, entry.getValue()));
+        }
 
-            Type actualTypeArgument = parameterizedType.getActualTypeArguments()[0];
-            if (!(actualTypeArgument instanceof Class<?> actualClass))
-                continue;
+        return String.join(" AND ", conditions);
+    }
 
-            String simpleName = ((Class<? extends IModel>) actualTypeArgument).getSimpleName();
-            String subTableName = Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1);
-            String parentTableColumn = Character.toLowerCase(tableName.charAt(0)) + tableName.substring(1) + "_id";
+    /**
+     * Converts the value of a field to the value bound to its placeholder.
+     * Columns are converted by their converter and BOOLEAN columns are bound as 1 or 0, ids and foreign keys are bound as is
+     */
+    static Object toParameter(FieldMetadata field, Object value) {
+        if (value == null || !field.isColumn()) {
+            return value;
+        }
 
-            queries.add(String.format(deleteQueryTemplate, subTableName, parentTableColumn, id));
+        if (field.getColumnType() == ColumnType.BOOLEAN) {
+            return value instanceof Boolean bool && bool ? 1 : 0;
         }
 
-        queries.forEach(Logger::query);
-        return queries;
+        return field.toDatabaseValue(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends IModel> castToIModelClass(Class<?> modelClass) {
+        if (!IModel.class.isAssignableFrom(modelClass)) {
+            throw new IllegalArgumentException(String.format("Class %s does not extend IModel", modelClass.getName()));
+        }
+
+        return (Class<? extends IModel>) modelClass;
     }
 }
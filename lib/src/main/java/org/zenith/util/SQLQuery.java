@@ -0,0 +1,32 @@
+package org.zenith.util;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An SQL query with {@code ?} placeholders and the values bound to them, in order.
+ * Values are never formatted into the SQL, so the same text is generated for every instance of an entity and
+ * the {@link SQLiteDatabase} can reuse its prepared statement.
+ *
+ * @param sql The SQL text of the query
+ * @param parameters The values of the placeholders, which may contain {@code null}
+ */
+public record SQLQuery(String sql, List<Object> parameters) {
+    public SQLQuery {
+        parameters = Collections.unmodifiableList(parameters);
+    }
+
+    /**
+     * Creates a query without placeholders
+     *
+     * @param sql The SQL text of the query
+     */
+    public SQLQuery(String sql) {
+        this(sql, List.of());
+    }
+
+    @Override
+    public String toString() {
+        return sql;
+    }
+}
@@ -1,18 +1,25 @@
 package org.zenith.util;
 
 import java.sql.*;
+import java.util.List;
 
 public class SQLiteDatabase {
     private final String DATABASE_URL = "jdbc:sqlite::memory:";
+    private static final int STATEMENT_CACHE_CAPACITY = 64;
+    private static final SQLQuery LAST_INSERT_ROWID_QUERY = new SQLQuery("SELECT last_insert_rowid();");
 
     private static SQLiteDatabase instance;
     private Connection connection;
+    private StatementCache statements;
+    private QueryPlanCache queryPlans;
+    private long queryPlanRowThreshold = -1;
 
     private SQLiteDatabase() {
         try {
             Class.forName("org.sqlite.JDBC");
 
             this.connection = DriverManager.getConnection(DATABASE_URL);
+            this.statements = new StatementCache(connection, STATEMENT_CACHE_CAPACITY);
 
             try (Statement statement = connection.createStatement()) {
                 statement.execute("PRAGMA journal_mode = WAL;");
@@ -41,12 +48,62 @@ public class SQLiteDatabase {
         return instance;
     }
 
-    public void reinitializeConnection() throws SQLException {
+    public synchronized void reinitializeConnection() throws SQLException {
         if (connection != null && !connection.isClosed()) {
+            statements.clear();
             connection.close();
         }
 
         connection = DriverManager.getConnection(DATABASE_URL);
+        statements = new StatementCache(connection, STATEMENT_CACHE_CAPACITY);
+        queryPlans = queryPlanRowThreshold >= 0 ? new QueryPlanCache(connection, queryPlanRowThreshold) : null;
+
+        // A new connection may open another database, so nothing cached from the previous one holds
+        QueryResultCache.getInstance().clear();
+        EntityCache.clearAll();
+    }
+
+    /**
+     * Starts capturing the {@code EXPLAIN QUERY PLAN} of every distinct statement the first time it is executed.
+     * A statement with a WHERE clause which reads a table with more than {@code rowThreshold} rows in full is logged as
+     * a warning and reported by {@link #getFullScans()}. Previously captured plans are discarded
+     *
+     * @param rowThreshold The number of rows a scanned table may hold before the scan is reported
+     * @throws IllegalArgumentException If the threshold is negative
+     */
+    public synchronized void enableQueryPlanCapture(long rowThreshold) {
+        queryPlans = new QueryPlanCache(connection, rowThreshold);
+        queryPlanRowThreshold = rowThreshold;
+    }
+
+    /**
+     * Stops capturing query plans and discards the captured plans
+     */
+    public synchronized void disableQueryPlanCapture() {
+        queryPlans = null;
+        queryPlanRowThreshold = -1;
+    }
+
+    /**
+     * @param sql The SQL text of a statement
+     * @return The plan captured for the statement, or {@code null} if it was not executed while the capture was enabled
+     */
+    public synchronized QueryPlan getQueryPlan(String sql) {
+        return queryPlans != null ? queryPlans.get(sql) : null;
+    }
+
+    /**
+     * @return The captured plans, in the order the statements were first executed
+     */
+    public synchronized List<QueryPlan> getQueryPlans() {
+        return queryPlans != null ? queryPlans.getPlans() : List.of();
+    }
+
+    /**
+     * @return The captured plans which read a table larger than the threshold in full, with the current number of rows
+     */
+    public synchronized List<QueryPlan> getFullScans() {
+        return getQueryPlans().stream().filter(QueryPlan::hasFullScans).toList();
     }
 
     /**
@@ -66,8 +123,32 @@ public class SQLiteDatabase {
      * @return `true` if the query was successfully executed, `false` otherwise.
      */
     public boolean executeQueryWithoutResult(String query) throws SQLException {
-        try (Statement statement = connection.createStatement()) {
-            return statement.executeUpdate(query) > 0;
+        return executeQueryWithoutResult(new SQLQuery(query));
+    }
+
+    /**
+     * Executes a parameterized query on the database through a cached {@link PreparedStatement}.
+     * A query with a RETURNING clause is successful when it returned a row
+     *
+     * @param query The SQL query to be executed together with its parameters
+     * @return `true` if the query changed or returned at least one row, `false` otherwise.
+     */
+    public synchronized boolean executeQueryWithoutResult(SQLQuery query) throws SQLException {
+        inspect(query.sql());
+        PreparedStatement statement = statements.acquire(query.sql());
+
+        try {
+            bind(statement, query.parameters());
+
+            if (statement.execute()) {
+                try (ResultSet resultSet = statement.getResultSet()) {
+                    return resultSet.next();
+                }
+            }
+
+            return statement.getUpdateCount() > 0;
+        } finally {
+            statements.release(query.sql(), statement, null);
         }
     }
 
@@ -77,9 +158,120 @@ public class SQLiteDatabase {
      * @param query The SQL query to be executed.
      * @return A {@link ResultSet} containing the result of the query, or `null` if an error occurred.
      */
-    public synchronized ResultSet executeQueryWithResult(String query) throws SQLException {
-        Statement statement =  connection.createStatement();
-        return statement.executeQuery(query);
+    public ResultSet executeQueryWithResult(String query) throws SQLException {
+        return executeQueryWithResult(new SQLQuery(query));
+    }
+
+    /**
+     * Executes a parameterized query on the database through a cached {@link PreparedStatement} and returns the resulting data.
+     * The result set should be closed once it has been read, so the statement can be reused by the next query.
+     *
+     * @param query The SQL query to be executed together with its parameters
+     * @return A {@link ResultSet} containing the result of the query
+     */
+    public synchronized ResultSet executeQueryWithResult(SQLQuery query) throws SQLException {
+        inspect(query.sql());
+        PreparedStatement statement = statements.acquire(query.sql());
+        ResultSet resultSet = null;
+
+        try {
+            bind(statement, query.parameters());
+            resultSet = statement.executeQuery();
+            return resultSet;
+        } finally {
+            statements.release(query.sql(), statement, resultSet);
+        }
+    }
+
+    /**
+     * Executes the same statement for every list of parameters as a single JDBC batch, through a cached {@link PreparedStatement}.
+     * The statement must not return rows, e.g. an INSERT without a RETURNING clause
+     *
+     * @param sql The SQL text of the statement
+     * @param rows The parameters of every execution
+     * @return The number of rows changed by every execution
+     */
+    public synchronized int[] executeBatch(String sql, List<List<Object>> rows) throws SQLException {
+        inspect(sql);
+        PreparedStatement statement = statements.acquire(sql);
+
+        try {
+            for (List<Object> parameters : rows) {
+                bind(statement, parameters);
+                statement.addBatch();
+            }
+
+            return statement.executeBatch();
+        } finally {
+            statement.clearBatch();
+            statements.release(sql, statement, null);
+        }
+    }
+
+    /**
+     * @return The rowid of the last row inserted through this connection
+     */
+    public synchronized long getLastInsertRowId() throws SQLException {
+        try (ResultSet resultSet = executeQueryWithResult(LAST_INSERT_ROWID_QUERY)) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Starts a transaction, the queries up to {@link #commit()} or {@link #rollback()} are executed in it
+     */
+    public synchronized void beginTransaction() throws SQLException {
+        connection.setAutoCommit(false);
+    }
+
+    /**
+     * Commits the current transaction and returns to auto-commit mode
+     */
+    public synchronized void commit() throws SQLException {
+        try {
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Rolls back the current transaction and returns to auto-commit mode
+     */
+    public synchronized void rollback() throws SQLException {
+        try {
+            connection.rollback();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private void inspect(String sql) {
+        QueryResultCache.getInstance().invalidateWrittenTable(sql);
+
+        if (queryPlans != null) {
+            queryPlans.inspect(sql);
+        }
+    }
+
+    private static void bind(PreparedStatement statement, List<Object> parameters) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            statement.setObject(i + 1, parameters.get(i));
+        }
+    }
+
+    /**
+     * @return The number of queries which reused a cached prepared statement
+     */
+    public synchronized long getStatementCacheHits() {
+        return statements.getHits();
+    }
+
+    /**
+     * @return The number of queries for which a statement had to be prepared
+     */
+    public synchronized long getStatementCacheMisses() {
+        return statements.getMisses();
     }
 
     /**
@@ -88,6 +280,7 @@ public class SQLiteDatabase {
     public void close() throws SQLException {
         try {
             if (connection != null) {
+                statements.clear();
                 connection.close();
                 System.out.println("In-memory SQLite database closed");
             }
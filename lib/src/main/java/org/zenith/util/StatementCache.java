@@ -0,0 +1,139 @@
+package org.zenith.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded LRU cache of the {@link PreparedStatement}s of a single connection, keyed by their SQL text.
+ * <p>
+ * A statement is busy while the last {@link ResultSet} it returned is still open, because executing it again would
+ * reset that result set. A query which finds its statement busy, e.g. a nested query for the same entity while the
+ * outer rows are mapped, gets a statement of its own which is closed together with its result set.
+ */
+final class StatementCache {
+    private final Connection connection;
+    private final int capacity;
+    private final Map<String, CachedStatement> statements;
+
+    private long hits;
+    private long misses;
+
+    private static final class CachedStatement {
+        private final PreparedStatement statement;
+        private ResultSet resultSet;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        private boolean isIdle() throws SQLException {
+            return resultSet == null || resultSet.isClosed();
+        }
+    }
+
+    StatementCache(Connection connection, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of the statement cache must be at least 1");
+        }
+
+        this.connection = connection;
+        this.capacity = capacity;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Retrieves an idle statement for the given SQL, preparing and caching it on a miss.
+     * Every statement must be handed back with {@link #release} once it has been executed
+     *
+     * @param sql The SQL text of the statement
+     * @return The prepared statement
+     * @throws SQLException If the statement cannot be prepared
+     */
+    PreparedStatement acquire(String sql) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+
+        if (cached != null && cached.isIdle()) {
+            hits++;
+            return cached.statement;
+        }
+
+        misses++;
+        PreparedStatement statement = connection.prepareStatement(sql);
+
+        if (cached == null) {
+            statements.put(sql, new CachedStatement(statement));
+            evictEldest();
+        }
+
+        return statement;
+    }
+
+    /**
+     * Hands a statement back after it has been executed
+     *
+     * @param sql The SQL text the statement was acquired with
+     * @param statement The statement returned by {@link #acquire}
+     * @param resultSet The result set which is still handed out to the caller, or {@code null} if there is none
+     * @throws SQLException If a statement which is not cached cannot be closed
+     */
+    void release(String sql, PreparedStatement statement, ResultSet resultSet) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+
+        if (cached != null && cached.statement == statement) {
+            cached.resultSet = resultSet;
+        } else {
+            closeWhenDone(statement, resultSet);
+        }
+    }
+
+    private void evictEldest() throws SQLException {
+        if (statements.size() <= capacity) {
+            return;
+        }
+
+        var iterator = statements.values().iterator();
+        CachedStatement eldest = iterator.next();
+        iterator.remove();
+
+        closeWhenDone(eldest.statement, eldest.isIdle() ? null : eldest.resultSet);
+    }
+
+    private static void closeWhenDone(PreparedStatement statement, ResultSet resultSet) throws SQLException {
+        if (resultSet == null || resultSet.isClosed()) {
+            statement.close();
+        } else {
+            statement.closeOnCompletion();
+        }
+    }
+
+    /**
+     * Closes every cached statement and empties the cache
+     */
+    void clear() {
+        for (CachedStatement cached : statements.values()) {
+            try {
+                cached.statement.close();
+            } catch (SQLException ex) {
+                Logger.warn(ex.getMessage());
+            }
+        }
+
+        statements.clear();
+    }
+
+    int size() {
+        return statements.size();
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,84 @@
+package org.zenith.util.collection;
+
+/**
+ * A count-min sketch estimating how often a {@code long} key, e.g. an id, was recorded, within a fixed amount of memory.
+ * Every key increments one 4-bit saturating counter in each of four rows and its frequency is the smallest of them, so an
+ * estimate can be too high because of collisions but never too low. Once the recorded keys exceed ten times the expected
+ * size all counters are halved, so keys which were popular a long time ago lose their weight.
+ * The sketch is not thread-safe.
+ */
+public final class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAXIMUM = 15;
+    private static final long[] SEEDS = { 0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L };
+
+    private final byte[] counters;
+    private final int width;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * @param expectedSize The number of distinct keys the sketch should tell apart, e.g. the maximum size of a cache
+     */
+    public FrequencySketch(int expectedSize) {
+        int width = 16;
+
+        while (width < expectedSize) {
+            width <<= 1;
+        }
+
+        this.width = width;
+        this.counters = new byte[DEPTH * width];
+        this.sampleSize = 10 * Math.max(expectedSize, 1);
+    }
+
+    /**
+     * Records an occurrence of the key
+     *
+     * @param key The key
+     */
+    public void increment(long key) {
+        boolean added = false;
+
+        for (int row = 0; row < DEPTH; row++) {
+            int index = index(key, row);
+
+            if (counters[index] < MAXIMUM) {
+                counters[index]++;
+                added = true;
+            }
+        }
+
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * @param key The key
+     * @return The estimated number of occurrences of the key, at most 15
+     */
+    public int frequency(long key) {
+        int frequency = MAXIMUM;
+
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, counters[index(key, row)]);
+        }
+
+        return frequency;
+    }
+
+    private void reset() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] >>= 1;
+        }
+
+        additions /= 2;
+    }
+
+    private int index(long key, int row) {
+        long hash = (key + SEEDS[row]) * SEEDS[row];
+        hash ^= hash >>> 32;
+        return row * width + ((int) hash & (width - 1));
+    }
+}
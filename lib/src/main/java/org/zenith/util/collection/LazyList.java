@@ -0,0 +1,99 @@
+package org.zenith.util.collection;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A list whose elements are loaded on its first access, e.g. the children of a lazily fetched {@code @OneToMany} field.
+ * The loader is expected to hand the elements to {@link #setElements(List)}, possibly of several lists at once, after
+ * which the list behaves like the list it was given. When the loader fails the list stays uninitialized and the next
+ * access tries again. The list is not thread-safe.
+ *
+ * @param <E> The type of the elements
+ */
+public final class LazyList<E> extends AbstractList<E> implements RandomAccess {
+    private Loader loader;
+    private List<E> elements;
+
+    /**
+     * Loads the elements of one or more lazy lists
+     */
+    @FunctionalInterface
+    public interface Loader {
+        void load() throws Exception;
+    }
+
+    public LazyList(Loader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * @return {@code true} if the elements have been loaded
+     */
+    public boolean isInitialized() {
+        return elements != null;
+    }
+
+    /**
+     * Loads the elements unless they have been loaded already
+     *
+     * @throws IllegalStateException If the loader fails or does not set the elements of this list
+     */
+    public void initialize() {
+        if (elements != null)
+            return;
+
+        try {
+            loader.load();
+        } catch (Exception ex) {
+            throw new IllegalStateException("Could not load the elements of the list", ex);
+        }
+
+        if (elements == null)
+            throw new IllegalStateException("The loader did not set the elements of the list");
+    }
+
+    /**
+     * Sets the loaded elements, releasing the loader
+     *
+     * @param elements The mutable list backing this list
+     */
+    public void setElements(List<E> elements) {
+        this.elements = elements;
+        this.loader = null;
+    }
+
+    private List<E> elements() {
+        initialize();
+        return elements;
+    }
+
+    @Override
+    public E get(int index) {
+        return elements().get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements().size();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        return elements().set(index, element);
+    }
+
+    @Override
+    public void add(int index, E element) {
+        elements().add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public E remove(int index) {
+        E removed = elements().remove(index);
+        modCount++;
+        return removed;
+    }
+}
@@ -0,0 +1,185 @@
+package org.zenith.util.collection;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from primitive {@code long} keys, e.g. ids, to non-null values.
+ * The keys are stored unboxed in an open addressing table with linear probing, so a lookup does not allocate and only
+ * touches two arrays. The map is not thread-safe.
+ *
+ * @param <V> The type of the values
+ */
+public final class LongObjectMap<V> {
+    private static final int MINIMUM_CAPACITY = 8;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * Creates a map which holds the given number of entries without resizing
+     *
+     * @param expectedSize The expected number of entries
+     */
+    public LongObjectMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public LongObjectMap() {
+        this(MINIMUM_CAPACITY / 2);
+    }
+
+    // The table is kept at most half full, so probe sequences stay short
+    private static int capacityFor(int expectedSize) {
+        int capacity = MINIMUM_CAPACITY;
+
+        while (capacity < 2L * expectedSize) {
+            capacity <<= 1;
+        }
+
+        return capacity;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * @param key The key
+     * @return The value of the key, or {@code null} if the map does not contain the key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        for (int i = slot(key); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Associates the value with the key, replacing the previous value of the key
+     *
+     * @param key The key
+     * @param value The value, not {@code null}
+     * @return The previous value of the key, or {@code null} if the map did not contain the key
+     * @throws NullPointerException If the value is {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("The map cannot hold null values");
+        }
+
+        int i = slot(key);
+
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+
+        keys[i] = key;
+        values[i] = value;
+
+        if (++size * 2 > values.length) {
+            resize();
+        }
+
+        return null;
+    }
+
+    /**
+     * Removes the key from the map
+     *
+     * @param key The key
+     * @return The value of the key, or {@code null} if the map did not contain the key
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int i = slot(key);
+
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                shiftBack(i);
+                size--;
+                return previous;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Closes the gap left by a removed entry by moving back the following entries of the cluster which may not be
+     * placed after it, so a lookup can still stop at the first empty slot
+     */
+    private void shiftBack(int gap) {
+        for (int i = (gap + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+            int home = slot(keys[i]);
+
+            // The entry may move into the gap unless its home slot lies cyclically in (gap, i]
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+
+        values[gap] = null;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldValues.length * 2);
+
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] != null) {
+                int i = slot(oldKeys[j]);
+
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * @return The number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code true} if the map does not contain any entry
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every entry
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+}
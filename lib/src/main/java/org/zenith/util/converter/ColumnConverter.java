@@ -0,0 +1,36 @@
+package org.zenith.util.converter;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Converts between a Java type and the value stored in a column.
+ * Converters are registered in the {@link ConverterRegistry} and resolved once per field, primitive fields and
+ * {@link String} fields are read with the typed {@link ResultSet} getters and never go through a converter.
+ *
+ * @param <V> The Java type of the field
+ */
+public interface ColumnConverter<V> {
+    /**
+     * @return The Java type this converter handles
+     */
+    Class<V> getJavaType();
+
+    /**
+     * Reads the column of the current row
+     *
+     * @param resultSet The {@link ResultSet} positioned on the row to read
+     * @param columnIndex The 1-based index of the column
+     * @return The converted value, or {@code null} if the column is NULL
+     * @throws SQLException If the column cannot be read
+     */
+    V read(ResultSet resultSet, int columnIndex) throws SQLException;
+
+    /**
+     * Converts a value to the value stored in the database
+     *
+     * @param value The value of the field, never {@code null}
+     * @return The database value, a {@link Number}, {@link String}, {@link Boolean} or {@code byte[]}
+     */
+    Object toDatabase(V value);
+}
@@ -0,0 +1,147 @@
+package org.zenith.util.converter;
+
+import org.zenith.enumeration.ColumnType;
+import org.zenith.enumeration.EnumStorage;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The registry of {@link ColumnConverter}s, keyed by Java type and optionally by {@link ColumnType}.
+ * A converter registered for a column type takes precedence over the converter registered for all column types.
+ * <p>
+ * Built in are {@link Date}, {@link Instant} and {@link LocalDateTime}, which are stored as INTEGER epoch milliseconds.
+ * {@link LocalDateTime} values are interpreted as UTC. Converters are resolved once per field when the metadata of an
+ * entity is built, so custom converters must be registered before the entity is first used.
+ */
+public class ConverterRegistry {
+    private static final int ANY_COLUMN_TYPE = ColumnType.values().length;
+
+    /**
+     * For every Java type the converter per {@link ColumnType#ordinal()}, the last slot holds the converter for any column type
+     */
+    private static final Map<Class<?>, ColumnConverter<?>[]> CONVERTERS = new ConcurrentHashMap<>();
+
+    static {
+        register(new EpochMillisConverter<>(Date.class) {
+            @Override
+            public long toEpochMillis(Date value) {
+                return value.getTime();
+            }
+
+            @Override
+            public Date fromEpochMillis(long epochMillis) {
+                return new Date(epochMillis);
+            }
+        });
+
+        register(new EpochMillisConverter<>(Instant.class) {
+            @Override
+            public long toEpochMillis(Instant value) {
+                return value.toEpochMilli();
+            }
+
+            @Override
+            public Instant fromEpochMillis(long epochMillis) {
+                return Instant.ofEpochMilli(epochMillis);
+            }
+        });
+
+        register(new EpochMillisConverter<>(LocalDateTime.class) {
+            @Override
+            public long toEpochMillis(LocalDateTime value) {
+                return value.toInstant(ZoneOffset.UTC).toEpochMilli();
+            }
+
+            @Override
+            public LocalDateTime fromEpochMillis(long epochMillis) {
+                return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+            }
+        });
+    }
+
+    private ConverterRegistry() {
+        throw new UnsupportedOperationException("This is an utility class and cannot be instantiated");
+    }
+
+    /**
+     * Registers a converter for every column type of its Java type
+     *
+     * @param converter The converter to register
+     */
+    public static void register(ColumnConverter<?> converter) {
+        put(converter, ANY_COLUMN_TYPE);
+    }
+
+    /**
+     * Registers a converter for a single column type of its Java type
+     *
+     * @param columnType The column type the converter is used for
+     * @param converter The converter to register
+     */
+    public static void register(ColumnType columnType, ColumnConverter<?> converter) {
+        put(converter, columnType.ordinal());
+    }
+
+    private static void put(ColumnConverter<?> converter, int slot) {
+        CONVERTERS.compute(converter.getJavaType(), (ignored, converters) -> {
+            ColumnConverter<?>[] copy = converters == null ? new ColumnConverter<?>[ANY_COLUMN_TYPE + 1] : converters.clone();
+            copy[slot] = converter;
+            return copy;
+        });
+    }
+
+    /**
+     * Finds the converter for a Java type stored in a column of the given type
+     *
+     * @param columnType The type of the column, or {@code null} if it is not known
+     * @param javaType The Java type of the field
+     * @return The converter, or {@code null} if none is registered
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> ColumnConverter<V> find(ColumnType columnType, Class<V> javaType) {
+        ColumnConverter<?>[] converters = CONVERTERS.get(javaType);
+
+        if (converters == null) {
+            return null;
+        }
+
+        ColumnConverter<?> converter = columnType != null ? converters[columnType.ordinal()] : null;
+        return (ColumnConverter<V>) (converter != null ? converter : converters[ANY_COLUMN_TYPE]);
+    }
+
+    /**
+     * Retrieves the converter for a Java type stored in a column of the given type
+     *
+     * @param columnType The type of the column, or {@code null} if it is not known
+     * @param javaType The Java type of the field
+     * @return The converter
+     * @throws IllegalStateException If no converter is registered
+     */
+    public static <V> ColumnConverter<V> get(ColumnType columnType, Class<V> javaType) {
+        ColumnConverter<V> converter = find(columnType, javaType);
+
+        if (converter == null) {
+            throw new IllegalStateException(String.format("No converter registered for %s columns of type %s", columnType, javaType.getName()));
+        }
+
+        return converter;
+    }
+
+    /**
+     * Retrieves the converter for an enum stored in an {@link ColumnType#ENUM} column, which is the registered
+     * converter if there is one and otherwise an {@link EnumConverter} with the given storage
+     *
+     * @param enumType The type of the enum
+     * @param storage How the constants are stored when no converter is registered
+     * @return The converter
+     */
+    public static <E extends Enum<E>> ColumnConverter<E> forEnum(Class<E> enumType, EnumStorage storage) {
+        ColumnConverter<E> converter = find(ColumnType.ENUM, enumType);
+        return converter != null ? converter : new EnumConverter<>(enumType, storage);
+    }
+}
@@ -0,0 +1,82 @@
+package org.zenith.util.converter;
+
+import org.zenith.enumeration.EnumStorage;
+import org.zenith.model.interfaces.ICodedEnum;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Converts the constants of an enum to their ordinal or their code, see {@link EnumStorage}.
+ * The ordinal is read with {@link ResultSet#getInt}, the constants are looked up in an array or a map built once.
+ *
+ * @param <E> The type of the enum
+ */
+public final class EnumConverter<E extends Enum<E>> implements ColumnConverter<E> {
+    private final Class<E> enumType;
+    private final EnumStorage storage;
+    private final E[] constants;
+    private final String[] codes;
+    private final Map<String, E> constantsByCode;
+
+    public EnumConverter(Class<E> enumType, EnumStorage storage) {
+        this.enumType = enumType;
+        this.storage = storage;
+        this.constants = enumType.getEnumConstants();
+        this.codes = new String[constants.length];
+        this.constantsByCode = new HashMap<>();
+
+        for (E constant : constants) {
+            String code = constant instanceof ICodedEnum codedEnum ? codedEnum.getCode() : constant.name();
+
+            if (constantsByCode.putIfAbsent(code, constant) != null) {
+                throw new IllegalArgumentException(String.format("The code '%s' is used by multiple constants of %s", code, enumType.getName()));
+            }
+
+            codes[constant.ordinal()] = code;
+        }
+    }
+
+    @Override
+    public Class<E> getJavaType() {
+        return enumType;
+    }
+
+    @Override
+    public E read(ResultSet resultSet, int columnIndex) throws SQLException {
+        if (storage == EnumStorage.ORDINAL) {
+            int ordinal = resultSet.getInt(columnIndex);
+
+            if (ordinal == 0 && resultSet.wasNull()) {
+                return null;
+            }
+
+            if (ordinal < 0 || ordinal >= constants.length) {
+                throw new SQLException(String.format("%d is not an ordinal of %s", ordinal, enumType.getName()));
+            }
+
+            return constants[ordinal];
+        }
+
+        String code = resultSet.getString(columnIndex);
+
+        if (code == null) {
+            return null;
+        }
+
+        E constant = constantsByCode.get(code);
+
+        if (constant == null) {
+            throw new SQLException(String.format("'%s' is not a code of %s", code, enumType.getName()));
+        }
+
+        return constant;
+    }
+
+    @Override
+    public Object toDatabase(E value) {
+        return storage == EnumStorage.ORDINAL ? value.ordinal() : codes[value.ordinal()];
+    }
+}
@@ -0,0 +1,49 @@
+package org.zenith.util.converter;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Base class of the converters which store a point in time as INTEGER milliseconds since the epoch, so values
+ * are compared as numbers and can use an index. The column is read with {@link ResultSet#getLong}, without boxing.
+ *
+ * @param <V> The Java type of the field
+ */
+public abstract class EpochMillisConverter<V> implements ColumnConverter<V> {
+    private final Class<V> javaType;
+
+    protected EpochMillisConverter(Class<V> javaType) {
+        this.javaType = javaType;
+    }
+
+    /**
+     * @return The number of milliseconds since 1970-01-01T00:00:00Z of the value
+     */
+    public abstract long toEpochMillis(V value);
+
+    /**
+     * @return The value for the given number of milliseconds since 1970-01-01T00:00:00Z
+     */
+    public abstract V fromEpochMillis(long epochMillis);
+
+    @Override
+    public Class<V> getJavaType() {
+        return javaType;
+    }
+
+    @Override
+    public V read(ResultSet resultSet, int columnIndex) throws SQLException {
+        long epochMillis = resultSet.getLong(columnIndex);
+
+        if (epochMillis == 0 && resultSet.wasNull()) {
+            return null;
+        }
+
+        return fromEpochMillis(epochMillis);
+    }
+
+    @Override
+    public Object toDatabase(V value) {
+        return toEpochMillis(value);
+    }
+}
@@ -0,0 +1,94 @@
+package org.zenith.util.mapper;
+
+import org.zenith.model.interfaces.IModel;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Maps the columns of an entity between a {@link ResultSet} and a model instance without reflection.
+ * Implementations are generated at compile time by the {@code processor} module as {@code <Entity>_Mapper} in the
+ * package of the entity, and are picked up by {@link org.zenith.util.metadata.EntityMetadata#getMapper()}.
+ * <p>
+ * Only the columns of the entity itself are handled, relations are still resolved by the mapping strategies.
+ *
+ * @param <T> The type of the model
+ */
+public interface EntityMapper<T extends IModel> {
+    /**
+     * @return The class of the model this mapper handles
+     */
+    Class<T> getModelClass();
+
+    /**
+     * @return The name of the table of the entity
+     */
+    String getTableName();
+
+    /**
+     * @return The names of the columns handled by this mapper, this order is used by {@link #map} and {@link #getValues}
+     */
+    List<String> getColumnNames();
+
+    /**
+     * @return The precomputed {@code SELECT * FROM <table>;} query of the entity
+     */
+    String getSelectAllSql();
+
+    /**
+     * @return The precomputed INSERT statement of every column without a RETURNING clause, or {@code null} if the
+     *          mapper does not provide it, in which case {@link org.zenith.util.EntityStatements} compiles it
+     */
+    default String getInsertSql() {
+        return null;
+    }
+
+    /**
+     * @return The precomputed INSERT statement of every column except the id without a RETURNING clause, or {@code null}
+     *          if the mapper does not provide it
+     */
+    default String getInsertWithoutIdSql() {
+        return null;
+    }
+
+    /**
+     * @return The precomputed {@code UPDATE <table> SET ... WHERE <id>=? RETURNING *;} statement, or {@code null} if the
+     *          mapper does not provide it or the entity does not have an id
+     */
+    default String getUpdateSql() {
+        return null;
+    }
+
+    /**
+     * @return The precomputed {@code DELETE FROM <table> WHERE <id>=? RETURNING *;} statement, or {@code null} if the
+     *          mapper does not provide it or the entity does not have an id
+     */
+    default String getDeleteSql() {
+        return null;
+    }
+
+    /**
+     * @return A new, empty instance of the model
+     */
+    T newInstance();
+
+    /**
+     * Copies the columns of the current row of the result set into the model
+     *
+     * @param resultSet The {@link ResultSet}, positioned on the row to map
+     * @param columnIndexes For every column of {@link #getColumnNames()} the index of that column in the result set,
+     *                      or {@code 0} if the result set does not contain the column
+     * @param model The model to write the values to
+     * @throws SQLException If a column cannot be read
+     */
+    void map(ResultSet resultSet, int[] columnIndexes, T model) throws SQLException;
+
+    /**
+     * Reads the column values of the model, foreign keys are returned as the id of the related model.
+     *
+     * @param model The model to read the values from
+     * @return The values in the order of {@link #getColumnNames()}
+     */
+    Object[] getValues(T model);
+}
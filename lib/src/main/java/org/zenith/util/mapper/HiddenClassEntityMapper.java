@@ -0,0 +1,209 @@
+package org.zenith.util.mapper;
+
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.Logger;
+import org.zenith.util.metadata.EntityMetadata;
+import org.zenith.util.metadata.FieldMetadata;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An {@link EntityMapper} for entities without a mapper generated at compile time.
+ * On creation it generates a {@link RowReader} for the entity and defines it as a hidden class through
+ * {@link MethodHandles.Lookup#defineHiddenClass}, so rows are mapped with direct field writes and primitive
+ * {@link ResultSet} getters instead of reflection.
+ * <p>
+ * When the model class lives in the same module as this library (or the lookup otherwise has full privilege access),
+ * the reader is defined as a nestmate of the model and can write every field. Otherwise it is defined next to this
+ * class and only writes the public fields of public, exported model classes. The remaining columns are written
+ * through their {@link org.zenith.util.metadata.FieldAccessor}, as are the columns with a
+ * {@link org.zenith.util.converter.ColumnConverter}.
+ *
+ * @param <T> The type of the model
+ */
+public final class HiddenClassEntityMapper<T extends IModel> implements EntityMapper<T> {
+    private final EntityMetadata<T> metadata;
+    private final RowReader reader;
+    private final List<String> columnNames;
+    private final int[] accessorPositions;
+    private final String selectAllSql;
+
+    private HiddenClassEntityMapper(EntityMetadata<T> metadata, RowReader reader, int[] accessorPositions) {
+        this.metadata = metadata;
+        this.reader = reader;
+        this.columnNames = metadata.getColumns().stream().map(FieldMetadata::getColumnName).toList();
+        this.accessorPositions = accessorPositions;
+        this.selectAllSql = String.format("SELECT * FROM %s;", metadata.getTableName());
+    }
+
+    /**
+     * Generates a mapper for the given model class. Prefer {@link EntityMetadata#getRowMapper()}, which caches the mapper.
+     *
+     * @param modelClass The class of the model
+     * @return The mapper, or {@code null} if no reader could be defined for the class
+     */
+    public static <T extends IModel> HiddenClassEntityMapper<T> create(Class<T> modelClass) {
+        EntityMetadata<T> metadata = EntityMetadata.of(modelClass);
+
+        try {
+            MethodHandles.Lookup lookup = resolveLookup(modelClass);
+            boolean isNestmate = lookup.lookupClass() == modelClass;
+
+            if (!isNestmate && !isAccessible(modelClass)) {
+                return null;
+            }
+
+            List<FieldMetadata> columns = metadata.getColumns();
+            List<Field> readerFields = new ArrayList<>();
+            List<Integer> readerPositions = new ArrayList<>();
+            List<Integer> accessorPositions = new ArrayList<>();
+
+            for (int i = 0; i < columns.size(); i++) {
+                FieldMetadata column = columns.get(i);
+
+                // Foreign keys are set by the relation strategies, not from the raw column
+                if (column.isForeignKey()) {
+                    continue;
+                }
+
+                if (column.getConverter() == null && RowReaderGenerator.isSupported(column.getType()) && isWritable(column.getField(), isNestmate)) {
+                    readerFields.add(column.getField());
+                    readerPositions.add(i);
+                } else {
+                    accessorPositions.add(i);
+                }
+            }
+
+            String packageName = lookup.lookupClass().getPackageName();
+            String className = (packageName.isEmpty() ? "" : packageName.replace('.', '/') + "/")
+                    + modelClass.getSimpleName() + "$$RowReader";
+
+            byte[] classFile = RowReaderGenerator.generate(className, modelClass, readerFields,
+                    readerPositions.stream().mapToInt(Integer::intValue).toArray());
+
+            MethodHandles.Lookup readerLookup = isNestmate
+                    ? lookup.defineHiddenClass(classFile, true, MethodHandles.Lookup.ClassOption.NESTMATE)
+                    : lookup.defineHiddenClass(classFile, true);
+
+            RowReader reader = (RowReader) readerLookup
+                    .findConstructor(readerLookup.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+
+            return new HiddenClassEntityMapper<>(metadata, reader, accessorPositions.stream().mapToInt(Integer::intValue).toArray());
+        } catch (Throwable ex) {
+            Logger.warn(String.format("Could not generate a row mapper for %s, falling back to reflection: %s", modelClass.getSimpleName(), ex));
+            return null;
+        }
+    }
+
+    /**
+     * Uses a private lookup in the model class when it grants full privilege access (same module), otherwise the lookup
+     * of this class, which can only define readers that access public members
+     */
+    private static MethodHandles.Lookup resolveLookup(Class<?> modelClass) {
+        Module libModule = HiddenClassEntityMapper.class.getModule();
+        Module modelModule = modelClass.getModule();
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(modelClass, MethodHandles.lookup());
+
+            if (lookup.hasFullPrivilegeAccess() && modelModule.canRead(libModule) && modelModule.canRead(ResultSet.class.getModule())) {
+                return lookup;
+            }
+        } catch (IllegalAccessException ignored) {
+            // The package of the model is not opened to this library
+        }
+
+        if (libModule.isNamed()) {
+            libModule.addReads(modelModule);
+        }
+
+        return MethodHandles.lookup();
+    }
+
+    private static boolean isWritable(Field field, boolean isNestmate) {
+        int modifiers = field.getModifiers();
+
+        if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers)) {
+            return false;
+        }
+
+        if (isNestmate) {
+            return true;
+        }
+
+        return Modifier.isPublic(modifiers) && isAccessible(field.getDeclaringClass());
+    }
+
+    private static boolean isAccessible(Class<?> type) {
+        return Modifier.isPublic(type.getModifiers())
+                && type.getModule().isExported(type.getPackageName(), HiddenClassEntityMapper.class.getModule());
+    }
+
+    @Override
+    public Class<T> getModelClass() {
+        return metadata.getModelClass();
+    }
+
+    @Override
+    public String getTableName() {
+        return metadata.getTableName();
+    }
+
+    @Override
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    @Override
+    public String getSelectAllSql() {
+        return selectAllSql;
+    }
+
+    @Override
+    public T newInstance() {
+        try {
+            return metadata.newInstance();
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException(String.format("Could not instantiate %s", metadata.getModelClass().getName()), ex);
+        }
+    }
+
+    @Override
+    public void map(ResultSet resultSet, int[] columnIndexes, T model) throws SQLException {
+        reader.read(resultSet, columnIndexes, model);
+
+        for (int position : accessorPositions) {
+            int columnIndex = columnIndexes[position];
+
+            if (columnIndex != 0) {
+                FieldMetadata column = metadata.getColumns().get(position);
+                column.getAccessor().set(model, readColumn(resultSet, columnIndex, column));
+            }
+        }
+    }
+
+    private static Object readColumn(ResultSet resultSet, int columnIndex, FieldMetadata column) throws SQLException {
+        if (column.getConverter() != null) {
+            return column.getConverter().read(resultSet, columnIndex);
+        }
+
+        if (column.getType() == boolean.class || column.getType() == Boolean.class) {
+            return MapperSupport.readObject(resultSet, columnIndex, Boolean.class);
+        }
+
+        return resultSet.getObject(columnIndex);
+    }
+
+    @Override
+    public Object[] getValues(T model) {
+        return metadata.getColumnValues(model);
+    }
+}
@@ -0,0 +1,138 @@
+package org.zenith.util.mapper;
+
+import org.zenith.enumeration.ColumnType;
+import org.zenith.util.metadata.FieldMetadata;
+
+import java.lang.invoke.MethodType;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helpers shared by the generated {@link EntityMapper} implementations and the reflective mapping code.
+ */
+public class MapperSupport {
+    private MapperSupport() {
+        throw new UnsupportedOperationException("This is an utility class and cannot be instantiated");
+    }
+
+    /**
+     * Resolves the index of every column name in the result set
+     *
+     * @param resultSet The {@link ResultSet} to resolve the columns in
+     * @param columnNames The names of the columns to look up
+     * @return For every column name its 1-based index in the result set, or {@code 0} if it is not part of the result set.
+     *          {@code null} if the result set does not provide any metadata
+     * @throws SQLException If the metadata of the result set cannot be read
+     */
+    public static int[] resolveColumnIndexes(ResultSet resultSet, List<String> columnNames) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+
+        if (metaData == null) {
+            return null;
+        }
+
+        int columnCount = metaData.getColumnCount();
+        Map<String, Integer> indexesByName = new HashMap<>(columnCount * 2);
+
+        for (int i = 1; i <= columnCount; i++) {
+            indexesByName.putIfAbsent(metaData.getColumnLabel(i).toLowerCase(), i);
+        }
+
+        int[] columnIndexes = new int[columnNames.size()];
+
+        for (int i = 0; i < columnIndexes.length; i++) {
+            columnIndexes[i] = indexesByName.getOrDefault(columnNames.get(i).toLowerCase(), 0);
+        }
+
+        return columnIndexes;
+    }
+
+    /**
+     * Reads a nullable column into a boxed primitive or {@link String}
+     *
+     * @param resultSet The {@link ResultSet} to read from
+     * @param columnIndex The index of the column
+     * @param type The boxed type to convert the value to
+     * @return The converted value, or {@code null} if the column is NULL
+     * @throws SQLException If the column cannot be read
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> V readObject(ResultSet resultSet, int columnIndex, Class<V> type) throws SQLException {
+        Object value = resultSet.getObject(columnIndex);
+
+        if (value == null || type.isInstance(value)) {
+            return (V) value;
+        }
+
+        if (type == Boolean.class) {
+            return (V) Boolean.valueOf(value instanceof Number number ? number.intValue() != 0 : Boolean.parseBoolean(value.toString()));
+        }
+
+        if (value instanceof Number number) {
+            if (type == Integer.class) return (V) Integer.valueOf(number.intValue());
+            if (type == Long.class) return (V) Long.valueOf(number.longValue());
+            if (type == Double.class) return (V) Double.valueOf(number.doubleValue());
+            if (type == Float.class) return (V) Float.valueOf(number.floatValue());
+            if (type == Short.class) return (V) Short.valueOf(number.shortValue());
+            if (type == Byte.class) return (V) Byte.valueOf(number.byteValue());
+        }
+
+        if (type == String.class) {
+            return (V) value.toString();
+        }
+
+        throw new SQLException(String.format("Cannot convert %s to %s", value.getClass().getName(), type.getName()));
+    }
+
+    /**
+     * Reads a column as the value of a field of an entity, converted to the given type
+     *
+     * @param resultSet The {@link ResultSet} to read from
+     * @param columnIndex The index of the column
+     * @param field The field the column belongs to, its converter is used for types without a JDBC getter
+     * @param type The type to read, either the type of the field or its boxed type, or a number for a foreign key
+     * @return The value, {@code null} for a NULL column unless the type is primitive
+     * @throws SQLException If the column cannot be read
+     */
+    public static Object readValue(ResultSet resultSet, int columnIndex, FieldMetadata field, Class<?> type) throws SQLException {
+        if (type.isPrimitive()) {
+            if (type == int.class) return resultSet.getInt(columnIndex);
+            if (type == long.class) return resultSet.getLong(columnIndex);
+            if (type == double.class) return resultSet.getDouble(columnIndex);
+            if (type == boolean.class) return resultSet.getBoolean(columnIndex);
+            if (type == float.class) return resultSet.getFloat(columnIndex);
+            if (type == short.class) return resultSet.getShort(columnIndex);
+            if (type == byte.class) return resultSet.getByte(columnIndex);
+        }
+
+        if (type == String.class) {
+            return resultSet.getString(columnIndex);
+        }
+
+        if (type == byte[].class) {
+            return resultSet.getBytes(columnIndex);
+        }
+
+        if (!field.isForeignKey() && field.getConverter() != null) {
+            return field.getConverter().read(resultSet, columnIndex);
+        }
+
+        if (type == Boolean.class || field.getColumnType() == ColumnType.BOOLEAN || type.getSuperclass() == Number.class) {
+            return readObject(resultSet, columnIndex, box(type));
+        }
+
+        return resultSet.getObject(columnIndex);
+    }
+
+    /**
+     * @param type A primitive or reference type
+     * @return The boxed type of a primitive type, otherwise the type itself
+     */
+    public static Class<?> box(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+}
@@ -0,0 +1,155 @@
+package org.zenith.util.mapper;
+
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.metadata.EntityMetadata;
+import org.zenith.util.metadata.FieldMetadata;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps the rows of a projection to a {@link Record} through its canonical constructor.
+ * Every component of the record is matched by name to a field of the entity, so only those columns have to be selected.
+ * A component matching a {@code @ManyToOne} or {@code @OneToOne} field receives the id of the related row, when it is
+ * declared as an {@code int}, {@code long}, {@link Integer} or {@link Long}.
+ *
+ * @param <R> The type of the record
+ */
+public final class RecordMapper<R extends Record> {
+    private static final Map<Class<?>, Map<Class<?>, RecordMapper<?>>> REGISTRY = new ConcurrentHashMap<>();
+
+    private final Class<R> recordClass;
+    private final FieldMetadata[] fields;
+    private final Class<?>[] types;
+    private final List<String> fieldNames;
+    private final MethodHandle constructor;
+
+    private RecordMapper(EntityMetadata<?> metadata, Class<R> recordClass) {
+        this.recordClass = recordClass;
+
+        RecordComponent[] components = recordClass.getRecordComponents();
+
+        if (components == null)
+            throw new IllegalArgumentException(String.format("%s is not a record", recordClass.getName()));
+
+        this.fields = new FieldMetadata[components.length];
+        this.types = new Class<?>[components.length];
+        String[] names = new String[components.length];
+
+        for (int i = 0; i < components.length; i++) {
+            RecordComponent component = components[i];
+            FieldMetadata field = metadata.findField(component.getName());
+
+            if (field == null || !field.hasColumn())
+                throw new IllegalArgumentException(String.format("%s does not have a column for the component %s of %s",
+                        metadata.getModelClass().getSimpleName(), component.getName(), recordClass.getSimpleName()));
+
+            if (!isCompatible(field, component.getType()))
+                throw new IllegalArgumentException(String.format("The component %s of %s cannot hold the value of %s",
+                        component.getName(), recordClass.getSimpleName(), field));
+
+            fields[i] = field;
+            types[i] = component.getType();
+            names[i] = field.getName();
+        }
+
+        this.fieldNames = List.of(names);
+        this.constructor = resolveConstructor(recordClass, types);
+    }
+
+    /**
+     * Retrieves the mapper of a record projection of the given entity, resolving it on first use
+     *
+     * @param modelClass The class of the entity the rows are selected from
+     * @param recordClass The class of the record to map the rows to
+     * @return The cached mapper
+     * @throws IllegalArgumentException If a component of the record does not match a column of the entity
+     */
+    @SuppressWarnings("unchecked")
+    public static <R extends Record> RecordMapper<R> of(Class<? extends IModel> modelClass, Class<R> recordClass) {
+        return (RecordMapper<R>) REGISTRY
+                .computeIfAbsent(modelClass, ignored -> new ConcurrentHashMap<>())
+                .computeIfAbsent(recordClass, ignored -> new RecordMapper<>(EntityMetadata.of(modelClass), recordClass));
+    }
+
+    private static boolean isCompatible(FieldMetadata field, Class<?> type) {
+        if (field.isForeignKey()) {
+            return type == int.class || type == long.class || type == Integer.class || type == Long.class;
+        }
+
+        return type == field.getType() || MapperSupport.box(type) == MapperSupport.box(field.getType());
+    }
+
+    private static MethodHandle resolveConstructor(Class<?> recordClass, Class<?>[] types) {
+        try {
+            Constructor<?> canonical = recordClass.getDeclaredConstructor(types);
+            MethodHandle handle;
+
+            try {
+                Module libModule = RecordMapper.class.getModule();
+
+                if (!libModule.canRead(recordClass.getModule())) {
+                    libModule.addReads(recordClass.getModule());
+                }
+
+                handle = MethodHandles.privateLookupIn(recordClass, MethodHandles.lookup()).unreflectConstructor(canonical);
+            } catch (IllegalAccessException ex) {
+                // The package is not opened to this module, use the access which was granted to the constructor itself
+                canonical.trySetAccessible();
+                handle = MethodHandles.lookup().unreflectConstructor(canonical);
+            }
+
+            return handle.asSpreader(Object[].class, types.length).asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            throw new IllegalArgumentException(String.format("The canonical constructor of %s cannot be accessed", recordClass.getName()), ex);
+        }
+    }
+
+    /**
+     * @return The names of the entity fields of the components, in the order of the components
+     */
+    public List<String> getFieldNames() {
+        return fieldNames;
+    }
+
+    /**
+     * @return The class of the record
+     */
+    public Class<R> getRecordClass() {
+        return recordClass;
+    }
+
+    /**
+     * Maps the current row to a new record
+     *
+     * @param resultSet The {@link ResultSet}, positioned on the row to map
+     * @param columnIndexes For every component the index of its column in the result set
+     * @return The record
+     * @throws SQLException If a column cannot be read or the constructor of the record throws an exception
+     */
+    @SuppressWarnings("unchecked")
+    public R map(ResultSet resultSet, int[] columnIndexes) throws SQLException {
+        Object[] values = new Object[fields.length];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = MapperSupport.readValue(resultSet, columnIndexes[i], fields[i], types[i]);
+        }
+
+        try {
+            Object record = constructor.invokeExact(values);
+            return (R) record;
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new SQLException(String.format("Could not construct %s", recordClass.getSimpleName()), ex);
+        }
+    }
+}
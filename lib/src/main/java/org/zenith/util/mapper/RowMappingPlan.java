@@ -0,0 +1,437 @@
+package org.zenith.util.mapper;
+
+import org.zenith.enumeration.FetchType;
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.EntityCache;
+import org.zenith.util.IdentityMap;
+import org.zenith.util.metadata.EntityMetadata;
+import org.zenith.util.metadata.FieldMetadata;
+import org.zenith.util.strategies.reflection.BatchFieldMappingStrategy;
+import org.zenith.util.strategies.reflection.FieldMappingStrategy;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The plan to map the rows of a single result set to an entity.
+ * The {@link java.sql.ResultSetMetaData} is read once when the plan is created, after which every row is mapped by
+ * column index. Columns of the entity which are not part of the result set, e.g. in a projection, are skipped.
+ * <p>
+ * A {@code @ManyToOne} or {@code @OneToOne} field is mapped from the joined columns labelled with its
+ * {@link FieldMetadata#getJoinPrefix() join prefix} when the result set has them, otherwise from its foreign key column
+ * as a reference holding only the id, which its strategy replaces by the loaded entity unless the field is fetched lazily.
+ * Related entities are mapped without their own relations.
+ * <p>
+ * A plan created with an {@link IdentityMap} maps a row whose entity is in the map to that instance, and adds the
+ * entities it maps, when the result set has every column of the entity. Related entities are added as shallow entities.
+ * Such rows of a {@link org.zenith.annotation.Cacheable} entity are also written to its {@link EntityCache}.
+ *
+ * @param <T> The type of the model
+ */
+public final class RowMappingPlan<T extends IModel> {
+    private final EntityMetadata<T> metadata;
+    private final EntityMapper<T> mapper;
+    private final int[] columnIndexes;
+    private final List<FieldMetadata> relations;
+    private final int[] foreignKeyIndexes;
+    private final RowMappingPlan<?>[] joins;
+    private final int[] joinIdIndexes;
+    private final IdentityMap identities;
+    private final EntityCache cache;
+    private final int idIndex;
+
+    private RowMappingPlan(EntityMetadata<T> metadata, EntityMapper<T> mapper, int[] columnIndexes, List<FieldMetadata> relations,
+                           int[] foreignKeyIndexes, RowMappingPlan<?>[] joins, int[] joinIdIndexes, IdentityMap identities, int idIndex) {
+        this.metadata = metadata;
+        this.mapper = mapper;
+        this.columnIndexes = columnIndexes;
+        this.relations = relations;
+        this.foreignKeyIndexes = foreignKeyIndexes;
+        this.joins = joins;
+        this.joinIdIndexes = joinIdIndexes;
+        this.identities = idIndex != 0 ? identities : null;
+        this.cache = idIndex != 0 ? EntityCache.of(metadata.getModelClass()) : null;
+        this.idIndex = idIndex;
+    }
+
+    /**
+     * Creates the plan for the given result set, using the row mapper of the entity when it has one
+     *
+     * @param resultSet The {@link ResultSet} whose rows will be mapped
+     * @param modelClass The class of the model
+     * @return The mapping plan
+     * @throws SQLException If the metadata of the result set cannot be read
+     */
+    public static <T extends IModel> RowMappingPlan<T> of(ResultSet resultSet, Class<T> modelClass) throws SQLException {
+        return of(resultSet, modelClass, null);
+    }
+
+    /**
+     * Creates the plan for the given result set, which maps the rows to the entities of the identity map
+     *
+     * @param resultSet The {@link ResultSet} whose rows will be mapped
+     * @param modelClass The class of the model
+     * @param identities The identity map of the session, or {@code null}
+     * @return The mapping plan
+     * @throws SQLException If the metadata of the result set cannot be read
+     */
+    public static <T extends IModel> RowMappingPlan<T> of(ResultSet resultSet, Class<T> modelClass, IdentityMap identities) throws SQLException {
+        EntityMetadata<T> metadata = EntityMetadata.of(modelClass);
+        EntityMapper<T> mapper = metadata.getRowMapper();
+        List<FieldMetadata> relations = metadata.getRelations();
+
+        // The columns of the entity, then for every relation its foreign key column, its joined id column and the other
+        // joined columns, all resolved with a single pass over the metadata of the result set
+        List<String> entityColumns = columnNames(metadata, mapper, "");
+        List<String> labels = new ArrayList<>(entityColumns);
+        int[] joinOffsets = new int[relations.size()];
+
+        for (FieldMetadata field : relations) {
+            FieldMetadata relatedId = field.isForeignKey() ? relatedMetadata(field).getIdField() : null;
+
+            labels.add(field.isForeignKey() ? field.getColumnName() : "");
+            labels.add(relatedId != null ? field.getJoinPrefix() + relatedId.getColumnName() : "");
+        }
+
+        for (int i = 0; i < relations.size(); i++) {
+            FieldMetadata field = relations.get(i);
+            joinOffsets[i] = labels.size();
+
+            if (field.isForeignKey()) {
+                EntityMetadata<? extends IModel> related = relatedMetadata(field);
+                labels.addAll(columnNames(related, related.getRowMapper(), field.getJoinPrefix()));
+            }
+        }
+
+        int[] indexes = MapperSupport.resolveColumnIndexes(resultSet, labels);
+        int columnCount = mapper != null ? mapper.getColumnNames().size() : metadata.getColumns().size();
+        int[] columnIndexes = indexes != null ? Arrays.copyOf(indexes, columnCount) : null;
+
+        int[] foreignKeyIndexes = new int[relations.size()];
+        RowMappingPlan<?>[] joins = new RowMappingPlan<?>[relations.size()];
+        int[] joinIdIndexes = new int[relations.size()];
+
+        if (indexes != null) {
+            for (int i = 0; i < relations.size(); i++) {
+                foreignKeyIndexes[i] = indexes[columnCount + 2 * i];
+                joinIdIndexes[i] = indexes[columnCount + 2 * i + 1];
+
+                if (joinIdIndexes[i] != 0) {
+                    EntityMetadata<? extends IModel> related = relatedMetadata(relations.get(i));
+                    int to = i + 1 < relations.size() ? joinOffsets[i + 1] : indexes.length;
+                    joins[i] = joined(related, Arrays.copyOfRange(indexes, joinOffsets[i], to), identities, joinIdIndexes[i]);
+                }
+            }
+        }
+
+        // Only entities read with all their columns are added to or taken from the identity map and the entity cache
+        FieldMetadata id = metadata.getIdField();
+        int idIndex = isComplete(columnIndexes) && id != null ? columnIndexes[entityColumns.indexOf(id.getColumnName())] : 0;
+
+        return new RowMappingPlan<>(metadata, columnIndexes != null ? mapper : null, columnIndexes, relations, foreignKeyIndexes, joins, joinIdIndexes,
+                identities, idIndex);
+    }
+
+    /**
+     * Creates the plan of the columns of a joined entity, which only maps its columns
+     */
+    private static <R extends IModel> RowMappingPlan<R> joined(EntityMetadata<R> metadata, int[] columnIndexes, IdentityMap identities, int idIndex) {
+        return new RowMappingPlan<>(metadata, metadata.getRowMapper(), columnIndexes, List.of(), new int[0], new RowMappingPlan<?>[0], new int[0],
+                identities, isComplete(columnIndexes) ? idIndex : 0);
+    }
+
+    private static boolean isComplete(int[] columnIndexes) {
+        return columnIndexes != null && Arrays.stream(columnIndexes).noneMatch(index -> index == 0);
+    }
+
+    private static List<String> columnNames(EntityMetadata<?> metadata, EntityMapper<?> mapper, String prefix) {
+        List<String> columnNames = mapper != null
+                ? mapper.getColumnNames()
+                : metadata.getColumns().stream().map(FieldMetadata::getColumnName).toList();
+
+        return prefix.isEmpty() ? columnNames : columnNames.stream().map(name -> prefix + name).toList();
+    }
+
+    private static EntityMetadata<? extends IModel> relatedMetadata(FieldMetadata field) {
+        return EntityMetadata.of(field.getRelatedType().asSubclass(IModel.class));
+    }
+
+    /**
+     * Maps the current row of the result set to a new instance of the model, including its relations
+     *
+     * @param resultSet The {@link ResultSet} this plan was created for, positioned on the row to map
+     * @return The mapped model
+     * @throws SQLException If there is an error accessing the {@link ResultSet}
+     * @throws IllegalAccessException If a field of the model cannot be accessed
+     * @throws InstantiationException If the model class cannot be instantiated
+     * @throws NoSuchMethodException If the no-argument constructor of the model class is not found
+     * @throws InvocationTargetException If there is an exception thrown by the constructor
+     * @throws NoSuchFieldException If a related field cannot be found
+     */
+    public T map(ResultSet resultSet)
+            throws SQLException, IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException, NoSuchFieldException {
+
+        T model = cached(resultSet);
+
+        if (model == null) {
+            model = mapRow(resultSet);
+            mapRelations(List.of(model));
+        }
+
+        return model;
+    }
+
+    /**
+     * Maps every remaining row of the result set to a new instance of the model. The relations loaded with queries of
+     * their own, i.e. by a {@link BatchFieldMappingStrategy}, are loaded once for all rows after the last row has been read
+     *
+     * @param resultSet The {@link ResultSet} this plan was created for, positioned before the first row to map
+     * @return The mapped models in the order of the rows
+     * @throws SQLException If there is an error accessing the {@link ResultSet}
+     * @throws IllegalAccessException If a field of the model cannot be accessed
+     * @throws InstantiationException If the model class cannot be instantiated
+     * @throws NoSuchMethodException If the no-argument constructor of the model class is not found
+     * @throws InvocationTargetException If there is an exception thrown by the constructor
+     * @throws NoSuchFieldException If a related field cannot be found
+     */
+    public List<T> mapAll(ResultSet resultSet)
+            throws SQLException, IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException, NoSuchFieldException {
+
+        List<T> models = new ArrayList<>();
+        List<T> mapped = identities != null ? new ArrayList<>() : models;
+
+        while (resultSet.next()) {
+            T model = cached(resultSet);
+
+            if (model == null) {
+                model = mapRow(resultSet);
+
+                if (mapped != models) {
+                    mapped.add(model);
+                }
+            }
+
+            models.add(model);
+        }
+
+        mapRelations(mapped);
+        return models;
+    }
+
+    /**
+     * Returns the complete entity of the current row from the identity map, whose relations have been loaded already
+     *
+     * @param resultSet The {@link ResultSet} this plan was created for, positioned on the row to map
+     * @return The entity, or {@code null} if it is not in the identity map or the plan has none
+     * @throws SQLException If there is an error accessing the {@link ResultSet}
+     */
+    public T cached(ResultSet resultSet) throws SQLException {
+        return identities != null ? identities.getComplete(metadata.getModelClass(), resultSet.getLong(idIndex)) : null;
+    }
+
+    /**
+     * Maps the current row of the result set to a new instance of the model, or to the shallow entity of the identity map
+     * whose columns are overwritten with those of the row, without the relations which are loaded for all rows at once by
+     * {@link #mapRelations(List)}
+     *
+     * @param resultSet The {@link ResultSet} this plan was created for, positioned on the row to map
+     * @return The mapped model
+     * @throws SQLException If there is an error accessing the {@link ResultSet}
+     * @throws IllegalAccessException If a field of the model cannot be accessed
+     * @throws InstantiationException If the model class cannot be instantiated
+     * @throws NoSuchMethodException If the no-argument constructor of the model class is not found
+     * @throws InvocationTargetException If there is an exception thrown by the constructor
+     * @throws NoSuchFieldException If a related field cannot be found
+     */
+    public T mapRow(ResultSet resultSet)
+            throws SQLException, IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException, NoSuchFieldException {
+
+        long id = identities != null ? resultSet.getLong(idIndex) : 0;
+        T model = identities != null ? identities.get(metadata.getModelClass(), id) : null;
+
+        if (model == null) {
+            model = mapShallow(resultSet);
+        } else {
+            // The shallow entity is completed with the current columns of its row, which may have changed since
+            mapColumns(resultSet, model);
+
+            if (cache != null) {
+                cache.write(model);
+            }
+        }
+
+        for (int i = 0; i < relations.size(); i++) {
+            FieldMetadata field = relations.get(i);
+            FieldMappingStrategy strategy = field.getStrategy();
+
+            if (joins[i] != null) {
+                resultSet.getLong(joinIdIndexes[i]);
+
+                if (!resultSet.wasNull()) {
+                    field.getAccessor().set(model, joins[i].mapJoined(resultSet));
+                }
+            } else if (strategy == null) {
+                continue;
+            } else if (field.isForeignKey() && columnIndexes != null) {
+                IModel related = identities != null ? identified(resultSet, field, foreignKeyIndexes[i]) : null;
+
+                if (related != null) {
+                    field.getAccessor().set(model, related);
+                } else if (foreignKeyIndexes[i] != 0) {
+                    strategy.mapField(resultSet, model, field, foreignKeyIndexes[i]);
+                }
+            } else if (field.isForeignKey() || !(strategy instanceof BatchFieldMappingStrategy)) {
+                strategy.mapField(resultSet, model, field);
+            }
+        }
+
+        if (identities != null) {
+            identities.put(model, id);
+        }
+
+        return model;
+    }
+
+    /**
+     * Maps the joined columns of the current row to the entity of the identity map, or to a new shallow entity
+     */
+    private T mapJoined(ResultSet resultSet)
+            throws SQLException, IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException, NoSuchFieldException {
+
+        if (identities == null)
+            return mapShallow(resultSet);
+
+        long id = resultSet.getLong(idIndex);
+        T model = identities.get(metadata.getModelClass(), id);
+
+        if (model == null) {
+            model = mapShallow(resultSet);
+            identities.putShallow(model, id);
+        }
+
+        return model;
+    }
+
+    /**
+     * @return The entity of the identity map the foreign key column of the current row refers to, or {@code null}
+     */
+    private IModel identified(ResultSet resultSet, FieldMetadata field, int foreignKeyIndex) throws SQLException {
+        if (foreignKeyIndex == 0)
+            return null;
+
+        long id = resultSet.getLong(foreignKeyIndex);
+        return resultSet.wasNull() ? null : identities.get(field.getRelatedType().asSubclass(IModel.class), id);
+    }
+
+    /**
+     * Loads the relations of the models which are mapped with queries of their own, once for all models
+     *
+     * @param models The models mapped by {@link #mapRow(ResultSet)}
+     * @throws SQLException If the related rows cannot be read
+     * @throws IllegalAccessException If a field of a model cannot be accessed
+     * @throws NoSuchMethodException If a related model cannot be instantiated
+     * @throws InvocationTargetException If the constructor of a related model throws an exception
+     * @throws NoSuchFieldException If a related field cannot be found
+     */
+    public void mapRelations(List<T> models)
+            throws SQLException, IllegalAccessException, NoSuchMethodException, InvocationTargetException, NoSuchFieldException {
+
+        mapRelations(models, null);
+    }
+
+    /**
+     * Loads the relations of the models which are mapped with queries of their own, once for all models, except for
+     * the given relation, e.g. the relation referring back to the parent the models were loaded for
+     *
+     * @param models The models mapped by {@link #mapRow(ResultSet)}
+     * @param excluded The relation which is not loaded, or {@code null}
+     * @throws SQLException If the related rows cannot be read
+     * @throws IllegalAccessException If a field of a model cannot be accessed
+     * @throws NoSuchMethodException If a related model cannot be instantiated
+     * @throws InvocationTargetException If the constructor of a related model throws an exception
+     * @throws NoSuchFieldException If a related field cannot be found
+     */
+    public void mapRelations(List<T> models, FieldMetadata excluded)
+            throws SQLException, IllegalAccessException, NoSuchMethodException, InvocationTargetException, NoSuchFieldException {
+
+        if (models.isEmpty())
+            return;
+
+        for (int i = 0; i < relations.size(); i++) {
+            FieldMetadata field = relations.get(i);
+
+            if (field == excluded || joins[i] != null || (field.isForeignKey() && field.getFetchType() == FetchType.LAZY))
+                continue;
+
+            if (field.getStrategy() instanceof BatchFieldMappingStrategy strategy) {
+                strategy.mapFields(models, field, identities);
+            }
+        }
+    }
+
+    /**
+     * Maps the columns of the current row of the result set to a new instance of the model, without its relations
+     *
+     * @param resultSet The {@link ResultSet} this plan was created for, positioned on the row to map
+     * @return The mapped model
+     * @throws SQLException If there is an error accessing the {@link ResultSet}
+     * @throws IllegalAccessException If a field of the model cannot be accessed
+     * @throws InstantiationException If the model class cannot be instantiated
+     * @throws NoSuchMethodException If the no-argument constructor of the model class is not found
+     * @throws InvocationTargetException If there is an exception thrown by the constructor
+     * @throws NoSuchFieldException If a field cannot be mapped by its strategy
+     */
+    public T mapShallow(ResultSet resultSet)
+            throws SQLException, IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException, NoSuchFieldException {
+
+        T model = mapper != null ? mapper.newInstance() : metadata.newInstance();
+        mapColumns(resultSet, model);
+
+        if (cache != null) {
+            cache.write(model);
+        }
+
+        return model;
+    }
+
+    /**
+     * Copies the columns of the current row of the result set into an existing instance of the model, without resolving
+     * its relations. Used to write the row returned by an INSERT or UPDATE back into the saved model
+     *
+     * @param resultSet The {@link ResultSet} this plan was created for, positioned on the row to map
+     * @param model The model to write the values to
+     * @throws SQLException If there is an error accessing the {@link ResultSet}
+     * @throws IllegalAccessException If a field of the model cannot be accessed
+     * @throws NoSuchMethodException If a field cannot be mapped by its strategy
+     * @throws InvocationTargetException If a field cannot be mapped by its strategy
+     * @throws NoSuchFieldException If a field cannot be mapped by its strategy
+     */
+    public void mapColumns(ResultSet resultSet, T model)
+            throws SQLException, IllegalAccessException, NoSuchMethodException, InvocationTargetException, NoSuchFieldException {
+
+        if (mapper != null) {
+            mapper.map(resultSet, columnIndexes, model);
+        } else if (columnIndexes != null) {
+            List<FieldMetadata> columns = metadata.getColumns();
+
+            for (int i = 0; i < columnIndexes.length; i++) {
+                FieldMetadata column = columns.get(i);
+
+                if (columnIndexes[i] != 0 && !column.isForeignKey() && column.getStrategy() != null) {
+                    column.getStrategy().mapField(resultSet, model, column, columnIndexes[i]);
+                }
+            }
+        } else {
+            // Without metadata the columns can only be looked up by name
+            for (FieldMetadata column : metadata.getColumns()) {
+                if (!column.isForeignKey() && column.getStrategy() != null) {
+                    column.getStrategy().mapField(resultSet, model, column);
+                }
+            }
+        }
+    }
+}
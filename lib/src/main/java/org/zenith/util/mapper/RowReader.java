@@ -0,0 +1,20 @@
+package org.zenith.util.mapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * The contract of the row readers generated at runtime by {@link HiddenClassEntityMapper}.
+ * A reader copies the columns of the current row straight into the fields of the model, without any reflection.
+ */
+public interface RowReader {
+    /**
+     * Copies the columns of the current row into the model
+     *
+     * @param resultSet The {@link ResultSet}, positioned on the row to read
+     * @param columnIndexes For every column of the entity its 1-based index in the result set, or {@code 0} if it is absent
+     * @param model The model to write the values to
+     * @throws SQLException If a column cannot be read
+     */
+    void read(ResultSet resultSet, int[] columnIndexes, Object model) throws SQLException;
+}
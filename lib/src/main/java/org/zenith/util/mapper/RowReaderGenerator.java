@@ -0,0 +1,332 @@
+package org.zenith.util.mapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the class file of a {@link RowReader} for a single model class.
+ * For every column the generated {@code read} method does
+ * {@code int index = columnIndexes[i]; if (index != 0) model.field = resultSet.getXxx(index);}, with a primitive getter
+ * for primitive fields, so mapping a row is a sequence of direct field writes.
+ * <p>
+ * The class file uses version 49 (Java 5), the newest version which does not require a {@code StackMapTable}
+ * for the branches, which keeps this writer small.
+ */
+final class RowReaderGenerator {
+    private static final int CLASS_VERSION = 49;
+
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int ALOAD_2 = 0x2c;
+    private static final int ALOAD_3 = 0x2d;
+    private static final int ALOAD = 0x19;
+    private static final int ASTORE = 0x3a;
+    private static final int ILOAD = 0x15;
+    private static final int ISTORE = 0x36;
+    private static final int SIPUSH = 0x11;
+    private static final int IALOAD = 0x2e;
+    private static final int IFEQ = 0x99;
+    private static final int LDC_W = 0x13;
+    private static final int CHECKCAST = 0xc0;
+    private static final int PUTFIELD = 0xb5;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+    private static final int INVOKEINTERFACE = 0xb9;
+    private static final int RETURN = 0xb1;
+
+    private static final int MODEL_LOCAL = 4;
+    private static final int INDEX_LOCAL = 5;
+
+    private static final String RESULT_SET = internalName(ResultSet.class);
+    private static final String MAPPER_SUPPORT = internalName(MapperSupport.class);
+
+    /**
+     * The {@link ResultSet} getter for every primitive field type, {@link String} and {@code byte[]}
+     */
+    private static final Map<Class<?>, String[]> GETTERS = Map.of(
+            int.class, new String[] { "getInt", "I" },
+            long.class, new String[] { "getLong", "J" },
+            double.class, new String[] { "getDouble", "D" },
+            float.class, new String[] { "getFloat", "F" },
+            short.class, new String[] { "getShort", "S" },
+            byte.class, new String[] { "getByte", "B" },
+            boolean.class, new String[] { "getBoolean", "Z" },
+            String.class, new String[] { "getString", "Ljava/lang/String;" },
+            byte[].class, new String[] { "getBytes", "[B" });
+
+    private static final List<Class<?>> BOXED_TYPES = List.of(
+            Integer.class, Long.class, Double.class, Float.class, Short.class, Byte.class, Boolean.class);
+
+    private final ByteArrayOutputStream constantPoolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream constantPool = new DataOutputStream(constantPoolBytes);
+    private final Map<String, Integer> constants = new HashMap<>();
+    private int constantCount = 1;
+
+    private RowReaderGenerator() { }
+
+    /**
+     * Checks whether the generated reader can read a column of the given type
+     *
+     * @param type The type of the field
+     * @return {@code true} if {@link #generate} supports fields of this type
+     */
+    static boolean isSupported(Class<?> type) {
+        return GETTERS.containsKey(type) || BOXED_TYPES.contains(type);
+    }
+
+    /**
+     * Generates the class file of a reader
+     *
+     * @param className The internal name of the reader, e.g. {@code org/zenith/models/TodoItem$$RowReader}
+     * @param modelClass The class of the model
+     * @param fields The fields to write, each must be {@linkplain #isSupported supported} and accessible to the reader
+     * @param positions For every field its position in the {@code columnIndexes} array
+     * @return The bytes of the class file
+     */
+    static byte[] generate(String className, Class<?> modelClass, List<Field> fields, int[] positions) {
+        try {
+            return new RowReaderGenerator().write(className, modelClass, fields, positions);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not write the row reader class file", ex);
+        }
+    }
+
+    private byte[] write(String className, Class<?> modelClass, List<Field> fields, int[] positions)
+            throws IOException {
+
+        int thisClass = classConstant(className);
+        int superClass = classConstant("java/lang/Object");
+        int readerInterface = classConstant(internalName(RowReader.class));
+        int code = utf8("Code");
+
+        byte[] constructor = constructorCode(superClass);
+        byte[] read = readCode(modelClass, fields, positions);
+
+        int constructorName = utf8("<init>");
+        int constructorDescriptor = utf8("()V");
+        int readName = utf8("read");
+        int readDescriptor = utf8("(L" + RESULT_SET + ";[ILjava/lang/Object;)V");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(CLASS_VERSION);
+        out.writeShort(constantCount);
+        constantPool.flush();
+        constantPoolBytes.writeTo(out);
+
+        // public final super class <className> extends Object implements RowReader
+        out.writeShort(0x0001 | 0x0010 | 0x0020);
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(1);
+        out.writeShort(readerInterface);
+        out.writeShort(0);
+
+        out.writeShort(2);
+        writeMethod(out, constructorName, constructorDescriptor, code, 1, 1, constructor);
+        writeMethod(out, readName, readDescriptor, code, 5, INDEX_LOCAL + 1, read);
+
+        out.writeShort(0);
+        out.flush();
+
+        return bytes.toByteArray();
+    }
+
+    private byte[] constructorCode(int superClass) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream code = new DataOutputStream(bytes);
+
+        code.writeByte(ALOAD_0);
+        code.writeByte(INVOKESPECIAL);
+        code.writeShort(methodConstant(superClass, "<init>", "()V", false));
+        code.writeByte(RETURN);
+        code.flush();
+
+        return bytes.toByteArray();
+    }
+
+    private byte[] readCode(Class<?> modelClass, List<Field> fields, int[] positions) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream code = new DataOutputStream(bytes);
+        int modelType = classConstant(internalName(modelClass));
+
+        code.writeByte(ALOAD_3);
+        code.writeByte(CHECKCAST);
+        code.writeShort(modelType);
+        code.writeByte(ASTORE);
+        code.writeByte(MODEL_LOCAL);
+
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+
+            code.writeByte(ALOAD_2);
+            code.writeByte(SIPUSH);
+            code.writeShort(positions[i]);
+            code.writeByte(IALOAD);
+            code.writeByte(ISTORE);
+            code.writeByte(INDEX_LOCAL);
+            code.writeByte(ILOAD);
+            code.writeByte(INDEX_LOCAL);
+
+            code.flush();
+            int branch = bytes.size();
+            code.writeByte(IFEQ);
+            code.writeShort(0);
+
+            code.writeByte(ALOAD);
+            code.writeByte(MODEL_LOCAL);
+            code.writeByte(ALOAD_1);
+            code.writeByte(ILOAD);
+            code.writeByte(INDEX_LOCAL);
+            writeRead(code, field.getType());
+            code.writeByte(PUTFIELD);
+            code.writeShort(fieldConstant(modelType, field.getName(), descriptor(field.getType())));
+
+            // Jump over the read when the column is not part of the result set
+            code.flush();
+            patchBranch(bytes, branch, bytes.size() - branch);
+        }
+
+        code.writeByte(RETURN);
+        code.flush();
+
+        return bytes.toByteArray();
+    }
+
+    private void writeRead(DataOutputStream code, Class<?> type) throws IOException {
+        String[] getter = GETTERS.get(type);
+
+        if (getter != null) {
+            code.writeByte(INVOKEINTERFACE);
+            code.writeShort(methodConstant(classConstant(RESULT_SET), getter[0], "(I)" + getter[1], true));
+            code.writeByte(2);
+            code.writeByte(0);
+            return;
+        }
+
+        int boxedType = classConstant(internalName(type));
+
+        code.writeByte(LDC_W);
+        code.writeShort(boxedType);
+        code.writeByte(INVOKESTATIC);
+        code.writeShort(methodConstant(classConstant(MAPPER_SUPPORT), "readObject",
+                "(L" + RESULT_SET + ";ILjava/lang/Class;)Ljava/lang/Object;", false));
+        code.writeByte(CHECKCAST);
+        code.writeShort(boxedType);
+    }
+
+    private static void writeMethod(DataOutputStream out, int name, int descriptor, int codeAttribute, int maxStack, int maxLocals, byte[] code)
+            throws IOException {
+
+        out.writeShort(0x0001);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+
+        out.writeShort(codeAttribute);
+        out.writeInt(2 + 2 + 4 + code.length + 2 + 2);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    private static void patchBranch(ByteArrayOutputStream bytes, int branch, int offset) {
+        byte[] code = bytes.toByteArray();
+        code[branch + 1] = (byte) (offset >> 8);
+        code[branch + 2] = (byte) offset;
+
+        bytes.reset();
+        bytes.write(code, 0, code.length);
+    }
+
+    private int utf8(String value) throws IOException {
+        Integer index = constants.get("U" + value);
+
+        if (index == null) {
+            constantPool.writeByte(1);
+            constantPool.writeUTF(value);
+            index = register("U" + value);
+        }
+
+        return index;
+    }
+
+    private int classConstant(String internalName) throws IOException {
+        Integer index = constants.get("C" + internalName);
+
+        if (index == null) {
+            int name = utf8(internalName);
+            constantPool.writeByte(7);
+            constantPool.writeShort(name);
+            index = register("C" + internalName);
+        }
+
+        return index;
+    }
+
+    private int nameAndType(String name, String descriptor) throws IOException {
+        String key = "N" + name + ":" + descriptor;
+        Integer index = constants.get(key);
+
+        if (index == null) {
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            constantPool.writeByte(12);
+            constantPool.writeShort(nameIndex);
+            constantPool.writeShort(descriptorIndex);
+            index = register(key);
+        }
+
+        return index;
+    }
+
+    private int fieldConstant(int owner, String name, String descriptor) throws IOException {
+        return memberConstant(9, owner, name, descriptor);
+    }
+
+    private int methodConstant(int owner, String name, String descriptor, boolean isInterface) throws IOException {
+        return memberConstant(isInterface ? 11 : 10, owner, name, descriptor);
+    }
+
+    private int memberConstant(int tag, int owner, String name, String descriptor) throws IOException {
+        String key = "M" + tag + ":" + owner + "." + name + ":" + descriptor;
+        Integer index = constants.get(key);
+
+        if (index == null) {
+            int nameAndType = nameAndType(name, descriptor);
+            constantPool.writeByte(tag);
+            constantPool.writeShort(owner);
+            constantPool.writeShort(nameAndType);
+            index = register(key);
+        }
+
+        return index;
+    }
+
+    private int register(String key) {
+        int index = constantCount++;
+        constants.put(key, index);
+        return index;
+    }
+
+    private static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    private static String descriptor(Class<?> type) {
+        String[] getter = GETTERS.get(type);
+        return getter != null ? getter[1] : "L" + internalName(type) + ";";
+    }
+}
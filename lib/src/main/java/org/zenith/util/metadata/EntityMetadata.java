@@ -0,0 +1,372 @@
+package org.zenith.util.metadata;
+
+import org.zenith.annotation.Column;
+import org.zenith.annotation.Entity;
+import org.zenith.annotation.Id;
+import org.zenith.annotation.relation.ManyToOne;
+import org.zenith.annotation.relation.OneToMany;
+import org.zenith.annotation.relation.OneToOne;
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.Logger;
+import org.zenith.util.mapper.EntityMapper;
+import org.zenith.util.mapper.HiddenClassEntityMapper;
+import org.zenith.util.strategies.reflection.*;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable descriptor of a model class, built once per class and cached in a registry.
+ * It holds everything the mapping and SQL generation code used to look up through reflection on every call:
+ * the table name, the id field, the column fields, the relation fields and the {@link FieldMappingStrategy} per field.
+ *
+ * @param <T> The type of the model
+ */
+public final class EntityMetadata<T extends IModel> {
+    private static final Set<Class<? extends Annotation>> MAPPING_ANNOTATIONS = Set.of(
+            Id.class, Column.class, OneToOne.class, ManyToOne.class, OneToMany.class);
+    private static final Map<Class<? extends Annotation>, FieldMappingStrategy> MAPPING_STRATEGIES = Map.of(
+            Id.class, new IdFieldMappingStrategy(),
+            ManyToOne.class, new ManyToOneMappingStrategy(),
+            OneToOne.class, new ManyToOneMappingStrategy(),
+            OneToMany.class, new OneToManyFieldMappingStrategy(),
+            Column.class, new ColumnFieldMappingStrategy());
+
+    private static final Map<Class<?>, EntityMetadata<?>> REGISTRY = new ConcurrentHashMap<>();
+
+    private final Class<T> modelClass;
+    private final String tableName;
+    private final boolean isEntity;
+    private final Constructor<T> constructor;
+    private final FieldMetadata idField;
+    private final List<FieldMetadata> fields;
+    private final List<FieldMetadata> columns;
+    private final List<FieldMetadata> relations;
+    private final Map<String, FieldMetadata> fieldsByName;
+    private final Map<String, FieldMetadata> columnsByName;
+    private final EntityMapper<T> mapper;
+    private final int[] mapperPositions;
+    private volatile EntityMapper<T> rowMapper;
+    private volatile boolean isRowMapperResolved;
+
+    private EntityMetadata(Class<T> modelClass) {
+        this.modelClass = modelClass;
+        this.tableName = modelClass.getSimpleName().toLowerCase();
+        this.isEntity = modelClass.isAnnotationPresent(Entity.class);
+        this.constructor = resolveConstructor(modelClass);
+
+        List<FieldMetadata> fields = new ArrayList<>();
+        FieldMetadata idField = null;
+
+        for (Field field : modelClass.getDeclaredFields()) {
+            if (field.isSynthetic()) {
+                continue;
+            }
+
+            Annotation annotation = getMappingAnnotation(field);
+            if (annotation == null) {
+                continue;
+            }
+
+            FieldMetadata fieldMetadata = new FieldMetadata(field, annotation, MAPPING_STRATEGIES.get(annotation.annotationType()));
+            fields.add(fieldMetadata);
+
+            if (fieldMetadata.isId() && idField == null) {
+                idField = fieldMetadata;
+            }
+        }
+
+        Map<String, FieldMetadata> fieldsByName = new HashMap<>();
+        Map<String, FieldMetadata> columnsByName = new HashMap<>();
+
+        for (FieldMetadata field : fields) {
+            fieldsByName.put(field.getName(), field);
+
+            if (field.hasColumn()) {
+                columnsByName.put(field.getColumnName(), field);
+            }
+        }
+
+        this.idField = idField;
+        this.fields = List.copyOf(fields);
+        this.columns = fields.stream().filter(FieldMetadata::hasColumn).toList();
+        this.relations = fields.stream().filter(field -> field.isForeignKey() || field.isOneToMany()).toList();
+        this.fieldsByName = Map.copyOf(fieldsByName);
+        this.columnsByName = Map.copyOf(columnsByName);
+
+        EntityMapper<T> mapper = resolveMapper(modelClass);
+        this.mapperPositions = mapper != null ? resolveMapperPositions(mapper, columns) : null;
+        this.mapper = mapperPositions != null ? mapper : null;
+    }
+
+    /**
+     * Retrieves the metadata of the given model class, building it on first use.
+     *
+     * @param modelClass The class of the model
+     * @return The cached {@link EntityMetadata} of the class
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends IModel> EntityMetadata<T> of(Class<T> modelClass) {
+        EntityMetadata<?> metadata = REGISTRY.get(modelClass);
+
+        if (metadata == null) {
+            metadata = REGISTRY.computeIfAbsent(modelClass, ignored -> new EntityMetadata<>(modelClass));
+        }
+
+        return (EntityMetadata<T>) metadata;
+    }
+
+    /**
+     * Retrieves the metadata of the class of the given model instance.
+     *
+     * @param model The model instance
+     * @return The cached {@link EntityMetadata} of the class of the model
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends IModel> EntityMetadata<T> of(T model) {
+        return of((Class<T>) model.getClass());
+    }
+
+    private static Annotation getMappingAnnotation(Field field) {
+        for (Annotation annotation : field.getDeclaredAnnotations()) {
+            if (MAPPING_ANNOTATIONS.contains(annotation.annotationType())) {
+                return annotation;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Looks up the {@code <Entity>_Mapper} class generated by the annotation processor, nested classes are
+     * generated as {@code <Outer>_<Inner>_Mapper}
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends IModel> EntityMapper<T> resolveMapper(Class<T> modelClass) {
+        String packageName = modelClass.getPackageName();
+        String binaryName = packageName.isEmpty() ? modelClass.getName() : modelClass.getName().substring(packageName.length() + 1);
+        String mapperName = (packageName.isEmpty() ? "" : packageName + ".") + binaryName.replace('$', '_') + "_Mapper";
+
+        try {
+            Class<?> mapperClass = Class.forName(mapperName, true, modelClass.getClassLoader());
+
+            if (!EntityMapper.class.isAssignableFrom(mapperClass)) {
+                return null;
+            }
+
+            EntityMapper<T> mapper = (EntityMapper<T>) mapperClass.getDeclaredConstructor().newInstance();
+            return mapper.getModelClass() == modelClass ? mapper : null;
+        } catch (ClassNotFoundException ex) {
+            return null;
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            Logger.warn(String.format("Could not load the generated mapper %s, falling back to reflection: %s", mapperName, ex));
+            return null;
+        }
+    }
+
+    /**
+     * Finds the position of every column in the column order of the generated mapper
+     *
+     * @return The positions, or {@code null} if the mapper does not cover the columns of the entity
+     */
+    private static int[] resolveMapperPositions(EntityMapper<?> mapper, List<FieldMetadata> columns) {
+        List<String> mapperColumns = mapper.getColumnNames();
+        int[] positions = new int[columns.size()];
+
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = mapperColumns.indexOf(columns.get(i).getColumnName());
+
+            if (positions[i] < 0) {
+                Logger.warn(String.format("The generated mapper of %s does not contain the column %s, falling back to reflection",
+                        mapper.getModelClass().getSimpleName(), columns.get(i).getColumnName()));
+                return null;
+            }
+        }
+
+        return positions;
+    }
+
+    private static <T> Constructor<T> resolveConstructor(Class<T> modelClass) {
+        try {
+            Constructor<T> constructor = modelClass.getDeclaredConstructor();
+            constructor.trySetAccessible();
+            return constructor;
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a new instance of the model through its no-argument constructor.
+     *
+     * @return A new, empty instance of the model
+     * @throws NoSuchMethodException If the model class has no no-argument constructor
+     * @throws InstantiationException If the model class is abstract
+     * @throws IllegalAccessException If the constructor cannot be accessed
+     * @throws InvocationTargetException If the constructor throws an exception
+     */
+    public T newInstance()
+            throws NoSuchMethodException, InstantiationException, IllegalAccessException, InvocationTargetException {
+
+        if (constructor == null) {
+            throw new NoSuchMethodException(String.format("%s does not have a no-argument constructor", modelClass.getName()));
+        }
+
+        return constructor.newInstance();
+    }
+
+    public Class<T> getModelClass() {
+        return modelClass;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * @return {@code true} if the model class has the {@link Entity} annotation
+     */
+    public boolean isEntity() {
+        return isEntity;
+    }
+
+    /**
+     * @return The field annotated with {@link Id}, or {@code null} if the model does not have one
+     */
+    public FieldMetadata getIdField() {
+        return idField;
+    }
+
+    /**
+     * @return All mapped fields in declaration order
+     */
+    public List<FieldMetadata> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return The fields which are stored as a column of the table (id, columns and foreign keys) in declaration order
+     */
+    public List<FieldMetadata> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return The {@link OneToOne}, {@link ManyToOne} and {@link OneToMany} fields in declaration order
+     */
+    public List<FieldMetadata> getRelations() {
+        return relations;
+    }
+
+    /**
+     * @return The mapper generated for this entity at compile time, or {@code null} if there is none
+     */
+    public EntityMapper<T> getMapper() {
+        return mapper;
+    }
+
+    /**
+     * Retrieves the mapper used to map result set rows to this entity: the mapper generated at compile time when there
+     * is one, otherwise a {@link HiddenClassEntityMapper} which is generated on first use and cached.
+     *
+     * @return The row mapper, or {@code null} if the entity can only be mapped through reflection
+     */
+    public EntityMapper<T> getRowMapper() {
+        if (mapper != null) {
+            return mapper;
+        }
+
+        if (!isRowMapperResolved) {
+            synchronized (this) {
+                if (!isRowMapperResolved) {
+                    rowMapper = constructor != null ? HiddenClassEntityMapper.create(modelClass) : null;
+                    isRowMapperResolved = true;
+                }
+            }
+        }
+
+        return rowMapper;
+    }
+
+    /**
+     * Reads the values of all columns of the model, through the generated mapper when there is one.
+     * Foreign keys are returned as the id of the related model, or {@code null} if the relation is not set.
+     *
+     * @param model The model to read
+     * @return The values in the order of {@link #getColumns()}
+     */
+    public Object[] getColumnValues(T model) {
+        Object[] values = new Object[columns.size()];
+
+        if (mapper != null) {
+            Object[] mapperValues = mapper.getValues(model);
+
+            for (int i = 0; i < values.length; i++) {
+                values[i] = mapperValues[mapperPositions[i]];
+            }
+
+            return values;
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            FieldMetadata column = columns.get(i);
+            Object value = column.getAccessor().get(model);
+
+            if (column.isForeignKey() && value != null) {
+                IModel related = (IModel) value;
+                FieldMetadata relatedId = EntityMetadata.of(related).getIdField();
+                value = relatedId != null ? relatedId.getAccessor().get(related) : null;
+            }
+
+            values[i] = value;
+        }
+
+        return values;
+    }
+
+    /**
+     * Retrieves a field stored in the table of the entity by its column name.
+     *
+     * @param columnName The name of the column, e.g. {@code todoItem_id}
+     * @return The {@link FieldMetadata} of the column, or {@code null} if the table has no such column
+     */
+    public FieldMetadata findColumn(String columnName) {
+        return columnsByName.get(columnName);
+    }
+
+    /**
+     * Retrieves a mapped field by its Java name.
+     *
+     * @param fieldName The name of the field
+     * @return The {@link FieldMetadata} of the field, or {@code null} if no mapped field has that name
+     */
+    public FieldMetadata findField(String fieldName) {
+        return fieldsByName.get(fieldName);
+    }
+
+    /**
+     * Retrieves a mapped field by its Java name.
+     *
+     * @param fieldName The name of the field
+     * @return The {@link FieldMetadata} of the field
+     * @throws NoSuchFieldException If no mapped field has that name
+     */
+    public FieldMetadata getField(String fieldName) throws NoSuchFieldException {
+        FieldMetadata field = fieldsByName.get(fieldName);
+
+        if (field == null) {
+            throw new NoSuchFieldException(String.format("%s does not have a mapped field named %s", modelClass.getSimpleName(), fieldName));
+        }
+
+        return field;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EntityMetadata{%s -> %s}", modelClass.getSimpleName(), tableName);
+    }
+}
@@ -0,0 +1,282 @@
+package org.zenith.util.metadata;
+
+import org.zenith.model.interfaces.IModel;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Field;
+
+/**
+ * Reads and writes a single field through method handles which are resolved once per field.
+ * The primitive getters and setters ({@link #getInt}, {@link #setBoolean}, ...) go through handles typed to the
+ * primitive type of the field so reading an {@code int id} or writing a {@code boolean isCompleted} does not box.
+ * <p>
+ * The handles are resolved through {@link MethodHandles#privateLookupIn}, which requires the package of the model to
+ * be opened to {@code org.zenith.lib}. When it is not, the accessor falls back to unreflecting the (accessible) field.
+ * <p>
+ * The handles are instance fields, which the JIT cannot constant-fold like {@code static final} handles, so every access
+ * is an indirect handle invocation: faster than {@link Field#get}, but not close to direct field access. Rows are
+ * therefore mapped and bound by the generated {@link org.zenith.util.mapper.EntityMapper entity mappers}, which access
+ * the fields directly, and the accessors serve the paths which work on a single field, e.g. ids and relations.
+ */
+public final class FieldAccessor {
+    private enum Kind { BOOLEAN, BYTE, SHORT, CHAR, INT, LONG, FLOAT, DOUBLE, OBJECT }
+
+    private final Field field;
+    private final Kind kind;
+
+    // Typed to the field type with an erased receiver, e.g. (IModel)int and (IModel,int)void
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    // Boxing variants used by the generic get and set
+    private final MethodHandle objectGetter;
+    private final MethodHandle objectSetter;
+
+    FieldAccessor(Field field) {
+        this.field = field;
+        this.kind = kindOf(field.getType());
+
+        try {
+            MethodHandle[] handles = resolveHandles(field);
+            Class<?> type = field.getType();
+
+            this.getter = handles[0].asType(MethodType.methodType(type, IModel.class));
+            this.setter = handles[1].asType(MethodType.methodType(void.class, IModel.class, type));
+            this.objectGetter = handles[0].asType(MethodType.methodType(Object.class, IModel.class));
+            this.objectSetter = handles[1].asType(MethodType.methodType(void.class, IModel.class, Object.class));
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(String.format("Field %s cannot be accessed", field), ex);
+        }
+    }
+
+    private static MethodHandle[] resolveHandles(Field field) throws IllegalAccessException {
+        Class<?> declaringClass = field.getDeclaringClass();
+        Module libModule = FieldAccessor.class.getModule();
+
+        if (!libModule.canRead(declaringClass.getModule())) {
+            libModule.addReads(declaringClass.getModule());
+        }
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+            VarHandle varHandle = lookup.findVarHandle(declaringClass, field.getName(), field.getType());
+
+            return new MethodHandle[] {
+                    varHandle.toMethodHandle(VarHandle.AccessMode.GET),
+                    varHandle.toMethodHandle(VarHandle.AccessMode.SET)
+            };
+        } catch (IllegalAccessException | NoSuchFieldException ex) {
+            // The package is not opened to this module, use the access which was granted to the field itself
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            return new MethodHandle[] { lookup.unreflectGetter(field), lookup.unreflectSetter(field) };
+        }
+    }
+
+    private static Kind kindOf(Class<?> type) {
+        if (type == boolean.class) return Kind.BOOLEAN;
+        if (type == byte.class) return Kind.BYTE;
+        if (type == short.class) return Kind.SHORT;
+        if (type == char.class) return Kind.CHAR;
+        if (type == int.class) return Kind.INT;
+        if (type == long.class) return Kind.LONG;
+        if (type == float.class) return Kind.FLOAT;
+        if (type == double.class) return Kind.DOUBLE;
+        return Kind.OBJECT;
+    }
+
+    /**
+     * @return The field this accessor reads and writes
+     */
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * Reads the value of the field, boxing primitives.
+     *
+     * @param model The model instance to read from
+     * @return The value of the field
+     */
+    public Object get(IModel model) {
+        try {
+            return objectGetter.invokeExact(model);
+        } catch (Throwable ex) {
+            throw rethrow(ex);
+        }
+    }
+
+    /**
+     * Writes a value to the field. Numbers are converted to the primitive type of the field and a {@code null} value
+     * resets a primitive field to its default, so values can be passed straight from a {@link java.sql.ResultSet}.
+     *
+     * @param model The model instance to write to
+     * @param value The value to write
+     */
+    public void set(IModel model, Object value) {
+        if (kind != Kind.OBJECT) {
+            setPrimitive(model, value);
+            return;
+        }
+
+        setBoxed(model, value);
+    }
+
+    private void setPrimitive(IModel model, Object value) {
+        if (value == null) {
+            value = kind == Kind.BOOLEAN ? Boolean.FALSE : kind == Kind.CHAR ? Character.valueOf('\0') : Integer.valueOf(0);
+        }
+
+        switch (kind) {
+            case BOOLEAN -> setBoolean(model, value instanceof Boolean bool ? bool : ((Number) value).intValue() != 0);
+            case INT -> setInt(model, ((Number) value).intValue());
+            case LONG -> setLong(model, ((Number) value).longValue());
+            case DOUBLE -> setDouble(model, ((Number) value).doubleValue());
+            case CHAR -> setBoxed(model, value instanceof Character character ? character : (char) ((Number) value).intValue());
+            case BYTE -> setBoxed(model, ((Number) value).byteValue());
+            case SHORT -> setBoxed(model, ((Number) value).shortValue());
+            case FLOAT -> setBoxed(model, ((Number) value).floatValue());
+            default -> throw new IllegalStateException("Unexpected kind: " + kind);
+        }
+    }
+
+    private void setBoxed(IModel model, Object value) {
+        try {
+            objectSetter.invokeExact(model, value);
+        } catch (Throwable ex) {
+            throw rethrow(ex);
+        }
+    }
+
+    public int getInt(IModel model) {
+        try {
+            return (int) getter.invokeExact(model);
+        } catch (WrongMethodTypeException ex) {
+            throw wrongType("int");
+        } catch (Throwable ex) {
+            throw rethrow(ex);
+        }
+    }
+
+    public void setInt(IModel model, int value) {
+        try {
+            setter.invokeExact(model, value);
+        } catch (WrongMethodTypeException ex) {
+            throw wrongType("int");
+        } catch (Throwable ex) {
+            throw rethrow(ex);
+        }
+    }
+
+    public long getLong(IModel model) {
+        try {
+            return (long) getter.invokeExact(model);
+        } catch (WrongMethodTypeException ex) {
+            throw wrongType("long");
+        } catch (Throwable ex) {
+            throw rethrow(ex);
+        }
+    }
+
+    public void setLong(IModel model, long value) {
+        try {
+            setter.invokeExact(model, value);
+        } catch (WrongMethodTypeException ex) {
+            throw wrongType("long");
+        } catch (Throwable ex) {
+            throw rethrow(ex);
+        }
+    }
+
+    public double getDouble(IModel model) {
+        try {
+            return (double) getter.invokeExact(model);
+        } catch (WrongMethodTypeException ex) {
+            throw wrongType("double");
+        } catch (Throwable ex) {
+            throw rethrow(ex);
+        }
+    }
+
+    public void setDouble(IModel model, double value) {
+        try {
+            setter.invokeExact(model, value);
+        } catch (WrongMethodTypeException ex) {
+            throw wrongType("double");
+        } catch (Throwable ex) {
+            throw rethrow(ex);
+        }
+    }
+
+    public boolean getBoolean(IModel model) {
+        try {
+            return (boolean) getter.invokeExact(model);
+        } catch (WrongMethodTypeException ex) {
+            throw wrongType("boolean");
+        } catch (Throwable ex) {
+            throw rethrow(ex);
+        }
+    }
+
+    public void setBoolean(IModel model, boolean value) {
+        try {
+            setter.invokeExact(model, value);
+        } catch (WrongMethodTypeException ex) {
+            throw wrongType("boolean");
+        } catch (Throwable ex) {
+            throw rethrow(ex);
+        }
+    }
+
+    /**
+     * Reads an integral field, such as an {@code int} or {@code long} id, widened to a {@code long}
+     *
+     * @param model The model instance to read from
+     * @return The value of the field
+     */
+    public long getAsLong(IModel model) {
+        return switch (kind) {
+            case INT -> getInt(model);
+            case LONG -> getLong(model);
+            default -> ((Number) get(model)).longValue();
+        };
+    }
+
+    /**
+     * Writes a {@code long} to an integral field, such as an {@code int} or {@code long} id
+     *
+     * @param model The model instance to write to
+     * @param value The value to write
+     */
+    public void setAsLong(IModel model, long value) {
+        switch (kind) {
+            case INT -> setInt(model, (int) value);
+            case LONG -> setLong(model, value);
+            default -> set(model, field.getType() == Integer.class ? (Object) (int) value : (Object) value);
+        }
+    }
+
+    private IllegalStateException wrongType(String requestedType) {
+        return new IllegalStateException(String.format("Field %s is of type %s, not %s", field, field.getType().getName(), requestedType));
+    }
+
+    private static RuntimeException rethrow(Throwable ex) {
+        if (ex instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+
+        if (ex instanceof Error error) {
+            throw error;
+        }
+
+        return new IllegalStateException(ex);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FieldAccessor{%s}", field);
+    }
+}
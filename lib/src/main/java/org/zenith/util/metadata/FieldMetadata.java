@@ -0,0 +1,229 @@
+package org.zenith.util.metadata;
+
+import org.zenith.annotation.Column;
+import org.zenith.annotation.Id;
+import org.zenith.annotation.relation.ManyToOne;
+import org.zenith.annotation.relation.OneToMany;
+import org.zenith.annotation.relation.OneToOne;
+import org.zenith.enumeration.ColumnType;
+import org.zenith.enumeration.EnumStorage;
+import org.zenith.enumeration.FetchType;
+import org.zenith.util.converter.ColumnConverter;
+import org.zenith.util.converter.ConverterRegistry;
+import org.zenith.util.strategies.reflection.FieldMappingStrategy;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * An immutable description of a single mapped field of an entity.
+ * Instances are created once by {@link EntityMetadata} and shared by every mapping and SQL generation call.
+ */
+public final class FieldMetadata {
+    private final Field field;
+    private final Annotation annotation;
+    private final String columnName;
+    private final ColumnType columnType;
+    private final Class<?> relatedType;
+    private final FieldMappingStrategy strategy;
+    private final FieldAccessor accessor;
+    private final ColumnConverter<Object> converter;
+    private final FetchType fetchType;
+
+    FieldMetadata(Field field, Annotation annotation, FieldMappingStrategy strategy) {
+        field.trySetAccessible();
+
+        this.field = field;
+        this.annotation = annotation;
+        this.strategy = strategy;
+        this.columnName = resolveColumnName(field, annotation);
+        this.columnType = annotation instanceof Column column ? column.type() : null;
+        this.relatedType = resolveRelatedType(field, annotation);
+        this.accessor = new FieldAccessor(field);
+        this.converter = resolveConverter(field, annotation, columnType);
+        this.fetchType = switch (annotation) {
+            case ManyToOne manyToOne -> manyToOne.fetch();
+            case OneToOne oneToOne -> oneToOne.fetch();
+            case OneToMany oneToMany -> oneToMany.fetch() == FetchType.LAZY ? FetchType.LAZY : FetchType.SELECT;
+            default -> null;
+        };
+    }
+
+    private static String resolveColumnName(Field field, Annotation annotation) {
+        return switch (annotation) {
+            case ManyToOne manyToOne when !manyToOne.columnName().isEmpty() -> manyToOne.columnName();
+            case ManyToOne ignored -> field.getName() + "_id";
+            case OneToOne ignored -> field.getName() + "_id";
+            default -> field.getName();
+        };
+    }
+
+    /**
+     * Primitive and {@link String} fields are read with the typed getters of the result set and never use a converter.
+     * {@link ColumnType#ENUM} fields without a registered converter get an {@link org.zenith.util.converter.EnumConverter}
+     */
+    @SuppressWarnings("unchecked")
+    private static ColumnConverter<Object> resolveConverter(Field field, Annotation annotation, ColumnType columnType) {
+        Class<?> type = field.getType();
+
+        if (!(annotation instanceof Column) || type.isPrimitive() || type == String.class) {
+            return null;
+        }
+
+        if (columnType == ColumnType.ENUM && type.isEnum()) {
+            return (ColumnConverter<Object>) forEnum(type, ((Column) annotation).enumStorage());
+        }
+
+        return (ColumnConverter<Object>) ConverterRegistry.find(columnType, type);
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static ColumnConverter<?> forEnum(Class<?> type, EnumStorage storage) {
+        return ConverterRegistry.forEnum((Class) type, storage);
+    }
+
+    private static Class<?> resolveRelatedType(Field field, Annotation annotation) {
+        if (annotation instanceof OneToMany && List.class.isAssignableFrom(field.getType())) {
+            Type genericType = field.getGenericType();
+
+            if (genericType instanceof ParameterizedType parameterizedType
+                    && parameterizedType.getActualTypeArguments()[0] instanceof Class<?> actualClass) {
+                return actualClass;
+            }
+
+            return null;
+        }
+
+        return annotation instanceof ManyToOne || annotation instanceof OneToOne ? field.getType() : null;
+    }
+
+    /**
+     * @return The underlying {@link Field}, already made accessible
+     */
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * @return The {@link FieldAccessor} used to read and write the field
+     */
+    public FieldAccessor getAccessor() {
+        return accessor;
+    }
+
+    /**
+     * @return The name of the Java field
+     */
+    public String getName() {
+        return field.getName();
+    }
+
+    /**
+     * @return The Java type of the field
+     */
+    public Class<?> getType() {
+        return field.getType();
+    }
+
+    /**
+     * @return The mapping annotation ({@link Id}, {@link Column} or a relation annotation) of the field
+     */
+    public Annotation getAnnotation() {
+        return annotation;
+    }
+
+    /**
+     * @return The database column name, e.g. {@code todoItem_id} for a {@link ManyToOne} field
+     */
+    public String getColumnName() {
+        return columnName;
+    }
+
+    /**
+     * @return The {@link ColumnType} of a {@link Column} field, or {@code null} for ids and relations
+     */
+    public ColumnType getColumnType() {
+        return columnType;
+    }
+
+    /**
+     * @return The {@link ColumnConverter} of a {@link Column} field, or {@code null} if the field is read and written as is
+     */
+    public ColumnConverter<Object> getConverter() {
+        return converter;
+    }
+
+    /**
+     * Converts a value of the field to the value stored in the database
+     *
+     * @param value The value of the field
+     * @return The value after conversion, or the value itself if the field does not have a converter
+     */
+    public Object toDatabaseValue(Object value) {
+        return converter != null && value != null ? converter.toDatabase(value) : value;
+    }
+
+    /**
+     * @return The related entity class for relation fields (the element type for {@link OneToMany}), otherwise {@code null}
+     */
+    public Class<?> getRelatedType() {
+        return relatedType;
+    }
+
+    /**
+     * @return How the related entity of a {@link ManyToOne} or {@link OneToOne} field or the children of a
+     * {@link OneToMany} field are loaded, otherwise {@code null}
+     */
+    public FetchType getFetchType() {
+        return fetchType;
+    }
+
+    /**
+     * @return The prefix of the labels of the related columns when the relation is fetched with a JOIN,
+     *          e.g. {@code todoItem.} for the column labelled {@code todoItem.title}
+     */
+    public String getJoinPrefix() {
+        return getName() + ".";
+    }
+
+    /**
+     * @return The strategy used to map this field from a result set, or {@code null} if the field is not read back
+     */
+    public FieldMappingStrategy getStrategy() {
+        return strategy;
+    }
+
+    public boolean isId() {
+        return annotation instanceof Id;
+    }
+
+    public boolean isColumn() {
+        return annotation instanceof Column;
+    }
+
+    /**
+     * @return {@code true} if the field is a {@link OneToOne} or {@link ManyToOne} relation stored as a foreign key
+     */
+    public boolean isForeignKey() {
+        return annotation instanceof OneToOne || annotation instanceof ManyToOne;
+    }
+
+    public boolean isOneToMany() {
+        return annotation instanceof OneToMany;
+    }
+
+    /**
+     * @return {@code true} if the field is backed by a column in the table of its own entity
+     */
+    public boolean hasColumn() {
+        return !isOneToMany();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s.%s", field.getDeclaringClass().getSimpleName(), field.getName());
+    }
+}
@@ -0,0 +1,25 @@
+package org.zenith.util.strategies.reflection;
+
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.IdentityMap;
+import org.zenith.util.metadata.FieldMetadata;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * A strategy for fields which are loaded with queries of their own, e.g. relations. Instead of querying for every row,
+ * the field is mapped once for all models of a result set after its rows have been read
+ */
+public interface BatchFieldMappingStrategy extends FieldMappingStrategy {
+    /**
+     * Maps the field of every model
+     *
+     * @param models The models mapped from the rows of a result set
+     * @param field The field to map
+     * @param identities The identity map the related entities are taken from and added to, or {@code null}
+     */
+    void mapFields(List<? extends IModel> models, FieldMetadata field, IdentityMap identities)
+            throws SQLException, IllegalAccessException, NoSuchMethodException, NoSuchFieldException, InvocationTargetException;
+}
@@ -1,39 +1,64 @@
 package org.zenith.util.strategies.reflection;
 
-import org.zenith.annotation.Column;
 import org.zenith.enumeration.ColumnType;
 import org.zenith.model.interfaces.IModel;
+import org.zenith.util.mapper.MapperSupport;
+import org.zenith.util.metadata.FieldAccessor;
+import org.zenith.util.metadata.FieldMetadata;
 
-import java.lang.reflect.Field;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 
 public class ColumnFieldMappingStrategy implements FieldMappingStrategy {
     @Override
-    public void mapField(ResultSet resultSet, IModel model, Field field)
-            throws SQLException, IllegalAccessException {
-
-        String columnName = field.getName();
-        Object fieldValue = resultSet.getObject(columnName);
-        Column annotation = field.getAnnotation(Column.class);
-
-        try {
-            switch (annotation.type()) {
-                case ColumnType.DATETIME -> {
-                    if (fieldValue == null) {
-                        return;
-                    }
-
-                    fieldValue = (new SimpleDateFormat("yyyy-MM-dd HH:mm:ss")).parse((String) fieldValue);
-                }
-                case ColumnType.BOOLEAN -> fieldValue = (int) fieldValue != 0;
-            }
-        } catch (ParseException ex) {
-            ex.printStackTrace();
+    public void mapField(ResultSet resultSet, IModel model, FieldMetadata field)
+            throws SQLException {
+
+        if (field.getConverter() != null) {
+            field.getAccessor().set(model, field.getConverter().read(resultSet, resultSet.findColumn(field.getColumnName())));
+            return;
         }
 
-        field.set(model, fieldValue);
+        Object fieldValue = resultSet.getObject(field.getColumnName());
+
+        if (field.getColumnType() == ColumnType.BOOLEAN && fieldValue != null) {
+            fieldValue = (int) fieldValue != 0;
+        }
+
+        field.getAccessor().set(model, fieldValue);
+    }
+
+    @Override
+    public void mapField(ResultSet resultSet, IModel model, FieldMetadata field, int columnIndex)
+            throws SQLException {
+
+        FieldAccessor accessor = field.getAccessor();
+        Class<?> type = field.getType();
+
+        if (type == int.class) {
+            accessor.setInt(model, resultSet.getInt(columnIndex));
+        } else if (type == long.class) {
+            accessor.setLong(model, resultSet.getLong(columnIndex));
+        } else if (type == double.class) {
+            accessor.setDouble(model, resultSet.getDouble(columnIndex));
+        } else if (type == boolean.class) {
+            accessor.setBoolean(model, resultSet.getBoolean(columnIndex));
+        } else if (type == float.class) {
+            accessor.set(model, resultSet.getFloat(columnIndex));
+        } else if (type == short.class) {
+            accessor.set(model, resultSet.getShort(columnIndex));
+        } else if (type == byte.class) {
+            accessor.set(model, resultSet.getByte(columnIndex));
+        } else if (type == String.class) {
+            accessor.set(model, resultSet.getString(columnIndex));
+        } else if (type == byte[].class) {
+            accessor.set(model, resultSet.getBytes(columnIndex));
+        } else if (field.getConverter() != null) {
+            accessor.set(model, field.getConverter().read(resultSet, columnIndex));
+        } else if (field.getColumnType() == ColumnType.BOOLEAN) {
+            accessor.set(model, MapperSupport.readObject(resultSet, columnIndex, Boolean.class));
+        } else {
+            accessor.set(model, resultSet.getObject(columnIndex));
+        }
     }
 }
@@ -1,13 +1,28 @@
 package org.zenith.util.strategies.reflection;
 
 import org.zenith.model.interfaces.IModel;
+import org.zenith.util.metadata.FieldMetadata;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
 public interface FieldMappingStrategy {
-    void mapField(ResultSet resultSet, IModel model, Field field)
+    void mapField(ResultSet resultSet, IModel model, FieldMetadata field)
             throws SQLException, IllegalAccessException, NoSuchMethodException, NoSuchFieldException, InvocationTargetException;
+
+    /**
+     * Maps the field from a column whose index has already been resolved, strategies which read a single column
+     * override this to use the index based getters of the {@link ResultSet}
+     *
+     * @param resultSet The {@link ResultSet} positioned on the row to map
+     * @param model The model to write the field of
+     * @param field The field to map
+     * @param columnIndex The 1-based index of the column of the field in the result set
+     */
+    default void mapField(ResultSet resultSet, IModel model, FieldMetadata field, int columnIndex)
+            throws SQLException, IllegalAccessException, NoSuchMethodException, NoSuchFieldException, InvocationTargetException {
+
+        mapField(resultSet, model, field);
+    }
 }
@@ -1,26 +1,41 @@
 package org.zenith.util.strategies.reflection;
 
 import org.zenith.model.interfaces.IModel;
+import org.zenith.util.metadata.FieldMetadata;
 
-import java.lang.reflect.Field;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
 public class IdFieldMappingStrategy extends MappingBase implements FieldMappingStrategy {
     @Override
-    public void mapField(ResultSet resultSet, IModel model, Field field)
-            throws SQLException, IllegalAccessException {
+    public void mapField(ResultSet resultSet, IModel model, FieldMetadata field)
+            throws SQLException {
 
         if (resultSet == null || model == null || field == null) {
             throw new IllegalArgumentException("ResultSet, model, or field cannot be null");
         }
 
-        if (!hasColumn(resultSet, "id")) {
-            throw new SQLException("Column 'id' could not be found in the ResultSet");
+        String columnName = field.getColumnName();
+
+        if (!hasColumn(resultSet, columnName)) {
+            throw new SQLException(String.format("Column '%s' could not be found in the ResultSet", columnName));
+        }
+
+        if (field.getType() == int.class) {
+            field.getAccessor().setInt(model, resultSet.getInt(columnName));
+        } else {
+            field.getAccessor().setAsLong(model, resultSet.getLong(columnName));
         }
+    }
 
-        int id = resultSet.getInt("id");
-        field.setAccessible(true);
-        field.set(model, id);
+    @Override
+    public void mapField(ResultSet resultSet, IModel model, FieldMetadata field, int columnIndex)
+            throws SQLException {
+
+        if (field.getType() == int.class) {
+            field.getAccessor().setInt(model, resultSet.getInt(columnIndex));
+        } else {
+            field.getAccessor().setAsLong(model, resultSet.getLong(columnIndex));
+        }
     }
 }
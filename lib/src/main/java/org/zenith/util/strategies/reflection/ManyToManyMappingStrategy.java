@@ -1,15 +1,15 @@
 package org.zenith.util.strategies.reflection;
 
 import org.zenith.model.interfaces.IModel;
+import org.zenith.util.metadata.FieldMetadata;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
 public class ManyToManyMappingStrategy implements FieldMappingStrategy {
     @Override
-    public void mapField(ResultSet resultSet, IModel model, Field field)
+    public void mapField(ResultSet resultSet, IModel model, FieldMetadata field)
             throws SQLException, IllegalAccessException, NoSuchMethodException, NoSuchFieldException, InvocationTargetException {
         return;
 //        ReflectionUtil reflectionUtil = new ReflectionUtil();
@@ -1,35 +1,143 @@
 package org.zenith.util.strategies.reflection;
 
 import org.zenith.model.interfaces.IModel;
+import org.zenith.util.EntityCache;
+import org.zenith.util.EntityStatements;
+import org.zenith.util.IdentityMap;
+import org.zenith.util.SQLQuery;
+import org.zenith.util.SQLiteDatabase;
+import org.zenith.util.collection.LongObjectMap;
+import org.zenith.util.mapper.RowMappingPlan;
+import org.zenith.util.metadata.EntityMetadata;
+import org.zenith.util.metadata.FieldAccessor;
+import org.zenith.util.metadata.FieldMetadata;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
 
-public class ManyToOneMappingStrategy implements FieldMappingStrategy {
+/**
+ * Maps the owning side of a {@code @ManyToOne} or {@code @OneToOne} relation which is not fetched with a JOIN.
+ * Every row sets the field to a reference holding only the id from the foreign key column. Unless the relation is
+ * fetched lazily, the references of all models of a result set are then replaced by the related entities, read with
+ * chunked {@code WHERE id IN (...)} queries without their own relations. Related entities in the identity map of the
+ * session or the second-level cache are not read again
+ */
+public class ManyToOneMappingStrategy extends MappingBase implements BatchFieldMappingStrategy {
     @Override
-    public void mapField(ResultSet resultSet, IModel model, Field field)
+    public void mapField(ResultSet resultSet, IModel model, FieldMetadata field)
             throws SQLException, IllegalAccessException, NoSuchMethodException, NoSuchFieldException, InvocationTargetException {
 
-        // get the value of todoItem_id
-        // Get the type and use that type to get the name + "_id"
-        // Then use it to get the related field and then we can input it.
-        if (!List.class.isAssignableFrom(field.getType()))
+        if (hasColumn(resultSet, field.getColumnName())) {
+            mapField(resultSet, model, field, resultSet.findColumn(field.getColumnName()));
+        }
+    }
+
+    @Override
+    public void mapField(ResultSet resultSet, IModel model, FieldMetadata field, int columnIndex)
+            throws SQLException, IllegalAccessException, NoSuchMethodException, NoSuchFieldException, InvocationTargetException {
+
+        long id = resultSet.getLong(columnIndex);
+
+        if (resultSet.wasNull()) {
+            field.getAccessor().set(model, null);
             return;
+        }
+
+        EntityMetadata<IModel> relatedMetadata = EntityMetadata.of(castToIModelClass(field.getRelatedType()));
+        FieldMetadata relatedId = relatedMetadata.getIdField();
 
-        Type genericType = field.getGenericType();
-        if (!(genericType instanceof ParameterizedType parameterizedType))
+        if (relatedId == null)
             return;
 
-        Type actualTypeArgument = parameterizedType.getActualTypeArguments()[0];
-        if (!(actualTypeArgument instanceof Class<?> actualClass))
+        try {
+            IModel reference = relatedMetadata.newInstance();
+            relatedId.getAccessor().setAsLong(reference, id);
+            field.getAccessor().set(model, reference);
+        } catch (InstantiationException ex) {
+            throw new SQLException(String.format("Could not instantiate %s", relatedMetadata.getModelClass().getSimpleName()), ex);
+        }
+    }
+
+    @Override
+    public void mapFields(List<? extends IModel> models, FieldMetadata field, IdentityMap identities)
+            throws SQLException, IllegalAccessException, NoSuchMethodException, NoSuchFieldException, InvocationTargetException {
+
+        EntityMetadata<IModel> relatedMetadata = EntityMetadata.of(castToIModelClass(field.getRelatedType()));
+        FieldMetadata relatedId = relatedMetadata.getIdField();
+
+        if (relatedId == null)
             return;
 
-        // Get the parent of the field
-        field.set(model, model);
+        FieldAccessor accessor = field.getAccessor();
+        FieldAccessor relatedIdAccessor = relatedId.getAccessor();
+        EntityCache cache = EntityCache.of(relatedMetadata.getModelClass());
+        LongObjectMap<IModel> relatedById = new LongObjectMap<>(models.size());
+        long[] ids = new long[models.size()];
+        int count = 0;
+
+        for (IModel model : models) {
+            if (accessor.get(model) instanceof IModel reference) {
+                long id = relatedIdAccessor.getAsLong(reference);
+
+                if (relatedById.get(id) == null) {
+                    IModel identified = identities != null ? identities.get(relatedMetadata.getModelClass(), id) : null;
+
+                    if (identified == null && cache != null) {
+                        identified = readCached(cache, id, identities);
+                    }
+
+                    relatedById.put(id, identified != null ? identified : reference);
+
+                    if (identified == null) {
+                        ids[count++] = id;
+                    }
+                }
+            }
+        }
+
+        for (SQLQuery query : EntityStatements.of(relatedMetadata.getModelClass()).selectByIds(ids, count)) {
+            try (ResultSet resultSet = SQLiteDatabase.getInstance().executeQueryWithResult(query)) {
+                RowMappingPlan<IModel> plan = RowMappingPlan.of(resultSet, relatedMetadata.getModelClass());
+
+                while (resultSet.next()) {
+                    IModel related = plan.mapShallow(resultSet);
+                    long id = relatedIdAccessor.getAsLong(related);
+                    relatedById.put(id, related);
+
+                    if (identities != null) {
+                        identities.putShallow(related, id);
+                    }
+                }
+            } catch (InstantiationException ex) {
+                throw new SQLException(String.format("Could not instantiate %s", relatedMetadata.getModelClass().getSimpleName()), ex);
+            }
+        }
+
+        for (IModel model : models) {
+            if (accessor.get(model) instanceof IModel reference) {
+                accessor.set(model, relatedById.get(relatedIdAccessor.getAsLong(reference)));
+            }
+        }
+    }
+
+    /**
+     * Reads the related entity from the second-level cache, and adds it to the identity map as a shallow entity
+     */
+    private static IModel readCached(EntityCache cache, long id, IdentityMap identities)
+            throws SQLException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
+
+        try {
+            IModel related = cache.read(id);
+
+            if (related != null && identities != null) {
+                identities.putShallow(related, id);
+            }
+
+            return related;
+        } catch (InstantiationException ex) {
+            throw new SQLException("Could not instantiate a cached entity", ex);
+        }
     }
 }
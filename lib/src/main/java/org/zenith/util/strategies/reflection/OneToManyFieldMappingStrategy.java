@@ -1,78 +1,186 @@
 package org.zenith.util.strategies.reflection;
 
+import org.zenith.enumeration.FetchType;
 import org.zenith.model.interfaces.IModel;
-import org.zenith.util.ReflectionUtil;
-import org.zenith.util.SQLGenerator;
+import org.zenith.util.EntityStatements;
+import org.zenith.util.IdentityMap;
+import org.zenith.util.SQLQuery;
 import org.zenith.util.SQLiteDatabase;
+import org.zenith.util.collection.LazyList;
+import org.zenith.util.collection.LongObjectMap;
+import org.zenith.util.mapper.RowMappingPlan;
+import org.zenith.util.metadata.EntityMetadata;
+import org.zenith.util.metadata.FieldAccessor;
+import org.zenith.util.metadata.FieldMetadata;
 
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
-public class OneToManyFieldMappingStrategy extends MappingBase implements FieldMappingStrategy {
+/**
+ * Loads the children of a {@code @OneToMany} field for all parents of a result set at once, with chunked
+ * {@code WHERE <parent>_id IN (...)} queries instead of a query per parent. The children are added to the list of their
+ * parent in the order of their rows and refer back to it through their {@code @ManyToOne} field.
+ * With {@code @OneToMany(fetch = LAZY)} every parent gets a {@link LazyList} instead, which loads the children of the
+ * pending parents of the same result set on its first access
+ */
+public class OneToManyFieldMappingStrategy extends MappingBase implements BatchFieldMappingStrategy {
     @Override
-    public void mapField(ResultSet resultSet, IModel model, Field field)
+    public void mapField(ResultSet resultSet, IModel model, FieldMetadata field)
             throws SQLException, IllegalAccessException, NoSuchMethodException, NoSuchFieldException, InvocationTargetException {
 
-        try {
-            if (!List.class.isAssignableFrom(field.getType()))
-                return;
+        mapFields(List.of(model), field, null);
+    }
+
+    @Override
+    public void mapFields(List<? extends IModel> models, FieldMetadata field, IdentityMap identities)
+            throws SQLException, IllegalAccessException, NoSuchMethodException, NoSuchFieldException, InvocationTargetException {
 
-            Type genericType = field.getGenericType();
-            if (!(genericType instanceof ParameterizedType parameterizedType))
-                return;
+        if (field.getRelatedType() == null || models.isEmpty())
+            return;
 
-            Type actualTypeArgument = parameterizedType.getActualTypeArguments()[0];
-            if (!(actualTypeArgument instanceof Class<?> actualClass))
-                return;
+        if (field.getFetchType() == FetchType.LAZY) {
+            setLazyLists(models, field, identities);
+        } else {
+            loadChildren(models, field, identities);
+        }
+    }
+
+    /**
+     * Loads the children of the models right away, also when the field is fetched lazily
+     *
+     * @param models The parents whose children are loaded
+     * @param field The {@code @OneToMany} field of the parents
+     * @param identities The identity map the children are taken from and added to, or {@code null}
+     * @throws SQLException If the children cannot be read
+     * @throws IllegalAccessException If a field of a child cannot be accessed
+     * @throws NoSuchMethodException If a child cannot be instantiated
+     * @throws NoSuchFieldException If the field referring back to the parent cannot be found
+     * @throws InvocationTargetException If the constructor of a child throws an exception
+     */
+    public void loadChildren(List<? extends IModel> models, FieldMetadata field, IdentityMap identities)
+            throws SQLException, IllegalAccessException, NoSuchMethodException, NoSuchFieldException, InvocationTargetException {
 
-            int id = (int)ReflectionUtil.getValueOfField(model, "id");
-            String relatedFieldName = getRelatedFieldName(model);
+        List<List<IModel>> lists = new ArrayList<>(models.size());
 
-            List<IModel> linkedSubClasses = fetchRelatedModels(actualClass, relatedFieldName, id);
-            field.set(model, linkedSubClasses);
-        } catch (InstantiationException ex) {
-            ex.printStackTrace();
+        for (IModel model : models) {
+            List<IModel> children = new ArrayList<>();
+            field.getAccessor().set(model, children);
+            lists.add(children);
         }
+
+        load(models, lists, field, identities);
     }
 
-    private String getRelatedFieldName(IModel model) {
-        String className = model.getClass().getSimpleName();
-        return Character.toLowerCase(className.charAt(0)) + className.substring(1);
+    /**
+     * Sets a {@link LazyList} on every model, the first list which is accessed loads the children of all models of the
+     * batch whose lists have not been loaded yet
+     */
+    private void setLazyLists(List<? extends IModel> models, FieldMetadata field, IdentityMap identities) {
+        List<IModel> parents = List.copyOf(models);
+        List<LazyList<IModel>> lazyLists = new ArrayList<>(parents.size());
+        LazyList.Loader loader = () -> loadPending(parents, lazyLists, field, identities);
+
+        for (IModel parent : parents) {
+            LazyList<IModel> list = new LazyList<>(loader);
+            field.getAccessor().set(parent, list);
+            lazyLists.add(list);
+        }
     }
 
-    private List<IModel> fetchRelatedModels(Class<?> actualClass, String relatedFieldName, int id)
-            throws SQLException, NoSuchMethodException, InvocationTargetException, IllegalAccessException, NoSuchFieldException, InstantiationException {
+    private void loadPending(List<IModel> parents, List<LazyList<IModel>> lazyLists, FieldMetadata field, IdentityMap identities)
+            throws SQLException, IllegalAccessException, NoSuchMethodException, NoSuchFieldException, InvocationTargetException {
 
-        String countQuery = SQLGenerator.generateCountSelect(castToIModelClass(actualClass), Map.of(relatedFieldName, id));
+        List<IModel> pending = new ArrayList<>();
+        List<List<IModel>> lists = new ArrayList<>();
 
-        try (ResultSet countResultSet = SQLiteDatabase.getInstance().executeQueryWithResult(countQuery)) {
-            if (!countResultSet.next() || countResultSet.getInt("COUNT(*)") == 0)
-                return new ArrayList<>();
+        for (int i = 0; i < parents.size(); i++) {
+            if (!lazyLists.get(i).isInitialized()) {
+                pending.add(parents.get(i));
+                lists.add(new ArrayList<>());
+            }
+        }
 
-            String selectQuery = SQLGenerator.generateSelect(castToIModelClass(actualClass), null, Map.of(relatedFieldName, id));
+        load(pending, lists, field, identities);
 
-            try (ResultSet relatedModelsResultSet = SQLiteDatabase.getInstance().executeQueryWithResult(selectQuery)) {
-                return extractModelsFromResultSet(relatedModelsResultSet, actualClass);
+        for (int i = 0, j = 0; i < parents.size(); i++) {
+            if (!lazyLists.get(i).isInitialized()) {
+                lazyLists.get(i).setElements(lists.get(j++));
             }
         }
     }
 
-    private List<IModel> extractModelsFromResultSet(ResultSet resultSet, Class<?> modelClass)
-            throws SQLException, NoSuchMethodException, InvocationTargetException, IllegalAccessException, NoSuchFieldException, InstantiationException {
+    /**
+     * Reads the children of the models and adds them to the list at the same position as their parent
+     */
+    private void load(List<? extends IModel> models, List<List<IModel>> lists, FieldMetadata field, IdentityMap identities)
+            throws SQLException, IllegalAccessException, NoSuchMethodException, NoSuchFieldException, InvocationTargetException {
+
+        Class<?> actualClass = field.getRelatedType();
+        EntityMetadata<?> parentMetadata = EntityMetadata.of(models.getFirst().getClass());
+        EntityMetadata<IModel> childMetadata = EntityMetadata.of(castToIModelClass(actualClass));
+        FieldMetadata foreignKey = childMetadata.getField(getRelatedFieldName(parentMetadata, childMetadata));
 
-        List<IModel> models = new ArrayList<>();
+        FieldAccessor parentId = parentMetadata.getIdField().getAccessor();
+        LongObjectMap<IModel> parentsById = new LongObjectMap<>(models.size());
+        LongObjectMap<List<IModel>> listsById = new LongObjectMap<>(models.size());
+        long[] ids = new long[models.size()];
+        int count = 0;
 
-        while (resultSet.next()) {
-            models.add(ReflectionUtil.mapToModel(resultSet, castToIModelClass(modelClass)));
+        for (int i = 0; i < models.size(); i++) {
+            long id = parentId.getAsLong(models.get(i));
+
+            if (parentsById.get(id) == null) {
+                parentsById.put(id, models.get(i));
+                listsById.put(id, lists.get(i));
+                ids[count++] = id;
+            }
+        }
+
+        boolean refersBack = foreignKey.isForeignKey() && foreignKey.getType().isAssignableFrom(parentMetadata.getModelClass());
+
+        for (SQLQuery query : EntityStatements.of(childMetadata.getModelClass()).selectIn(foreignKey, ids, count)) {
+            try (ResultSet resultSet = SQLiteDatabase.getInstance().executeQueryWithResult(query)) {
+                RowMappingPlan<IModel> plan = RowMappingPlan.of(resultSet, childMetadata.getModelClass(), identities);
+                int foreignKeyIndex = resultSet.findColumn(foreignKey.getColumnName());
+                List<IModel> children = new ArrayList<>();
+
+                while (resultSet.next()) {
+                    IModel child = plan.cached(resultSet);
+                    long id = resultSet.getLong(foreignKeyIndex);
+
+                    if (child == null) {
+                        child = plan.mapRow(resultSet);
+                        children.add(child);
+                    }
+
+                    if (refersBack) {
+                        foreignKey.getAccessor().set(child, parentsById.get(id));
+                    }
+
+                    listsById.get(id).add(child);
+                }
+
+                plan.mapRelations(children, foreignKey);
+            } catch (InstantiationException ex) {
+                throw new SQLException(String.format("Could not instantiate %s", actualClass.getSimpleName()), ex);
+            }
+        }
+    }
+
+    /**
+     * Finds the field of the child which refers back to the parent, falling back to the camel cased class name of the parent
+     */
+    private String getRelatedFieldName(EntityMetadata<?> parentMetadata, EntityMetadata<?> childMetadata) {
+        for (FieldMetadata childField : childMetadata.getRelations()) {
+            if (childField.isForeignKey() && childField.getType() == parentMetadata.getModelClass()) {
+                return childField.getName();
+            }
         }
 
-        return models;
+        String className = parentMetadata.getModelClass().getSimpleName();
+        return Character.toLowerCase(className.charAt(0)) + className.substring(1);
     }
 }
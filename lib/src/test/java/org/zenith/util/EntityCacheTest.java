@@ -0,0 +1,285 @@
+package org.zenith.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zenith.annotation.Cacheable;
+import org.zenith.annotation.Column;
+import org.zenith.annotation.Entity;
+import org.zenith.annotation.Id;
+import org.zenith.annotation.relation.ManyToOne;
+import org.zenith.annotation.relation.OneToMany;
+import org.zenith.enumeration.ColumnType;
+import org.zenith.enumeration.EvictionPolicy;
+import org.zenith.enumeration.FetchType;
+import org.zenith.model.interfaces.IModel;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityCacheTest {
+    @Entity
+    @Cacheable
+    static class Category implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.TEXT)
+        public String name;
+
+        Category() { }
+
+        Category(String name) {
+            this.name = name;
+        }
+    }
+
+    @Entity
+    static class Product implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.TEXT)
+        public String name;
+        @ManyToOne(fetch = FetchType.SELECT)
+        public Category category;
+    }
+
+    @Entity
+    @Cacheable(maxEntries = 2, eviction = EvictionPolicy.LRU)
+    static class Unit implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.TEXT)
+        public String name;
+    }
+
+    @Entity
+    @Cacheable(maxEntries = 2)
+    static class Tag implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.TEXT)
+        public String name;
+    }
+
+    @Entity
+    @Cacheable(maxBytes = 600)
+    static class Note implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.TEXT)
+        public String text;
+    }
+
+    @Entity
+    static class Shelf implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.TEXT)
+        public String name;
+        @OneToMany
+        public List<Book> books;
+    }
+
+    @Entity
+    @Cacheable
+    static class Book implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.TEXT)
+        public String title;
+        @ManyToOne(fetch = FetchType.SELECT)
+        public Shelf shelf;
+    }
+
+    private SQLiteDatabase db;
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        db = SQLiteDatabase.getInstance();
+        db.reinitializeConnection();
+        EntityCache.clearAll();
+
+        for (String query : SQLGenerator.generateCreateTable(List.of(Category.class, Product.class, Unit.class, Tag.class, Note.class, Shelf.class, Book.class))) {
+            db.executeQueryWithoutResult(query);
+        }
+
+        entityManager = new EntityManager(db);
+    }
+
+    private long executedStatements() {
+        return db.getStatementCacheHits() + db.getStatementCacheMisses();
+    }
+
+    @Test
+    void shouldShareTheCachedRowsBetweenEntityManagers() {
+        Category category = new Category("Groceries");
+        assertTrue(entityManager.save(category));
+
+        // The rows are cached when they are read, an entity taken from the identity map is not read
+        assertEquals(1, new EntityManager(db).list(Category.class).size());
+
+        EntityManager other = new EntityManager(db);
+        long executed = executedStatements();
+        Category cached = (Category) other.findById(Category.class, null, category.id);
+
+        assertEquals(executed, executedStatements());
+        assertNotSame(category, cached);
+        assertEquals("Groceries", cached.name);
+        assertFalse(other.isDirty(cached));
+        assertSame(cached, other.findById(Category.class, null, category.id));
+
+        EntityCache.Statistics statistics = EntityCache.of(Category.class).getStatistics();
+        assertEquals(1, statistics.hits());
+        assertEquals(1, statistics.size());
+        assertTrue(statistics.bytes() > 0);
+    }
+
+    @Test
+    void shouldInvalidateTheRowsWrittenByAnEntityManager() {
+        Category category = new Category("Groceries");
+        assertTrue(entityManager.save(category));
+        new EntityManager(db).list(Category.class);
+        assertEquals(1, EntityCache.of(Category.class).getStatistics().size());
+
+        category.name = "Food";
+        assertTrue(entityManager.update(category));
+
+        long executed = executedStatements();
+        assertEquals("Food", ((Category) new EntityManager(db).findById(Category.class, null, category.id)).name);
+        assertEquals(executed + 1, executedStatements());
+
+        assertTrue(entityManager.delete(category));
+        assertNull(new EntityManager(db).findById(Category.class, null, category.id));
+        assertEquals(0, EntityCache.of(Category.class).getStatistics().size());
+    }
+
+    @Test
+    void shouldInvalidateTheChildrenDeletedWithTheirParent() {
+        Shelf shelf = new Shelf();
+        shelf.name = "Shelf";
+        assertTrue(entityManager.save(shelf));
+
+        Book book = new Book();
+        book.title = "Book";
+        book.shelf = shelf;
+        assertTrue(entityManager.save(book));
+
+        Shelf loaded = (Shelf) new EntityManager(db).findById(Shelf.class, null, shelf.id);
+        assertEquals(1, loaded.books.size());
+        assertEquals(1, EntityCache.of(Book.class).getStatistics().size());
+
+        assertTrue(new EntityManager(db).delete(loaded));
+
+        assertEquals(0, EntityCache.of(Book.class).getStatistics().size());
+        assertNull(new EntityManager(db).findById(Book.class, null, book.id));
+    }
+
+    @Test
+    void shouldReadTheRelatedEntitiesFromTheCache() {
+        List<Category> categories = List.of(new Category("Groceries"), new Category("Tools"));
+        assertTrue(entityManager.saveAll(categories));
+
+        List<Product> products = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            Product product = new Product();
+            product.name = "Product " + i;
+            product.category = categories.get(i % 2);
+            products.add(product);
+        }
+
+        assertTrue(entityManager.saveAll(products));
+        new EntityManager(db).list(Category.class);
+
+        long executed = executedStatements();
+        List<Product> loaded = new EntityManager(db).list(Product.class);
+
+        assertEquals(executed + 1, executedStatements());
+        assertEquals("Groceries", loaded.getFirst().category.name);
+        assertSame(loaded.getFirst().category, loaded.get(2).category);
+        assertEquals(2, EntityCache.of(Category.class).getStatistics().hits());
+    }
+
+    @Test
+    void shouldEvictTheLeastRecentlyUsedRow() {
+        List<Unit> units = List.of(new Unit(), new Unit(), new Unit());
+        assertTrue(entityManager.saveAll(units));
+
+        entityManager.findById(Unit.class, null, 1);
+        entityManager.findById(Unit.class, null, 2);
+        new EntityManager(db).findById(Unit.class, null, 1);
+        entityManager.findById(Unit.class, null, 3);
+
+        EntityCache cache = EntityCache.of(Unit.class);
+        EntityCache.Statistics statistics = cache.getStatistics();
+        assertEquals(2, statistics.size());
+        assertEquals(1, statistics.evictions());
+
+        EntityManager other = new EntityManager(db);
+        long executed = executedStatements();
+        other.findById(Unit.class, null, 1);
+        other.findById(Unit.class, null, 3);
+        assertEquals(executed, executedStatements());
+    }
+
+    @Test
+    void shouldNotAdmitRowsWhichAreRequestedLessOften() {
+        List<Tag> tags = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            tags.add(new Tag());
+        }
+
+        assertTrue(entityManager.saveAll(tags));
+
+        // Requested over and over by id
+        for (int i = 0; i < 3; i++) {
+            EntityManager session = new EntityManager(db);
+            session.findById(Tag.class, null, 1);
+            session.findById(Tag.class, null, 2);
+        }
+
+        // A single pass over every row
+        new EntityManager(db).list(Tag.class);
+
+        EntityCache.Statistics statistics = EntityCache.of(Tag.class).getStatistics();
+        assertEquals(2, statistics.size());
+        assertEquals(8, statistics.rejections());
+
+        EntityManager other = new EntityManager(db);
+        long executed = executedStatements();
+        other.findById(Tag.class, null, 1);
+        other.findById(Tag.class, null, 2);
+        assertEquals(executed, executedStatements());
+    }
+
+    @Test
+    void shouldStayWithinTheByteBound() {
+        List<Note> notes = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            Note note = new Note();
+            note.text = "Note " + i;
+            notes.add(note);
+        }
+
+        assertTrue(entityManager.saveAll(notes));
+
+        for (int i = 1; i <= 10; i++) {
+            new EntityManager(db).findById(Note.class, null, i);
+        }
+
+        EntityCache.Statistics statistics = EntityCache.of(Note.class).getStatistics();
+        assertTrue(statistics.bytes() <= 600);
+        assertTrue(statistics.size() > 0 && statistics.size() < 10);
+    }
+
+    @Test
+    void shouldOnlyCacheCacheableEntities() {
+        assertNull(EntityCache.of(Product.class));
+        assertSame(EntityCache.of(Category.class), EntityCache.of(Category.class));
+    }
+}
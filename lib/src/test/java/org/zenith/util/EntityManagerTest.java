@@ -0,0 +1,639 @@
+package org.zenith.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zenith.annotation.Column;
+import org.zenith.annotation.Entity;
+import org.zenith.annotation.Id;
+import org.zenith.annotation.relation.ManyToOne;
+import org.zenith.annotation.relation.OneToMany;
+import org.zenith.enumeration.ColumnType;
+import org.zenith.enumeration.FetchType;
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.collection.LazyList;
+import org.zenith.util.converter.ColumnConverter;
+import org.zenith.util.converter.ConverterRegistry;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityManagerTest {
+    @Entity
+    static class Project implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.VARCHAR)
+        public String name;
+        @OneToMany
+        public List<Issue> issues;
+
+        Project() { }
+
+        Project(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    @Entity
+    static class Issue implements IModel {
+        @Id
+        public long id;
+        @Column(type = ColumnType.TEXT)
+        public String title;
+        @ManyToOne
+        public Project project;
+        @OneToMany(fetch = FetchType.LAZY)
+        public List<Comment> comments;
+
+        Issue() { }
+
+        Issue(String title, Project project) {
+            this.title = title;
+            this.project = project;
+        }
+    }
+
+    @Entity
+    static class Comment implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.TEXT)
+        public String text;
+        @ManyToOne(fetch = FetchType.SELECT)
+        public Issue issue;
+        @ManyToOne(fetch = FetchType.LAZY)
+        public Project project;
+    }
+
+    record Rating(int stars) { }
+
+    @Entity
+    static class Review implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.INTEGER)
+        public Rating rating;
+
+        Review() { }
+
+        Review(Rating rating) {
+            this.rating = rating;
+        }
+    }
+
+    private SQLiteDatabase db;
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        db = SQLiteDatabase.getInstance();
+        db.reinitializeConnection();
+
+        for (String query : SQLGenerator.generateCreateTable(List.of(Project.class, Issue.class, Comment.class))) {
+            db.executeQueryWithoutResult(query);
+        }
+
+        entityManager = new EntityManager(db);
+    }
+
+    @Test
+    void shouldWriteTheReturnedRowBackOnSave() {
+        Project project = new Project(0, "First");
+        Issue issue = new Issue("Issue", project);
+
+        assertTrue(entityManager.save(project));
+        assertEquals(1, project.id);
+
+        assertTrue(entityManager.save(issue));
+        assertEquals(1L, issue.id);
+        assertSame(project, issue.project);
+
+        issue.title = "Renamed";
+        assertTrue(entityManager.update(issue));
+        assertEquals("Renamed", issue.title);
+        assertEquals(1L, issue.id);
+    }
+
+    @Test
+    void shouldNotUpdateAMissingRow() {
+        Project project = new Project(42, "Missing");
+
+        assertFalse(entityManager.update(project));
+        assertEquals("Missing", project.name);
+    }
+
+    @Test
+    void shouldOnlyUpdateTheChangedColumns() throws SQLException {
+        Issue issue = new Issue("Issue", null);
+        assertTrue(entityManager.save(issue));
+
+        // Written behind the back of the entity manager, a full update would overwrite it with the stale project
+        Project project = new Project(7, "Other");
+        assertTrue(entityManager.save(project));
+        db.executeQueryWithoutResult(new SQLQuery("UPDATE issue SET project_id = ? WHERE id = ?", List.of(7, issue.id)));
+
+        issue.title = "Renamed";
+        assertTrue(entityManager.isDirty(issue));
+        assertTrue(entityManager.update(issue));
+        assertFalse(entityManager.isDirty(issue));
+
+        try (ResultSet resultSet = db.executeQueryWithResult("SELECT title, project_id FROM issue")) {
+            assertTrue(resultSet.next());
+            assertEquals("Renamed", resultSet.getString(1));
+            assertEquals(7, resultSet.getInt(2));
+        }
+    }
+
+    @Test
+    void shouldSkipTheUpdateWhenNothingChanged() {
+        assertTrue(entityManager.save(new Project(0, "Unchanged")));
+        Project project = entityManager.list(Project.class).getFirst();
+        long statements = db.getStatementCacheHits() + db.getStatementCacheMisses();
+
+        assertFalse(entityManager.isDirty(project));
+        assertTrue(entityManager.update(project));
+        assertEquals(statements, db.getStatementCacheHits() + db.getStatementCacheMisses());
+    }
+
+    @Test
+    void shouldStopTrackingTheModelsOnClear() throws SQLException {
+        assertTrue(entityManager.save(new Project(0, "Project")));
+        Project project = entityManager.list(Project.class).getFirst();
+        assertFalse(entityManager.isDirty(project));
+
+        entityManager.clear();
+        assertTrue(entityManager.isDirty(project));
+
+        // Untracked, so the update writes every column instead of comparing against the snapshot of the old session
+        db.executeQueryWithoutResult(new SQLQuery("UPDATE project SET name = ? WHERE id = ?", List.of("Changed", project.id)));
+        long executed = db.getStatementCacheHits() + db.getStatementCacheMisses();
+        assertTrue(entityManager.update(project));
+        assertEquals(executed + 1, db.getStatementCacheHits() + db.getStatementCacheMisses());
+        assertEquals("Project", project.name);
+        assertFalse(entityManager.isDirty(project));
+    }
+
+    @Test
+    void shouldSaveAllAndWriteTheGeneratedIdsBack() throws SQLException {
+        List<IModel> models = new ArrayList<>();
+        Project explicit = new Project(100, "Explicit");
+        Project generated = new Project(0, "Generated");
+        models.add(explicit);
+        models.add(generated);
+
+        for (int i = 0; i < 2_500; i++) {
+            models.add(new Issue("Issue " + i, i % 2 == 0 ? explicit : generated));
+        }
+
+        assertTrue(entityManager.saveAll(models));
+
+        assertEquals(100, explicit.id);
+        assertEquals(101, generated.id);
+        assertEquals(1, ((Issue) models.get(2)).id);
+        assertEquals(2_500, ((Issue) models.getLast()).id);
+
+        try (ResultSet resultSet = db.executeQueryWithResult(new SQLQuery("SELECT title, project_id FROM issue WHERE id = ?", List.of(2_500L)))) {
+            assertTrue(resultSet.next());
+            assertEquals("Issue 2499", resultSet.getString(1));
+            assertEquals(101, resultSet.getInt(2));
+        }
+    }
+
+    @Test
+    void shouldRollBackSaveAllWhenARowFails() throws SQLException {
+        Project existing = new Project(1, "Existing");
+        assertTrue(entityManager.save(existing));
+
+        Project first = new Project(0, "First");
+        Project duplicate = new Project(1, "Duplicate");
+        Issue issue = new Issue("Issue", first);
+
+        assertFalse(entityManager.saveAll(List.of(first, issue, duplicate)));
+        assertEquals(0, first.id);
+
+        try (ResultSet resultSet = db.executeQueryWithResult("SELECT COUNT(*) FROM project")) {
+            assertTrue(resultSet.next());
+            assertEquals(1, resultSet.getInt(1));
+        }
+
+        assertTrue(entityManager.saveAll(List.of(new Project(0, "After the rollback"))));
+    }
+
+    @Test
+    void shouldRollBackSaveAllWhenAConverterFails() throws SQLException {
+        ConverterRegistry.register(new ColumnConverter<Rating>() {
+            @Override
+            public Class<Rating> getJavaType() {
+                return Rating.class;
+            }
+
+            @Override
+            public Rating read(ResultSet resultSet, int columnIndex) throws SQLException {
+                int stars = resultSet.getInt(columnIndex);
+                return resultSet.wasNull() ? null : new Rating(stars);
+            }
+
+            @Override
+            public Object toDatabase(Rating value) {
+                if (value.stars() < 0)
+                    throw new IllegalStateException("A rating cannot be negative");
+
+                return value.stars();
+            }
+        });
+
+        db.executeQueryWithoutResult("CREATE TABLE review (id INTEGER PRIMARY KEY AUTOINCREMENT, rating INTEGER);");
+        Review valid = new Review(new Rating(5));
+
+        assertThrows(IllegalStateException.class, () -> entityManager.saveAll(List.of(valid, new Review(new Rating(-1)))));
+        assertTrue(db.getConnection().getAutoCommit());
+        assertEquals(0, valid.id);
+
+        try (ResultSet resultSet = db.executeQueryWithResult("SELECT COUNT(*) FROM review")) {
+            assertTrue(resultSet.next());
+            assertEquals(0, resultSet.getInt(1));
+        }
+    }
+
+    @Test
+    void shouldReadTheUpsertedRowsBackOnTheSameEntityManager() {
+        Project project = new Project(0, "a");
+        assertTrue(entityManager.save(project));
+        assertSame(project, entityManager.list(Project.class).getFirst());
+
+        assertTrue(entityManager.upsertAll(List.of(new Project(project.id, "b"))));
+
+        assertEquals("b", entityManager.list(Project.class).getFirst().name);
+        Project loaded = (Project) entityManager.findById(Project.class, null, project.id);
+        assertEquals("b", loaded.name);
+        assertFalse(entityManager.isDirty(loaded));
+    }
+
+    @Test
+    void shouldLoadTheChildrenOfASavedModelOnItsFirstLoad() {
+        Project project = new Project(0, "Project");
+        assertTrue(entityManager.save(project));
+        assertTrue(entityManager.save(new Issue("Issue", project)));
+
+        Project loaded = (Project) entityManager.findById(Project.class, null, project.id);
+
+        assertSame(project, loaded);
+        assertNotNull(loaded.issues);
+        assertEquals(1, loaded.issues.size());
+        assertSame(loaded, entityManager.findById(Project.class, null, project.id));
+    }
+
+    @Test
+    void shouldUpsertByTheId() throws SQLException {
+        Project project = new Project(0, "First");
+        assertTrue(entityManager.upsert(project));
+        assertEquals(1, project.id);
+
+        Project replacement = new Project(1, "Replaced");
+        assertTrue(entityManager.upsert(replacement));
+        assertTrue(entityManager.upsert(new Project(5, "Fifth")));
+
+        assertEquals(2, entityManager.count(Project.class, null));
+        assertEquals("Replaced", entityManager.from(Project.class).where("id").eq(1).first().name);
+        assertEquals("Fifth", entityManager.from(Project.class).where("id").eq(5).first().name);
+    }
+
+    @Test
+    void shouldUpsertOnAUniqueColumn() throws SQLException {
+        db.executeQueryWithoutResult("CREATE UNIQUE INDEX issue_title ON issue (title);");
+
+        Issue first = new Issue("Unique", null);
+        assertTrue(entityManager.upsert(first, "title"));
+
+        Project project = new Project(3, "Project");
+        assertTrue(entityManager.save(project));
+
+        Issue second = new Issue("Unique", project);
+        assertTrue(entityManager.upsert(second, "title"));
+
+        assertEquals(first.id, second.id);
+        assertEquals(1, entityManager.count(Issue.class, Map.of("project", project)));
+        assertFalse(entityManager.upsert(second, "missing"));
+    }
+
+    @Test
+    void shouldUpsertAllInBatches() throws SQLException {
+        db.executeQueryWithoutResult("CREATE UNIQUE INDEX issue_title ON issue (title);");
+
+        List<Project> projects = new ArrayList<>();
+
+        for (int i = 1; i <= 1_500; i++) {
+            projects.add(new Project(i, "Project " + i));
+        }
+
+        assertTrue(entityManager.saveAll(projects.subList(0, 500)));
+
+        for (Project project : projects) {
+            project.name = "Synced " + project.id;
+        }
+
+        Project added = new Project(0, "Added");
+        List<Project> upserted = new ArrayList<>(projects);
+        upserted.add(added);
+
+        assertTrue(entityManager.upsertAll(upserted));
+        assertEquals(1_501, added.id);
+        assertEquals(1_501, entityManager.count(Project.class, null));
+        assertEquals(0, entityManager.from(Project.class).where("name").like("Project %").count());
+
+        List<Issue> issues = List.of(new Issue("A", null), new Issue("B", null));
+        assertTrue(entityManager.upsertAll(issues, "title"));
+
+        Issue duplicate = new Issue("B", added);
+        assertTrue(entityManager.upsertAll(List.of(duplicate, new Issue("C", null)), "title"));
+        assertEquals(issues.get(1).id, duplicate.id);
+        assertEquals(3, entityManager.count(Issue.class, null));
+    }
+
+    @Test
+    void shouldCaptureTheQueryPlansOfTheExecutedStatements() {
+        Project project = new Project(0, "Project");
+        List<Issue> issues = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            issues.add(new Issue("Issue " + i, project));
+        }
+
+        assertTrue(entityManager.save(project));
+        assertTrue(entityManager.saveAll(issues));
+
+        db.enableQueryPlanCapture(3);
+
+        try {
+            assertEquals(5, entityManager.from(Issue.class).where("project").eq(project).list().size());
+            assertEquals(1, entityManager.from(Issue.class).where("title").eq("Issue 2").list().size());
+
+            List<QueryPlan> fullScans = db.getFullScans();
+            assertEquals(1, fullScans.size());
+            assertTrue(fullScans.getFirst().sql().contains("title"));
+            assertEquals(List.of(new QueryPlan.FullScan("issue", 5)), fullScans.getFirst().fullScans());
+            assertTrue(db.getQueryPlans().size() >= 2);
+        } finally {
+            db.disableQueryPlanCapture();
+        }
+
+        assertTrue(db.getQueryPlans().isEmpty());
+    }
+
+    @Test
+    void shouldLoadTheChildrenOfAllParentsAtOnce() throws SQLException {
+        List<Project> projects = List.of(new Project(0, "First"), new Project(0, "Second"), new Project(0, "Empty"));
+        assertTrue(entityManager.saveAll(projects));
+
+        List<Issue> issues = new ArrayList<>();
+
+        for (int i = 0; i < 1_000; i++) {
+            issues.add(new Issue("Issue " + i, projects.get(i % 2)));
+        }
+
+        assertTrue(entityManager.saveAll(issues));
+
+        long executed = db.getStatementCacheHits() + db.getStatementCacheMisses();
+        List<Project> loaded = entityManager.list(Project.class);
+
+        // The projects and their issues in a single chunk of the IN list
+        assertEquals(2, db.getStatementCacheHits() + db.getStatementCacheMisses() - executed);
+        assertEquals(List.of(500, 500, 0), loaded.stream().map(project -> project.issues.size()).toList());
+        assertEquals("Issue 1", loaded.get(1).issues.getFirst().title);
+        assertEquals("Issue 999", loaded.get(1).issues.getLast().title);
+        assertSame(loaded.get(1), loaded.get(1).issues.getFirst().project);
+        assertFalse(entityManager.isDirty(loaded.getFirst()));
+
+        Project single = (Project) entityManager.findById(Project.class, null, projects.getFirst().id);
+        assertEquals(500, single.issues.size());
+    }
+
+    @Test
+    void shouldJoinTheRelatedRowsInTheSameQuery() {
+        Project project = new Project(0, "Project");
+        assertTrue(entityManager.save(project));
+
+        List<Issue> issues = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            issues.add(new Issue("Issue " + i, i % 10 == 0 ? null : project));
+        }
+
+        assertTrue(entityManager.saveAll(issues));
+
+        long executed = db.getStatementCacheHits() + db.getStatementCacheMisses();
+        List<Issue> loaded = entityManager.list(Issue.class);
+
+        assertEquals(1, db.getStatementCacheHits() + db.getStatementCacheMisses() - executed);
+        assertNull(loaded.getFirst().project);
+        assertEquals("Project", loaded.get(1).project.name);
+        assertEquals(project.id, loaded.get(1).project.id);
+        assertNull(loaded.get(1).project.issues);
+
+        Issue issue = (Issue) entityManager.findById(Issue.class, null, loaded.get(1).id);
+        assertEquals("Project", issue.project.name);
+        assertFalse(entityManager.isDirty(issue));
+    }
+
+    @Test
+    void shouldSelectOrReferenceTheRelatedRows() {
+        Project project = new Project(0, "Project");
+        Issue issue = new Issue("Issue", project);
+        assertTrue(entityManager.save(project));
+        assertTrue(entityManager.save(issue));
+
+        List<Comment> comments = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            Comment comment = new Comment();
+            comment.text = "Comment " + i;
+            comment.issue = i == 2 ? null : issue;
+            comment.project = project;
+            comments.add(comment);
+        }
+
+        assertTrue(entityManager.saveAll(comments));
+        entityManager.clear();
+
+        long executed = db.getStatementCacheHits() + db.getStatementCacheMisses();
+        List<Comment> loaded = entityManager.list(Comment.class);
+
+        // The comments and a single query for their issues, the projects are only referenced
+        assertEquals(2, db.getStatementCacheHits() + db.getStatementCacheMisses() - executed);
+        assertEquals("Issue", loaded.getFirst().issue.title);
+        assertSame(loaded.getFirst().issue, loaded.get(1).issue);
+        assertNull(loaded.get(2).issue);
+        assertEquals(project.id, loaded.getFirst().project.id);
+        assertNull(loaded.getFirst().project.name);
+        assertFalse(entityManager.isDirty(loaded.getFirst()));
+    }
+
+    @Test
+    void shouldLoadTheLazyChildrenOfAllParentsOnFirstAccess() {
+        Project project = new Project(0, "Project");
+        assertTrue(entityManager.save(project));
+        assertTrue(entityManager.saveAll(List.of(new Issue("First", project), new Issue("Second", project))));
+
+        List<Issue> saved = entityManager.list(Issue.class);
+        List<Comment> comments = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            Comment comment = new Comment();
+            comment.text = "Comment " + i;
+            comment.issue = saved.get(i % 2);
+            comments.add(comment);
+        }
+
+        assertTrue(entityManager.saveAll(comments));
+
+        long executed = db.getStatementCacheHits() + db.getStatementCacheMisses();
+        List<Issue> issues = entityManager.list(Issue.class);
+
+        assertEquals(1, db.getStatementCacheHits() + db.getStatementCacheMisses() - executed);
+        assertEquals(2, issues.getFirst().comments.size());
+        assertEquals(1, issues.get(1).comments.size());
+        assertEquals(2, db.getStatementCacheHits() + db.getStatementCacheMisses() - executed);
+        assertEquals("Comment 0", issues.getFirst().comments.getFirst().text);
+        assertSame(issues.getFirst(), issues.getFirst().comments.getFirst().issue);
+    }
+
+    @Test
+    void shouldInitializeALazyRelation() {
+        Project project = new Project(0, "Project");
+        Issue issue = new Issue("Issue", project);
+        assertTrue(entityManager.save(project));
+        assertTrue(entityManager.save(issue));
+
+        Comment comment = new Comment();
+        comment.text = "Comment";
+        comment.issue = issue;
+        comment.project = project;
+        assertTrue(entityManager.save(comment));
+        entityManager.clear();
+
+        Comment loaded = entityManager.list(Comment.class).getFirst();
+        assertNull(loaded.project.name);
+        assertTrue(entityManager.initialize(loaded, "project"));
+        assertEquals("Project", loaded.project.name);
+
+        Issue loadedIssue = (Issue) entityManager.findById(Issue.class, null, issue.id);
+        assertTrue(entityManager.initialize(loadedIssue, "comments"));
+
+        long executed = db.getStatementCacheHits() + db.getStatementCacheMisses();
+        assertEquals("Comment", loadedIssue.comments.getFirst().text);
+        assertEquals(executed, db.getStatementCacheHits() + db.getStatementCacheMisses());
+
+        assertFalse(entityManager.initialize(loadedIssue, "title"));
+        assertFalse(entityManager.initialize(loadedIssue, "missing"));
+    }
+
+    @Test
+    void shouldDeleteTheUnloadedLazyChildrenWithoutLoadingThem() throws SQLException {
+        Issue issue = new Issue("Issue", null);
+        assertTrue(entityManager.save(issue));
+
+        Comment comment = new Comment();
+        comment.text = "Comment";
+        comment.issue = issue;
+        assertTrue(entityManager.save(comment));
+        entityManager.clear();
+
+        Issue loaded = (Issue) entityManager.findById(Issue.class, null, issue.id);
+        LazyList<?> comments = (LazyList<?>) loaded.comments;
+        assertTrue(entityManager.delete(loaded));
+        assertFalse(comments.isInitialized());
+
+        try (ResultSet resultSet = db.executeQueryWithResult("SELECT COUNT(*) FROM comment")) {
+            assertTrue(resultSet.next());
+            assertEquals(0, resultSet.getInt(1));
+        }
+    }
+
+    @Test
+    void shouldRepresentARowByASingleInstance() {
+        Project project = new Project(0, "Project");
+        assertTrue(entityManager.save(project));
+        assertTrue(entityManager.saveAll(List.of(new Issue("First", project), new Issue("Second", project))));
+
+        List<Issue> issues = entityManager.list(Issue.class);
+        assertSame(project, issues.getFirst().project);
+        assertSame(issues.getFirst().project, issues.get(1).project);
+        assertEquals(issues, entityManager.list(Issue.class));
+        assertSame(issues.getFirst(), entityManager.list(Issue.class).getFirst());
+
+        // The saved project is completed in place by its first load, which reads its issues
+        assertSame(project, entityManager.findById(Project.class, null, project.id));
+        assertSame(issues.getFirst(), project.issues.getFirst());
+
+        long executed = db.getStatementCacheHits() + db.getStatementCacheMisses();
+        assertSame(issues.get(1), entityManager.findById(Issue.class, null, issues.get(1).id));
+        assertSame(project, entityManager.findById(Project.class, null, project.id));
+        assertEquals(executed, db.getStatementCacheHits() + db.getStatementCacheMisses());
+
+        // A row read again does not overwrite the changes of its instance
+        issues.getFirst().title = "Changed";
+        assertEquals("Changed", entityManager.list(Issue.class).getFirst().title);
+        assertTrue(entityManager.isDirty(issues.getFirst()));
+
+        assertTrue(entityManager.delete(issues.get(1)));
+        assertNull(entityManager.findById(Issue.class, null, issues.get(1).id));
+
+        entityManager.clear();
+        Issue reloaded = entityManager.list(Issue.class).getFirst();
+        assertNotSame(issues.getFirst(), reloaded);
+        assertEquals("First", reloaded.title);
+    }
+
+    @Test
+    void shouldRefreshTheColumnsOfAShallowEntityWhenItsRowIsLoaded() throws SQLException {
+        Project project = new Project(0, "Project");
+        assertTrue(entityManager.save(project));
+        db.executeQueryWithoutResult(new SQLQuery("UPDATE project SET name = ? WHERE id = ?", List.of("Renamed", project.id)));
+
+        assertSame(project, entityManager.findById(Project.class, null, project.id));
+        assertEquals("Renamed", project.name);
+
+        // Complete now, so a row read again does not overwrite it
+        db.executeQueryWithoutResult(new SQLQuery("UPDATE project SET name = ? WHERE id = ?", List.of("Again", project.id)));
+        assertEquals("Renamed", entityManager.list(Project.class).getFirst().name);
+    }
+
+    @Test
+    void shouldDetachTheChildrenDeletedWithTheirParent() {
+        Project project = new Project(0, "Project");
+        assertTrue(entityManager.save(project));
+        assertTrue(entityManager.save(new Issue("Issue", project)));
+        entityManager.clear();
+
+        Project loaded = (Project) entityManager.findById(Project.class, null, project.id);
+        Issue issue = loaded.issues.getFirst();
+        assertSame(issue, entityManager.findById(Issue.class, null, issue.id));
+
+        assertTrue(entityManager.delete(loaded));
+
+        assertNull(entityManager.findById(Issue.class, null, issue.id));
+        assertTrue(entityManager.list(Issue.class).isEmpty());
+    }
+
+    @Test
+    void shouldCompleteAJoinedEntityWhenItsRowIsLoaded() {
+        Project project = new Project(0, "Project");
+        assertTrue(entityManager.save(project));
+        assertTrue(entityManager.save(new Issue("Issue", project)));
+        entityManager.clear();
+
+        Issue issue = entityManager.list(Issue.class).getFirst();
+        assertNull(issue.project.issues);
+
+        Project loaded = entityManager.list(Project.class).getFirst();
+        assertSame(issue.project, loaded);
+        assertEquals(1, loaded.issues.size());
+        assertSame(issue, loaded.issues.getFirst());
+    }
+}
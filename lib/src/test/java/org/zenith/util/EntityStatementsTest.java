@@ -0,0 +1,126 @@
+package org.zenith.util;
+
+import org.junit.jupiter.api.Test;
+import org.zenith.annotation.Column;
+import org.zenith.annotation.Entity;
+import org.zenith.annotation.Id;
+import org.zenith.enumeration.ColumnType;
+import org.zenith.model.interfaces.IModel;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityStatementsTest {
+    @Entity
+    static class Task implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.VARCHAR)
+        public String title;
+        @Column(type = ColumnType.TEXT)
+        public String description;
+        @Column(type = ColumnType.BOOLEAN)
+        public boolean isCompleted;
+    }
+
+    private static Task task(int id, String title) {
+        Task task = new Task();
+        task.id = id;
+        task.title = title;
+        task.description = "Description of " + title;
+        return task;
+    }
+
+    @Test
+    void shouldCompileTheStatementsOnce() {
+        EntityStatements<Task> statements = EntityStatements.of(Task.class);
+
+        assertSame(statements, EntityStatements.of(task(1, "First")));
+        assertSame(statements.insert(task(1, "First")).sql(), statements.insert(task(2, "Second")).sql());
+        assertSame(statements.selectAll(), statements.selectAll());
+    }
+
+    @Test
+    void shouldGenerateTheStatementsOfTheEntity() throws NoSuchFieldException {
+        EntityStatements<Task> statements = EntityStatements.of(Task.class);
+        Task task = task(3, "Third");
+
+        SQLQuery insert = statements.insert(task);
+        assertEquals("INSERT INTO task (id, title, description, isCompleted) VALUES (?, ?, ?, ?) RETURNING *;", insert.sql());
+        assertEquals(List.of(3, "Third", "Description of Third", 0), insert.parameters());
+
+        SQLQuery update = statements.update(task);
+        assertEquals("UPDATE task SET title=?, description=?, isCompleted=? WHERE id=? RETURNING *;", update.sql());
+        assertEquals(List.of("Third", "Description of Third", 0, 3L), update.parameters());
+
+        assertEquals("DELETE FROM task WHERE id=? RETURNING *;", statements.delete(task).getFirst().sql());
+        assertEquals("SELECT * FROM task WHERE id=?;", statements.selectById(3).sql());
+        assertEquals("SELECT * FROM task;", statements.selectAll().sql());
+    }
+
+    @Test
+    void shouldLeaveOutAnUnsetId() {
+        SQLQuery insert = EntityStatements.of(Task.class).insert(task(0, "New"));
+
+        assertEquals("INSERT INTO task (title, description, isCompleted) VALUES (?, ?, ?) RETURNING *;", insert.sql());
+        assertEquals(Arrays.asList("New", "Description of New", 0), insert.parameters());
+    }
+
+    @Test
+    void shouldOnlyUpdateTheChangedColumns() throws NoSuchFieldException {
+        EntityStatements<Task> statements = EntityStatements.of(Task.class);
+        Task task = task(5, "Fifth");
+        Object[] previous = statements.snapshot(task);
+
+        assertNull(statements.updateChanged(task, previous, statements.snapshot(task)));
+
+        task.isCompleted = true;
+        SQLQuery update = statements.updateChanged(task, previous, statements.snapshot(task));
+
+        assertEquals("UPDATE task SET isCompleted=? WHERE id=? RETURNING *;", update.sql());
+        assertEquals(List.of(1, 5L), update.parameters());
+        assertSame(update.sql(), statements.updateChanged(task, previous, statements.snapshot(task)).sql());
+
+        task.title = "Changed";
+        task.description = "Changed";
+        assertEquals("UPDATE task SET title=?, description=?, isCompleted=? WHERE id=? RETURNING *;",
+                statements.updateChanged(task, previous, statements.snapshot(task)).sql());
+    }
+
+    @Test
+    void shouldNotBuildStringsOnTheHotPath() throws Exception {
+        EntityStatements<Task> statements = EntityStatements.of(Task.class);
+        Task task = task(4, "Fourth");
+        int operations = 20_000;
+
+        for (int i = 0; i < operations; i++) {
+            statements.insert(task);
+            statements.update(task);
+        }
+
+        long before = allocatedBytes();
+
+        for (int i = 0; i < operations; i++) {
+            statements.insert(task);
+            statements.update(task);
+        }
+
+        long bytesPerStatement = (allocatedBytes() - before) / (2L * operations);
+
+        // Binding allocates the parameter array and the query, building the SQL would allocate several strings and builders
+        assertTrue(bytesPerStatement < 256, () -> "Binding a statement allocated " + bytesPerStatement + " bytes");
+    }
+
+    /**
+     * Reads the bytes allocated by the current thread, through reflection because this module does not read java.management
+     */
+    private static long allocatedBytes() throws Exception {
+        Object threadBean = Class.forName("java.lang.management.ManagementFactory").getMethod("getThreadMXBean").invoke(null);
+        Method allocatedBytes = Class.forName("com.sun.management.ThreadMXBean").getMethod("getCurrentThreadAllocatedBytes");
+
+        return (long) allocatedBytes.invoke(threadBean);
+    }
+}
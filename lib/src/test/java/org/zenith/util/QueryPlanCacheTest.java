@@ -0,0 +1,105 @@
+package org.zenith.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryPlanCacheTest {
+    private Connection connection;
+    private QueryPlanCache cache;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE item (id INTEGER PRIMARY KEY AUTOINCREMENT, title TEXT, parent_id INT);");
+            statement.execute("CREATE INDEX item_parent_id_idx ON item (parent_id);");
+            statement.execute("WITH RECURSIVE n(i) AS (SELECT 1 UNION ALL SELECT i + 1 FROM n WHERE i < 20) INSERT INTO item (title, parent_id) SELECT 'Item ' || i, i % 4 FROM n;");
+        }
+
+        cache = new QueryPlanCache(connection, 10);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void shouldReportScansOfLargeTables() {
+        String sql = "SELECT * FROM item WHERE title = ?;";
+        cache.inspect(sql);
+
+        QueryPlan plan = cache.get(sql);
+        assertEquals(List.of("SCAN item"), plan.steps());
+        assertEquals(List.of(new QueryPlan.FullScan("item", 20)), plan.fullScans());
+    }
+
+    @Test
+    void shouldNotReportIndexedLookups() {
+        cache.inspect("SELECT * FROM item WHERE parent_id = ?;");
+        cache.inspect("SELECT * FROM item WHERE id = ?;");
+        cache.inspect("SELECT COUNT(*) FROM item WHERE parent_id IS NOT NULL;");
+
+        assertEquals(3, cache.getPlans().size());
+        assertTrue(cache.getPlans().stream().noneMatch(QueryPlan::hasFullScans));
+    }
+
+    @Test
+    void shouldNotReportStatementsWithoutAFilter() {
+        cache.inspect("SELECT * FROM item;");
+        assertFalse(cache.get("SELECT * FROM item;").hasFullScans());
+    }
+
+    @Test
+    void shouldResolveAliasesAndRespectTheThreshold() throws SQLException {
+        String sql = "SELECT * FROM item i JOIN item p ON p.id = i.parent_id WHERE i.title = ?;";
+        cache.inspect(sql);
+        assertEquals(List.of(new QueryPlan.FullScan("item", 20)), cache.get(sql).fullScans());
+
+        QueryPlanCache lenient = new QueryPlanCache(connection, 20);
+        lenient.inspect(sql);
+        assertFalse(lenient.get(sql).hasFullScans());
+    }
+
+    @Test
+    void shouldReportAScanOnceTheTableGrewPastTheThreshold() throws SQLException {
+        String sql = "SELECT * FROM item WHERE title = ?;";
+        QueryPlanCache lenient = new QueryPlanCache(connection, 25);
+        lenient.inspect(sql);
+        assertFalse(lenient.get(sql).hasFullScans());
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO item (title, parent_id) SELECT title, parent_id FROM item;");
+        }
+
+        assertEquals(List.of(new QueryPlan.FullScan("item", 40)), lenient.get(sql).fullScans());
+        assertEquals(1, lenient.getPlans().stream().filter(QueryPlan::hasFullScans).count());
+    }
+
+    @Test
+    void shouldCaptureEveryStatementOnce() {
+        String sql = "SELECT * FROM item WHERE title = ?;";
+        cache.inspect(sql);
+        QueryPlan plan = cache.get(sql);
+        cache.inspect(sql);
+
+        assertEquals(plan, cache.get(sql));
+        assertNull(cache.get("SELECT * FROM item WHERE id = ?;"));
+    }
+
+    @Test
+    void shouldSkipStatementsWhichCannotBeExplained() {
+        cache.inspect("SELECT * FROM missing WHERE id = ?;");
+        assertTrue(cache.getPlans().isEmpty());
+    }
+}
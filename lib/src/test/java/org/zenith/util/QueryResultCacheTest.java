@@ -0,0 +1,194 @@
+package org.zenith.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zenith.annotation.Cacheable;
+import org.zenith.annotation.Column;
+import org.zenith.annotation.Entity;
+import org.zenith.annotation.Id;
+import org.zenith.enumeration.ColumnType;
+import org.zenith.model.interfaces.IModel;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryResultCacheTest {
+    @Entity
+    static class Task implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.TEXT)
+        public String title;
+        @Column(type = ColumnType.INTEGER)
+        public int priority;
+
+        Task() { }
+
+        Task(String title, int priority) {
+            this.title = title;
+            this.priority = priority;
+        }
+    }
+
+    @Entity
+    @Cacheable
+    static class Label implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.TEXT)
+        public String name;
+
+        Label() { }
+
+        Label(String name) {
+            this.name = name;
+        }
+    }
+
+    private SQLiteDatabase db;
+    private EntityManager entityManager;
+    private QueryResultCache results;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        db = SQLiteDatabase.getInstance();
+        db.reinitializeConnection();
+
+        for (String query : SQLGenerator.generateCreateTable(List.of(Task.class, Label.class))) {
+            db.executeQueryWithoutResult(query);
+        }
+
+        entityManager = new EntityManager(db);
+        results = QueryResultCache.getInstance();
+        results.clear();
+    }
+
+    private long executedStatements() {
+        return db.getStatementCacheHits() + db.getStatementCacheMisses();
+    }
+
+    private List<Task> urgentTasks(EntityManager session) {
+        return session.from(Task.class).where("priority").ge(2).orderBy("title").cached().list();
+    }
+
+    @Test
+    void shouldAnswerARepeatedQueryFromTheIdentityMap() {
+        assertTrue(entityManager.saveAll(List.of(new Task("Write", 3), new Task("Read", 1), new Task("Plan", 2))));
+
+        List<Task> tasks = urgentTasks(entityManager);
+        long executed = executedStatements();
+        List<Task> repeated = urgentTasks(entityManager);
+
+        assertEquals(executed, executedStatements());
+        assertEquals(List.of("Plan", "Write"), repeated.stream().map(task -> task.title).toList());
+        assertSame(tasks.getFirst(), repeated.getFirst());
+        assertEquals(1, results.getStatistics().hits());
+        assertEquals(1, results.getStatistics().size());
+    }
+
+    @Test
+    void shouldDistinguishTheBoundValues() {
+        assertTrue(entityManager.saveAll(List.of(new Task("Write", 3), new Task("Read", 1))));
+
+        assertEquals(1, entityManager.from(Task.class).where("priority").ge(2).cached().list().size());
+        assertEquals(2, entityManager.from(Task.class).where("priority").ge(1).cached().list().size());
+        assertEquals(0, results.getStatistics().hits());
+        assertEquals(2, results.getStatistics().size());
+    }
+
+    @Test
+    void shouldLoadTheCachedIdsOfAnotherEntityManager() {
+        assertTrue(entityManager.saveAll(List.of(new Task("Write", 3), new Task("Read", 1), new Task("Plan", 2))));
+        urgentTasks(entityManager);
+
+        EntityManager other = new EntityManager(db);
+        long executed = executedStatements();
+        List<Task> tasks = urgentTasks(other);
+
+        // A single lookup by id instead of the query itself
+        assertEquals(executed + 1, executedStatements());
+        assertEquals(List.of("Plan", "Write"), tasks.stream().map(task -> task.title).toList());
+        assertFalse(other.isDirty(tasks.getFirst()));
+    }
+
+    @Test
+    void shouldReadTheRowsOfACachedEntityFromTheEntityCache() {
+        assertTrue(entityManager.saveAll(List.of(new Label("Home"), new Label("Work"))));
+        new EntityManager(db).from(Label.class).orderBy("name").cached().list();
+
+        long executed = executedStatements();
+        List<Label> labels = new EntityManager(db).from(Label.class).orderBy("name").cached().list();
+
+        assertEquals(executed, executedStatements());
+        assertEquals(List.of("Home", "Work"), labels.stream().map(label -> label.name).toList());
+    }
+
+    @Test
+    void shouldInvalidateTheResultWhenTheTableIsWritten() {
+        assertTrue(entityManager.saveAll(List.of(new Task("Write", 3), new Task("Read", 1))));
+        assertEquals(1, urgentTasks(entityManager).size());
+
+        Task task = new Task("Plan", 2);
+        assertTrue(entityManager.save(task));
+        assertEquals(List.of("Plan", "Write"), urgentTasks(entityManager).stream().map(t -> t.title).toList());
+
+        task.priority = 0;
+        assertTrue(entityManager.update(task));
+        assertEquals(1, urgentTasks(entityManager).size());
+
+        assertEquals(0, results.getStatistics().hits());
+    }
+
+    @Test
+    void shouldInvalidateTheResultWhenTheTableIsWrittenWithPlainSQL() throws SQLException {
+        assertTrue(entityManager.saveAll(List.of(new Task("Write", 3), new Task("Read", 1))));
+        assertEquals(1, urgentTasks(entityManager).size());
+
+        db.executeQueryWithoutResult(new SQLQuery("update Task set priority = ?;", List.of(5)));
+        entityManager.clear();
+
+        assertEquals(2, urgentTasks(entityManager).size());
+        assertEquals(0, results.getStatistics().hits());
+    }
+
+    @Test
+    void shouldNotInvalidateTheResultWhenAnotherTableIsWritten() {
+        assertTrue(entityManager.save(new Task("Write", 3)));
+        urgentTasks(entityManager);
+
+        assertTrue(entityManager.save(new Label("Home")));
+        urgentTasks(entityManager);
+
+        assertEquals(1, results.getStatistics().hits());
+    }
+
+    @Test
+    void shouldNotCacheProjections() {
+        assertTrue(entityManager.save(new Task("Write", 3)));
+
+        entityManager.from(Task.class).select("title").cached().list();
+        entityManager.from(Task.class).select("title").cached().list();
+
+        assertEquals(0, results.getStatistics().size());
+    }
+
+    @Test
+    void shouldDropAStaleVersionOfTheResult() {
+        QueryResultCache cache = QueryResultCache.getInstance();
+        SQLQuery query = new SQLQuery("SELECT * FROM Task WHERE priority >= ?;", List.of(2));
+
+        long version = cache.version("Task");
+        cache.invalidate("task");
+        cache.put(query, "Task", version, new long[] { 1 });
+        assertEquals(0, cache.getStatistics().size());
+
+        cache.put(query, "Task", cache.version("Task"), new long[] { 1 });
+        assertArrayEquals(new long[] { 1 }, cache.get(query, "Task"));
+
+        cache.invalidateWrittenTable("DELETE FROM \"Task\" WHERE id=?;");
+        assertNull(cache.get(query, "Task"));
+        assertEquals(0, cache.getStatistics().size());
+    }
+}
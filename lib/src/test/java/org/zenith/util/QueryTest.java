@@ -0,0 +1,270 @@
+package org.zenith.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zenith.annotation.Column;
+import org.zenith.annotation.Entity;
+import org.zenith.annotation.Id;
+import org.zenith.annotation.relation.ManyToOne;
+import org.zenith.enumeration.ColumnType;
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.mapper.RecordMapper;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryTest {
+    @Entity
+    static class Board implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.VARCHAR)
+        public String name;
+    }
+
+    @Entity
+    static class Card implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.VARCHAR)
+        public String title;
+        @Column(type = ColumnType.BOOLEAN)
+        public boolean isCompleted;
+        @Column(type = ColumnType.DATETIME)
+        public Date expiresAt;
+        @Column(type = ColumnType.INTEGER)
+        public int priority;
+        @ManyToOne
+        public Board board;
+    }
+
+    record CardSummary(int id, String title, boolean isCompleted) { }
+
+    record CardDeadline(String title, Date expiresAt, Long board) { }
+
+    record Invalid(int id, String description) { }
+
+    private EntityManager entityManager;
+    private Board board;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        SQLiteDatabase db = SQLiteDatabase.getInstance();
+        db.reinitializeConnection();
+
+        for (String query : SQLGenerator.generateCreateTable(List.of(Board.class, Card.class))) {
+            db.executeQueryWithoutResult(query);
+        }
+
+        entityManager = new EntityManager(db);
+        board = new Board();
+        board.name = "Board";
+
+        List<IModel> models = new ArrayList<>(List.of(board));
+
+        for (int i = 1; i <= 10; i++) {
+            Card card = new Card();
+            card.title = "Card " + i;
+            card.isCompleted = i % 2 == 0;
+            card.expiresAt = new Date(i * 1_000L);
+            card.priority = i % 3;
+            card.board = i <= 5 ? board : null;
+            models.add(card);
+        }
+
+        assertTrue(entityManager.saveAll(models));
+    }
+
+    @Test
+    void shouldCompileToParameterizedSql() {
+        SQLQuery query = entityManager.from(Card.class)
+                .where("isCompleted").eq(false)
+                .and("expiresAt").lt(new Date(5_000L))
+                .or("priority").in(List.of(1, 2))
+                .orderBy("expiresAt")
+                .orderByDescending("id")
+                .limit(50)
+                .offset(10)
+                .toSQLQuery();
+
+        assertEquals("SELECT card.*, j0.id AS \"board.id\", j0.name AS \"board.name\" FROM card LEFT JOIN board AS j0 ON j0.id = card.board_id"
+                + " WHERE card.isCompleted=? AND card.expiresAt<? OR card.priority IN (?, ?) ORDER BY card.expiresAt ASC, card.id DESC LIMIT ? OFFSET ?;", query.sql());
+        assertEquals(List.of(0, 5_000L, 1, 2, 50, 10), query.parameters());
+    }
+
+    @Test
+    void shouldCacheTheCompiledSqlPerShape() {
+        SQLQuery first = entityManager.from(Card.class).where("title").eq("Card 1").limit(1).toSQLQuery();
+        SQLQuery second = entityManager.from(Card.class).where("title").eq("Card 2").limit(5).toSQLQuery();
+
+        assertSame(first.sql(), second.sql());
+        assertEquals(List.of("Card 2", 5), second.parameters());
+        assertNotEquals(first.sql(), entityManager.from(Card.class).where("title").ne("Card 1").toSQLQuery().sql());
+    }
+
+    @Test
+    void shouldKeepTheRecentlyUsedShapesCompiled() {
+        String recent = entityManager.from(Card.class).where("title").eq("Card 1").toSQLQuery().sql();
+        String evicted = entityManager.from(Card.class).where("id").in(List.of(1)).toSQLQuery().sql();
+
+        // Every number of placeholders in the IN list is another shape
+        for (int count = 2; count <= 1100; count++) {
+            entityManager.from(Card.class).where("id").in(Collections.nCopies(count, 1)).toSQLQuery();
+            assertSame(recent, entityManager.from(Card.class).where("title").eq("Card 2").toSQLQuery().sql());
+        }
+
+        SQLQuery latest = entityManager.from(Card.class).where("id").in(Collections.nCopies(1100, 1)).toSQLQuery();
+        assertSame(latest.sql(), entityManager.from(Card.class).where("id").in(Collections.nCopies(1100, 2)).toSQLQuery().sql());
+        assertNotSame(evicted, entityManager.from(Card.class).where("id").in(List.of(1)).toSQLQuery().sql());
+    }
+
+    @Test
+    void shouldNotChangeTheQueryWhenTheFirstRowIsRead() {
+        Query<Card> query = entityManager.from(Card.class).where("board").isNull().orderBy("id").cached();
+        SQLQuery sql = query.toSQLQuery();
+
+        assertEquals("Card 6", query.first().title);
+        assertEquals(sql, query.toSQLQuery());
+        assertEquals(5, query.list().size());
+        assertNotNull(query.first(CardDeadline.class));
+        assertEquals(sql, query.toSQLQuery());
+        assertEquals(5, query.list().size());
+    }
+
+    @Test
+    void shouldValidateFieldNames() {
+        assertThrows(IllegalArgumentException.class, () -> entityManager.from(Card.class).where("missing"));
+        assertThrows(IllegalArgumentException.class, () -> entityManager.from(Card.class).orderBy("missing"));
+        assertThrows(IllegalArgumentException.class, () -> entityManager.from(Card.class).limit(1).where("title"));
+        assertThrows(IllegalArgumentException.class, () -> entityManager.from(Card.class).where("title").in(List.of()));
+    }
+
+    @Test
+    void shouldExecuteTheQuery() {
+        List<Card> cards = entityManager.from(Card.class)
+                .where("isCompleted").eq(false)
+                .and("expiresAt").between(new Date(2_000L), new Date(8_000L))
+                .orderByDescending("expiresAt")
+                .limit(2)
+                .list();
+
+        assertEquals(List.of("Card 7", "Card 5"), cards.stream().map(card -> card.title).toList());
+
+        List<Card> onBoard = entityManager.from(Card.class).where("board").eq(board).list();
+        assertEquals(5, onBoard.size());
+        assertEquals("Board", onBoard.getFirst().board.name);
+        assertNull(entityManager.from(Card.class).where("board").isNull().first().board);
+        assertEquals(5, entityManager.from(Card.class).where("board").isNull().list().size());
+        assertEquals("Card 3", entityManager.from(Card.class).where("title").like("%3").first().title);
+        assertNull(entityManager.from(Card.class).where("priority").gt(5).first());
+    }
+
+    @Test
+    void shouldProjectTheSelectedFields() {
+        Card card = entityManager.from(Card.class).select("id", "title").where("priority").eq(0).orderBy("id").first();
+
+        assertEquals("Card 3", card.title);
+        assertNull(card.expiresAt);
+        assertTrue(entityManager.isDirty(card));
+    }
+
+    @Test
+    void shouldProjectIntoARecord() {
+        SQLQuery query = entityManager.from(Card.class).where("priority").eq(1).orderBy("id").toSQLQuery(RecordMapper.of(Card.class, CardSummary.class));
+        assertEquals("SELECT id, title, isCompleted FROM card WHERE priority=? ORDER BY id ASC;", query.sql());
+
+        List<CardSummary> summaries = entityManager.from(Card.class).where("priority").eq(1).orderBy("id").list(CardSummary.class);
+        assertEquals(List.of(new CardSummary(1, "Card 1", false), new CardSummary(4, "Card 4", true),
+                new CardSummary(7, "Card 7", false), new CardSummary(10, "Card 10", true)), summaries);
+
+        assertEquals(new CardDeadline("Card 2", new Date(2_000L), 1L),
+                entityManager.from(Card.class).where("title").eq("Card 2").first(CardDeadline.class));
+        assertEquals(new CardDeadline("Card 9", new Date(9_000L), null),
+                entityManager.from(Card.class).where("title").eq("Card 9").first(CardDeadline.class));
+    }
+
+    @Test
+    void shouldRejectRecordsWhichDoNotMatchTheEntity() {
+        assertThrows(IllegalArgumentException.class, () -> entityManager.from(Card.class).list(Invalid.class));
+        assertThrows(IllegalArgumentException.class, () -> entityManager.from(Card.class).select("id").list(CardSummary.class));
+    }
+
+    @Test
+    void shouldComputeAggregatesInTheDatabase() {
+        assertEquals(10, entityManager.count(Card.class, null));
+        assertEquals(5, entityManager.count(Card.class, Map.of("isCompleted", false)));
+        assertEquals(5, entityManager.count(Card.class, Collections.singletonMap("board", null)));
+
+        Query<Card> open = entityManager.from(Card.class).where("isCompleted").eq(false).orderBy("id");
+        assertEquals(5, open.count());
+        assertEquals(4L, open.sum("priority"));
+        assertEquals(0.8, open.avg("priority"), 1e-9);
+        assertEquals(new Date(1_000L), open.min("expiresAt"));
+        assertEquals((Integer) 9, open.max("id"));
+
+        Query<Card> none = entityManager.from(Card.class).where("priority").gt(5);
+        assertEquals(0L, none.sum("priority"));
+        assertNull(none.avg("priority"));
+        assertNull(none.max("expiresAt"));
+    }
+
+    @Test
+    void shouldComputeAggregatesPerGroup() {
+        Query<Card> cards = entityManager.from(Card.class).where("id").le(9);
+
+        assertEquals(Map.of(0, 3L, 1, 3L, 2, 3L), cards.groupBy("priority").count());
+        assertEquals(List.of(false, true), List.copyOf(cards.groupBy("isCompleted").<Boolean>count().keySet()));
+        assertEquals(Map.of(false, 5L, true, 4L), cards.groupBy("isCompleted").count());
+        assertEquals(Map.of(false, 4L, true, 5L), cards.groupBy("isCompleted").sum("priority"));
+        assertEquals(Map.of(0, new Date(9_000L), 1, new Date(7_000L), 2, new Date(8_000L)), cards.groupBy("priority").max("expiresAt"));
+
+        assertThrows(IllegalArgumentException.class, () -> cards.sum("title"));
+        assertThrows(IllegalArgumentException.class, () -> cards.groupBy("board"));
+        assertThrows(IllegalArgumentException.class, () -> entityManager.from(Card.class).limit(1).count());
+    }
+
+    @Test
+    void shouldPageThroughTheTableByKey() {
+        List<Card> expected = entityManager.from(Card.class).orderBy("priority").orderBy("id").list();
+
+        assertEquals(expected.stream().map(card -> card.id).toList(), pageAll("priority", 3));
+        assertEquals(expected.size(), pageAll("id", 4).size());
+    }
+
+    @Test
+    void shouldPagePastRowsWithoutASortValue() {
+        for (Card card : entityManager.from(Card.class).where("id").in(List.of(4, 9)).list()) {
+            card.expiresAt = null;
+            assertTrue(entityManager.update(card));
+        }
+
+        assertEquals(List.of(4, 9, 1, 2, 3, 5, 6, 7, 8, 10), pageAll("expiresAt", 1));
+    }
+
+    @Test
+    void shouldRejectInvalidPages() {
+        assertThrows(IllegalArgumentException.class, () -> entityManager.page(Card.class, "board", null, 10));
+        assertThrows(IllegalArgumentException.class, () -> entityManager.page(Card.class, "id", null, 0));
+    }
+
+    private List<Integer> pageAll(String orderBy, int pageSize) {
+        List<Integer> ids = new ArrayList<>();
+        Page<Card> page = entityManager.page(Card.class, orderBy, null, pageSize);
+
+        while (true) {
+            assertTrue(page.items().size() <= pageSize);
+            page.items().forEach(card -> ids.add(card.id));
+
+            if (!page.hasNext())
+                return ids;
+
+            page = entityManager.page(Card.class, orderBy, page.next(), pageSize);
+        }
+    }
+}
@@ -11,10 +11,13 @@ import org.zenith.annotation.Id;
 import org.zenith.annotation.relation.OneToOne;
 import org.zenith.enumeration.ColumnType;
 import org.zenith.model.interfaces.IModel;
+import org.zenith.util.metadata.EntityMetadata;
+import org.zenith.util.metadata.FieldMetadata;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.util.List;
 
 import static org.mockito.Mockito.*;
@@ -65,6 +68,44 @@ class ReflectionUtilTest {
         assertEquals(0, model.age);
     }
 
+    @Test
+    void testMapToModelsResolvesColumnsOnce() throws Exception {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(2);
+        when(metaData.getColumnLabel(1)).thenReturn("id");
+        when(metaData.getColumnLabel(2)).thenReturn("name");
+
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getInt(1)).thenReturn(1, 2);
+        when(resultSet.getString(2)).thenReturn("First", "Second");
+
+        List<TestModel> models = ReflectionUtil.mapToModels(resultSet, TestModel.class);
+
+        assertEquals(2, models.size());
+        assertEquals(1, models.get(0).id);
+        assertEquals("First", models.get(0).name);
+        assertEquals(2, models.get(1).id);
+        assertEquals("Second", models.get(1).name);
+        assertEquals(0, models.get(1).age);
+
+        verify(resultSet, times(1)).getMetaData();
+        verify(resultSet, never()).findColumn(anyString());
+        verify(resultSet, never()).getObject(anyString());
+    }
+
+    @Test
+    void testColumnStrategyMapsByIndex() throws Exception {
+        when(resultSet.getInt(3)).thenReturn(25);
+
+        TestModel model = new TestModel();
+        FieldMetadata age = EntityMetadata.of(TestModel.class).getField("age");
+        age.getStrategy().mapField(resultSet, model, age, 3);
+
+        assertEquals(25, model.age);
+        verify(resultSet, never()).getObject(anyString());
+    }
+
     @Test
     void testGetFieldsOfModel() {
         List<Field> fields = ReflectionUtil.getFieldsOfModel(TestModel.class);
@@ -5,6 +5,9 @@ import org.junit.jupiter.api.Test;
 import org.zenith.annotation.Column;
 import org.zenith.annotation.Entity;
 import org.zenith.annotation.Id;
+import org.zenith.annotation.Index;
+import org.zenith.annotation.Unique;
+import org.zenith.annotation.relation.ManyToOne;
 import org.zenith.annotation.relation.OneToOne;
 import org.zenith.enumeration.ColumnType;
 import org.zenith.model.interfaces.IModel;
@@ -37,6 +40,36 @@ class SQLGeneratorTest {
         public TestModel1 parent;
     }
 
+    @Entity
+    @Index(fields = { "owner", "dueAt" })
+    @Unique(name = "task_open_title", fields = "title", where = "isDone = 0")
+    class Task implements IModel {
+        @Id
+        public int id;
+        @Unique
+        @Column(type = ColumnType.VARCHAR)
+        public String code;
+        @Column(type = ColumnType.VARCHAR)
+        public String title;
+        @Index
+        @Index(name = "task_open_due", where = "isDone = 0")
+        @Column(type = ColumnType.DATETIME)
+        public Date dueAt;
+        @Column(type = ColumnType.BOOLEAN)
+        public boolean isDone;
+        @ManyToOne
+        public TestModel1 owner;
+        @ManyToOne
+        public TestModel1 reviewer;
+    }
+
+    @Entity
+    @Index(fields = "missing")
+    class InvalidIndexModel implements IModel {
+        @Id
+        public int id;
+    }
+
     @Entity
     class EmptyModel implements IModel { }
 
@@ -46,7 +79,7 @@ class SQLGeneratorTest {
 
         List<String> result = SQLGenerator.generateCreateTable(classes);
 
-        String expected = "CREATE TABLE testmodel1 (id SERIAL PRIMARY KEY, name VARCHAR (64));";
+        String expected = "CREATE TABLE testmodel1 (id INTEGER PRIMARY KEY AUTOINCREMENT, name VARCHAR (64));";
 
         assertEquals(expected, result.getFirst());
     }
@@ -58,13 +91,35 @@ class SQLGeneratorTest {
         List<String> result = SQLGenerator.generateCreateTable(classes);
 
         List<String> expected = List.of(
-                "CREATE TABLE testmodel1 (id SERIAL PRIMARY KEY, name VARCHAR (64));",
-                "CREATE TABLE testmodel2 (id SERIAL PRIMARY KEY, age INTEGER, salary TEXT, isWorking INTEGER, parent_id INT, FOREIGN KEY (parent_id) REFERENCES testmodel1(id));"
+                "CREATE TABLE testmodel1 (id INTEGER PRIMARY KEY AUTOINCREMENT, name VARCHAR (64));",
+                "CREATE TABLE testmodel2 (id INTEGER PRIMARY KEY AUTOINCREMENT, age INTEGER, salary TEXT, isWorking INTEGER, parent_id INT, FOREIGN KEY (parent_id) REFERENCES testmodel1(id));",
+                "CREATE INDEX testmodel2_parent_id_idx ON testmodel2 (parent_id);"
         );
 
         assertEquals(expected, result);
     }
 
+    @Test
+    void shouldGenerateTheDeclaredAndRelationIndexes() {
+        List<String> result = SQLGenerator.generateCreateTable(List.of(Task.class));
+
+        List<String> expected = List.of(
+                "CREATE UNIQUE INDEX task_code_key ON task (code);",
+                "CREATE INDEX task_dueAt_idx ON task (dueAt);",
+                "CREATE INDEX task_open_due ON task (dueAt) WHERE isDone = 0;",
+                "CREATE INDEX task_owner_id_dueAt_idx ON task (owner_id, dueAt);",
+                "CREATE UNIQUE INDEX task_open_title ON task (title) WHERE isDone = 0;",
+                "CREATE INDEX task_reviewer_id_idx ON task (reviewer_id);"
+        );
+
+        assertEquals(expected, result.subList(1, result.size()));
+    }
+
+    @Test
+    void shouldThrowIllegalArgumentExceptionWhenAnIndexRefersToAMissingField() {
+        assertThrows(IllegalArgumentException.class, () -> SQLGenerator.generateCreateTable(List.of(InvalidIndexModel.class)));
+    }
+
     @Test
     void shouldThrowIllegalArgumentExceptionWhenGenerateCreateTableIsCalledWithAnEmptyModel() {
         List<Class<? extends IModel>> classes = List.of(EmptyModel.class);
@@ -85,11 +140,12 @@ class SQLGeneratorTest {
             model.id = 1;
             model.name = null;
 
-            List<String> result = SQLGenerator.generateInsert(model);
-            String expected = "INSERT INTO testmodel1 (id, name) VALUES (1, NULL) RETURNING *;";
+            List<SQLQuery> result = SQLGenerator.generateInsert(model);
+            String expected = "INSERT INTO testmodel1 (id, name) VALUES (?, ?) RETURNING *;";
 
             assertEquals(1, result.size());
-            assertEquals(expected, result.getFirst());
+            assertEquals(expected, result.getFirst().sql());
+            assertEquals(Arrays.asList(1, null), result.getFirst().parameters());
         }
 
         @Test
@@ -98,10 +154,11 @@ class SQLGeneratorTest {
             model.id = 1;
             model.name = null;
 
-            List<String> result = SQLGenerator.generateInsert(model);
-            String expected = "INSERT INTO testmodel1 (id, name) VALUES (1, NULL) RETURNING *;";
+            List<SQLQuery> result = SQLGenerator.generateInsert(model);
+            String expected = "INSERT INTO testmodel1 (id, name) VALUES (?, ?) RETURNING *;";
 
-            assertEquals(expected, result.getFirst());
+            assertEquals(expected, result.getFirst().sql());
+            assertEquals(Arrays.asList(1, null), result.getFirst().parameters());
         }
 
         @Test
@@ -110,10 +167,11 @@ class SQLGeneratorTest {
             model.id = 1;
             model.name = "Hello";
 
-            List<String> result = SQLGenerator.generateInsert(model);
-            String expected = "INSERT INTO testmodel1 (id, name) VALUES (1, 'Hello') RETURNING *;";
+            List<SQLQuery> result = SQLGenerator.generateInsert(model);
+            String expected = "INSERT INTO testmodel1 (id, name) VALUES (?, ?) RETURNING *;";
 
-            assertEquals(expected, result.getFirst());
+            assertEquals(expected, result.getFirst().sql());
+            assertEquals(List.of(1, "Hello"), result.getFirst().parameters());
         }
 
         @Test
@@ -122,20 +180,22 @@ class SQLGeneratorTest {
             model.id = 1;
             model.name = "";
 
-            List<String> result = SQLGenerator.generateInsert(model);
-            String expected = "INSERT INTO testmodel1 (id, name) VALUES (1, '') RETURNING *;";
+            List<SQLQuery> result = SQLGenerator.generateInsert(model);
+            String expected = "INSERT INTO testmodel1 (id, name) VALUES (?, ?) RETURNING *;";
 
-            assertEquals(expected, result.getFirst());
+            assertEquals(expected, result.getFirst().sql());
+            assertEquals(List.of(1, ""), result.getFirst().parameters());
         }
 
         @Test
         void shouldGenerateValidInsertForModelWIthAllNullFields() throws IllegalArgumentException, NoSuchFieldException, IllegalAccessException {
             TestModel1 model = new TestModel1();
 
-            List<String> result = SQLGenerator.generateInsert(model);
-            String expected = "INSERT INTO testmodel1 (name) VALUES (NULL) RETURNING *;";
+            List<SQLQuery> result = SQLGenerator.generateInsert(model);
+            String expected = "INSERT INTO testmodel1 (name) VALUES (?) RETURNING *;";
 
-            assertEquals(expected, result.getFirst());
+            assertEquals(expected, result.getFirst().sql());
+            assertEquals(Collections.singletonList(null), result.getFirst().parameters());
         }
 
         @Test
@@ -149,10 +209,11 @@ class SQLGeneratorTest {
             model2.salary = 10;
             model2.parent = model;
 
-            List<String> result = SQLGenerator.generateInsert(model2);
-            String expected = "INSERT INTO testmodel2 (age, salary, isWorking, parent_id) VALUES (10, '10.0', 0, 1) RETURNING *;";
+            List<SQLQuery> result = SQLGenerator.generateInsert(model2);
+            String expected = "INSERT INTO testmodel2 (age, salary, isWorking, parent_id) VALUES (?, ?, ?, ?) RETURNING *;";
 
-            assertEquals(expected, result.getFirst());
+            assertEquals(expected, result.getFirst().sql());
+            assertEquals(List.of(10, 10.0, 0, 1), result.getFirst().parameters());
         }
 
         @Test
@@ -161,10 +222,22 @@ class SQLGeneratorTest {
             model.age = 10;
             model.salary = 12.0;
 
-            List<String> result = SQLGenerator.generateInsert(model);
-            String expected = "INSERT INTO testmodel2 (age, salary, isWorking, parent_id) VALUES (10, '12.0', 0, NULL) RETURNING *;";
+            List<SQLQuery> result = SQLGenerator.generateInsert(model);
+            String expected = "INSERT INTO testmodel2 (age, salary, isWorking, parent_id) VALUES (?, ?, ?, ?) RETURNING *;";
+
+            assertEquals(expected, result.getFirst().sql());
+            assertEquals(Arrays.asList(10, 12.0, 0, null), result.getFirst().parameters());
+        }
+
+        @Test
+        void shouldBindValuesContainingQuotes() throws IllegalArgumentException, NoSuchFieldException, IllegalAccessException {
+            TestModel1 model = new TestModel1();
+            model.name = "It's done";
+
+            List<SQLQuery> result = SQLGenerator.generateInsert(model);
 
-            assertEquals(expected, result.getFirst());
+            assertEquals("INSERT INTO testmodel1 (name) VALUES (?) RETURNING *;", result.getFirst().sql());
+            assertEquals(List.of("It's done"), result.getFirst().parameters());
         }
 
         @Test
@@ -177,30 +250,32 @@ class SQLGeneratorTest {
     class GenerateSelect {
         @Test
         void shouldGenerateSelectAllColumnsWithoutFilters() throws NoSuchFieldException {
-            String result = SQLGenerator.generateSelect(TestModel1.class, null, null);
+            SQLQuery result = SQLGenerator.generateSelect(TestModel1.class, null, null);
             String expected = "SELECT * FROM testmodel1;";
 
-            assertEquals(expected, result);
+            assertEquals(expected, result.sql());
+            assertTrue(result.parameters().isEmpty());
         }
 
         @Test
         void shouldGenerateSelectSpecificColumnsWithoutFilters() throws NoSuchFieldException {
             List<String> fieldsToReturn = List.of("id", "name");
 
-            String result = SQLGenerator.generateSelect(TestModel1.class, fieldsToReturn, null);
+            SQLQuery result = SQLGenerator.generateSelect(TestModel1.class, fieldsToReturn, null);
             String expected = "SELECT id, name FROM testmodel1;";
 
-            assertEquals(expected, result);
+            assertEquals(expected, result.sql());
         }
 
         @Test
         void shouldGenerateSelectAllColumnsWithSingleFilter() throws NoSuchFieldException {
             Map<String, Object> fieldsToQuery = Map.of("id", 1);
 
-            String result = SQLGenerator.generateSelect(TestModel1.class, null, fieldsToQuery);
-            String expected = "SELECT * FROM testmodel1 WHERE id=1;";
+            SQLQuery result = SQLGenerator.generateSelect(TestModel1.class, null, fieldsToQuery);
+            String expected = "SELECT * FROM testmodel1 WHERE id=?;";
 
-            assertEquals(expected, result);
+            assertEquals(expected, result.sql());
+            assertEquals(List.of(1), result.parameters());
         }
 
         @Test
@@ -210,10 +285,11 @@ class SQLGeneratorTest {
             fieldsToQuery.put("id", 1);
             fieldsToQuery.put("name", "hello");
 
-            String result = SQLGenerator.generateSelect(TestModel1.class, fieldsToReturn, fieldsToQuery);
-            String expected = "SELECT id, name FROM testmodel1 WHERE id=1 AND name='hello';";
+            SQLQuery result = SQLGenerator.generateSelect(TestModel1.class, fieldsToReturn, fieldsToQuery);
+            String expected = "SELECT id, name FROM testmodel1 WHERE id=? AND name=?;";
 
-            assertEquals(expected, result);
+            assertEquals(expected, result.sql());
+            assertEquals(List.of(1, "hello"), result.parameters());
         }
 
         @Test
@@ -222,18 +298,19 @@ class SQLGeneratorTest {
             fieldsToQuery.put("name", null);
             fieldsToQuery.put("id", 1);
 
-            String result = SQLGenerator.generateSelect(TestModel1.class, null, fieldsToQuery);
-            String expected = "SELECT * FROM testmodel1 WHERE name='null' AND id=1;";
+            SQLQuery result = SQLGenerator.generateSelect(TestModel1.class, null, fieldsToQuery);
+            String expected = "SELECT * FROM testmodel1 WHERE name IS NULL AND id=?;";
 
-            assertEquals(expected, result);
+            assertEquals(expected, result.sql());
+            assertEquals(List.of(1), result.parameters());
         }
 
         @Test
         void shouldGenerateSelectAllColumnsWithNoFilters() throws NoSuchFieldException {
-            String result = SQLGenerator.generateSelect(TestModel1.class, null, new HashMap<>());
+            SQLQuery result = SQLGenerator.generateSelect(TestModel1.class, null, new HashMap<>());
             String expected = "SELECT * FROM testmodel1;";
 
-            assertEquals(expected, result);
+            assertEquals(expected, result.sql());
         }
 
         @Test
@@ -252,10 +329,11 @@ class SQLGeneratorTest {
             model.id = 1;
             model.name = "UpdatedName";
 
-            String result = SQLGenerator.generateUpdate(model);
-            String expected = "UPDATE testmodel1 SET name='UpdatedName' WHERE id=1 RETURNING *;";
+            SQLQuery result = SQLGenerator.generateUpdate(model);
+            String expected = "UPDATE testmodel1 SET name=? WHERE id=? RETURNING *;";
 
-            assertEquals(expected, result);
+            assertEquals(expected, result.sql());
+            assertEquals(List.of("UpdatedName", 1L), result.parameters());
         }
 
         @Test
@@ -264,10 +342,11 @@ class SQLGeneratorTest {
             model.id = 2;
             model.name = null;
 
-            String result = SQLGenerator.generateUpdate(model);
-            String expected = "UPDATE testmodel1 SET name='null' WHERE id=2 RETURNING *;";
+            SQLQuery result = SQLGenerator.generateUpdate(model);
+            String expected = "UPDATE testmodel1 SET name=? WHERE id=? RETURNING *;";
 
-            assertEquals(expected, result);
+            assertEquals(expected, result.sql());
+            assertEquals(Arrays.asList(null, 2L), result.parameters());
         }
 
         @Test
@@ -282,10 +361,11 @@ class SQLGeneratorTest {
             model2.parent = model1;
             model2.isWorking = true;
 
-            String result = SQLGenerator.generateUpdate(model2);
-            String expected = "UPDATE testmodel2 SET age=10, salary='0.0', isWorking=true, parent_id=1 WHERE id=1 RETURNING *;";
+            SQLQuery result = SQLGenerator.generateUpdate(model2);
+            String expected = "UPDATE testmodel2 SET age=?, salary=?, isWorking=?, parent_id=? WHERE id=? RETURNING *;";
 
-            assertEquals(expected, result);
+            assertEquals(expected, result.sql());
+            assertEquals(List.of(10, 0.0, 1, 1, 1L), result.parameters());
         }
 
         @Test
@@ -302,10 +382,11 @@ class SQLGeneratorTest {
             TestModel1 model = new TestModel1();
             model.id = 1;
 
-            List<String> result = SQLGenerator.generateDelete(model);
-            String expected = "DELETE FROM testmodel1 WHERE id=1 RETURNING *;";
+            List<SQLQuery> result = SQLGenerator.generateDelete(model);
+            String expected = "DELETE FROM testmodel1 WHERE id=? RETURNING *;";
 
-            assertEquals(expected, result.getFirst());
+            assertEquals(expected, result.getFirst().sql());
+            assertEquals(List.of(1L), result.getFirst().parameters());
         }
     }
 }
\ No newline at end of file
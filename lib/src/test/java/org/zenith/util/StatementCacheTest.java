@@ -0,0 +1,76 @@
+package org.zenith.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCacheTest {
+    private Connection connection;
+    private StatementCache cache;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+        cache = new StatementCache(connection, 2);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        cache.clear();
+        connection.close();
+    }
+
+    @Test
+    void shouldReuseIdleStatements() throws SQLException {
+        PreparedStatement first = cache.acquire("SELECT 1");
+        cache.release("SELECT 1", first, null);
+        PreparedStatement second = cache.acquire("SELECT 1");
+
+        assertSame(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void shouldEvictTheLeastRecentlyUsedStatement() throws SQLException {
+        PreparedStatement first = cache.acquire("SELECT 1");
+        cache.release("SELECT 1", first, null);
+        cache.release("SELECT 2", cache.acquire("SELECT 2"), null);
+        cache.release("SELECT 1", cache.acquire("SELECT 1"), null);
+        cache.release("SELECT 3", cache.acquire("SELECT 3"), null);
+
+        assertEquals(2, cache.size());
+        assertFalse(first.isClosed());
+        assertSame(first, cache.acquire("SELECT 1"));
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    void shouldNotReuseAStatementWhoseResultSetIsOpen() throws SQLException {
+        PreparedStatement outer = cache.acquire("SELECT 1");
+        ResultSet outerResult = outer.executeQuery();
+        cache.release("SELECT 1", outer, outerResult);
+
+        PreparedStatement inner = cache.acquire("SELECT 1");
+        ResultSet innerResult = inner.executeQuery();
+        cache.release("SELECT 1", inner, innerResult);
+
+        assertNotSame(outer, inner);
+        assertTrue(outerResult.next());
+        assertEquals(1, outerResult.getInt(1));
+
+        innerResult.close();
+        assertTrue(inner.isClosed());
+
+        outerResult.close();
+        assertSame(outer, cache.acquire("SELECT 1"));
+    }
+}
@@ -0,0 +1,49 @@
+package org.zenith.util.benchmark;
+
+import java.util.function.IntToLongFunction;
+
+/**
+ * A minimal timing harness for the benchmarks in this package.
+ * The benchmarks are plain {@code main} classes so they are not picked up by the test run, run them with e.g.
+ * {@code java -cp lib/target/classes:lib/target/test-classes:<sqlite-jdbc.jar> org.zenith.util.benchmark.FieldAccessorBenchmark}
+ */
+final class Benchmark {
+    private static long sink;
+
+    private Benchmark() {
+        throw new UnsupportedOperationException("This is an utility class and cannot be instantiated");
+    }
+
+    /**
+     * Runs the operation for a number of warmup rounds and then reports the average time per operation
+     *
+     * @param label The name printed in front of the result
+     * @param operations The number of operations each round performs
+     * @param rounds The number of measured rounds
+     * @param round A single round, receiving the round number and returning a value that is kept alive
+     * @return The average number of nanoseconds per operation
+     */
+    static double run(String label, int operations, int rounds, IntToLongFunction round) {
+        for (int i = 0; i < Math.max(5, rounds / 2); i++) {
+            sink += round.applyAsLong(i);
+        }
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < rounds; i++) {
+            sink += round.applyAsLong(i);
+        }
+
+        double nanosPerOperation = (double) (System.nanoTime() - start) / ((long) rounds * operations);
+        System.out.printf("%-40s %10.2f ns/op%n", label, nanosPerOperation);
+
+        return nanosPerOperation;
+    }
+
+    /**
+     * @return A value derived from every round, printed so the JIT cannot drop the measured work
+     */
+    static long sink() {
+        return sink;
+    }
+}
@@ -0,0 +1,85 @@
+package org.zenith.util.benchmark;
+
+import org.zenith.annotation.Column;
+import org.zenith.annotation.Entity;
+import org.zenith.annotation.Id;
+import org.zenith.enumeration.ColumnType;
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.metadata.EntityMetadata;
+import org.zenith.util.metadata.FieldAccessor;
+
+import java.lang.reflect.Field;
+
+/**
+ * Compares reading and writing an {@code int} and a {@code boolean} field through {@link java.lang.reflect.Field}
+ * with the method handle based {@link FieldAccessor}.
+ */
+public class FieldAccessorBenchmark {
+    private static final int OPERATIONS = 1_000_000;
+    private static final int ROUNDS = 50;
+
+    @Entity
+    public static class BenchmarkModel implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.BOOLEAN)
+        public boolean isCompleted;
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkModel[] models = new BenchmarkModel[1024];
+        for (int i = 0; i < models.length; i++) {
+            models[i] = new BenchmarkModel();
+        }
+
+        Field idField = BenchmarkModel.class.getDeclaredField("id");
+        Field completedField = BenchmarkModel.class.getDeclaredField("isCompleted");
+        FieldAccessor idAccessor = EntityMetadata.of(BenchmarkModel.class).getField("id").getAccessor();
+        FieldAccessor completedAccessor = EntityMetadata.of(BenchmarkModel.class).getField("isCompleted").getAccessor();
+
+        Benchmark.run("Field.set + Field.get", OPERATIONS, ROUNDS, round -> {
+            long sum = 0;
+
+            try {
+                for (int i = 0; i < OPERATIONS; i++) {
+                    BenchmarkModel model = models[i & 1023];
+                    idField.set(model, i);
+                    completedField.set(model, (i & 1) == 0);
+                    sum += (int) idField.get(model) + ((boolean) completedField.get(model) ? 1 : 0);
+                }
+            } catch (IllegalAccessException ex) {
+                throw new IllegalStateException(ex);
+            }
+
+            return sum;
+        });
+
+        Benchmark.run("FieldAccessor (boxed set + get)", OPERATIONS, ROUNDS, round -> {
+            long sum = 0;
+
+            for (int i = 0; i < OPERATIONS; i++) {
+                BenchmarkModel model = models[i & 1023];
+                idAccessor.set(model, i);
+                completedAccessor.set(model, (i & 1) == 0);
+                sum += (int) idAccessor.get(model) + ((boolean) completedAccessor.get(model) ? 1 : 0);
+            }
+
+            return sum;
+        });
+
+        Benchmark.run("FieldAccessor (primitive set + get)", OPERATIONS, ROUNDS, round -> {
+            long sum = 0;
+
+            for (int i = 0; i < OPERATIONS; i++) {
+                BenchmarkModel model = models[i & 1023];
+                idAccessor.setInt(model, i);
+                completedAccessor.setBoolean(model, (i & 1) == 0);
+                sum += idAccessor.getInt(model) + (completedAccessor.getBoolean(model) ? 1 : 0);
+            }
+
+            return sum;
+        });
+
+        System.out.println("sink: " + Benchmark.sink());
+    }
+}
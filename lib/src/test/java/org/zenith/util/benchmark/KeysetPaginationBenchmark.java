@@ -0,0 +1,94 @@
+package org.zenith.util.benchmark;
+
+import org.zenith.annotation.Column;
+import org.zenith.annotation.Entity;
+import org.zenith.annotation.Id;
+import org.zenith.enumeration.ColumnType;
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.EntityManager;
+import org.zenith.util.Page;
+import org.zenith.util.SQLGenerator;
+import org.zenith.util.SQLiteDatabase;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares reading a page of 50 rows of a table with a million rows through {@code LIMIT ? OFFSET ?} with keyset
+ * pagination through {@link EntityManager#page}, both on the first page and on a page near the end of the table.
+ * The table has an index on the sort column and the id, as keyset pagination requires.
+ */
+public class KeysetPaginationBenchmark {
+    private static final int ROWS = 1_000_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int DEEP_OFFSET = 900_000;
+    private static final int OPERATIONS = 20;
+    private static final int ROUNDS = 10;
+
+    @Entity
+    public static class BenchmarkModel implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.VARCHAR)
+        public String title;
+        @Column(type = ColumnType.INTEGER)
+        public int priority;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        SQLiteDatabase db = SQLiteDatabase.getInstance();
+        EntityManager entityManager = new EntityManager(db);
+
+        db.executeQueryWithoutResult(SQLGenerator.generateCreateTable(List.of(BenchmarkModel.class)).getFirst());
+        db.executeQueryWithoutResult("CREATE INDEX benchmarkmodel_priority_id ON benchmarkmodel (priority, id);");
+
+        List<BenchmarkModel> models = new ArrayList<>(ROWS);
+
+        for (int i = 0; i < ROWS; i++) {
+            BenchmarkModel model = new BenchmarkModel();
+            model.title = "Row " + i;
+            model.priority = i % 1000;
+            models.add(model);
+        }
+
+        if (!entityManager.saveAll(models))
+            throw new IllegalStateException("Could not insert the rows");
+
+        models = null;
+
+        // The key of the last row before the deep page, as the previous page would have returned it
+        BenchmarkModel beforeDeepPage = entityManager.from(BenchmarkModel.class)
+                .orderBy("priority").orderBy("id").limit(1).offset(DEEP_OFFSET - 1).first();
+        Page.Key deepKey = new Page.Key(beforeDeepPage.priority, beforeDeepPage.id);
+
+        for (int offset : new int[] { 0, DEEP_OFFSET }) {
+            Benchmark.run("OFFSET " + offset, OPERATIONS, ROUNDS, round -> {
+                long sum = 0;
+
+                for (int i = 0; i < OPERATIONS; i++) {
+                    sum += entityManager.from(BenchmarkModel.class)
+                            .orderBy("priority").orderBy("id")
+                            .limit(PAGE_SIZE).offset(offset)
+                            .list().getFirst().id;
+                }
+
+                return sum;
+            });
+        }
+
+        for (Page.Key key : new Page.Key[] { null, deepKey }) {
+            Benchmark.run("Keyset " + (key == null ? "first page" : "after row " + DEEP_OFFSET), OPERATIONS, ROUNDS, round -> {
+                long sum = 0;
+
+                for (int i = 0; i < OPERATIONS; i++) {
+                    sum += entityManager.page(BenchmarkModel.class, "priority", key, PAGE_SIZE).items().getFirst().id;
+                }
+
+                return sum;
+            });
+        }
+
+        System.out.println("sink: " + Benchmark.sink());
+    }
+}
@@ -0,0 +1,135 @@
+package org.zenith.util.benchmark;
+
+import org.zenith.annotation.Column;
+import org.zenith.annotation.Entity;
+import org.zenith.annotation.Id;
+import org.zenith.annotation.relation.ManyToOne;
+import org.zenith.enumeration.ColumnType;
+import org.zenith.enumeration.FetchType;
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.EntityManager;
+import org.zenith.util.SQLGenerator;
+import org.zenith.util.SQLiteDatabase;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares loading 10k children with their parent through {@link EntityManager#list(Class)}, which joins the parent
+ * into the same query with {@link FetchType#JOIN}, with a batched IN query with {@link FetchType#SELECT} and with a
+ * query for the parent of every child.
+ */
+public class ManyToOneBenchmark {
+    private static final int PARENTS = 1_000;
+    private static final int CHILDREN = 10_000;
+    private static final int ROUNDS = 10;
+
+    @Entity
+    public static class Parent implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.VARCHAR)
+        public String title;
+    }
+
+    @Entity
+    public static class JoinedChild implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.VARCHAR)
+        public String title;
+        @ManyToOne
+        public Parent parent;
+    }
+
+    @Entity
+    public static class SelectedChild implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.VARCHAR)
+        public String title;
+        @ManyToOne(fetch = FetchType.SELECT)
+        public Parent parent;
+    }
+
+    @Entity
+    public static class LazyChild implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.VARCHAR)
+        public String title;
+        @ManyToOne(fetch = FetchType.LAZY)
+        public Parent parent;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        SQLiteDatabase db = SQLiteDatabase.getInstance();
+        EntityManager entityManager = new EntityManager(db);
+
+        for (String query : SQLGenerator.generateCreateTable(List.of(Parent.class, JoinedChild.class, SelectedChild.class, LazyChild.class))) {
+            db.executeQueryWithoutResult(query);
+        }
+
+        List<Parent> parents = new ArrayList<>(PARENTS);
+
+        for (int i = 0; i < PARENTS; i++) {
+            Parent parent = new Parent();
+            parent.title = "Parent " + i;
+            parents.add(parent);
+        }
+
+        if (!entityManager.saveAll(parents))
+            throw new IllegalStateException("Could not insert the parents");
+
+        List<JoinedChild> joined = new ArrayList<>(CHILDREN);
+        List<SelectedChild> selected = new ArrayList<>(CHILDREN);
+        List<LazyChild> lazy = new ArrayList<>(CHILDREN);
+
+        for (int i = 0; i < CHILDREN; i++) {
+            JoinedChild joinedChild = new JoinedChild();
+            joinedChild.title = "Child " + i;
+            joinedChild.parent = parents.get(i % PARENTS);
+            joined.add(joinedChild);
+
+            SelectedChild selectedChild = new SelectedChild();
+            selectedChild.title = "Child " + i;
+            selectedChild.parent = parents.get(i % PARENTS);
+            selected.add(selectedChild);
+
+            LazyChild lazyChild = new LazyChild();
+            lazyChild.title = "Child " + i;
+            lazyChild.parent = parents.get(i % PARENTS);
+            lazy.add(lazyChild);
+        }
+
+        if (!entityManager.saveAll(joined) || !entityManager.saveAll(selected) || !entityManager.saveAll(lazy))
+            throw new IllegalStateException("Could not insert the children");
+
+        Benchmark.run("list (LEFT JOIN)", CHILDREN, ROUNDS, round -> {
+            long executed = db.getStatementCacheHits() + db.getStatementCacheMisses();
+            long sum = entityManager.list(JoinedChild.class).stream().mapToLong(child -> child.parent.title.length()).sum();
+
+            return sum + db.getStatementCacheHits() + db.getStatementCacheMisses() - executed;
+        });
+
+        Benchmark.run("list (batched IN queries)", CHILDREN, ROUNDS, round -> {
+            long executed = db.getStatementCacheHits() + db.getStatementCacheMisses();
+            long sum = entityManager.list(SelectedChild.class).stream().mapToLong(child -> child.parent.title.length()).sum();
+
+            return sum + db.getStatementCacheHits() + db.getStatementCacheMisses() - executed;
+        });
+
+        Benchmark.run("list (lazy) + query per child", CHILDREN, ROUNDS, round -> {
+            long sum = 0;
+
+            for (LazyChild child : entityManager.list(LazyChild.class)) {
+                sum += entityManager.from(Parent.class).where("id").eq(child.parent.id).first().title.length();
+            }
+
+            return sum;
+        });
+
+        System.out.println("sink: " + Benchmark.sink());
+    }
+}
@@ -0,0 +1,98 @@
+package org.zenith.util.benchmark;
+
+import org.zenith.annotation.Column;
+import org.zenith.annotation.Entity;
+import org.zenith.annotation.Id;
+import org.zenith.annotation.relation.ManyToOne;
+import org.zenith.annotation.relation.OneToMany;
+import org.zenith.enumeration.ColumnType;
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.EntityManager;
+import org.zenith.util.SQLGenerator;
+import org.zenith.util.SQLiteDatabase;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares loading 10k parents with three children each through {@link EntityManager#list(Class)}, which loads the
+ * children of all parents with chunked IN queries, with a query for the children of every parent.
+ */
+public class OneToManyBenchmark {
+    private static final int PARENTS = 10_000;
+    private static final int CHILDREN_PER_PARENT = 3;
+    private static final int ROUNDS = 10;
+
+    @Entity
+    public static class Parent implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.VARCHAR)
+        public String title;
+        @OneToMany
+        public List<Child> children;
+    }
+
+    @Entity
+    public static class Child implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.VARCHAR)
+        public String title;
+        @ManyToOne
+        public Parent parent;
+    }
+
+    public static void main(String[] args) throws SQLException {
+        SQLiteDatabase db = SQLiteDatabase.getInstance();
+        EntityManager entityManager = new EntityManager(db);
+
+        for (String query : SQLGenerator.generateCreateTable(List.of(Parent.class, Child.class))) {
+            db.executeQueryWithoutResult(query);
+        }
+
+        List<Parent> parents = new ArrayList<>(PARENTS);
+        List<Child> children = new ArrayList<>(PARENTS * CHILDREN_PER_PARENT);
+
+        for (int i = 0; i < PARENTS; i++) {
+            Parent parent = new Parent();
+            parent.title = "Parent " + i;
+            parents.add(parent);
+        }
+
+        if (!entityManager.saveAll(parents))
+            throw new IllegalStateException("Could not insert the parents");
+
+        for (Parent parent : parents) {
+            for (int i = 0; i < CHILDREN_PER_PARENT; i++) {
+                Child child = new Child();
+                child.title = "Child " + i;
+                child.parent = parent;
+                children.add(child);
+            }
+        }
+
+        if (!entityManager.saveAll(children))
+            throw new IllegalStateException("Could not insert the children");
+
+        Benchmark.run("list (batched IN queries)", PARENTS, ROUNDS, round -> {
+            long executed = db.getStatementCacheHits() + db.getStatementCacheMisses();
+            long sum = entityManager.list(Parent.class).stream().mapToLong(parent -> parent.children.size()).sum();
+
+            return sum + db.getStatementCacheHits() + db.getStatementCacheMisses() - executed;
+        });
+
+        Benchmark.run("Query per parent", PARENTS, ROUNDS, round -> {
+            long sum = 0;
+
+            for (Parent parent : parents) {
+                sum += entityManager.from(Child.class).where("parent").eq(parent).list().size();
+            }
+
+            return sum;
+        });
+
+        System.out.println("sink: " + Benchmark.sink());
+    }
+}
@@ -0,0 +1,93 @@
+package org.zenith.util.benchmark;
+
+import org.zenith.annotation.Column;
+import org.zenith.annotation.Entity;
+import org.zenith.annotation.Id;
+import org.zenith.enumeration.ColumnType;
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.mapper.EntityMapper;
+import org.zenith.util.mapper.HiddenClassEntityMapper;
+import org.zenith.util.mapper.MapperSupport;
+import org.zenith.util.metadata.EntityMetadata;
+import org.zenith.util.metadata.FieldMetadata;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Compares mapping a result set row through the reflective {@link org.zenith.util.strategies.reflection.FieldMappingStrategy}
+ * path with the runtime generated {@link HiddenClassEntityMapper}.
+ * Every operation maps the same row, so the numbers contain the mapping cost and not the cost of stepping through SQLite.
+ */
+public class RowMapperBenchmark {
+    private static final int OPERATIONS = 100_000;
+    private static final int ROUNDS = 30;
+
+    @Entity
+    public static class BenchmarkModel implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.TEXT)
+        public String title;
+        @Column(type = ColumnType.INTEGER)
+        public int priority;
+        @Column(type = ColumnType.BOOLEAN)
+        public boolean isCompleted;
+    }
+
+    public static void main(String[] args) throws Exception {
+        EntityMetadata<BenchmarkModel> metadata = EntityMetadata.of(BenchmarkModel.class);
+        EntityMapper<BenchmarkModel> mapper = HiddenClassEntityMapper.create(BenchmarkModel.class);
+
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE benchmarkmodel (id INTEGER PRIMARY KEY, title TEXT, priority INTEGER, isCompleted BOOLEAN)");
+            statement.execute("INSERT INTO benchmarkmodel VALUES (1, 'Benchmark', 3, 1)");
+
+            try (ResultSet resultSet = statement.executeQuery("SELECT * FROM benchmarkmodel")) {
+                resultSet.next();
+                int[] columnIndexes = MapperSupport.resolveColumnIndexes(resultSet, mapper.getColumnNames());
+
+                Benchmark.run("Reflective strategies", OPERATIONS, ROUNDS, round -> {
+                    long sum = 0;
+
+                    try {
+                        for (int i = 0; i < OPERATIONS; i++) {
+                            BenchmarkModel model = metadata.newInstance();
+
+                            for (FieldMetadata field : metadata.getFields()) {
+                                field.getStrategy().mapField(resultSet, model, field);
+                            }
+
+                            sum += model.id + model.priority;
+                        }
+                    } catch (Exception ex) {
+                        throw new IllegalStateException(ex);
+                    }
+
+                    return sum;
+                });
+
+                Benchmark.run("Hidden class mapper", OPERATIONS, ROUNDS, round -> {
+                    long sum = 0;
+
+                    try {
+                        for (int i = 0; i < OPERATIONS; i++) {
+                            BenchmarkModel model = mapper.newInstance();
+                            mapper.map(resultSet, columnIndexes, model);
+                            sum += model.id + model.priority;
+                        }
+                    } catch (Exception ex) {
+                        throw new IllegalStateException(ex);
+                    }
+
+                    return sum;
+                });
+            }
+        }
+
+        System.out.println("sink: " + Benchmark.sink());
+    }
+}
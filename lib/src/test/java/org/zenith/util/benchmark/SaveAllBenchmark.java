@@ -0,0 +1,78 @@
+package org.zenith.util.benchmark;
+
+import org.zenith.annotation.Column;
+import org.zenith.annotation.Entity;
+import org.zenith.annotation.Id;
+import org.zenith.enumeration.ColumnType;
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.EntityManager;
+import org.zenith.util.SQLGenerator;
+import org.zenith.util.SQLiteDatabase;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares inserting 100k rows with a {@link EntityManager#save(IModel)} call per row, each in its own implicit
+ * transaction, with a single batched {@link EntityManager#saveAll(java.util.Collection)}.
+ */
+public class SaveAllBenchmark {
+    private static final int ROWS = 100_000;
+    private static final int ROUNDS = 5;
+
+    @Entity
+    public static class BenchmarkModel implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.VARCHAR)
+        public String title;
+        @Column(type = ColumnType.INTEGER)
+        public int priority;
+        @Column(type = ColumnType.BOOLEAN)
+        public boolean isCompleted;
+    }
+
+    public static void main(String[] args) {
+        SQLiteDatabase db = SQLiteDatabase.getInstance();
+        EntityManager entityManager = new EntityManager(db);
+
+        Benchmark.run("save (one statement per row)", ROWS, ROUNDS, round -> {
+            long sum = 0;
+
+            for (BenchmarkModel model : prepare(db)) {
+                sum += entityManager.save(model) ? 1 : 0;
+            }
+
+            return sum;
+        });
+
+        Benchmark.run("saveAll (batched, one transaction)", ROWS, ROUNDS, round -> {
+            List<BenchmarkModel> models = prepare(db);
+            return entityManager.saveAll(models) ? models.getLast().id : 0;
+        });
+
+        System.out.println("sink: " + Benchmark.sink());
+    }
+
+    private static List<BenchmarkModel> prepare(SQLiteDatabase db) {
+        List<BenchmarkModel> models = new ArrayList<>(ROWS);
+
+        try {
+            db.reinitializeConnection();
+            db.executeQueryWithoutResult(SQLGenerator.generateCreateTable(List.of(BenchmarkModel.class)).getFirst());
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        for (int i = 0; i < ROWS; i++) {
+            BenchmarkModel model = new BenchmarkModel();
+            model.title = "Row " + i;
+            model.priority = i % 5;
+            model.isCompleted = (i & 1) == 0;
+            models.add(model);
+        }
+
+        return models;
+    }
+}
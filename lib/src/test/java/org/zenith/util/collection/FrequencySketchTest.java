@@ -0,0 +1,52 @@
+package org.zenith.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrequencySketchTest {
+    @Test
+    void shouldEstimateTheFrequencyOfAKey() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+
+        for (int i = 0; i < 5; i++) {
+            sketch.increment(42);
+        }
+
+        sketch.increment(7);
+
+        assertEquals(5, sketch.frequency(42));
+        assertEquals(1, sketch.frequency(7));
+        assertEquals(0, sketch.frequency(8));
+    }
+
+    @Test
+    void shouldSaturateAtFifteen() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+
+        for (int i = 0; i < 100; i++) {
+            sketch.increment(1);
+        }
+
+        assertEquals(15, sketch.frequency(1));
+    }
+
+    @Test
+    void shouldHalveTheCountersPeriodically() {
+        FrequencySketch sketch = new FrequencySketch(16);
+
+        for (int i = 0; i < 15; i++) {
+            sketch.increment(-1);
+        }
+
+        // Ten times the expected size of additions halves every counter
+        int additions = 15;
+
+        while (sketch.frequency(-1) == 15 && additions < 1000) {
+            sketch.increment(additions++);
+        }
+
+        assertTrue(additions <= 160);
+        assertTrue(sketch.frequency(-1) <= 8);
+    }
+}
@@ -0,0 +1,69 @@
+package org.zenith.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyListTest {
+    @Test
+    void shouldLoadTheElementsOnFirstAccess() {
+        AtomicInteger loads = new AtomicInteger();
+        List<LazyList<String>> lists = new ArrayList<>();
+
+        for (int i = 0; i < 2; i++) {
+            lists.add(new LazyList<>(() -> {
+                loads.incrementAndGet();
+                lists.get(0).setElements(new ArrayList<>(List.of("a", "b")));
+                lists.get(1).setElements(new ArrayList<>(List.of("c")));
+            }));
+        }
+
+        assertFalse(lists.get(0).isInitialized());
+        assertEquals(0, loads.get());
+
+        assertEquals(List.of("a", "b"), lists.get(0));
+        assertTrue(lists.get(1).isInitialized());
+        assertEquals("c", lists.get(1).getFirst());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldWriteThroughToTheElements() {
+        List<String> elements = new ArrayList<>();
+        LazyList<String> list = new LazyList<>(() -> { });
+        list.setElements(elements);
+
+        list.add("a");
+        list.add("b");
+        list.set(1, "c");
+        list.remove("a");
+
+        assertEquals(List.of("c"), elements);
+    }
+
+    @Test
+    void shouldRetryAfterAFailedLoad() {
+        AtomicInteger loads = new AtomicInteger();
+        List<LazyList<String>> holder = new ArrayList<>();
+
+        holder.add(new LazyList<>(() -> {
+            if (loads.incrementAndGet() == 1)
+                throw new IllegalStateException("Connection lost");
+
+            holder.getFirst().setElements(new ArrayList<>(List.of("a")));
+        }));
+
+        assertThrows(IllegalStateException.class, () -> holder.getFirst().size());
+        assertFalse(holder.getFirst().isInitialized());
+        assertEquals(1, holder.getFirst().size());
+    }
+
+    @Test
+    void shouldFailWhenTheLoaderDoesNotSetTheElements() {
+        assertThrows(IllegalStateException.class, () -> new LazyList<String>(() -> { }).isEmpty());
+    }
+}
@@ -0,0 +1,60 @@
+package org.zenith.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongObjectMapTest {
+    @Test
+    void shouldStoreAndReplaceValues() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+
+        assertNull(map.put(1, "one"));
+        assertNull(map.put(-1, "minus one"));
+        assertNull(map.put(Long.MAX_VALUE, "max"));
+        assertEquals("one", map.put(1, "uno"));
+
+        assertEquals("uno", map.get(1));
+        assertEquals("minus one", map.get(-1));
+        assertEquals("max", map.get(Long.MAX_VALUE));
+        assertNull(map.get(2));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void shouldRejectNullValues() {
+        assertThrows(NullPointerException.class, () -> new LongObjectMap<String>().put(1, null));
+    }
+
+    @Test
+    void shouldBehaveLikeAHashMapUnderRandomOperations() {
+        LongObjectMap<Long> map = new LongObjectMap<>(4);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            // A small key range causes long clusters of colliding keys and many removals inside them
+            long key = random.nextInt(2_000) * 1024L;
+
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+
+        for (long key = 0; key < 2_000 * 1024L; key += 1024) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(0));
+    }
+}
@@ -0,0 +1,154 @@
+package org.zenith.util.converter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zenith.annotation.Column;
+import org.zenith.annotation.Entity;
+import org.zenith.annotation.Id;
+import org.zenith.enumeration.ColumnType;
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.ReflectionUtil;
+import org.zenith.util.SQLGenerator;
+import org.zenith.util.SQLQuery;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConverterRegistryTest {
+    @Entity
+    static class Event implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.DATETIME)
+        public Instant startsAt;
+        @Column(type = ColumnType.DATETIME)
+        public LocalDateTime endsAt;
+        @Column(type = ColumnType.DATETIME)
+        public Date createdAt;
+    }
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+
+        try (Statement statement = connection.createStatement()) {
+            for (String query : SQLGenerator.generateCreateTable(List.of(Event.class))) {
+                statement.execute(query);
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void shouldFindBuiltInConverters() {
+        assertEquals(Date.class, ConverterRegistry.find(ColumnType.DATETIME, Date.class).getJavaType());
+        assertEquals(Instant.class, ConverterRegistry.find(ColumnType.DATETIME, Instant.class).getJavaType());
+        assertEquals(LocalDateTime.class, ConverterRegistry.find(null, LocalDateTime.class).getJavaType());
+        assertNull(ConverterRegistry.find(ColumnType.TEXT, UUID.class));
+        assertThrows(IllegalStateException.class, () -> ConverterRegistry.get(ColumnType.TEXT, UUID.class));
+    }
+
+    @Test
+    void shouldPreferTheConverterOfTheColumnType() {
+        ColumnConverter<UUID> textConverter = new UuidConverter();
+        ColumnConverter<UUID> anyConverter = new UuidConverter();
+
+        ConverterRegistry.register(anyConverter);
+        ConverterRegistry.register(ColumnType.TEXT, textConverter);
+
+        assertSame(textConverter, ConverterRegistry.find(ColumnType.TEXT, UUID.class));
+        assertSame(anyConverter, ConverterRegistry.find(ColumnType.VARCHAR, UUID.class));
+    }
+
+    @Test
+    void shouldStoreDatetimesAsEpochMillis() throws Exception {
+        Event event = new Event();
+        event.startsAt = Instant.ofEpochMilli(1_714_559_400_123L);
+        event.endsAt = LocalDateTime.of(2024, 5, 1, 12, 30);
+        event.createdAt = new Date(1_000L);
+
+        try (Statement statement = connection.createStatement()) {
+            insert(event);
+
+            try (ResultSet resultSet = statement.executeQuery("SELECT typeof(startsAt), startsAt, endsAt, createdAt FROM event")) {
+                assertTrue(resultSet.next());
+                assertEquals("integer", resultSet.getString(1));
+                assertEquals(1_714_559_400_123L, resultSet.getLong(2));
+                assertEquals(1_714_566_600_000L, resultSet.getLong(3));
+                assertEquals(1_000L, resultSet.getLong(4));
+            }
+
+            try (ResultSet resultSet = statement.executeQuery("SELECT * FROM event WHERE startsAt > 1714559400000")) {
+                List<Event> events = ReflectionUtil.mapToModels(resultSet, Event.class);
+
+                assertEquals(1, events.size());
+                assertEquals(event.startsAt, events.getFirst().startsAt);
+                assertEquals(event.endsAt, events.getFirst().endsAt);
+                assertEquals(event.createdAt, events.getFirst().createdAt);
+            }
+        }
+    }
+
+    @Test
+    void shouldReadNullDatetimes() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            insert(new Event());
+
+            try (ResultSet resultSet = statement.executeQuery("SELECT * FROM event")) {
+                Event event = ReflectionUtil.mapToModels(resultSet, Event.class).getFirst();
+
+                assertNull(event.startsAt);
+                assertNull(event.endsAt);
+                assertNull(event.createdAt);
+            }
+        }
+    }
+
+    private static class UuidConverter implements ColumnConverter<UUID> {
+        @Override
+        public Class<UUID> getJavaType() {
+            return UUID.class;
+        }
+
+        @Override
+        public UUID read(ResultSet resultSet, int columnIndex) throws SQLException {
+            String value = resultSet.getString(columnIndex);
+            return value == null ? null : UUID.fromString(value);
+        }
+
+        @Override
+        public Object toDatabase(UUID value) {
+            return value.toString();
+        }
+    }
+
+    private void insert(IModel model) throws Exception {
+        SQLQuery query = SQLGenerator.generateInsert(model).getFirst();
+
+        try (PreparedStatement statement = connection.prepareStatement(query.sql())) {
+            for (int i = 0; i < query.parameters().size(); i++) {
+                statement.setObject(i + 1, query.parameters().get(i));
+            }
+
+            statement.execute();
+        }
+    }
+}
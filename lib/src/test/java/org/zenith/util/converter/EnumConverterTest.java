@@ -0,0 +1,152 @@
+package org.zenith.util.converter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zenith.annotation.Column;
+import org.zenith.annotation.Entity;
+import org.zenith.annotation.Id;
+import org.zenith.enumeration.ColumnType;
+import org.zenith.enumeration.EnumStorage;
+import org.zenith.model.interfaces.ICodedEnum;
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.ReflectionUtil;
+import org.zenith.util.SQLGenerator;
+import org.zenith.util.SQLQuery;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnumConverterTest {
+    enum Priority { LOW, MEDIUM, HIGH }
+
+    enum Status implements ICodedEnum {
+        OPEN("O"), DONE("D");
+
+        private final String code;
+
+        Status(String code) {
+            this.code = code;
+        }
+
+        @Override
+        public String getCode() {
+            return code;
+        }
+    }
+
+    enum Duplicate implements ICodedEnum {
+        FIRST, SECOND;
+
+        @Override
+        public String getCode() {
+            return "X";
+        }
+    }
+
+    @Entity
+    static class Measurement implements IModel {
+        @Id
+        public long id;
+        @Column(type = ColumnType.LONG)
+        public long count;
+        @Column(type = ColumnType.DOUBLE)
+        public double value;
+        @Column(type = ColumnType.REAL)
+        public float ratio;
+        @Column(type = ColumnType.BLOB)
+        public byte[] payload;
+        @Column(type = ColumnType.ENUM)
+        public Priority priority;
+        @Column(type = ColumnType.ENUM, enumStorage = EnumStorage.CODE)
+        public Status status;
+    }
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void shouldGenerateColumnsForTheNewTypes() {
+        assertEquals(List.of("CREATE TABLE measurement (id INTEGER PRIMARY KEY AUTOINCREMENT, count INTEGER, value REAL, ratio REAL, payload BLOB, priority INTEGER, status TEXT);"),
+                SQLGenerator.generateCreateTable(List.of(Measurement.class)));
+    }
+
+    @Test
+    void shouldRoundTripTheNewTypesWithALongId() throws Exception {
+        Measurement measurement = new Measurement();
+        measurement.id = 5_000_000_000L;
+        measurement.count = 9_000_000_000L;
+        measurement.value = 2.5;
+        measurement.ratio = 0.25f;
+        measurement.payload = new byte[] { 1, 2, (byte) 0xff };
+        measurement.priority = Priority.HIGH;
+        measurement.status = Status.DONE;
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(SQLGenerator.generateCreateTable(List.of(Measurement.class)).getFirst());
+            insert(measurement);
+
+            try (ResultSet resultSet = statement.executeQuery("SELECT priority, status FROM measurement")) {
+                assertTrue(resultSet.next());
+                assertEquals(2, resultSet.getInt("priority"));
+                assertEquals("D", resultSet.getString("status"));
+            }
+
+            try (ResultSet resultSet = statement.executeQuery("SELECT * FROM measurement")) {
+                Measurement result = ReflectionUtil.mapToModels(resultSet, Measurement.class).getFirst();
+
+                assertEquals(5_000_000_000L, result.id);
+                assertEquals(9_000_000_000L, result.count);
+                assertEquals(2.5, result.value);
+                assertEquals(0.25f, result.ratio);
+                assertArrayEquals(new byte[] { 1, 2, (byte) 0xff }, result.payload);
+                assertEquals(Priority.HIGH, result.priority);
+                assertEquals(Status.DONE, result.status);
+            }
+        }
+    }
+
+    @Test
+    void shouldRejectOrdinalsOutOfRange() throws SQLException {
+        EnumConverter<Priority> converter = new EnumConverter<>(Priority.class, EnumStorage.ORDINAL);
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT 3")) {
+            assertTrue(resultSet.next());
+            assertThrows(SQLException.class, () -> converter.read(resultSet, 1));
+        }
+    }
+
+    @Test
+    void shouldRejectDuplicateCodes() {
+        assertThrows(IllegalArgumentException.class, () -> new EnumConverter<>(Duplicate.class, EnumStorage.CODE));
+    }
+
+    private void insert(IModel model) throws Exception {
+        SQLQuery query = SQLGenerator.generateInsert(model).getFirst();
+
+        try (PreparedStatement statement = connection.prepareStatement(query.sql())) {
+            for (int i = 0; i < query.parameters().size(); i++) {
+                statement.setObject(i + 1, query.parameters().get(i));
+            }
+
+            statement.execute();
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package org.zenith.util.database;
 
 import org.junit.jupiter.api.*;
+import org.zenith.util.SQLQuery;
 import org.zenith.util.SQLiteDatabase;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -61,6 +63,29 @@ class SQLiteDatabaseTest {
         assertEquals("John Doe", resultSet.getString("name"), "The name should be 'John Doe'.");
     }
 
+    @Test
+    void testExecuteParameterizedQueryWithQuotes() throws SQLException {
+        assertTrue(db.executeQueryWithoutResult(new SQLQuery("INSERT INTO users (name) VALUES (?) RETURNING *;", List.of("O'Brien"))));
+
+        try (ResultSet resultSet = db.executeQueryWithResult(new SQLQuery("SELECT name FROM users WHERE name = ?", List.of("O'Brien")))) {
+            assertTrue(resultSet.next(), "The inserted row should be found.");
+            assertEquals("O'Brien", resultSet.getString("name"));
+        }
+    }
+
+    @Test
+    void testStatementCacheReusesPreparedStatements() throws SQLException {
+        long hits = db.getStatementCacheHits();
+        long misses = db.getStatementCacheMisses();
+
+        for (int i = 0; i < 10; i++) {
+            db.executeQueryWithoutResult(new SQLQuery("INSERT INTO users (name) VALUES (?) RETURNING *;", List.of("User " + i)));
+        }
+
+        assertEquals(misses + 1, db.getStatementCacheMisses(), "Only the first insert should prepare the statement.");
+        assertEquals(hits + 9, db.getStatementCacheHits(), "The other inserts should reuse the statement.");
+    }
+
     @Test
     void testCloseConnection() throws SQLException {
         db.close();
@@ -0,0 +1,97 @@
+package org.zenith.util.mapper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zenith.annotation.Column;
+import org.zenith.annotation.Entity;
+import org.zenith.annotation.Id;
+import org.zenith.enumeration.ColumnType;
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.metadata.EntityMetadata;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HiddenClassEntityMapperTest {
+    @Entity
+    static class PrivateModel implements IModel {
+        @Id
+        private int id;
+        @Column(type = ColumnType.VARCHAR)
+        private String name;
+        @Column(type = ColumnType.INTEGER)
+        private Long total;
+        @Column(type = ColumnType.BOOLEAN)
+        private boolean isActive;
+    }
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE privatemodel (id INTEGER PRIMARY KEY, name VARCHAR(255), total INTEGER, isActive BOOLEAN)");
+            statement.execute("INSERT INTO privatemodel (id, name, total, isActive) VALUES (7, 'Private', 42, 1)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void shouldMapPrivateFieldsOfModelsInTheSameModule() throws SQLException {
+        HiddenClassEntityMapper<PrivateModel> mapper = HiddenClassEntityMapper.create(PrivateModel.class);
+        assertNotNull(mapper);
+        assertEquals(List.of("id", "name", "total", "isActive"), mapper.getColumnNames());
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT * FROM privatemodel")) {
+            assertTrue(resultSet.next());
+
+            PrivateModel model = mapper.newInstance();
+            mapper.map(resultSet, MapperSupport.resolveColumnIndexes(resultSet, mapper.getColumnNames()), model);
+
+            assertEquals(7, model.id);
+            assertEquals("Private", model.name);
+            assertEquals(42L, model.total);
+            assertTrue(model.isActive);
+        }
+    }
+
+    @Test
+    void shouldSkipColumnsMissingFromTheResultSet() throws SQLException {
+        HiddenClassEntityMapper<PrivateModel> mapper = HiddenClassEntityMapper.create(PrivateModel.class);
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name FROM privatemodel")) {
+            assertTrue(resultSet.next());
+
+            PrivateModel model = mapper.newInstance();
+            mapper.map(resultSet, MapperSupport.resolveColumnIndexes(resultSet, mapper.getColumnNames()), model);
+
+            assertEquals(0, model.id);
+            assertEquals("Private", model.name);
+            assertNull(model.total);
+            assertFalse(model.isActive);
+        }
+    }
+
+    @Test
+    void shouldCacheTheMapperPerClass() {
+        EntityMapper<PrivateModel> mapper = EntityMetadata.of(PrivateModel.class).getRowMapper();
+
+        assertInstanceOf(HiddenClassEntityMapper.class, mapper);
+        assertSame(mapper, EntityMetadata.of(PrivateModel.class).getRowMapper());
+    }
+}
@@ -0,0 +1,94 @@
+package org.zenith.util.metadata;
+
+import org.junit.jupiter.api.Test;
+import org.zenith.annotation.Column;
+import org.zenith.annotation.Entity;
+import org.zenith.annotation.Id;
+import org.zenith.annotation.relation.ManyToOne;
+import org.zenith.annotation.relation.OneToMany;
+import org.zenith.enumeration.ColumnType;
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.strategies.reflection.ColumnFieldMappingStrategy;
+import org.zenith.util.strategies.reflection.IdFieldMappingStrategy;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityMetadataTest {
+    @Entity
+    static class Parent implements IModel {
+        @Id
+        public int id;
+        @Column(type = ColumnType.VARCHAR)
+        public String name;
+        @OneToMany
+        public List<Child> children;
+
+        public String notMapped;
+    }
+
+    @Entity
+    static class Child implements IModel {
+        @Id
+        public int id;
+        @ManyToOne
+        public Parent parent;
+    }
+
+    static class NotAnEntity implements IModel {
+        @Id
+        public int id;
+    }
+
+    @Test
+    void shouldReturnTheSameInstanceForTheSameClass() {
+        assertSame(EntityMetadata.of(Parent.class), EntityMetadata.of(Parent.class));
+        assertSame(EntityMetadata.of(Parent.class), EntityMetadata.of(new Parent()));
+    }
+
+    @Test
+    void shouldDescribeTableAndFields() {
+        EntityMetadata<Parent> metadata = EntityMetadata.of(Parent.class);
+
+        assertTrue(metadata.isEntity());
+        assertEquals("parent", metadata.getTableName());
+        assertEquals("id", metadata.getIdField().getName());
+        assertEquals(List.of("id", "name", "children"), metadata.getFields().stream().map(FieldMetadata::getName).toList());
+        assertEquals(List.of("id", "name"), metadata.getColumns().stream().map(FieldMetadata::getColumnName).toList());
+        assertNull(metadata.findField("notMapped"));
+    }
+
+    @Test
+    void shouldResolveStrategiesAndColumnTypes() throws NoSuchFieldException {
+        EntityMetadata<Parent> metadata = EntityMetadata.of(Parent.class);
+
+        assertInstanceOf(IdFieldMappingStrategy.class, metadata.getField("id").getStrategy());
+        assertInstanceOf(ColumnFieldMappingStrategy.class, metadata.getField("name").getStrategy());
+        assertEquals(ColumnType.VARCHAR, metadata.getField("name").getColumnType());
+    }
+
+    @Test
+    void shouldResolveRelations() throws NoSuchFieldException {
+        FieldMetadata children = EntityMetadata.of(Parent.class).getField("children");
+        FieldMetadata parent = EntityMetadata.of(Child.class).getField("parent");
+
+        assertTrue(children.isOneToMany());
+        assertFalse(children.hasColumn());
+        assertEquals(Child.class, children.getRelatedType());
+
+        assertTrue(parent.isForeignKey());
+        assertEquals("parent_id", parent.getColumnName());
+        assertEquals(Parent.class, parent.getRelatedType());
+    }
+
+    @Test
+    void shouldThrowForUnknownField() {
+        assertThrows(NoSuchFieldException.class, () -> EntityMetadata.of(Parent.class).getField("unknown"));
+    }
+
+    @Test
+    void shouldDetectMissingEntityAnnotation() {
+        assertFalse(EntityMetadata.of(NotAnEntity.class).isEntity());
+    }
+}
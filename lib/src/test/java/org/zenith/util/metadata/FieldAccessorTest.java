@@ -0,0 +1,72 @@
+package org.zenith.util.metadata;
+
+import org.junit.jupiter.api.Test;
+import org.zenith.annotation.Column;
+import org.zenith.annotation.Entity;
+import org.zenith.annotation.Id;
+import org.zenith.enumeration.ColumnType;
+import org.zenith.model.interfaces.IModel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldAccessorTest {
+    @Entity
+    static class AccessorModel implements IModel {
+        @Id
+        private int id;
+        @Column(type = ColumnType.BOOLEAN)
+        public boolean isCompleted;
+        @Column(type = ColumnType.TEXT)
+        public String title;
+    }
+
+    private FieldAccessor accessor(String fieldName) throws NoSuchFieldException {
+        return EntityMetadata.of(AccessorModel.class).getField(fieldName).getAccessor();
+    }
+
+    @Test
+    void shouldReadAndWritePrimitivesWithoutBoxing() throws NoSuchFieldException {
+        AccessorModel model = new AccessorModel();
+
+        accessor("id").setInt(model, 42);
+        accessor("isCompleted").setBoolean(model, true);
+
+        assertEquals(42, model.id);
+        assertEquals(42, accessor("id").getInt(model));
+        assertTrue(accessor("isCompleted").getBoolean(model));
+    }
+
+    @Test
+    void shouldReadAndWriteObjects() throws NoSuchFieldException {
+        AccessorModel model = new AccessorModel();
+
+        accessor("title").set(model, "Hello");
+
+        assertEquals("Hello", model.title);
+        assertEquals("Hello", accessor("title").get(model));
+        assertEquals(0, accessor("id").get(model));
+    }
+
+    @Test
+    void shouldConvertValuesForPrimitiveFields() throws NoSuchFieldException {
+        AccessorModel model = new AccessorModel();
+
+        accessor("isCompleted").set(model, 1);
+        accessor("id").set(model, 7L);
+        assertTrue(model.isCompleted);
+        assertEquals(7, model.id);
+
+        accessor("isCompleted").set(model, null);
+        accessor("id").set(model, null);
+        assertFalse(model.isCompleted);
+        assertEquals(0, model.id);
+    }
+
+    @Test
+    void shouldRejectPrimitiveAccessOfTheWrongType() throws NoSuchFieldException {
+        AccessorModel model = new AccessorModel();
+
+        assertThrows(IllegalStateException.class, () -> accessor("id").getLong(model));
+        assertThrows(IllegalStateException.class, () -> accessor("title").getInt(model));
+    }
+}
@@ -1,5 +1,7 @@
 module org.zenith.models {
     requires org.zenith.lib;
+    requires java.sql;
 
     exports org.zenith.models;
-}
\ No newline at end of file
+    opens org.zenith.models to org.zenith.lib;
+}
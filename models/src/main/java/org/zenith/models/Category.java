@@ -1,5 +1,6 @@
 package org.zenith.models;
 
+import org.zenith.annotation.Cacheable;
 import org.zenith.annotation.Column;
 import org.zenith.annotation.Entity;
 import org.zenith.annotation.Id;
@@ -7,6 +8,7 @@ import org.zenith.enumeration.ColumnType;
 import org.zenith.model.interfaces.IModel;
 
 @Entity
+@Cacheable
 public class Category implements IModel {
     @Id
     public int id;
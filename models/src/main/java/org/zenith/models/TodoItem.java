@@ -3,8 +3,10 @@ package org.zenith.models;
 import org.zenith.annotation.Id;
 import org.zenith.annotation.Column;
 import org.zenith.annotation.Entity;
+import org.zenith.annotation.Index;
 import org.zenith.annotation.relation.OneToMany;
 import org.zenith.enumeration.ColumnType;
+import org.zenith.enumeration.FetchType;
 import org.zenith.model.interfaces.IModel;
 
 import java.util.Date;
@@ -20,10 +22,11 @@ public class TodoItem implements IModel {
     public String description;
     @Column(type = ColumnType.DATETIME)
     public Date expiresAt;
+    @Index
     @Column(type = ColumnType.BOOLEAN)
     public boolean isCompleted;
 
-    @OneToMany
+    @OneToMany(fetch = FetchType.LAZY)
     public List<SubItem> subItems;
 
     public TodoItem() { }
@@ -0,0 +1,108 @@
+package org.zenith.models;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.mapper.EntityMapper;
+import org.zenith.util.mapper.HiddenClassEntityMapper;
+import org.zenith.util.mapper.MapperSupport;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HiddenClassEntityMapperTest {
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE todoitem (id INTEGER PRIMARY KEY, title TEXT, description TEXT, expiresAt INTEGER, isCompleted INTEGER)");
+            statement.execute("CREATE TABLE subitem (id INTEGER PRIMARY KEY, title TEXT, todoItem_id INTEGER)");
+            statement.execute("CREATE TABLE category (id INTEGER PRIMARY KEY, label VARCHAR(255))");
+
+            statement.execute("INSERT INTO todoitem VALUES (1, 'Groceries', 'Milk and eggs', 1714559400000, 1)");
+            statement.execute("INSERT INTO todoitem VALUES (2, 'Laundry', NULL, NULL, 0)");
+            statement.execute("INSERT INTO subitem VALUES (3, 'Milk', 1)");
+            statement.execute("INSERT INTO category VALUES (4, 'Home')");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private <T extends IModel> T mapFirstRow(EntityMapper<T> mapper, String query) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            assertTrue(resultSet.next());
+
+            T model = mapper.newInstance();
+            mapper.map(resultSet, MapperSupport.resolveColumnIndexes(resultSet, mapper.getColumnNames()), model);
+            return model;
+        }
+    }
+
+    @Test
+    void shouldMapTodoItem() throws SQLException {
+        HiddenClassEntityMapper<TodoItem> mapper = HiddenClassEntityMapper.create(TodoItem.class);
+        assertNotNull(mapper);
+
+        TodoItem todoItem = mapFirstRow(mapper, "SELECT * FROM todoitem WHERE id = 1");
+
+        assertEquals(1, todoItem.id);
+        assertEquals("Groceries", todoItem.title);
+        assertEquals("Milk and eggs", todoItem.description);
+        assertEquals(new Date(1714559400000L), todoItem.expiresAt);
+        assertTrue(todoItem.isCompleted);
+        assertNull(todoItem.subItems);
+    }
+
+    @Test
+    void shouldMapNullColumnsOfTodoItem() throws SQLException {
+        TodoItem todoItem = mapFirstRow(HiddenClassEntityMapper.create(TodoItem.class), "SELECT * FROM todoitem WHERE id = 2");
+
+        assertEquals(2, todoItem.id);
+        assertNull(todoItem.description);
+        assertNull(todoItem.expiresAt);
+        assertFalse(todoItem.isCompleted);
+    }
+
+    @Test
+    void shouldMapSubItemWithoutResolvingTheForeignKey() throws SQLException {
+        HiddenClassEntityMapper<SubItem> mapper = HiddenClassEntityMapper.create(SubItem.class);
+        assertEquals(List.of("id", "title", "todoItem_id"), mapper.getColumnNames());
+
+        SubItem subItem = mapFirstRow(mapper, "SELECT * FROM subitem");
+
+        assertEquals(3, subItem.id);
+        assertEquals("Milk", subItem.title);
+        assertNull(subItem.todoItem);
+    }
+
+    @Test
+    void shouldMapCategoryProjection() throws SQLException {
+        Category category = mapFirstRow(HiddenClassEntityMapper.create(Category.class), "SELECT label FROM category");
+
+        assertEquals(0, category.id);
+        assertEquals("Home", category.label);
+    }
+
+    @Test
+    void shouldReadValuesInColumnOrder() {
+        HiddenClassEntityMapper<Category> mapper = HiddenClassEntityMapper.create(Category.class);
+
+        assertArrayEquals(new Object[] { 4, "Home" }, mapper.getValues(new Category(4, "Home")));
+        assertEquals("SELECT * FROM category;", mapper.getSelectAllSql());
+    }
+}
@@ -0,0 +1,434 @@
+package org.zenith.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+
+/**
+ * Generates an {@code <Entity>_Mapper} class implementing {@code org.zenith.util.mapper.EntityMapper} for every class
+ * annotated with {@code @Entity}. The generated mapper reads and writes the fields directly, so no reflection is used
+ * to map the columns of the entity at runtime. It also holds the SQL of the INSERT, UPDATE and DELETE statements, which
+ * {@code EntityStatements} uses instead of compiling them.
+ * <p>
+ * Fields without a typed {@link java.sql.ResultSet} getter, such as {@code java.util.Date}, are read through the
+ * {@code ColumnConverter} registered for their type, which the mapper looks up once when it is loaded.
+ * <p>
+ * Entities which cannot be accessed from generated code in the same package (private fields, no accessible
+ * no-argument constructor, unsupported field types) are skipped with a note, they keep using the reflective mapping.
+ */
+@SupportedAnnotationTypes(EntityMapperProcessor.ENTITY)
+public class EntityMapperProcessor extends AbstractProcessor {
+    static final String ENTITY = "org.zenith.annotation.Entity";
+    private static final String ID = "org.zenith.annotation.Id";
+    private static final String COLUMN = "org.zenith.annotation.Column";
+    private static final String ONE_TO_ONE = "org.zenith.annotation.relation.OneToOne";
+    private static final String MANY_TO_ONE = "org.zenith.annotation.relation.ManyToOne";
+    private static final String ONE_TO_MANY = "org.zenith.annotation.relation.OneToMany";
+    private static final Set<String> MAPPING_ANNOTATIONS = Set.of(ID, COLUMN, ONE_TO_ONE, MANY_TO_ONE, ONE_TO_MANY);
+
+    private static final Map<String, String> PRIMITIVE_READERS = Map.of(
+            "int", "getInt",
+            "long", "getLong",
+            "double", "getDouble",
+            "float", "getFloat",
+            "boolean", "getBoolean",
+            "short", "getShort",
+            "byte", "getByte");
+    private static final Set<String> BOXED_TYPES = Set.of(
+            "java.lang.Integer", "java.lang.Long", "java.lang.Double", "java.lang.Float",
+            "java.lang.Boolean", "java.lang.Short", "java.lang.Byte");
+
+    /**
+     * A column of the entity as seen by the generated code
+     *
+     * @param fieldName The name of the Java field
+     * @param columnName The name of the database column
+     * @param readExpression The expression reading the column at index {@code columnIndexes[i]}, or {@code null} for foreign keys
+     * @param valueExpression The expression reading the value of the column from {@code model}
+     * @param converterType The type of the field when it is read through a {@code ColumnConverter}, otherwise {@code null}
+     * @param converterExpression The expression resolving the {@code ColumnConverter} when the mapper is loaded, or {@code null}
+     */
+    private record ColumnSpec(String fieldName, String columnName, String readExpression, String valueExpression,
+                              String converterType, String converterExpression) {
+
+        ColumnSpec(String fieldName, String columnName, String readExpression, String valueExpression) {
+            this(fieldName, columnName, readExpression, valueExpression, null, null);
+        }
+    }
+
+    /**
+     * Thrown when an entity cannot be handled by a generated mapper
+     */
+    private static class UnsupportedEntityException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedEntityException(String message) {
+            super(message);
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+                Messager messager = processingEnv.getMessager();
+
+                try {
+                    generateMapper(type);
+                } catch (UnsupportedEntityException ex) {
+                    messager.printMessage(Diagnostic.Kind.NOTE, String.format("No mapper generated for %s: %s", type.getQualifiedName(), ex.getMessage()), type);
+                } catch (IOException ex) {
+                    messager.printMessage(Diagnostic.Kind.ERROR, String.format("Could not write the mapper for %s: %s", type.getQualifiedName(), ex.getMessage()), type);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private void generateMapper(TypeElement type) throws UnsupportedEntityException, IOException {
+        checkInstantiable(type);
+
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String modelName = type.getQualifiedName().toString();
+        String mapperSimpleName = getNestedName(type, packageName) + "_Mapper";
+        String tableName = type.getSimpleName().toString().toLowerCase();
+        List<ColumnSpec> columns = readColumns(type);
+        String idColumn = ElementFilter.fieldsIn(type.getEnclosedElements())
+                .stream()
+                .filter(field -> hasAnnotation(field, ID))
+                .map(field -> field.getSimpleName().toString())
+                .findFirst()
+                .orElse(null);
+
+        String mapperName = packageName.isEmpty() ? mapperSimpleName : packageName + "." + mapperSimpleName;
+        JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(mapperName, type);
+
+        try (PrintWriter out = new PrintWriter(sourceFile.openWriter())) {
+            if (!packageName.isEmpty()) {
+                out.printf("package %s;%n%n", packageName);
+            }
+
+            out.println("import java.sql.ResultSet;");
+            out.println("import java.sql.SQLException;");
+            out.println("import java.util.List;");
+
+            if (columns.stream().anyMatch(column -> column.converterType() != null)) {
+                out.println("import org.zenith.enumeration.ColumnType;");
+                out.println("import org.zenith.enumeration.EnumStorage;");
+                out.println("import org.zenith.util.converter.ColumnConverter;");
+                out.println("import org.zenith.util.converter.ConverterRegistry;");
+            }
+
+            out.println("import org.zenith.util.mapper.EntityMapper;");
+            out.println("import org.zenith.util.mapper.MapperSupport;");
+            out.println();
+            out.println("/**");
+            out.printf(" * Generated by %s from {@link %s}, do not edit.%n", getClass().getName(), modelName);
+            out.println(" */");
+            out.printf("public final class %s implements EntityMapper<%s> {%n", mapperSimpleName, modelName);
+            out.printf("    private static final List<String> COLUMN_NAMES = List.of(%s);%n", joinQuoted(columns.stream().map(ColumnSpec::columnName).toList()));
+            out.printf("    private static final String SELECT_ALL_SQL = \"SELECT * FROM %s;\";%n", tableName);
+            writeStatements(out, tableName, columns, idColumn);
+
+            for (int i = 0; i < columns.size(); i++) {
+                ColumnSpec column = columns.get(i);
+
+                if (column.converterType() != null) {
+                    out.printf("    private static final ColumnConverter<%s> CONVERTER_%d = %s;%n", column.converterType(), i, column.converterExpression());
+                }
+            }
+            out.println();
+            out.printf("    @Override%n    public Class<%s> getModelClass() {%n        return %s.class;%n    }%n%n", modelName, modelName);
+            out.printf("    @Override%n    public String getTableName() {%n        return \"%s\";%n    }%n%n", tableName);
+            out.printf("    @Override%n    public List<String> getColumnNames() {%n        return COLUMN_NAMES;%n    }%n%n");
+            out.printf("    @Override%n    public String getSelectAllSql() {%n        return SELECT_ALL_SQL;%n    }%n%n");
+            out.printf("    @Override%n    public String getInsertSql() {%n        return INSERT_SQL;%n    }%n%n");
+            out.printf("    @Override%n    public String getInsertWithoutIdSql() {%n        return INSERT_WITHOUT_ID_SQL;%n    }%n%n");
+            out.printf("    @Override%n    public String getUpdateSql() {%n        return UPDATE_SQL;%n    }%n%n");
+            out.printf("    @Override%n    public String getDeleteSql() {%n        return DELETE_SQL;%n    }%n%n");
+            out.printf("    @Override%n    public %s newInstance() {%n        return new %s();%n    }%n%n", modelName, modelName);
+
+            out.printf("    @Override%n    public void map(ResultSet resultSet, int[] columnIndexes, %s model) throws SQLException {%n", modelName);
+            for (int i = 0; i < columns.size(); i++) {
+                ColumnSpec column = columns.get(i);
+
+                if (column.readExpression() != null) {
+                    out.printf("        if (columnIndexes[%d] != 0) model.%s = %s;%n", i, column.fieldName(),
+                            column.readExpression().replace("$INDEX", "columnIndexes[" + i + "]").replace("$CONVERTER", "CONVERTER_" + i));
+                }
+            }
+            out.printf("    }%n%n");
+
+            out.printf("    @Override%n    public Object[] getValues(%s model) {%n", modelName);
+            out.printf("        return new Object[] { %s };%n", String.join(", ", columns.stream().map(ColumnSpec::valueExpression).toList()));
+            out.printf("    }%n");
+            out.println("}");
+        }
+    }
+
+    /**
+     * Writes the INSERT, UPDATE and DELETE statements of the entity, in the form {@code EntityStatements} compiles them.
+     * The UPDATE and DELETE statements are {@code null} for an entity without an id.
+     */
+    private static void writeStatements(PrintWriter out, String tableName, List<ColumnSpec> columns, String idColumn) {
+        List<String> columnNames = columns.stream().map(ColumnSpec::columnName).toList();
+        List<String> columnNamesWithoutId = columnNames.stream().filter(name -> !name.equals(idColumn)).toList();
+        String updateSql = null;
+        String deleteSql = null;
+
+        if (idColumn != null) {
+            StringJoiner assignments = new StringJoiner(", ");
+            columnNamesWithoutId.forEach(name -> assignments.add(name + "=?"));
+
+            updateSql = String.format("UPDATE %s SET %s WHERE %s=? RETURNING *;", tableName, assignments, idColumn);
+            deleteSql = String.format("DELETE FROM %s WHERE %s=? RETURNING *;", tableName, idColumn);
+        }
+
+        out.printf("    private static final String INSERT_SQL = %s;%n", quote(insertSql(tableName, columnNames)));
+        out.printf("    private static final String INSERT_WITHOUT_ID_SQL = %s;%n", quote(insertSql(tableName, columnNamesWithoutId)));
+        out.printf("    private static final String UPDATE_SQL = %s;%n", quote(updateSql));
+        out.printf("    private static final String DELETE_SQL = %s;%n", quote(deleteSql));
+    }
+
+    private static String insertSql(String tableName, List<String> columnNames) {
+        return String.format("INSERT INTO %s (%s) VALUES (%s);",
+                tableName, String.join(", ", columnNames), String.join(", ", Collections.nCopies(columnNames.size(), "?")));
+    }
+
+    private void checkInstantiable(TypeElement type) throws UnsupportedEntityException {
+        Set<Modifier> modifiers = type.getModifiers();
+
+        if (type.getKind() != ElementKind.CLASS || modifiers.contains(Modifier.ABSTRACT) || modifiers.contains(Modifier.PRIVATE)) {
+            throw new UnsupportedEntityException("the entity must be a concrete, non-private class");
+        }
+
+        for (Element enclosing = type.getEnclosingElement(); enclosing.getKind() != ElementKind.PACKAGE; enclosing = enclosing.getEnclosingElement()) {
+            if (!enclosing.getKind().isClass() && !enclosing.getKind().isInterface()) {
+                throw new UnsupportedEntityException("local classes are not supported");
+            }
+        }
+
+        if (type.getNestingKind() == NestingKind.MEMBER && !modifiers.contains(Modifier.STATIC)) {
+            throw new UnsupportedEntityException("inner classes must be static");
+        }
+
+        boolean hasAccessibleConstructor = ElementFilter.constructorsIn(type.getEnclosedElements())
+                .stream()
+                .anyMatch(constructor -> constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE));
+
+        if (!hasAccessibleConstructor) {
+            throw new UnsupportedEntityException("a non-private no-argument constructor is required");
+        }
+    }
+
+    private List<ColumnSpec> readColumns(TypeElement type) throws UnsupportedEntityException {
+        List<ColumnSpec> columns = new ArrayList<>();
+
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            AnnotationMirror annotation = getMappingAnnotation(field);
+
+            if (annotation == null || getAnnotationName(annotation).equals(ONE_TO_MANY)) {
+                continue;
+            }
+
+            checkAccessible(field);
+            String fieldName = field.getSimpleName().toString();
+
+            switch (getAnnotationName(annotation)) {
+                case ID -> {
+                    String readExpression = getReadExpression(field);
+
+                    if (readExpression.contains("$CONVERTER")) {
+                        throw new UnsupportedEntityException(String.format("the type of the id %s is not supported", fieldName));
+                    }
+
+                    columns.add(new ColumnSpec(fieldName, fieldName, readExpression, "model." + fieldName));
+                }
+                case COLUMN -> {
+                    String columnType = getColumnType(annotation);
+                    String readExpression = getReadExpression(field);
+                    String converterType = null;
+                    String converterExpression = null;
+
+                    if (readExpression.contains("$CONVERTER")) {
+                        converterType = processingEnv.getTypeUtils().erasure(field.asType()).toString();
+                        converterExpression = getConverterExpression(field, annotation, columnType, converterType);
+                    }
+
+                    columns.add(new ColumnSpec(fieldName, fieldName, readExpression, "model." + fieldName, converterType, converterExpression));
+                }
+                default -> columns.add(getForeignKey(field, annotation));
+            }
+        }
+
+        if (columns.isEmpty()) {
+            throw new UnsupportedEntityException("the entity does not have any columns");
+        }
+
+        return columns;
+    }
+
+    private ColumnSpec getForeignKey(VariableElement field, AnnotationMirror annotation) throws UnsupportedEntityException {
+        String fieldName = field.getSimpleName().toString();
+        String columnName = fieldName + "_id";
+        Object configuredName = getAnnotationValue(annotation, "columnName");
+
+        if (configuredName instanceof String name && !name.isEmpty()) {
+            columnName = name;
+        }
+
+        if (!(field.asType() instanceof DeclaredType relatedType) || !(relatedType.asElement() instanceof TypeElement relatedElement)) {
+            throw new UnsupportedEntityException(String.format("the relation %s must refer to an entity class", fieldName));
+        }
+
+        VariableElement relatedId = ElementFilter.fieldsIn(relatedElement.getEnclosedElements())
+                .stream()
+                .filter(relatedField -> hasAnnotation(relatedField, ID))
+                .findFirst()
+                .orElseThrow(() -> new UnsupportedEntityException(String.format("%s does not have an @Id field", relatedElement.getQualifiedName())));
+
+        checkAccessible(relatedId);
+
+        String valueExpression = String.format("model.%s == null ? null : (Object) model.%s.%s", fieldName, fieldName, relatedId.getSimpleName());
+        return new ColumnSpec(fieldName, columnName, null, valueExpression);
+    }
+
+    /**
+     * @return The expression reading the column, with {@code $INDEX} as the placeholder for the column index and
+     *          {@code $CONVERTER} for the {@code ColumnConverter} of types without a typed getter
+     */
+    private String getReadExpression(VariableElement field) throws UnsupportedEntityException {
+        TypeMirror type = field.asType();
+
+        if (type.getKind().isPrimitive()) {
+            String reader = PRIMITIVE_READERS.get(type.toString());
+
+            if (reader == null) {
+                throw new UnsupportedEntityException(String.format("the type %s of %s is not supported", type, field.getSimpleName()));
+            }
+
+            return String.format("resultSet.%s($INDEX)", reader);
+        }
+
+        String typeName = processingEnv.getTypeUtils().erasure(type).toString();
+
+        if (typeName.equals("java.lang.String")) {
+            return "resultSet.getString($INDEX)";
+        }
+
+        if (BOXED_TYPES.contains(typeName)) {
+            return String.format("MapperSupport.readObject(resultSet, $INDEX, %s.class)", typeName);
+        }
+
+        if (type.getKind() == TypeKind.ARRAY && typeName.equals("byte[]")) {
+            return "resultSet.getBytes($INDEX)";
+        }
+
+        if (type.getKind() != TypeKind.DECLARED) {
+            throw new UnsupportedEntityException(String.format("the type %s of %s is not supported", typeName, field.getSimpleName()));
+        }
+
+        // The converter is resolved from the ConverterRegistry when the mapper is loaded
+        return "$CONVERTER.read(resultSet, $INDEX)";
+    }
+
+    /**
+     * Enums in an {@code ENUM} column fall back to an {@code EnumConverter} with the configured storage,
+     * every other type must have a converter registered in the {@code ConverterRegistry}
+     */
+    private String getConverterExpression(VariableElement field, AnnotationMirror annotation, String columnType, String converterType) {
+        Element typeElement = processingEnv.getTypeUtils().asElement(field.asType());
+
+        if ("ENUM".equals(columnType) && typeElement != null && typeElement.getKind() == ElementKind.ENUM) {
+            Object storage = getAnnotationValue(annotation, "enumStorage");
+            String storageName = storage instanceof VariableElement constant ? constant.getSimpleName().toString() : "ORDINAL";
+
+            return String.format("ConverterRegistry.forEnum(%s.class, EnumStorage.%s)", converterType, storageName);
+        }
+
+        return String.format("ConverterRegistry.get(%s, %s.class)", columnType == null ? "null" : "ColumnType." + columnType, converterType);
+    }
+
+    private void checkAccessible(VariableElement field) throws UnsupportedEntityException {
+        Set<Modifier> modifiers = field.getModifiers();
+
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.STATIC)) {
+            throw new UnsupportedEntityException(String.format("the field %s must not be private, final or static", field.getSimpleName()));
+        }
+
+        if (field.asType().getKind() == TypeKind.ERROR) {
+            throw new UnsupportedEntityException(String.format("the type of %s could not be resolved", field.getSimpleName()));
+        }
+    }
+
+    private String getColumnType(AnnotationMirror annotation) {
+        Object value = getAnnotationValue(annotation, "type");
+        return value instanceof VariableElement constant ? constant.getSimpleName().toString() : null;
+    }
+
+    private Object getAnnotationValue(AnnotationMirror annotation, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : processingEnv.getElementUtils().getElementValuesWithDefaults(annotation).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+
+        return null;
+    }
+
+    private static AnnotationMirror getMappingAnnotation(Element element) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (MAPPING_ANNOTATIONS.contains(getAnnotationName(annotation))) {
+                return annotation;
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationName) {
+        return element.getAnnotationMirrors().stream().anyMatch(annotation -> getAnnotationName(annotation).equals(annotationName));
+    }
+
+    private static String getAnnotationName(AnnotationMirror annotation) {
+        return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    /**
+     * @return The name of the type relative to its package with the enclosing classes joined by {@code _}
+     */
+    private static String getNestedName(TypeElement type, String packageName) {
+        String qualifiedName = type.getQualifiedName().toString();
+        String relativeName = packageName.isEmpty() ? qualifiedName : qualifiedName.substring(packageName.length() + 1);
+        return relativeName.replace('.', '_');
+    }
+
+    private static String quote(String value) {
+        return value == null ? "null" : "\"" + value + "\"";
+    }
+
+    private static String joinQuoted(List<String> values) {
+        StringJoiner joiner = new StringJoiner(", ");
+        values.forEach(value -> joiner.add("\"" + value + "\""));
+        return joiner.toString();
+    }
+}
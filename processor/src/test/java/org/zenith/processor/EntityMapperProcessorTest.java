@@ -0,0 +1,222 @@
+package org.zenith.processor;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.zenith.model.interfaces.IModel;
+import org.zenith.util.mapper.EntityMapper;
+
+import javax.tools.*;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityMapperProcessorTest {
+    private static final String PARENT_SOURCE = """
+            package sample;
+
+            import org.zenith.annotation.Entity;
+            import org.zenith.annotation.Id;
+            import org.zenith.annotation.Column;
+            import org.zenith.annotation.relation.OneToMany;
+            import org.zenith.enumeration.ColumnType;
+            import org.zenith.model.interfaces.IModel;
+            import java.util.List;
+
+            @Entity
+            public class Parent implements IModel {
+                @Id
+                public int id;
+                @Column(type = ColumnType.TEXT)
+                public String title;
+                @Column(type = ColumnType.BOOLEAN)
+                public boolean isCompleted;
+                @OneToMany
+                public List<Child> children;
+            }
+            """;
+
+    private static final String CHILD_SOURCE = """
+            package sample;
+
+            import org.zenith.annotation.Entity;
+            import org.zenith.annotation.Id;
+            import org.zenith.annotation.relation.ManyToOne;
+            import org.zenith.model.interfaces.IModel;
+
+            @Entity
+            public class Child implements IModel {
+                @Id
+                public int id;
+                @ManyToOne
+                public Parent parent;
+            }
+            """;
+
+    private static final String PRIVATE_FIELD_SOURCE = """
+            package sample;
+
+            import org.zenith.annotation.Entity;
+            import org.zenith.annotation.Id;
+            import org.zenith.model.interfaces.IModel;
+
+            @Entity
+            public class Hidden implements IModel {
+                @Id
+                private int id;
+            }
+            """;
+
+    private static final String CONVERTED_FIELD_SOURCE = """
+            package sample;
+
+            import org.zenith.annotation.Entity;
+            import org.zenith.annotation.Id;
+            import org.zenith.annotation.Column;
+            import org.zenith.enumeration.ColumnType;
+            import org.zenith.enumeration.EnumStorage;
+            import org.zenith.model.interfaces.IModel;
+            import java.time.Instant;
+
+            @Entity
+            public class Event implements IModel {
+                public enum Kind { MEETING, CALL }
+
+                @Id
+                public long id;
+                @Column(type = ColumnType.DATETIME)
+                public Instant startsAt;
+                @Column(type = ColumnType.ENUM, enumStorage = EnumStorage.CODE)
+                public Kind kind;
+            }
+            """;
+
+    @TempDir
+    static Path outputDirectory;
+
+    private static ClassLoader classLoader;
+
+    @BeforeAll
+    static void compile() throws IOException {
+        Path sourceDirectory = Files.createDirectories(outputDirectory.resolve("src/sample"));
+        Files.writeString(sourceDirectory.resolve("Parent.java"), PARENT_SOURCE);
+        Files.writeString(sourceDirectory.resolve("Child.java"), CHILD_SOURCE);
+        Files.writeString(sourceDirectory.resolve("Hidden.java"), PRIVATE_FIELD_SOURCE);
+        Files.writeString(sourceDirectory.resolve("Event.java"), CONVERTED_FIELD_SOURCE);
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            Path classesDirectory = Files.createDirectories(outputDirectory.resolve("classes"));
+            List<String> options = List.of(
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-d", classesDirectory.toString(),
+                    "-s", classesDirectory.toString());
+
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjects(sourceDirectory.resolve("Parent.java"), sourceDirectory.resolve("Child.java"), sourceDirectory.resolve("Hidden.java"),
+                            sourceDirectory.resolve("Event.java")));
+            task.setProcessors(List.of(new EntityMapperProcessor()));
+
+            assertTrue(task.call(), () -> diagnostics.getDiagnostics().toString());
+            classLoader = new URLClassLoader(new URL[] { classesDirectory.toUri().toURL() }, EntityMapperProcessorTest.class.getClassLoader());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EntityMapper<IModel> loadMapper(String name) throws ReflectiveOperationException {
+        return (EntityMapper<IModel>) classLoader.loadClass(name).getDeclaredConstructor().newInstance();
+    }
+
+    @Test
+    void shouldGenerateMapperWithColumnsInDeclarationOrder() throws ReflectiveOperationException {
+        EntityMapper<IModel> mapper = loadMapper("sample.Parent_Mapper");
+
+        assertEquals("parent", mapper.getTableName());
+        assertEquals(List.of("id", "title", "isCompleted"), mapper.getColumnNames());
+        assertEquals("SELECT * FROM parent;", mapper.getSelectAllSql());
+        assertEquals("INSERT INTO parent (id, title, isCompleted) VALUES (?, ?, ?);", mapper.getInsertSql());
+        assertEquals("INSERT INTO parent (title, isCompleted) VALUES (?, ?);", mapper.getInsertWithoutIdSql());
+        assertEquals("UPDATE parent SET title=?, isCompleted=? WHERE id=? RETURNING *;", mapper.getUpdateSql());
+        assertEquals("DELETE FROM parent WHERE id=? RETURNING *;", mapper.getDeleteSql());
+        assertEquals(classLoader.loadClass("sample.Parent"), mapper.getModelClass());
+    }
+
+    @Test
+    void shouldReadValuesAndForeignKeys() throws ReflectiveOperationException {
+        EntityMapper<IModel> parentMapper = loadMapper("sample.Parent_Mapper");
+        EntityMapper<IModel> childMapper = loadMapper("sample.Child_Mapper");
+
+        IModel parent = parentMapper.newInstance();
+        parent.getClass().getField("id").setInt(parent, 3);
+        parent.getClass().getField("title").set(parent, "Title");
+
+        IModel child = childMapper.newInstance();
+        assertArrayEquals(new Object[] { 0, null }, childMapper.getValues(child));
+
+        child.getClass().getField("parent").set(child, parent);
+        assertEquals(List.of("id", "parent_id"), childMapper.getColumnNames());
+        assertArrayEquals(new Object[] { 0, 3 }, childMapper.getValues(child));
+        assertArrayEquals(new Object[] { 3, "Title", false }, parentMapper.getValues(parent));
+    }
+
+    @Test
+    void shouldMapResultSetByColumnIndex() throws Exception {
+        EntityMapper<IModel> mapper = loadMapper("sample.Parent_Mapper");
+
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE parent (id INTEGER PRIMARY KEY, title TEXT, isCompleted INTEGER)");
+            statement.execute("INSERT INTO parent (id, title, isCompleted) VALUES (5, 'Mapped', 1)");
+
+            try (ResultSet resultSet = statement.executeQuery("SELECT isCompleted, id FROM parent")) {
+                assertTrue(resultSet.next());
+
+                IModel model = mapper.newInstance();
+                mapper.map(resultSet, new int[] { 2, 0, 1 }, model);
+
+                assertEquals(5, model.getClass().getField("id").getInt(model));
+                assertNull(model.getClass().getField("title").get(model));
+                assertTrue(model.getClass().getField("isCompleted").getBoolean(model));
+            }
+        }
+    }
+
+    @Test
+    void shouldReadColumnsThroughTheirConverter() throws Exception {
+        EntityMapper<IModel> mapper = loadMapper("sample.Event_Mapper");
+
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE event (id INTEGER PRIMARY KEY, startsAt INTEGER, kind TEXT)");
+            statement.execute("INSERT INTO event (id, startsAt, kind) VALUES (5000000000, 1714559400123, 'CALL')");
+
+            try (ResultSet resultSet = statement.executeQuery("SELECT id, startsAt, kind FROM event")) {
+                assertTrue(resultSet.next());
+
+                IModel model = mapper.newInstance();
+                mapper.map(resultSet, new int[] { 1, 2, 3 }, model);
+
+                assertEquals(5_000_000_000L, model.getClass().getField("id").get(model));
+                assertEquals(Instant.ofEpochMilli(1714559400123L), model.getClass().getField("startsAt").get(model));
+                assertEquals("CALL", model.getClass().getField("kind").get(model).toString());
+            }
+        }
+    }
+
+    @Test
+    void shouldSkipEntitiesWithPrivateFields() {
+        assertThrows(ClassNotFoundException.class, () -> classLoader.loadClass("sample.Hidden_Mapper"));
+    }
+}